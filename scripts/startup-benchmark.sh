@@ -0,0 +1,77 @@
+#!/usr/bin/env bash
+#
+# Compares startup time and resident memory of the fat jar, the AOT + CDS build and, if present,
+# the native image. Build them first:
+#
+#   ./mvnw -Pcds -DskipTests package        # target/tasks-*.jar and target/cds/
+#   ./mvnw -Pnative -DskipTests native:compile   # optional, target/tasks (needs GraalVM)
+#
+# Usage: scripts/startup-benchmark.sh [runs]
+#
+# Each run starts the application against an in-memory H2 database, waits for
+# "Started TasksApplication", reads VmRSS from /proc and stops it. Medians are printed.
+# Set APP_ARGS to start against something else, e.g. APP_ARGS="--spring.datasource.url=jdbc:postgresql://..."
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+APP_ARGS=${APP_ARGS:---spring.datasource.url=jdbc:h2:mem:bench --spring.datasource.driver-class-name=org.h2.Driver}
+COMMON_ARGS="--server.port=0 $APP_ARGS"
+
+JAR=$(ls target/tasks-*.jar 2>/dev/null | grep -v -- '-plain' | head -n 1 || true)
+if [[ -z "$JAR" || ! -f target/cds/application.jsa ]]; then
+    echo "Build first: ./mvnw -Pcds -DskipTests package" >&2
+    exit 1
+fi
+CDS_JAR=target/cds/$(basename "$JAR")
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+}
+
+# measure <label> <command...>: prints "<label> <startup s> <process uptime s> <rss MB>" medians over RUNS
+measure() {
+    local label=$1
+    shift
+    local log startups=() uptimes=() rss=()
+    log=$(mktemp)
+    for ((i = 0; i < RUNS; i++)); do
+        "$@" $COMMON_ARGS >"$log" 2>&1 &
+        local pid=$!
+        local line=""
+        for ((waited = 0; waited < 1200; waited++)); do
+            line=$(grep -m 1 'Started TasksApplication in' "$log" || true)
+            [[ -n "$line" ]] && break
+            if ! kill -0 "$pid" 2>/dev/null; then
+                echo "$label exited before starting, see the log below" >&2
+                cat "$log" >&2
+                exit 1
+            fi
+            sleep 0.1
+        done
+        if [[ -z "$line" ]]; then
+            kill "$pid"
+            echo "$label did not start within 120s" >&2
+            exit 1
+        fi
+        # "Started TasksApplication in 2.345 seconds (process running for 2.789)"
+        startups+=("$(sed -E 's/.*Started TasksApplication in ([0-9.]+) seconds.*/\1/' <<<"$line")")
+        uptimes+=("$(sed -E 's/.*process running for ([0-9.]+)\).*/\1/' <<<"$line")")
+        rss+=("$(awk '/^VmRSS:/ { printf "%.0f", $2 / 1024 }' "/proc/$pid/status")")
+        kill "$pid"
+        wait "$pid" 2>/dev/null || true
+    done
+    rm -f "$log"
+    printf '%-10s %12s %12s %10s\n' "$label" \
+        "$(printf '%s\n' "${startups[@]}" | median)" \
+        "$(printf '%s\n' "${uptimes[@]}" | median)" \
+        "$(printf '%s\n' "${rss[@]}" | median)"
+}
+
+printf '%-10s %12s %12s %10s\n' mode "started (s)" "process (s)" "rss (MB)"
+measure fat-jar java -jar "$JAR"
+measure aot+cds java -XX:SharedArchiveFile=target/cds/application.jsa -Dspring.aot.enabled=true -jar "$CDS_JAR"
+if [[ -x target/tasks ]]; then
+    measure native target/tasks
+fi
@@ -0,0 +1,14 @@
+package com.danny.tasks.audit;
+
+/**
+ * What happened to a task list or task. Stored by ordinal in the audit log, so only append new constants.
+ */
+public enum AuditAction {
+    TASK_LIST_CREATED,
+    TASK_LIST_UPDATED,
+    TASK_LIST_DELETED,
+    TASK_CREATED,
+    TASK_UPDATED,
+    TASK_MOVED,
+    TASK_DELETED
+}
@@ -0,0 +1,54 @@
+package com.danny.tasks.audit;
+
+import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskList;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.tenancy.TenantContext;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One entry of the audit log: a task list or task as it was right after a change.
+ *
+ * Published by the service layer next to TaskListChangedEvent and written once the transaction has committed.
+ * Task events carry the full state of the task (title, description, due date, status, priority, position),
+ * so a task's history reads as a series of snapshots. Task list events only use title and description;
+ * delete events only carry the ids.
+ */
+public record AuditEvent(
+        Instant timestamp,
+        String tenantId,
+        AuditAction action,
+        UUID taskListId,
+        UUID taskId,
+        String title,
+        String description,
+        LocalDateTime dueDate,
+        TaskStatus status,
+        TaskPriority priority,
+        String sortRank
+) {
+
+    public static AuditEvent task(AuditAction action, UUID taskListId, Task task) {
+        return new AuditEvent(Instant.now(), TenantContext.current(), action, taskListId, task.getId(),
+                task.getTitle(), task.getDescription(), task.getDueDate(), task.getStatus(), task.getPriority(), task.getSortRank());
+    }
+
+    public static AuditEvent taskDeleted(UUID taskListId, UUID taskId) {
+        return new AuditEvent(Instant.now(), TenantContext.current(), AuditAction.TASK_DELETED, taskListId, taskId,
+                null, null, null, null, null, null);
+    }
+
+    public static AuditEvent taskList(AuditAction action, TaskList taskList) {
+        return new AuditEvent(Instant.now(), TenantContext.current(), action, taskList.getId(), null,
+                taskList.getTitle(), taskList.getDescription(), null, null, null, null);
+    }
+
+    public static AuditEvent taskListDeleted(UUID taskListId) {
+        return new AuditEvent(Instant.now(), TenantContext.current(), AuditAction.TASK_LIST_DELETED, taskListId, null,
+                null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,180 @@
+package com.danny.tasks.audit;
+
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Packs the sealed segments of an audit log into as few files as possible, optionally dropping the events
+ * older than a cutoff. The newest segment is left alone, so this can run while the application is writing.
+ *
+ * Consecutive segments are copied record by record (without decoding) into a temporary file of up to the
+ * segment size. The file gets a header covering all of them, is moved over the first one's name atomically,
+ * and then the others are deleted. If that is interrupted, readers already skip the covered segments and
+ * the next writer or compactor deletes them.
+ *
+ * Only one compactor may run on a directory at a time.
+ *
+ * From the command line, with the application jar:
+ *   java -cp tasks.jar -Dloader.main=com.danny.tasks.audit.AuditLogCompactor \
+ *       org.springframework.boot.loader.launch.PropertiesLauncher data/audit [--drop-before=2025-01-01T00:00:00Z] [--segment-size=64MB]
+ */
+public class AuditLogCompactor {
+
+    public record Result(int segmentsBefore, int segmentsAfter, long recordsDropped, long bytesBefore, long bytesAfter) {
+    }
+
+    private AuditLogCompactor() {
+    }
+
+    /**
+     * @param dropBefore events older than this are dropped, null to keep everything
+     */
+    public static Result compact(Path directory, Instant dropBefore, long segmentSize) throws IOException {
+        AuditSegments.cleanUp(directory);
+        List<AuditSegments.Segment> segments = AuditSegments.list(directory);
+        long bytesBefore = 0;
+        for (AuditSegments.Segment segment : segments) {
+            bytesBefore += Files.size(segment.path());
+        }
+        long cutoff = dropBefore == null ? Long.MIN_VALUE : AuditSegments.micros(dropBefore);
+
+        long dropped = 0;
+        Output output = null;
+        for (AuditSegments.Segment segment : segments.subList(0, Math.max(0, segments.size() - 1))) {
+            ByteBuffer input = AuditSegments.map(segment.path(), FileChannel.MapMode.READ_ONLY);
+            List<int[]> kept = new ArrayList<>();
+            long keptBytes = 0;
+            boolean droppedAny = false;
+            int offset = AuditSegments.SEGMENT_HEADER_BYTES;
+            int next;
+            while ((next = AuditSegments.next(input, offset, true)) > 0) {
+                if (AuditSegments.timestampMicros(input, offset) >= cutoff) {
+                    kept.add(new int[]{offset, next - offset});
+                    keptBytes += next - offset;
+                } else {
+                    dropped++;
+                    droppedAny = true;
+                }
+                offset = next;
+            }
+
+            if (output != null && output.size + keptBytes > segmentSize) {
+                output.finish();
+                output = null;
+            }
+            if (output == null) {
+                output = new Output(directory, segment.first());
+            }
+            output.add(segment, input, kept, droppedAny, keptBytes);
+        }
+        if (output != null) {
+            output.finish();
+        }
+
+        List<AuditSegments.Segment> after = AuditSegments.list(directory);
+        long bytesAfter = 0;
+        for (AuditSegments.Segment segment : after) {
+            bytesAfter += Files.size(segment.path());
+        }
+        return new Result(segments.size(), after.size(), dropped, bytesBefore, bytesAfter);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: AuditLogCompactor <directory> [--drop-before=<instant>] [--segment-size=<size>]");
+            System.exit(2);
+        }
+        Path directory = Path.of(args[0]);
+        Instant dropBefore = null;
+        long segmentSize = DataSize.ofMegabytes(64).toBytes();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith("--drop-before=")) {
+                dropBefore = Instant.parse(args[i].substring("--drop-before=".length()));
+            } else if (args[i].startsWith("--segment-size=")) {
+                segmentSize = DataSize.parse(args[i].substring("--segment-size=".length())).toBytes();
+            } else {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        Result result = compact(directory, dropBefore, segmentSize);
+        System.out.printf("Compacted %d segments (%d bytes) into %d (%d bytes), dropped %d events%n",
+                result.segmentsBefore(), result.bytesBefore(), result.segmentsAfter(), result.bytesAfter(), result.recordsDropped());
+    }
+
+    /**
+     * One compacted segment being written: the inputs it replaces and the temporary file holding their records.
+     */
+    private static final class Output {
+
+        private final Path directory;
+        private final long first;
+        private final Path temporary;
+        private final FileChannel channel;
+        private final List<AuditSegments.Segment> inputs = new ArrayList<>();
+        private long last;
+        private long size = AuditSegments.SEGMENT_HEADER_BYTES;
+        // Whether writing this output saves anything over keeping the inputs as they are
+        private boolean changed;
+
+        Output(Path directory, long first) throws IOException {
+            this.directory = directory;
+            this.first = first;
+            this.temporary = directory.resolve(AuditSegments.path(directory, first).getFileName() + AuditSegments.TEMPORARY_SUFFIX);
+            this.channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        }
+
+        void add(AuditSegments.Segment segment, ByteBuffer input, List<int[]> records, boolean dropped, long bytes) throws IOException {
+            channel.position(size);
+            for (int[] record : records) {
+                ByteBuffer slice = input.slice(record[0], record[1]);
+                while (slice.hasRemaining()) {
+                    channel.write(slice);
+                }
+            }
+            changed |= dropped || !inputs.isEmpty()
+                    || Files.size(segment.path()) != AuditSegments.SEGMENT_HEADER_BYTES + bytes;
+            inputs.add(segment);
+            last = segment.last();
+            size += bytes;
+        }
+
+        void finish() throws IOException {
+            if (!changed) {
+                channel.close();
+                Files.delete(temporary);
+                return;
+            }
+            if (size == AuditSegments.SEGMENT_HEADER_BYTES) {
+                // Nothing left of these segments
+                channel.close();
+                Files.delete(temporary);
+                for (AuditSegments.Segment input : inputs) {
+                    Files.deleteIfExists(input.path());
+                }
+                return;
+            }
+            ByteBuffer header = ByteBuffer.allocate(AuditSegments.SEGMENT_HEADER_BYTES);
+            AuditSegments.writeHeader(header, first, last);
+            channel.write(header, 0);
+            channel.force(true);
+            channel.close();
+            Path target = AuditSegments.path(directory, first);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            for (AuditSegments.Segment input : inputs) {
+                if (!input.path().equals(target)) {
+                    Files.deleteIfExists(input.path());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.danny.tasks.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Reads the audit log, oldest event first. Safe to use while {@link MappedAuditLog} appends and
+ * {@link AuditLogCompactor} compacts: segments are mapped read-only, and a scan that runs into a segment the
+ * compactor just replaced starts over.
+ *
+ * The filters compare the ids and tenant in the mapped segment; only matching records are checksummed and decoded.
+ * A history lookup first asks each sealed segment's {@link SegmentIdFilter} and only reads the segments that may
+ * hold the id, usually the few it was active in plus the newest. A sealed segment without a filter is read
+ * anyway and gets one written on the way.
+ */
+public class AuditLogReader {
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final Path directory;
+    // Filters of the sealed segments seen so far; the mappings live outside the heap
+    private final Map<AuditSegments.Segment, SegmentIdFilter> filters = new ConcurrentHashMap<>();
+    private final AtomicLong segmentsRead = new AtomicLong();
+
+    public AuditLogReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Everything that happened to the task, in the given tenant.
+     */
+    public List<AuditEvent> history(String tenantId, UUID taskId) {
+        byte[] tenant = AuditSegments.utf8(tenantId);
+        return scan(taskId, (segment, offset) -> AuditSegments.hasTaskId(segment, offset, taskId)
+                && AuditSegments.hasTenant(segment, offset, tenant));
+    }
+
+    /**
+     * Everything that happened to the task list and its tasks, in the given tenant.
+     */
+    public List<AuditEvent> taskListHistory(String tenantId, UUID taskListId) {
+        byte[] tenant = AuditSegments.utf8(tenantId);
+        return scan(taskListId, (segment, offset) -> AuditSegments.hasTaskListId(segment, offset, taskListId)
+                && AuditSegments.hasTenant(segment, offset, tenant));
+    }
+
+    /**
+     * Every event of every tenant.
+     */
+    public void forEach(Consumer<AuditEvent> consumer) {
+        scan(null, (segment, offset) -> true).forEach(consumer);
+    }
+
+    /**
+     * How many segments scans have read so far, as opposed to skipped thanks to their filter.
+     */
+    long segmentsRead() {
+        return segmentsRead.get();
+    }
+
+    private interface RecordFilter {
+        boolean matches(ByteBuffer segment, int offset);
+    }
+
+    /**
+     * @param id the task or task list id every matching record has, to skip segments by; null to read them all
+     */
+    private List<AuditEvent> scan(UUID id, RecordFilter filter) {
+        try {
+            for (int attempt = 1; ; attempt++) {
+                List<AuditEvent> events = tryScan(id, filter);
+                if (events != null) {
+                    return events;
+                }
+                if (attempt == MAX_ATTEMPTS) {
+                    throw new IllegalStateException("Audit log kept changing while it was read");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the audit log", e);
+        }
+    }
+
+    /**
+     * @return the matching events, or null if the compactor replaced segments during the scan
+     */
+    private List<AuditEvent> tryScan(UUID id, RecordFilter filter) throws IOException {
+        List<AuditEvent> events = new ArrayList<>();
+        List<AuditSegments.Segment> segments = AuditSegments.list(directory);
+        filters.keySet().retainAll(segments);
+        for (int i = 0; i < segments.size(); i++) {
+            AuditSegments.Segment listed = segments.get(i);
+            // Only the newest segment is still being written
+            boolean sealed = i < segments.size() - 1;
+            SegmentIdFilter idFilter = sealed ? filter(listed) : null;
+            if (id != null && idFilter != null && !idFilter.mightContain(id)) {
+                continue;
+            }
+            segmentsRead.incrementAndGet();
+            Set<UUID> ids = sealed && idFilter == null ? new HashSet<>() : null;
+            ByteBuffer segment;
+            try {
+                segment = AuditSegments.map(listed.path(), FileChannel.MapMode.READ_ONLY);
+            } catch (NoSuchFileException e) {
+                return null;
+            }
+            if (segment.getLong(8) != listed.first() || segment.getLong(16) != listed.last()) {
+                return null;
+            }
+            int offset = AuditSegments.SEGMENT_HEADER_BYTES;
+            int next;
+            while ((next = AuditSegments.next(segment, offset, false)) > 0) {
+                // Pairs with the writer's release fence before it fills in the length
+                VarHandle.acquireFence();
+                if (ids != null) {
+                    ids.add(AuditSegments.taskListId(segment, offset));
+                    UUID taskId = AuditSegments.taskId(segment, offset);
+                    if (taskId != null) {
+                        ids.add(taskId);
+                    }
+                }
+                if (filter.matches(segment, offset)) {
+                    if (!AuditSegments.valid(segment, offset)) {
+                        // The ids after this record weren't collected: no filter, or it would hide them
+                        ids = null;
+                        break;
+                    }
+                    events.add(AuditSegments.decode(segment, offset));
+                }
+                offset = next;
+            }
+            if (ids != null) {
+                writeFilter(listed, ids);
+            }
+        }
+        return events;
+    }
+
+    private SegmentIdFilter filter(AuditSegments.Segment segment) throws IOException {
+        SegmentIdFilter filter = filters.get(segment);
+        if (filter == null) {
+            filter = SegmentIdFilter.read(segment);
+            if (filter != null) {
+                filters.put(segment, filter);
+            }
+        }
+        return filter;
+    }
+
+    private void writeFilter(AuditSegments.Segment segment, Set<UUID> ids) {
+        try {
+            filters.put(segment, SegmentIdFilter.write(segment, ids));
+        } catch (IOException e) {
+            // Only an optimization: the segment is read in full until a later scan manages to write it
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.danny.tasks.audit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Settings for the audit log, bound from "tasks.audit.*".
+ *
+ * - enabled: record every change to task lists and tasks.
+ * - directory: where the segment files live. Must be on local disk and survive restarts.
+ * - segment-size: size of each memory-mapped segment file; a new one is started when it is full.
+ */
+@ConfigurationProperties(prefix = "tasks.audit")
+public record AuditProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data/audit") Path directory,
+        @DefaultValue("64MB") DataSize segmentSize
+) {
+}
@@ -0,0 +1,347 @@
+package com.danny.tasks.audit;
+
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * The on-disk layout of the audit log, shared by the writer, the reader and the compactor.
+ *
+ * The log is a directory of segment files named after their first sequence number ("00000000000000000001.audit").
+ * Each segment starts with a 32 byte header:
+ *   [int magic][int version][long first sequence][long last sequence][8 bytes reserved]
+ * A segment written by {@link MappedAuditLog} covers one sequence number (first == last). A segment written by
+ * {@link AuditLogCompactor} replaces a run of them and covers [first, last]; while the compactor is cleaning up,
+ * both can be on disk, and the ones covered by a compacted segment are ignored.
+ *
+ * Records follow the header, back to back:
+ *   [int payload length][int CRC32C of payload][payload]
+ * The rest of a segment is zeroes, so a length of 0 marks the end. The writer fills in the length last, which
+ * makes a record visible to readers in one step.
+ *
+ * The payload starts with fixed fields, so a reader can check them in place without decoding the record:
+ *   [long timestamp, micros since epoch][byte action][UUID task list id][UUID task id, zero for list events]
+ * followed by the tenant and the optional fields (see {@link #encode}).
+ */
+final class AuditSegments {
+
+    static final String SUFFIX = ".audit";
+    static final String TEMPORARY_SUFFIX = ".tmp";
+
+    static final int MAGIC = 0x54415544; // "TAUD"
+    static final int VERSION = 1;
+    static final int SEGMENT_HEADER_BYTES = 32;
+    static final int RECORD_HEADER_BYTES = 8;
+
+    static final int TIMESTAMP_OFFSET = 0;
+    static final int ACTION_OFFSET = 8;
+    static final int TASK_LIST_ID_OFFSET = 9;
+    static final int TASK_ID_OFFSET = 25;
+    private static final int FIXED_BYTES = 41;
+
+    // Bits of the flags byte after the fixed fields: which optional fields follow
+    private static final int HAS_TITLE = 1;
+    private static final int HAS_DESCRIPTION = 1 << 1;
+    private static final int HAS_DUE_DATE = 1 << 2;
+    private static final int HAS_STATUS = 1 << 3;
+    private static final int HAS_PRIORITY = 1 << 4;
+    private static final int HAS_SORT_RANK = 1 << 5;
+
+    private AuditSegments() {
+    }
+
+    record Segment(Path path, long first, long last) {
+    }
+
+    static Path path(Path directory, long sequence) {
+        return directory.resolve(String.format("%020d", sequence) + SUFFIX);
+    }
+
+    static void writeHeader(ByteBuffer buffer, long first, long last) {
+        buffer.putInt(0, MAGIC)
+                .putInt(4, VERSION)
+                .putLong(8, first)
+                .putLong(16, last)
+                .putLong(24, 0);
+    }
+
+    /**
+     * The segments in the directory, oldest first, leaving out those covered by a compacted segment.
+     */
+    static List<Segment> list(Path directory) throws IOException {
+        List<Segment> all = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return all;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                Segment segment = readHeader(file);
+                if (segment != null) {
+                    all.add(segment);
+                }
+            }
+        }
+        all.sort(Comparator.comparingLong(Segment::first).thenComparing(Comparator.comparingLong(Segment::last).reversed()));
+        List<Segment> live = new ArrayList<>(all.size());
+        long covered = 0;
+        for (Segment segment : all) {
+            if (segment.last() <= covered) {
+                continue;
+            }
+            live.add(segment);
+            covered = segment.last();
+        }
+        return live;
+    }
+
+    /**
+     * Deletes what an interrupted compaction left behind: temporary files and segments covered by a compacted one,
+     * and the {@link SegmentIdFilter}s of segments that are gone.
+     */
+    static void cleanUp(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX + TEMPORARY_SUFFIX)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SegmentIdFilter.SUFFIX + ".*" + TEMPORARY_SUFFIX)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+        List<Segment> segments = list(directory);
+        List<Path> live = segments.stream().map(Segment::path).toList();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                if (!live.contains(file) && readHeader(file) != null) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        List<Path> liveFilters = segments.stream().map(SegmentIdFilter::path).toList();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SegmentIdFilter.SUFFIX)) {
+            for (Path file : files) {
+                if (!liveFilters.contains(file)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Maps the whole file. The mapping stays valid after the channel is closed.
+     */
+    static MappedByteBuffer map(Path file, FileChannel.MapMode mode) throws IOException {
+        try (FileChannel channel = mode == FileChannel.MapMode.READ_ONLY
+                ? FileChannel.open(file, StandardOpenOption.READ)
+                : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(mode, 0, channel.size());
+        }
+    }
+
+    /**
+     * @return the offset of the record after the one at the given offset, or -1 if there is no complete,
+     *         valid record there (the end of the segment, or a record torn by a crash)
+     */
+    static int next(ByteBuffer segment, int offset, boolean verify) {
+        if (offset + RECORD_HEADER_BYTES > segment.limit()) {
+            return -1;
+        }
+        int length = segment.getInt(offset);
+        if (length < FIXED_BYTES || length > segment.limit() - offset - RECORD_HEADER_BYTES) {
+            return -1;
+        }
+        if (verify && !valid(segment, offset)) {
+            return -1;
+        }
+        return offset + RECORD_HEADER_BYTES + length;
+    }
+
+    static boolean valid(ByteBuffer segment, int offset) {
+        int length = segment.getInt(offset);
+        CRC32C crc = new CRC32C();
+        crc.update(segment.slice(offset + RECORD_HEADER_BYTES, length));
+        return (int) crc.getValue() == segment.getInt(offset + 4);
+    }
+
+    static long timestampMicros(ByteBuffer segment, int offset) {
+        return segment.getLong(offset + RECORD_HEADER_BYTES + TIMESTAMP_OFFSET);
+    }
+
+    static boolean hasTaskId(ByteBuffer segment, int offset, UUID taskId) {
+        int payload = offset + RECORD_HEADER_BYTES;
+        return segment.getLong(payload + TASK_ID_OFFSET) == taskId.getMostSignificantBits()
+                && segment.getLong(payload + TASK_ID_OFFSET + 8) == taskId.getLeastSignificantBits();
+    }
+
+    static boolean hasTaskListId(ByteBuffer segment, int offset, UUID taskListId) {
+        int payload = offset + RECORD_HEADER_BYTES;
+        return segment.getLong(payload + TASK_LIST_ID_OFFSET) == taskListId.getMostSignificantBits()
+                && segment.getLong(payload + TASK_LIST_ID_OFFSET + 8) == taskListId.getLeastSignificantBits();
+    }
+
+    static UUID taskListId(ByteBuffer segment, int offset) {
+        int payload = offset + RECORD_HEADER_BYTES + TASK_LIST_ID_OFFSET;
+        return new UUID(segment.getLong(payload), segment.getLong(payload + 8));
+    }
+
+    /**
+     * @return null for task list events
+     */
+    static UUID taskId(ByteBuffer segment, int offset) {
+        int payload = offset + RECORD_HEADER_BYTES + TASK_ID_OFFSET;
+        long msb = segment.getLong(payload);
+        long lsb = segment.getLong(payload + 8);
+        return msb == 0 && lsb == 0 ? null : new UUID(msb, lsb);
+    }
+
+    static long micros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    /**
+     * Encodes the payload of a record.
+     */
+    static byte[] encode(AuditEvent event) {
+        byte[] tenant = utf8(event.tenantId());
+        byte[] title = utf8(event.title());
+        byte[] description = utf8(event.description());
+        byte[] sortRank = utf8(event.sortRank());
+        int flags = (title != null ? HAS_TITLE : 0)
+                | (description != null ? HAS_DESCRIPTION : 0)
+                | (event.dueDate() != null ? HAS_DUE_DATE : 0)
+                | (event.status() != null ? HAS_STATUS : 0)
+                | (event.priority() != null ? HAS_PRIORITY : 0)
+                | (sortRank != null ? HAS_SORT_RANK : 0);
+        int size = FIXED_BYTES + 1
+                + 2 + tenant.length
+                + (title != null ? 4 + title.length : 0)
+                + (description != null ? 4 + description.length : 0)
+                + (event.dueDate() != null ? 12 : 0)
+                + (event.status() != null ? 1 : 0)
+                + (event.priority() != null ? 1 : 0)
+                + (sortRank != null ? 2 + sortRank.length : 0);
+
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putLong(micros(event.timestamp()));
+        out.put((byte) event.action().ordinal());
+        putUuid(out, event.taskListId());
+        putUuid(out, event.taskId());
+        out.put((byte) flags);
+        out.putShort((short) tenant.length).put(tenant);
+        if (title != null) {
+            out.putInt(title.length).put(title);
+        }
+        if (description != null) {
+            out.putInt(description.length).put(description);
+        }
+        if (event.dueDate() != null) {
+            out.putLong(event.dueDate().toEpochSecond(ZoneOffset.UTC)).putInt(event.dueDate().getNano());
+        }
+        if (event.status() != null) {
+            out.put((byte) event.status().ordinal());
+        }
+        if (event.priority() != null) {
+            out.put((byte) event.priority().ordinal());
+        }
+        if (sortRank != null) {
+            out.putShort((short) sortRank.length).put(sortRank);
+        }
+        return out.array();
+    }
+
+    /**
+     * Decodes the record at the given offset of a segment.
+     */
+    static AuditEvent decode(ByteBuffer segment, int offset) {
+        int length = segment.getInt(offset);
+        ByteBuffer in = segment.slice(offset + RECORD_HEADER_BYTES, length);
+        long micros = in.getLong();
+        Instant timestamp = Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+        AuditAction action = AuditAction.values()[in.get()];
+        UUID taskListId = getUuid(in);
+        UUID taskId = getUuid(in);
+        int flags = in.get();
+        String tenant = string(in, in.getShort());
+        String title = (flags & HAS_TITLE) != 0 ? string(in, in.getInt()) : null;
+        String description = (flags & HAS_DESCRIPTION) != 0 ? string(in, in.getInt()) : null;
+        LocalDateTime dueDate = (flags & HAS_DUE_DATE) != 0
+                ? LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC)
+                : null;
+        TaskStatus status = (flags & HAS_STATUS) != 0 ? TaskStatus.values()[in.get()] : null;
+        TaskPriority priority = (flags & HAS_PRIORITY) != 0 ? TaskPriority.values()[in.get()] : null;
+        String sortRank = (flags & HAS_SORT_RANK) != 0 ? string(in, in.getShort()) : null;
+        return new AuditEvent(timestamp, tenant, action, taskListId, taskId,
+                title, description, dueDate, status, priority, sortRank);
+    }
+
+    /**
+     * Whether the record at the given offset belongs to the tenant, checked without decoding the rest.
+     */
+    static boolean hasTenant(ByteBuffer segment, int offset, byte[] tenant) {
+        int position = offset + RECORD_HEADER_BYTES + FIXED_BYTES + 1;
+        if (segment.getShort(position) != tenant.length) {
+            return false;
+        }
+        return segment.slice(position + 2, tenant.length).equals(ByteBuffer.wrap(tenant));
+    }
+
+    static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Segment readHeader(Path file) throws IOException {
+        if (Files.size(file) < SEGMENT_HEADER_BYTES) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES);
+        try (FileChannel channel = FileChannel.open(file)) {
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // keep reading
+            }
+        }
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            return null;
+        }
+        return new Segment(file, header.getLong(8), header.getLong(16));
+    }
+
+    // Zero for "no id", so list events have an all-zero task id
+    private static void putUuid(ByteBuffer out, UUID uuid) {
+        out.putLong(uuid == null ? 0 : uuid.getMostSignificantBits());
+        out.putLong(uuid == null ? 0 : uuid.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer in) {
+        long msb = in.getLong();
+        long lsb = in.getLong();
+        return msb == 0 && lsb == 0 ? null : new UUID(msb, lsb);
+    }
+
+    private static String string(ByteBuffer in, int length) {
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
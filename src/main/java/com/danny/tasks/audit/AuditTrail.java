@@ -0,0 +1,58 @@
+package com.danny.tasks.audit;
+
+import com.danny.tasks.tenancy.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Records every {@link AuditEvent} in the {@link MappedAuditLog} once its transaction has committed, so rolled
+ * back changes never show up, and reads the history back for the current tenant.
+ *
+ * Rank rebalancing (TaskRankRebalancer) only renumbers positions and is not recorded.
+ */
+@Component
+@ConditionalOnProperty(name = "tasks.audit.enabled", havingValue = "true")
+@EnableConfigurationProperties(AuditProperties.class)
+public class AuditTrail implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditTrail.class);
+
+    private final MappedAuditLog auditLog;
+    private final AuditLogReader reader;
+
+    public AuditTrail(AuditProperties properties) throws IOException {
+        this.auditLog = new MappedAuditLog(properties.directory(), properties.segmentSize().toBytes());
+        this.reader = new AuditLogReader(properties.directory());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void record(AuditEvent event) {
+        try {
+            auditLog.append(event);
+        } catch (RuntimeException e) {
+            // The change itself is committed already; don't fail the request over its audit entry
+            log.error("Could not record {} of task list {} task {}", event.action(), event.taskListId(), event.taskId(), e);
+        }
+    }
+
+    public List<AuditEvent> taskHistory(UUID taskId) {
+        return reader.history(TenantContext.current(), taskId);
+    }
+
+    public List<AuditEvent> taskListHistory(UUID taskListId) {
+        return reader.taskListHistory(TenantContext.current(), taskListId);
+    }
+
+    @Override
+    public void close() {
+        auditLog.close();
+    }
+}
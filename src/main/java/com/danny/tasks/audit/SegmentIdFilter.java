@@ -0,0 +1,121 @@
+package com.danny.tasks.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bloom filter over the task ids and task list ids of one sealed audit segment, so a history lookup can skip
+ * segments that don't mention the id without reading them.
+ *
+ * Stored next to the segment as "<first>-<last>.bloom" (sequence numbers as in the segment's header, so a
+ * compacted segment never picks up the filter of a segment it replaced):
+ *   [int magic][int hash count][long bits...]
+ * About 10 bits per id and 7 hashes: roughly 1 in 100 segments without the id is read anyway.
+ *
+ * Filters are written by {@link AuditLogReader} the first time it reads a sealed segment, and removed with
+ * their segment by {@link AuditSegments#cleanUp}. Sealed segments don't change, so a filter never goes stale.
+ */
+final class SegmentIdFilter {
+
+    static final String SUFFIX = ".bloom";
+
+    private static final int MAGIC = 0x54414246; // "TABF"
+    private static final int HEADER_BYTES = 8;
+    private static final int BITS_PER_ID = 10;
+    private static final int HASHES = 7;
+
+    private final ByteBuffer buffer;
+    private final long bitCount;
+    private final int hashes;
+
+    private SegmentIdFilter(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.bitCount = (long) (buffer.limit() - HEADER_BYTES) * 8;
+        this.hashes = buffer.getInt(4);
+    }
+
+    static Path path(AuditSegments.Segment segment) {
+        return segment.path().resolveSibling(String.format("%020d-%020d", segment.first(), segment.last()) + SUFFIX);
+    }
+
+    /**
+     * Builds the filter for a segment and writes it to disk (atomically, so readers never see half of one).
+     */
+    static SegmentIdFilter write(AuditSegments.Segment segment, Set<UUID> ids) throws IOException {
+        int words = (int) Math.max(1, ((long) ids.size() * BITS_PER_ID + 63) / 64);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + words * 8).putInt(0, MAGIC).putInt(4, HASHES);
+        SegmentIdFilter filter = new SegmentIdFilter(buffer);
+        ids.forEach(filter::add);
+
+        Path target = path(segment);
+        Path temporary = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + AuditSegments.TEMPORARY_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            ByteBuffer out = buffer.duplicate().clear();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return filter;
+    }
+
+    /**
+     * @return the segment's filter, or null if it has none (yet)
+     */
+    static SegmentIdFilter read(AuditSegments.Segment segment) throws IOException {
+        ByteBuffer buffer;
+        try {
+            buffer = AuditSegments.map(path(segment), FileChannel.MapMode.READ_ONLY);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (buffer.limit() <= HEADER_BYTES || buffer.getInt(0) != MAGIC || (buffer.limit() - HEADER_BYTES) % 8 != 0) {
+            return null;
+        }
+        return new SegmentIdFilter(buffer);
+    }
+
+    /**
+     * False if the segment certainly has no record with this task id or task list id.
+     */
+    boolean mightContain(UUID id) {
+        long h1 = mix(id.getMostSignificantBits() ^ id.getLeastSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits()) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = HEADER_BYTES + (int) (bit >>> 6) * 8;
+            if ((buffer.getLong(word) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(UUID id) {
+        long h1 = mix(id.getMostSignificantBits() ^ id.getLeastSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits()) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = HEADER_BYTES + (int) (bit >>> 6) * 8;
+            buffer.putLong(word, buffer.getLong(word) | (1L << bit));
+        }
+    }
+
+    // MurmurHash3's 64-bit finalizer
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb93e80b29f53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,131 @@
+package com.danny.tasks.cache;
+
+import com.danny.tasks.events.TaskListChangedEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the already-serialized JSON (and a gzip-compressed copy) of recently read task lists,
+ * so hot lists are served without touching JPA or Jackson.
+ *
+ * Versioning:
+ * - Every task list id maps to a version counter (one of a fixed set of "stripes", so memory stays bounded).
+ * - A write to a list bumps its version once the transaction commits (see {@link TaskListChangedEvent}).
+ * - Entries remember the version they were built from and are only served while it is still current.
+ *
+ * This also covers the race where a request reads the list just before a write commits:
+ * it stores its (now stale) bytes under the old version, which is never served.
+ *
+ * Entries also remember the tenant they were loaded for and are only served to that tenant,
+ * so a guessed task list id never returns another tenant's list from the cache.
+ */
+@Component
+@EnableConfigurationProperties(TaskListResponseCacheProperties.class)
+public class TaskListResponseCache {
+
+    private static final int VERSION_STRIPES = 1024;
+
+    private final TaskListResponseCacheProperties properties;
+    private final Map<UUID, CachedResponse> entries = new ConcurrentHashMap<>();
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public TaskListResponseCache(TaskListResponseCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * A serialized response. gzip is null when the body is too small to be worth compressing.
+     */
+    public record CachedResponse(String tenantId, long version, byte[] json, byte[] gzip) {
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    /**
+     * Returns the current version of a task list. Read it before loading the list,
+     * and pass it to {@link #put} afterwards.
+     */
+    public long version(UUID taskListId) {
+        return versions.get(stripe(taskListId));
+    }
+
+    public Optional<CachedResponse> get(String tenantId, UUID taskListId) {
+        CachedResponse cached = entries.get(taskListId);
+        if (cached == null || cached.version() != version(taskListId) || !cached.tenantId().equals(tenantId)) {
+            return Optional.empty();
+        }
+        return Optional.of(cached);
+    }
+
+    /**
+     * Stores the serialized list, unless it was changed while it was being loaded.
+     */
+    public CachedResponse put(String tenantId, UUID taskListId, long version, byte[] json) {
+        byte[] gzip = json.length >= properties.compressMinSize().toBytes() ? gzip(json) : null;
+        CachedResponse response = new CachedResponse(tenantId, version, json, gzip);
+
+        if (version == version(taskListId)) {
+            if (entries.size() >= properties.maxEntries() && !entries.containsKey(taskListId)) {
+                evictOne();
+            }
+            entries.put(taskListId, response);
+        }
+        return response;
+    }
+
+    public void invalidate(UUID taskListId) {
+        versions.incrementAndGet(stripe(taskListId));
+        entries.remove(taskListId);
+    }
+
+    /**
+     * Drops every entry, e.g. after invalidation messages may have been missed.
+     */
+    public void invalidateAll() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        entries.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskListChanged(TaskListChangedEvent event) {
+        invalidate(event.taskListId());
+    }
+
+    private void evictOne() {
+        Iterator<UUID> iterator = entries.keySet().iterator();
+        if (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static int stripe(UUID taskListId) {
+        return (taskListId.hashCode() & Integer.MAX_VALUE) % VERSION_STRIPES;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,20 @@
+package com.danny.tasks.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings for the GET /task-lists/{id} response cache, bound from "tasks.cache.task-list-responses.*".
+ *
+ * - enabled: turns the cache off entirely (every request is serialized again).
+ * - maxEntries: how many task lists are kept at most.
+ * - compressMinSize: responses at least this big are also stored gzip-compressed.
+ */
+@ConfigurationProperties(prefix = "tasks.cache.task-list-responses")
+public record TaskListResponseCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1000") int maxEntries,
+        @DefaultValue("2KB") DataSize compressMinSize
+) {
+}
@@ -0,0 +1,27 @@
+package com.danny.tasks.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Adds CBOR (application/cbor) as a binary alternative to JSON for service-to-service callers.
+ *
+ * Clients pick the format with the usual headers:
+ * - "Accept: application/cbor" for responses
+ * - "Content-Type: application/cbor" for request bodies
+ *
+ * The converter's ObjectMapper comes from Spring Boot's builder, so it has the same modules and
+ * settings as the JSON one, including the hand-written TaskDto/TaskListDto serializers.
+ * The payload therefore has exactly the same fields as the JSON representation.
+ */
+@Configuration
+public class CborConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
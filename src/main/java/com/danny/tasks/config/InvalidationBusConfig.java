@@ -0,0 +1,41 @@
+package com.danny.tasks.config;
+
+import com.danny.tasks.cache.TaskListResponseCache;
+import com.danny.tasks.invalidation.InMemoryInvalidationBus;
+import com.danny.tasks.invalidation.PostgresInvalidationBus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Picks the cache invalidation bus with "tasks.invalidation.bus":
+ *
+ * - in-memory (default): only reaches application contexts in the same JVM.
+ * - postgres: LISTEN/NOTIFY on the primary database, for several instances behind a load balancer.
+ */
+@Configuration
+public class InvalidationBusConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "tasks.invalidation.bus", havingValue = "in-memory", matchIfMissing = true)
+    public InMemoryInvalidationBus inMemoryInvalidationBus() {
+        return new InMemoryInvalidationBus();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tasks.invalidation.bus", havingValue = "postgres")
+    public PostgresInvalidationBus postgresInvalidationBus(JdbcTemplate jdbcTemplate,
+                                                           DataSourceProperties dataSourceProperties,
+                                                           TaskListResponseCache responseCache) {
+        // Notifies through the writing transaction; listens on the primary (spring.datasource),
+        // whether or not a read replica is configured
+        return new PostgresInvalidationBus(
+                jdbcTemplate,
+                dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword(),
+                responseCache::invalidateAll);
+    }
+}
@@ -0,0 +1,77 @@
+package com.danny.tasks.config;
+
+import com.danny.tasks.datasource.ReadYourWritesFilter;
+import com.danny.tasks.datasource.ReplicaDataSourceProperties;
+import com.danny.tasks.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.Optional;
+
+/**
+ * Primary/replica DataSource setup.
+ *
+ * Only active when "tasks.datasource.replica.url" is set; otherwise Spring Boot creates its usual
+ * single DataSource from spring.datasource.* and nothing changes.
+ *
+ * When active:
+ * - spring.datasource.* describes the primary (all writes, Flyway migrations).
+ * - tasks.datasource.replica.* describes the replica (read-only transactions).
+ * - spring.datasource.hikari.* (pool size, timeouts, ...) applies to both pools, as it would to Boot's own.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "tasks.datasource.replica", name = "url")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties primaryProperties) {
+        HikariDataSource primary = primaryProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    /**
+     * Credentials and driver fall back to the primary's when the replica doesn't set its own.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties primaryProperties,
+                                              ReplicaDataSourceProperties replicaProperties) {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("replica");
+        replica.setJdbcUrl(replicaProperties.url());
+        replica.setUsername(Optional.ofNullable(replicaProperties.username())
+                .orElseGet(primaryProperties::determineUsername));
+        replica.setPassword(Optional.ofNullable(replicaProperties.password())
+                .orElseGet(primaryProperties::determinePassword));
+        replica.setDriverClassName(Optional.ofNullable(replicaProperties.driverClassName())
+                .orElseGet(primaryProperties::determineDriverClassName));
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    /**
+     * The DataSource used by JPA and Flyway: routes by the transaction's read-only flag.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource) {
+        return ReplicaRoutingDataSource.create(primaryDataSource, replicaDataSource);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReplicaDataSourceProperties replicaProperties) {
+        return new ReadYourWritesFilter(replicaProperties.readYourWritesWindow());
+    }
+}
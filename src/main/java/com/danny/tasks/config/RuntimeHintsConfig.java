@@ -0,0 +1,64 @@
+package com.danny.tasks.config;
+
+import com.danny.tasks.audit.AuditEvent;
+import com.danny.tasks.domain.dto.AddBlockerRequest;
+import com.danny.tasks.domain.dto.ErrorResponse;
+import com.danny.tasks.domain.dto.MoveSubtreeRequest;
+import com.danny.tasks.domain.dto.MoveTaskRequest;
+import com.danny.tasks.domain.dto.TaskDependenciesDto;
+import com.danny.tasks.domain.dto.TaskDto;
+import com.danny.tasks.domain.dto.TaskListDto;
+import com.danny.tasks.domain.dto.TaskListStatsDto;
+import com.danny.tasks.domain.dto.TaskPlanDto;
+import com.danny.tasks.domain.dto.TaskProgressDto;
+import com.danny.tasks.domain.dto.TaskRecurrenceDto;
+import com.danny.tasks.domain.dto.TaskSubtreeDto;
+import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskClosure;
+import com.danny.tasks.domain.entities.TaskDependency;
+import com.danny.tasks.domain.entities.TaskList;
+import com.danny.tasks.domain.entities.TaskListDailyStats;
+import com.danny.tasks.domain.entities.TaskListStats;
+import com.danny.tasks.domain.entities.TaskRecurrence;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection and resource hints for the AOT-processed builds (the "cds" and "native" Maven profiles).
+ *
+ * Spring's AOT processing finds most of what it needs by itself. These are the parts it can't see:
+ * - The entities are read and written through their fields by Hibernate.
+ * - The DTO records are (de)serialized by Jackson, partly outside of controller signatures (e.g. the response cache).
+ * - Flyway scans the vendor-specific migration folders, which Spring Boot's own hints don't cover.
+ */
+@Configuration
+@ImportRuntimeHints(RuntimeHintsConfig.TaskRuntimeHints.class)
+public class RuntimeHintsConfig {
+
+    static class TaskRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (Class<?> entity : new Class<?>[] {
+                    Task.class, TaskList.class, TaskListStats.class, TaskListDailyStats.class, TaskListDailyStats.Key.class,
+                    TaskRecurrence.class, TaskClosure.class, TaskClosure.Key.class,
+                    TaskDependency.class, TaskDependency.Key.class}) {
+                hints.reflection().registerType(entity,
+                        MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                    TaskDto.class, TaskListDto.class, TaskListStatsDto.class, MoveTaskRequest.class, ErrorResponse.class,
+                    AuditEvent.class, TaskRecurrenceDto.class, TaskSubtreeDto.class, TaskProgressDto.class, MoveSubtreeRequest.class,
+                    TaskDependenciesDto.class, TaskPlanDto.class, AddBlockerRequest.class);
+
+            hints.resources().registerPattern("db/migration/*/*.sql");
+        }
+    }
+}
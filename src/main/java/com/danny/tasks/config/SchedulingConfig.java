@@ -0,0 +1,12 @@
+package com.danny.tasks.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on @Scheduled background jobs (e.g. TaskRankRebalancer).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
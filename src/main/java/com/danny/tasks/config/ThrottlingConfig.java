@@ -0,0 +1,48 @@
+package com.danny.tasks.config;
+
+import com.danny.tasks.throttling.AdaptiveConcurrencyLimiter;
+import com.danny.tasks.throttling.ClientRateLimiter;
+import com.danny.tasks.throttling.ThrottlingInterceptor;
+import com.danny.tasks.throttling.ThrottlingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the ThrottlingInterceptor on the task API endpoints.
+ */
+@Configuration
+@EnableConfigurationProperties(ThrottlingProperties.class)
+public class ThrottlingConfig implements WebMvcConfigurer {
+
+    private final ThrottlingInterceptor interceptor;
+
+    public ThrottlingConfig(ThrottlingProperties properties, MeterRegistry meterRegistry, Environment environment) {
+        ThrottlingProperties.RateLimit rateLimit = properties.rateLimit();
+        ThrottlingProperties.Concurrency concurrency = properties.concurrency();
+
+        ClientRateLimiter rateLimiter = rateLimit.enabled()
+                ? new ClientRateLimiter(rateLimit.permitsPerSecond(), rateLimit.burst(), rateLimit.maxClients())
+                : null;
+
+        AdaptiveConcurrencyLimiter concurrencyLimiter = null;
+        if (concurrency.enabled()) {
+            // Default to the connection pool size, so excess requests are shed instead of queueing for a connection
+            int maxLimit = concurrency.maxLimit() != null
+                    ? concurrency.maxLimit()
+                    : environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+            concurrencyLimiter = new AdaptiveConcurrencyLimiter(
+                    Math.min(concurrency.minLimit(), maxLimit), maxLimit, concurrency.targetLatency());
+        }
+
+        this.interceptor = new ThrottlingInterceptor(rateLimiter, concurrencyLimiter, rateLimit.apiKeys(), meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor).addPathPatterns("/task-list/**", "/task-lists", "/task-lists/**");
+    }
+}
@@ -1,8 +1,12 @@
 package com.danny.tasks.controllers;
 
+import com.danny.tasks.exceptions.RateLimitExceededException;
 import com.danny.tasks.exceptions.ResourceNotFoundException;
+import com.danny.tasks.exceptions.ServiceOverloadedException;
+import com.danny.tasks.exceptions.TaskBlockedException;
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import com.danny.tasks.domain.dto.ErrorResponse;
@@ -11,6 +15,7 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.stream.Collectors;
 
@@ -68,6 +73,53 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Closing a task whose blockers are still open: the request is fine, the task's state doesn't allow it yet.
+     */
+    @ExceptionHandler(TaskBlockedException.class)
+    public ResponseEntity<ErrorResponse> handleBlocked(
+            TaskBlockedException ex, WebRequest request) {
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                ex.getMessage(),
+                request.getDescription(false)
+        );
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Throttling rejections (see ThrottlingInterceptor).
+     *
+     * - RateLimitExceededException -> 429 Too Many Requests
+     * - ServiceOverloadedException -> 503 Service Unavailable
+     *
+     * Both carry a Retry-After header (in whole seconds, rounded up) telling the client when to try again.
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimited(
+            RateLimitExceededException ex, WebRequest request) {
+        return throttled(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(), ex.getRetryAfter(), request);
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleOverloaded(
+            ServiceOverloadedException ex, WebRequest request) {
+        return throttled(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), ex.getRetryAfter(), request);
+    }
+
+    private ResponseEntity<ErrorResponse> throttled(
+            HttpStatus status, String message, Duration retryAfter, WebRequest request) {
+        ErrorResponse error = new ErrorResponse(
+                status.value(),
+                message,
+                request.getDescription(false)
+        );
+        long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(seconds))
+                .body(error);
+    }
+
     /**
      * Global Exception Handler for Enum Parsing Errors in JSON requests.
      *
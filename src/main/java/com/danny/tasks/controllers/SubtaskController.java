@@ -0,0 +1,81 @@
+package com.danny.tasks.controllers;
+
+import com.danny.tasks.domain.dto.MoveSubtreeRequest;
+import com.danny.tasks.domain.dto.TaskDto;
+import com.danny.tasks.domain.dto.TaskProgressDto;
+import com.danny.tasks.domain.dto.TaskSubtreeDto;
+import com.danny.tasks.exceptions.ResourceNotFoundException;
+import com.danny.tasks.mappers.TaskMapper;
+import com.danny.tasks.services.SubtaskService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * Subtasks of a task. They are ordinary tasks of the same list and also show up under /task-list/{task_list_id}/tasks.
+ */
+@RestController
+@RequestMapping(path="/task-list/{task_list_id}/tasks/{task_id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+public class SubtaskController {
+    // Absent with the memory storage engine, which doesn't support subtasks
+    private final SubtaskService subtaskService;
+    private final TaskMapper taskMapper;
+
+    public SubtaskController(ObjectProvider<SubtaskService> subtaskService, TaskMapper taskMapper) {
+        this.subtaskService = subtaskService.getIfAvailable();
+        this.taskMapper = taskMapper;
+    }
+
+    @PostMapping(path="/subtasks")
+    public TaskDto newSubtask(
+            @PathVariable("task_list_id") UUID taskListId,
+            @PathVariable("task_id") UUID taskId,
+            @RequestBody TaskDto taskDto
+    ){
+        return taskMapper.toDto(subtaskService().createSubtask(taskListId, taskId, taskMapper.fromDto(taskDto)));
+    }
+
+    /**
+     * All subtasks, however deep, depth first, with the share of them that is closed.
+     */
+    @GetMapping(path="/subtasks")
+    public TaskSubtreeDto getSubtasks(
+            @PathVariable("task_list_id") UUID taskListId,
+            @PathVariable("task_id") UUID taskId
+    ){
+        return subtaskService().getSubtree(taskListId, taskId);
+    }
+
+    /**
+     * Only the counts of getSubtasks, computed by the database.
+     */
+    @GetMapping(path="/progress")
+    public TaskProgressDto getProgress(
+            @PathVariable("task_list_id") UUID taskListId,
+            @PathVariable("task_id") UUID taskId
+    ){
+        return subtaskService().getProgress(taskListId, taskId);
+    }
+
+    /**
+     * Moves the task and its subtasks under another task of the list, e.g. {"parentId": "..."},
+     * or to the top level with {"parentId": null}.
+     */
+    @PutMapping(path="/parent")
+    public TaskDto moveSubtree(
+            @PathVariable("task_list_id") UUID taskListId,
+            @PathVariable("task_id") UUID taskId,
+            @RequestBody MoveSubtreeRequest request
+    ){
+        return taskMapper.toDto(subtaskService().moveSubtree(taskListId, taskId, request.parentId()));
+    }
+
+    private SubtaskService subtaskService() {
+        if (subtaskService == null) {
+            throw new ResourceNotFoundException("Subtasks need the jpa storage engine");
+        }
+        return subtaskService;
+    }
+}
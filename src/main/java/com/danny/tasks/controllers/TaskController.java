@@ -1,9 +1,20 @@
 package com.danny.tasks.controllers;
 
+import com.danny.tasks.audit.AuditEvent;
+import com.danny.tasks.audit.AuditTrail;
+import com.danny.tasks.domain.dto.MoveTaskRequest;
 import com.danny.tasks.domain.dto.TaskDto;
 import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.exceptions.ResourceNotFoundException;
 import com.danny.tasks.mappers.TaskMapper;
+import com.danny.tasks.services.TaskDependencyService;
 import com.danny.tasks.services.TaskService;
+import com.danny.tasks.writebehind.TaskUpdate;
+import com.danny.tasks.writebehind.WriteBehindQueue;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -11,22 +22,32 @@ import java.util.Optional;
 import java.util.UUID;
 
 @RestController
-@RequestMapping(path="/task-list/{task_list_id}/tasks")
+@RequestMapping(path="/task-list/{task_list_id}/tasks", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
 public class TaskController {
     private final TaskService taskService;
     private final TaskMapper taskMapper;
+    // Absent with the memory storage engine, which has nothing to write behind
+    private final WriteBehindQueue writeBehindQueue;
+    // Absent unless tasks.audit.enabled is set
+    private final AuditTrail auditTrail;
+    // Absent with the memory storage engine, which doesn't support dependencies
+    private final TaskDependencyService dependencyService;
 
-    public TaskController(TaskService taskService, TaskMapper taskMapper) {
+    public TaskController(TaskService taskService, TaskMapper taskMapper, ObjectProvider<WriteBehindQueue> writeBehindQueue,
+                          ObjectProvider<AuditTrail> auditTrail, ObjectProvider<TaskDependencyService> dependencyService) {
         this.taskService = taskService;
         this.taskMapper = taskMapper;
+        this.writeBehindQueue = writeBehindQueue.getIfAvailable();
+        this.auditTrail = auditTrail.getIfAvailable();
+        this.dependencyService = dependencyService.getIfAvailable();
     }
 
     @GetMapping
-    public List<TaskDto> getTasks(@PathVariable("task_list_id")UUID taskListId){
-        return taskService.listTask(taskListId)
-                .stream()
-                .map(taskMapper::toDto)
-                .toList();
+    public List<TaskDto> getTasks(
+            @PathVariable("task_list_id")UUID taskListId,
+            @RequestParam(name = "status", required = false) TaskStatus status
+    ){
+        return taskService.listTaskDto(taskListId, status);
     }
 
     @PostMapping
@@ -44,20 +65,69 @@ public class TaskController {
             @PathVariable("task_list_id")UUID taskListId,
             @PathVariable("task_id") UUID taskId
             ){
-        return taskService.getTask(taskListId, taskId).map(taskMapper::toDto);
+        return taskService.getTaskDto(taskListId, taskId);
     }
 
+    /**
+     * In write-behind mode the update is only queued (and logged to disk): 202 Accepted, no body.
+     * Closing a task is still refused right away (409) while it has open blockers; if one is added before the
+     * flush, the close is dead-lettered instead of written.
+     * Otherwise it is applied right away and the updated task is returned.
+     */
     @PutMapping(path="/{task_id}")
-    public TaskDto updateTask(
+    public ResponseEntity<TaskDto> updateTask(
             @PathVariable("task_list_id")UUID taskListId,
             @PathVariable("task_id") UUID taskId,
             @RequestBody TaskDto taskDto
     ){
+        if (writeBehindQueue != null && writeBehindQueue.isEnabled()) {
+            if (taskDto.status() == TaskStatus.CLOSED && dependencyService != null) {
+                dependencyService.checkCanClose(taskListId, taskId);
+            }
+            writeBehindQueue.submit(TaskUpdate.of(taskListId, taskId, taskMapper.fromDto(taskDto)));
+            return ResponseEntity.accepted().build();
+        }
+
         Task updatedTask = taskService.updateTask(
                 taskListId,
                 taskId,
                 taskMapper.fromDto(taskDto)
                 );
-        return taskMapper.toDto(updatedTask);
+        return ResponseEntity.ok(taskMapper.toDto(updatedTask));
+    }
+
+    /**
+     * Reorders a task within its list, e.g. {"after": "<id of the task it should follow>"}.
+     * Only the moved task is updated, however long the list is.
+     */
+    @PostMapping(path="/{task_id}/move")
+    public TaskDto moveTask(
+            @PathVariable("task_list_id")UUID taskListId,
+            @PathVariable("task_id") UUID taskId,
+            @RequestBody MoveTaskRequest moveTaskRequest
+    ){
+        Task movedTask = taskService.moveTask(
+                taskListId,
+                taskId,
+                moveTaskRequest.after(),
+                moveTaskRequest.before()
+        );
+        return taskMapper.toDto(movedTask);
+    }
+
+    /**
+     * Every recorded change to the task, oldest first, each with the task as it was right after.
+     */
+    @GetMapping(path="/{task_id}/history")
+    public List<AuditEvent> getTaskHistory(
+            @PathVariable("task_list_id")UUID taskListId,
+            @PathVariable("task_id") UUID taskId
+    ){
+        if (auditTrail == null) {
+            throw new ResourceNotFoundException("The audit log is not enabled");
+        }
+        return auditTrail.taskHistory(taskId).stream()
+                .filter(event -> taskListId.equals(event.taskListId()))
+                .toList();
     }
 }
@@ -0,0 +1,76 @@
+package com.danny.tasks.controllers;
+
+import com.danny.tasks.domain.dto.AddBlockerRequest;
+import com.danny.tasks.domain.dto.TaskDependenciesDto;
+import com.danny.tasks.domain.dto.TaskPlanDto;
+import com.danny.tasks.exceptions.ResourceNotFoundException;
+import com.danny.tasks.services.TaskDependencyService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * Dependencies between the tasks of a list ("this task is blocked by that one") and the plan they give the list.
+ */
+@RestController
+@RequestMapping(path="/task-list/{task_list_id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+public class TaskDependencyController {
+    // Absent with the memory storage engine, which doesn't support dependencies
+    private final TaskDependencyService dependencyService;
+
+    public TaskDependencyController(ObjectProvider<TaskDependencyService> dependencyService) {
+        this.dependencyService = dependencyService.getIfAvailable();
+    }
+
+    @GetMapping(path="/tasks/{task_id}/dependencies")
+    public TaskDependenciesDto getDependencies(
+            @PathVariable("task_list_id") UUID taskListId,
+            @PathVariable("task_id") UUID taskId
+    ){
+        return dependencyService().getDependencies(taskListId, taskId);
+    }
+
+    /**
+     * The task can't be closed until the blocker is, e.g. {"blockerId": "..."}.
+     * Refused (400) if the blocker already waits for the task, directly or through other tasks.
+     */
+    @PostMapping(path="/tasks/{task_id}/blockers")
+    public TaskDependenciesDto addBlocker(
+            @PathVariable("task_list_id") UUID taskListId,
+            @PathVariable("task_id") UUID taskId,
+            @RequestBody AddBlockerRequest request
+    ){
+        if (request.blockerId() == null) {
+            throw new IllegalArgumentException("blockerId is required.");
+        }
+        return dependencyService().addBlocker(taskListId, taskId, request.blockerId());
+    }
+
+    @DeleteMapping(path="/tasks/{task_id}/blockers/{blocker_id}")
+    public TaskDependenciesDto removeBlocker(
+            @PathVariable("task_list_id") UUID taskListId,
+            @PathVariable("task_id") UUID taskId,
+            @PathVariable("blocker_id") UUID blockerId
+    ){
+        return dependencyService().removeBlocker(taskListId, taskId, blockerId);
+    }
+
+    /**
+     * The open tasks in an order that respects their dependencies, and the longest chain of them.
+     */
+    @GetMapping(path="/plan")
+    public TaskPlanDto getPlan(
+            @PathVariable("task_list_id") UUID taskListId
+    ){
+        return dependencyService().getPlan(taskListId);
+    }
+
+    private TaskDependencyService dependencyService() {
+        if (dependencyService == null) {
+            throw new ResourceNotFoundException("Task dependencies need the jpa storage engine");
+        }
+        return dependencyService;
+    }
+}
@@ -1,29 +1,78 @@
 package com.danny.tasks.controllers;
 
+import com.danny.tasks.cache.TaskListResponseCache;
+import com.danny.tasks.datasource.ReadYourWritesContext;
 import com.danny.tasks.domain.dto.TaskListDto;
+import com.danny.tasks.domain.dto.TaskListField;
+import com.danny.tasks.domain.dto.TaskListStatsDto;
 import com.danny.tasks.domain.entities.TaskList;
+import com.danny.tasks.exceptions.ResourceNotFoundException;
 import com.danny.tasks.mappers.TaskListMapper;
 import com.danny.tasks.services.TaskListService;
+import com.danny.tasks.services.TaskListStatsService;
+import com.danny.tasks.tenancy.TenantContext;
+import com.danny.tasks.tenancy.TenantFilter;
+import com.danny.tasks.throttling.ServedFromCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.HandlerMapping;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
-@RequestMapping(path = "/task-lists")
-public class TaskListController {
+@RequestMapping(path = "/task-lists", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+public class TaskListController implements ServedFromCache {
+
+    private static final String SINGLE_TASK_LIST = "/task-lists/{task_list_id}";
 
     private final TaskListService taskListService;
     private final TaskListMapper taskListMapper;
+    private final TaskListResponseCache responseCache;
+    private final ObjectMapper objectMapper;
+    private final TaskListStatsService statsService;
 
-    public TaskListController(TaskListService taskListService, TaskListMapper taskListMapper) {
+    public TaskListController(TaskListService taskListService, TaskListMapper taskListMapper,
+                              TaskListResponseCache responseCache, ObjectMapper objectMapper,
+                              TaskListStatsService statsService) {
         this.taskListService = taskListService;
         this.taskListMapper = taskListMapper;
+        this.responseCache = responseCache;
+        this.objectMapper = objectMapper;
+        this.statsService = statsService;
     }
 
+    /**
+     * Without parameters every list is returned in full, including all of its tasks.
+     *
+     * Sparse reads:
+     * - ?fields=id,title,count returns only those fields (the query only selects those columns)
+     * - ?include=tasks embeds the tasks; when "fields" is given, tasks are left out unless included
+     */
     @GetMapping
-    public List<TaskListDto> getTaskList(){
+    public List<?> getTaskList(
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "include", required = false) String include
+    ){
+        if (fields != null || include != null) {
+            Set<TaskListField> selectedFields = TaskListField.parse(fields);
+            boolean includeTasks = includesTasks(include);
+            return taskListService.listTaskListSummaries(selectedFields, includeTasks)
+                    .stream()
+                    .map(taskList -> toSparseView(taskList, selectedFields, includeTasks))
+                    .toList();
+        }
         return taskListService.listTaskList()
                 .stream()
                 .map(taskListMapper::toDto)
@@ -38,11 +87,159 @@ public class TaskListController {
         return  taskListMapper.toDto(createdTaskList);
     }
 
+    /**
+     * Hot task lists are served from TaskListResponseCache as pre-serialized (and pre-compressed) JSON,
+     * without touching JPA or Jackson. CBOR requests and cache misses go through the normal path.
+     */
     @GetMapping(path ="/{task_list_id}")
-    public Optional<TaskListDto> getSingleTaskList(@PathVariable("task_list_id") UUID taskListId){
+    public ResponseEntity<?> getSingleTaskList(
+            @PathVariable("task_list_id") UUID taskListId,
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "include", required = false) String include,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) throws JsonProcessingException {
+        if (fields != null || include != null) {
+            Set<TaskListField> selectedFields = TaskListField.parse(fields);
+            boolean includeTasks = includesTasks(include);
+            return ResponseEntity.ok(taskListService.getTaskListSummary(taskListId, selectedFields, includeTasks)
+                    .map(taskList -> toSparseView(taskList, selectedFields, includeTasks))
+                    .orElse(null));
+        }
+
+        if (!responseCache.isEnabled() || !prefersJson(accept)) {
+            return ResponseEntity.ok(loadTaskList(taskListId).orElse(null));
+        }
+
+        Optional<TaskListResponseCache.CachedResponse> cached = responseCache.get(TenantContext.current(), taskListId);
+        if (cached.isEmpty()) {
+            long version = responseCache.version(taskListId);
+            Optional<TaskListDto> taskList = loadTaskListFromPrimary(taskListId);
+            if (taskList.isEmpty()) {
+                return ResponseEntity.ok().build();
+            }
+            cached = Optional.of(responseCache.put(TenantContext.current(), taskListId, version, objectMapper.writeValueAsBytes(taskList.get())));
+        }
+
+        TaskListResponseCache.CachedResponse response = cached.get();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING, TenantFilter.TENANT_HEADER);
+        if (response.gzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(response.gzip());
+        }
+        return builder.body(response.json());
+    }
+
+    /**
+     * True for a GET of a single list that getSingleTaskList() will answer from the response cache.
+     */
+    @Override
+    public boolean isServedFromCache(HttpServletRequest request) {
+        if (!responseCache.isEnabled() || !HttpMethod.GET.matches(request.getMethod())
+                || !SINGLE_TASK_LIST.equals(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE))
+                || request.getParameter("fields") != null || request.getParameter("include") != null
+                || !prefersJson(request.getHeader(HttpHeaders.ACCEPT))) {
+            return false;
+        }
+        if (!(request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> variables)) {
+            return false;
+        }
+        UUID taskListId;
+        try {
+            taskListId = UUID.fromString(String.valueOf(variables.get("task_list_id")));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return responseCache.get(TenantContext.current(), taskListId).isPresent();
+    }
+
+    /**
+     * Dashboard numbers for one list, read from pre-aggregated rows (see TaskListStatsService):
+     * tasks per status and priority, overdue tasks, and the last ?days=30 days of closed tasks.
+     */
+    @GetMapping(path = "/{task_list_id}/stats")
+    public TaskListStatsDto getTaskListStats(
+            @PathVariable("task_list_id") UUID taskListId,
+            @RequestParam(name = "days", defaultValue = "30") int days
+    ) {
+        if (days < 1 || days > 366) {
+            throw new IllegalArgumentException("'days' must be between 1 and 366");
+        }
+        return statsService.getStats(taskListId, days)
+                .orElseThrow(() -> new ResourceNotFoundException("Task list with ID " + taskListId + " not found"));
+    }
+
+    private Optional<TaskListDto> loadTaskList(UUID taskListId) {
         return taskListService.getTaskList(taskListId).map(taskListMapper::toDto);
     }
 
+    private static boolean includesTasks(String include) {
+        if (include == null || include.isBlank()) {
+            return false;
+        }
+        for (String name : include.split(",")) {
+            if (!name.trim().equals("tasks")) {
+                throw new IllegalArgumentException(
+                        String.format("Invalid value '%s' for 'include'. Allowed values are: [tasks]", name.trim()));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Only the selected fields end up in the response; fields that were not requested are omitted
+     * rather than sent as null.
+     */
+    private static Map<String, Object> toSparseView(TaskListDto taskList, Set<TaskListField> fields, boolean includeTasks) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        for (TaskListField field : fields) {
+            view.put(field.jsonName(), field.valueOf(taskList));
+        }
+        if (includeTasks) {
+            view.put("tasks", taskList.tasks());
+        }
+        return view;
+    }
+
+    /**
+     * Cached bytes live until the next write, so they must not come from a replica that is still lagging.
+     */
+    private Optional<TaskListDto> loadTaskListFromPrimary(UUID taskListId) {
+        boolean alreadyPinned = ReadYourWritesContext.isPrimaryRequired();
+        ReadYourWritesContext.requirePrimary();
+        try {
+            return loadTaskList(taskListId);
+        } finally {
+            if (!alreadyPinned) {
+                ReadYourWritesContext.clear();
+            }
+        }
+    }
+
+    /**
+     * True unless the client asks for CBOR ahead of JSON. A missing Accept header means JSON.
+     */
+    private static boolean prefersJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return true;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
     @PutMapping(path="/{task_list_id}")
     public TaskListDto udpateTaskList(@PathVariable("task_list_id") UUID taskListId, @RequestBody TaskListDto taskListDto){
         TaskList updatedTaskList = taskListService.updateTaskList(
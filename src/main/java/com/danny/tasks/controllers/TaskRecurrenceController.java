@@ -0,0 +1,50 @@
+package com.danny.tasks.controllers;
+
+import com.danny.tasks.domain.dto.TaskRecurrenceDto;
+import com.danny.tasks.exceptions.ResourceNotFoundException;
+import com.danny.tasks.services.TaskRecurrenceService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Recurring tasks of a list, e.g. {"title": "Standup notes", "rule": "0 0 9 * * MON-FRI"}.
+ * Their tasks show up under /task-list/{task_list_id}/tasks once the scheduler has created them.
+ */
+@RestController
+@RequestMapping(path="/task-list/{task_list_id}/recurrences", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+public class TaskRecurrenceController {
+    // Absent with the memory storage engine, which doesn't support recurring tasks
+    private final TaskRecurrenceService recurrenceService;
+
+    public TaskRecurrenceController(ObjectProvider<TaskRecurrenceService> recurrenceService) {
+        this.recurrenceService = recurrenceService.getIfAvailable();
+    }
+
+    @GetMapping
+    public List<TaskRecurrenceDto> getRecurrences(@PathVariable("task_list_id") UUID taskListId) {
+        return recurrenceService().listRecurrences(taskListId);
+    }
+
+    @PostMapping
+    public TaskRecurrenceDto newRecurrence(@PathVariable("task_list_id") UUID taskListId,
+                                           @RequestBody TaskRecurrenceDto recurrenceDto) {
+        return recurrenceService().createRecurrence(taskListId, recurrenceDto);
+    }
+
+    @DeleteMapping(path="/{recurrence_id}")
+    public void deleteRecurrence(@PathVariable("task_list_id") UUID taskListId,
+                                 @PathVariable("recurrence_id") UUID recurrenceId) {
+        recurrenceService().deleteRecurrence(taskListId, recurrenceId);
+    }
+
+    private TaskRecurrenceService recurrenceService() {
+        if (recurrenceService == null) {
+            throw new ResourceNotFoundException("Recurring tasks need the jpa storage engine");
+        }
+        return recurrenceService;
+    }
+}
@@ -0,0 +1,27 @@
+package com.danny.tasks.datasource;
+
+/**
+ * Thread-bound flag telling {@link ReplicaRoutingDataSource} to serve reads from the primary.
+ *
+ * It is set by {@link ReadYourWritesFilter} for clients that wrote recently, so they don't read
+ * stale data from a replica that has not caught up with their own write yet.
+ */
+public final class ReadYourWritesContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+}
@@ -0,0 +1,23 @@
+package com.danny.tasks.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Connection settings for the read replica, bound from "tasks.datasource.replica.*".
+ *
+ * - url, username, password, driverClassName: same meaning as the spring.datasource.* properties.
+ * - readYourWritesWindow: how long after a write a client keeps reading from the primary.
+ *   Set it a bit above the replica lag you normally observe.
+ */
+@ConfigurationProperties(prefix = "tasks.datasource.replica")
+public record ReplicaDataSourceProperties(
+        String url,
+        String username,
+        String password,
+        String driverClassName,
+        @DefaultValue("5s") Duration readYourWritesWindow
+) {
+}
@@ -0,0 +1,47 @@
+package com.danny.tasks.datasource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Routes read-only connections to the replica pool and everything else to the primary.
+ *
+ * How it fits together:
+ * - {@link #create(DataSource, DataSource)} wraps the primary in a LazyConnectionDataSourceProxy.
+ *   The proxy hands out a placeholder connection and only fetches a physical one on the first statement,
+ *   by which time the transaction manager has already called setReadOnly(true) for
+ *   {@code @Transactional(readOnly = true)} methods.
+ * - Read-only connections are served by this routing DataSource, which still falls back to the primary
+ *   while {@link ReadYourWritesContext} says the current client has just written (replica lag).
+ * - Writes never reach this class: the proxy sends them straight to the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * Builds the DataSource the application should use: writes go to the primary,
+     * read-only transactions go to the replica (unless read-your-writes pins them to the primary).
+     */
+    public static DataSource create(DataSource primary, DataSource replica) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica);
+        // Not a bean of its own, so nobody else resolves the targets
+        routing.afterPropertiesSet();
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(routing);
+        return proxy;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ReadYourWritesContext.isPrimaryRequired() ? Target.PRIMARY : Target.REPLICA;
+    }
+}
@@ -0,0 +1,10 @@
+package com.danny.tasks.dependencies;
+
+import java.util.UUID;
+
+/**
+ * Published inside the transaction that adds or removes a dependency; version is the list's dependency version
+ * that transaction commits. DependencyGraphs applies it to its cached graph once the transaction has committed.
+ */
+public record DependencyChangedEvent(UUID taskListId, long version, UUID blockerId, UUID blockedId, boolean added) {
+}
@@ -0,0 +1,559 @@
+package com.danny.tasks.dependencies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The dependency graph of one task list, as of one version of it (see DependencyGraphs).
+ * Edges run from a blocker to the task it blocks. Tasks are numbered as they first show up in an edge,
+ * and adjacency is kept in int arrays, so a list with tens of thousands of tasks is a few hundred KB.
+ *
+ * A topological order of the tasks is kept up to date on every added edge (Pearce and Kelly's dynamic
+ * topological sort): every task has a position, and every edge goes from a lower to a higher position.
+ * - An edge that already agrees with the order is just stored; no search at all.
+ * - Otherwise only tasks positioned between its two ends are visited: forward from the blocked task (reaching the
+ *   blocker means the edge would close a cycle) and backward from the blocker. The two sets found then swap
+ *   positions, which puts the blocker and its blockers before the blocked task and what it blocks.
+ * So a cycle check costs the size of the affected region, not of the list.
+ *
+ * Public methods are thread-safe: reads share a lock, changes (and cycle checks, which reuse the visit marks) take it
+ * exclusively.
+ */
+public final class DependencyGraph {
+
+    /**
+     * order: the open tasks given to {@link #plan}, each after all of its open blockers, otherwise in list order.
+     * criticalPath: the longest chain of open tasks that each wait for the one before, first to last.
+     */
+    public record Plan(List<UUID> order, List<UUID> criticalPath) {
+    }
+
+    private static final int[] NO_EDGES = new int[0];
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> nodes = new HashMap<>();
+    private long version;
+    private int size;
+    private int edgeCount;
+    private UUID[] ids = new UUID[16];
+    private int[][] successors = new int[16][];
+    private int[] successorCounts = new int[16];
+    private int[][] predecessors = new int[16][];
+    private int[] predecessorCounts = new int[16];
+    // position[node] is the node's place in the topological order; positions are 0..size-1, each used once
+    private int[] position = new int[16];
+    // visited[node] == epoch marks the nodes seen by the current search
+    private int[] visited = new int[16];
+    private int epoch;
+
+    public DependencyGraph(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Builds the graph from (blockerId, blockedId) pairs, ordered in one pass (Kahn's algorithm).
+     */
+    public static DependencyGraph of(long version, List<Object[]> edges) {
+        DependencyGraph graph = new DependencyGraph(version);
+        for (Object[] edge : edges) {
+            int blocker = graph.node((UUID) edge[0]);
+            int blocked = graph.node((UUID) edge[1]);
+            if (!graph.hasEdge(blocker, blocked)) {
+                graph.link(blocker, blocked);
+            }
+        }
+        graph.sort();
+        return graph;
+    }
+
+    public long version() {
+        lock.readLock().lock();
+        try {
+            return version;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int edgeCount() {
+        lock.readLock().lock();
+        try {
+            return edgeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean hasEdge(UUID blockerId, UUID blockedId) {
+        lock.readLock().lock();
+        try {
+            Integer blocker = nodes.get(blockerId);
+            Integer blocked = nodes.get(blockedId);
+            return blocker != null && blocked != null && hasEdge(blocker, blocked);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The tasks the given one waits for.
+     */
+    public List<UUID> blockersOf(UUID taskId) {
+        lock.readLock().lock();
+        try {
+            Integer node = nodes.get(taskId);
+            return node == null ? List.of() : idsOf(predecessors[node], predecessorCounts[node]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The tasks waiting for the given one.
+     */
+    public List<UUID> blockedBy(UUID taskId) {
+        lock.readLock().lock();
+        try {
+            Integer node = nodes.get(taskId);
+            return node == null ? List.of() : idsOf(successors[node], successorCounts[node]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether blockerId already waits for blockedId, directly or through other tasks;
+     * adding "blockedId is blocked by blockerId" would then close a cycle.
+     */
+    public boolean wouldCreateCycle(UUID blockerId, UUID blockedId) {
+        if (blockerId.equals(blockedId)) {
+            return true;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer blocker = nodes.get(blockerId);
+            Integer blocked = nodes.get(blockedId);
+            if (blocker == null || blocked == null || position[blocker] < position[blocked]) {
+                return false;
+            }
+            return forward(blocked, blocker, position[blocker]) == null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the edge. Returns false, leaving the graph as it was, if it would close a cycle.
+     */
+    public boolean add(UUID blockerId, UUID blockedId) {
+        if (blockerId.equals(blockedId)) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            int blocker = node(blockerId);
+            int blocked = node(blockedId);
+            if (hasEdge(blocker, blocked)) {
+                return true;
+            }
+            if (position[blocker] > position[blocked]) {
+                int[] forward = forward(blocked, blocker, position[blocker]);
+                if (forward == null) {
+                    return false;
+                }
+                reorder(backward(blocker, position[blocked]), forward);
+            }
+            link(blocker, blocked);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the edge, if there is one. The order stays valid as it is.
+     */
+    public void remove(UUID blockerId, UUID blockedId) {
+        lock.writeLock().lock();
+        try {
+            Integer blocker = nodes.get(blockerId);
+            Integer blocked = nodes.get(blockedId);
+            if (blocker != null && blocked != null && hasEdge(blocker, blocked)) {
+                successorCounts[blocker] = unlink(successors[blocker], successorCounts[blocker], blocked);
+                predecessorCounts[blocked] = unlink(predecessors[blocked], predecessorCounts[blocked], blocker);
+                edgeCount--;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Brings the graph to the change's version. Returns false if it can't, because a change in between was missed
+     * (or the change doesn't fit); the graph must then be loaded again.
+     */
+    public boolean apply(DependencyChangedEvent change) {
+        lock.writeLock().lock();
+        try {
+            if (change.version() <= version) {
+                // Loaded after the change was committed, so it is already in
+                return true;
+            }
+            if (change.version() != version + 1) {
+                return false;
+            }
+            if (change.added()) {
+                if (!add(change.blockerId(), change.blockedId())) {
+                    return false;
+                }
+            } else {
+                remove(change.blockerId(), change.blockedId());
+            }
+            version = change.version();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Orders openTasks (given in list order) so every task comes after its open blockers, keeping the list order
+     * wherever the dependencies allow, and finds the longest chain of open tasks waiting for one another.
+     * Closed tasks are done and block nothing. O((tasks + edges) log tasks).
+     */
+    public Plan plan(List<UUID> openTasks) {
+        lock.readLock().lock();
+        try {
+            int count = openTasks.size();
+            // slot: a task's index in openTasks; node: its number in this graph, -1 if it has no dependencies
+            int[] nodeOfSlot = new int[count];
+            int[] slotOfNode = new int[size];
+            Arrays.fill(slotOfNode, -1);
+            for (int slot = 0; slot < count; slot++) {
+                Integer node = nodes.get(openTasks.get(slot));
+                nodeOfSlot[slot] = node == null ? -1 : node;
+                if (node != null) {
+                    slotOfNode[node] = slot;
+                }
+            }
+
+            int[] waitingFor = new int[count];
+            for (int slot = 0; slot < count; slot++) {
+                int node = nodeOfSlot[slot];
+                for (int i = 0; node >= 0 && i < predecessorCounts[node]; i++) {
+                    if (slotOfNode[predecessors[node][i]] >= 0) {
+                        waitingFor[slot]++;
+                    }
+                }
+            }
+
+            // Ready tasks by list position, so independent tasks keep their list order
+            IntHeap ready = new IntHeap(count);
+            for (int slot = 0; slot < count; slot++) {
+                if (waitingFor[slot] == 0) {
+                    ready.push(slot);
+                }
+            }
+            // chain[slot]: number of tasks in the longest chain ending at the task, previous[slot]: the one before it
+            int[] chain = new int[count];
+            int[] previous = new int[count];
+            Arrays.fill(chain, 1);
+            Arrays.fill(previous, -1);
+            boolean[] emitted = new boolean[count];
+            List<UUID> order = new ArrayList<>(count);
+            int last = -1;
+            while (!ready.isEmpty()) {
+                int slot = ready.pop();
+                emitted[slot] = true;
+                order.add(openTasks.get(slot));
+                if (last < 0 || chain[slot] > chain[last]) {
+                    last = slot;
+                }
+                int node = nodeOfSlot[slot];
+                for (int i = 0; node >= 0 && i < successorCounts[node]; i++) {
+                    int next = slotOfNode[successors[node][i]];
+                    if (next < 0) {
+                        continue;
+                    }
+                    if (chain[slot] + 1 > chain[next]) {
+                        chain[next] = chain[slot] + 1;
+                        previous[next] = slot;
+                    }
+                    if (--waitingFor[next] == 0) {
+                        ready.push(next);
+                    }
+                }
+            }
+            // Only reachable if the stored edges loop, which the cycle check on insert rules out
+            for (int slot = 0; slot < count; slot++) {
+                if (!emitted[slot]) {
+                    order.add(openTasks.get(slot));
+                }
+            }
+
+            List<UUID> criticalPath = new ArrayList<>();
+            for (int slot = last; slot >= 0; slot = previous[slot]) {
+                criticalPath.add(openTasks.get(slot));
+            }
+            Collections.reverse(criticalPath);
+            return new Plan(order, criticalPath);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int node(UUID id) {
+        Integer existing = nodes.get(id);
+        if (existing != null) {
+            return existing;
+        }
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            successors = Arrays.copyOf(successors, capacity);
+            successorCounts = Arrays.copyOf(successorCounts, capacity);
+            predecessors = Arrays.copyOf(predecessors, capacity);
+            predecessorCounts = Arrays.copyOf(predecessorCounts, capacity);
+            position = Arrays.copyOf(position, capacity);
+            visited = Arrays.copyOf(visited, capacity);
+        }
+        int node = size++;
+        ids[node] = id;
+        successors[node] = NO_EDGES;
+        predecessors[node] = NO_EDGES;
+        // A new task has no edges yet, so the end of the order is as good as any place
+        position[node] = node;
+        nodes.put(id, node);
+        return node;
+    }
+
+    private boolean hasEdge(int blocker, int blocked) {
+        // Scan the shorter side
+        if (successorCounts[blocker] <= predecessorCounts[blocked]) {
+            return contains(successors[blocker], successorCounts[blocker], blocked);
+        }
+        return contains(predecessors[blocked], predecessorCounts[blocked], blocker);
+    }
+
+    private void link(int blocker, int blocked) {
+        successors[blocker] = append(successors[blocker], successorCounts[blocker]++, blocked);
+        predecessors[blocked] = append(predecessors[blocked], predecessorCounts[blocked]++, blocker);
+        edgeCount++;
+    }
+
+    /**
+     * Tasks reachable from start without passing position upperBound, or null if target is one of them.
+     */
+    private int[] forward(int start, int target, int upperBound) {
+        int[] found = new int[8];
+        int foundCount = 0;
+        int[] stack = new int[8];
+        int depth = 0;
+        epoch++;
+        visited[start] = epoch;
+        stack[depth++] = start;
+        while (depth > 0) {
+            int node = stack[--depth];
+            found = append(found, foundCount++, node);
+            for (int i = 0; i < successorCounts[node]; i++) {
+                int next = successors[node][i];
+                if (next == target) {
+                    return null;
+                }
+                if (visited[next] != epoch && position[next] < upperBound) {
+                    visited[next] = epoch;
+                    stack = append(stack, depth++, next);
+                }
+            }
+        }
+        return Arrays.copyOf(found, foundCount);
+    }
+
+    /**
+     * Tasks that reach start (start included) without passing position lowerBound.
+     */
+    private int[] backward(int start, int lowerBound) {
+        int[] found = new int[8];
+        int foundCount = 0;
+        int[] stack = new int[8];
+        int depth = 0;
+        epoch++;
+        visited[start] = epoch;
+        stack[depth++] = start;
+        while (depth > 0) {
+            int node = stack[--depth];
+            found = append(found, foundCount++, node);
+            for (int i = 0; i < predecessorCounts[node]; i++) {
+                int next = predecessors[node][i];
+                if (visited[next] != epoch && position[next] > lowerBound) {
+                    visited[next] = epoch;
+                    stack = append(stack, depth++, next);
+                }
+            }
+        }
+        return Arrays.copyOf(found, foundCount);
+    }
+
+    /**
+     * Hands the positions held by both sets out again, first to the backward set, then to the forward one,
+     * each keeping its own relative order.
+     */
+    private void reorder(int[] backward, int[] forward) {
+        sortByPosition(backward);
+        sortByPosition(forward);
+        int[] positions = new int[backward.length + forward.length];
+        for (int i = 0; i < backward.length; i++) {
+            positions[i] = position[backward[i]];
+        }
+        for (int i = 0; i < forward.length; i++) {
+            positions[backward.length + i] = position[forward[i]];
+        }
+        Arrays.sort(positions);
+        int next = 0;
+        for (int node : backward) {
+            place(node, positions[next++]);
+        }
+        for (int node : forward) {
+            place(node, positions[next++]);
+        }
+    }
+
+    private void place(int node, int at) {
+        position[node] = at;
+    }
+
+    private void sortByPosition(int[] nodeIds) {
+        long[] keyed = new long[nodeIds.length];
+        for (int i = 0; i < nodeIds.length; i++) {
+            keyed[i] = ((long) position[nodeIds[i]] << 32) | nodeIds[i];
+        }
+        Arrays.sort(keyed);
+        for (int i = 0; i < nodeIds.length; i++) {
+            nodeIds[i] = (int) keyed[i];
+        }
+    }
+
+    /**
+     * Kahn's algorithm over the whole graph, for a freshly loaded one.
+     */
+    private void sort() {
+        int[] waitingFor = Arrays.copyOf(predecessorCounts, size);
+        int[] queue = new int[size];
+        int head = 0;
+        int tail = 0;
+        for (int node = 0; node < size; node++) {
+            if (waitingFor[node] == 0) {
+                queue[tail++] = node;
+            }
+        }
+        while (head < tail) {
+            int node = queue[head];
+            place(node, head++);
+            for (int i = 0; i < successorCounts[node]; i++) {
+                int next = successors[node][i];
+                if (--waitingFor[next] == 0) {
+                    queue[tail++] = next;
+                }
+            }
+        }
+        // Only if the stored edges loop: put what is left at the end, so positions stay a permutation
+        for (int node = 0; node < size && tail < size; node++) {
+            if (waitingFor[node] > 0) {
+                place(node, tail++);
+            }
+        }
+    }
+
+    private List<UUID> idsOf(int[] nodeIds, int count) {
+        List<UUID> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(ids[nodeIds[i]]);
+        }
+        return result;
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] append(int[] values, int count, int value) {
+        if (count == values.length) {
+            values = Arrays.copyOf(values, Math.max(4, count * 2));
+        }
+        values[count] = value;
+        return values;
+    }
+
+    // Order doesn't matter, so the last value fills the gap
+    private static int unlink(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                values[i] = values[count - 1];
+                return count - 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * A binary min-heap of ints, so the plan doesn't box every task position.
+     */
+    private static final class IntHeap {
+        private final int[] values;
+        private int size;
+
+        IntHeap(int capacity) {
+            values = new int[Math.max(1, capacity)];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(int value) {
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (values[parent] <= value) {
+                    break;
+                }
+                values[i] = values[parent];
+                i = parent;
+            }
+            values[i] = value;
+        }
+
+        int pop() {
+            int top = values[0];
+            int value = values[--size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && values[child + 1] < values[child]) {
+                    child++;
+                }
+                if (value <= values[child]) {
+                    break;
+                }
+                values[i] = values[child];
+                i = child;
+            }
+            values[i] = value;
+            return top;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.danny.tasks.dependencies;
+
+import com.danny.tasks.repositories.TaskDependencyRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the dependency graphs of recently used task lists in memory, so cycle checks and plans don't read
+ * every edge of the list.
+ *
+ * Versioning:
+ * - Every change to a list's dependencies locks its task_list_stats row and bumps its dependency_version.
+ * - A graph is only handed out for the version the caller just read from that row; otherwise it is loaded again.
+ * - Changes made here are applied to the cached graph once their transaction commits (see
+ *   {@link DependencyChangedEvent}). Changes made by other instances are picked up by the version check,
+ *   so no invalidation messages are needed.
+ *
+ * Callers must have checked that the list belongs to the current tenant (e.g. by reading its stats row).
+ */
+@Component
+@ConditionalOnProperty(name = "tasks.storage.engine", havingValue = "jpa", matchIfMissing = true)
+@EnableConfigurationProperties(DependencyProperties.class)
+public class DependencyGraphs {
+
+    private final DependencyProperties properties;
+    private final TaskDependencyRepository dependencyRepository;
+    private final Map<UUID, DependencyGraph> graphs = new ConcurrentHashMap<>();
+
+    public DependencyGraphs(DependencyProperties properties, TaskDependencyRepository dependencyRepository) {
+        this.properties = properties;
+        this.dependencyRepository = dependencyRepository;
+    }
+
+    /**
+     * The list's graph at the given version. Must run in a transaction that read that version.
+     */
+    public DependencyGraph get(UUID taskListId, long version) {
+        DependencyGraph cached = graphs.get(taskListId);
+        if (cached != null && cached.version() == version) {
+            return cached;
+        }
+        DependencyGraph loaded = DependencyGraph.of(version, dependencyRepository.findEdges(taskListId));
+        if (graphs.size() >= properties.maxCachedLists() && !graphs.containsKey(taskListId)) {
+            evictOne();
+        }
+        // A reader of a lagging replica may load an older version than the one cached; keep the newer one
+        graphs.merge(taskListId, loaded, (current, fresh) -> current.version() > fresh.version() ? current : fresh);
+        return loaded;
+    }
+
+    @TransactionalEventListener
+    public void onDependencyChanged(DependencyChangedEvent event) {
+        DependencyGraph graph = graphs.get(event.taskListId());
+        if (graph != null && !graph.apply(event)) {
+            graphs.remove(event.taskListId(), graph);
+        }
+    }
+
+    private void evictOne() {
+        Iterator<UUID> iterator = graphs.keySet().iterator();
+        if (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.danny.tasks.dependencies;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for task dependencies, bound from "tasks.dependencies.*".
+ *
+ * - maxCachedLists: how many task lists' dependency graphs are kept in memory at most.
+ */
+@ConfigurationProperties(prefix = "tasks.dependencies")
+public record DependencyProperties(
+        @DefaultValue("1000") int maxCachedLists
+) {
+}
@@ -0,0 +1,12 @@
+package com.danny.tasks.domain.dto;
+
+import java.util.UUID;
+
+/**
+ * Body of POST /task-list/{task_list_id}/tasks/{task_id}/blockers: the task (of the same list) that has to be
+ * closed before this one can be.
+ */
+public record AddBlockerRequest(
+        UUID blockerId
+) {
+}
@@ -0,0 +1,12 @@
+package com.danny.tasks.domain.dto;
+
+import java.util.UUID;
+
+/**
+ * Body of PUT /task-list/{task_list_id}/tasks/{task_id}/parent: the task (of the same list) that the task and its
+ * subtasks move under, or null to make it a top-level task.
+ */
+public record MoveSubtreeRequest(
+        UUID parentId
+) {
+}
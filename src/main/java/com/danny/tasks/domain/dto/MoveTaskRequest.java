@@ -0,0 +1,13 @@
+package com.danny.tasks.domain.dto;
+
+import java.util.UUID;
+
+/**
+ * Body of POST /task-list/{task_list_id}/tasks/{task_id}/move.
+ * Exactly one of the two is set: the task that should end up directly before (after) or after (before) the moved task.
+ */
+public record MoveTaskRequest(
+        UUID after,
+        UUID before
+) {
+}
@@ -0,0 +1,22 @@
+package com.danny.tasks.domain.dto;
+
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A task within a subtree: depth is its distance from the subtree's root (1 for direct subtasks).
+ */
+public record SubtaskDto(
+        UUID id,
+        UUID parentId,
+        int depth,
+        String title,
+        String description,
+        LocalDateTime dueDate,
+        TaskPriority priority,
+        TaskStatus status
+) {
+}
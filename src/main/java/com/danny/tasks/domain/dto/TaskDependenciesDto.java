@@ -0,0 +1,14 @@
+package com.danny.tasks.domain.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The direct dependencies of a task: the tasks it waits for (blockedBy) and the tasks waiting for it (blocks).
+ */
+public record TaskDependenciesDto(
+        UUID taskId,
+        List<UUID> blockedBy,
+        List<UUID> blocks
+) {
+}
@@ -0,0 +1,62 @@
+package com.danny.tasks.domain.dto;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The TaskListDto fields a client can pick with "?fields=" on the task list endpoints.
+ *
+ * Each constant knows its JSON name and how to read its value from a TaskListDto.
+ * The embedded tasks array is not a field here; it is requested separately with "?include=tasks".
+ */
+public enum TaskListField {
+    ID("id", TaskListDto::id),
+    TITLE("title", TaskListDto::title),
+    DESCRIPTION("description", TaskListDto::description),
+    COUNT("count", TaskListDto::count),
+    PROGRESS("progress", TaskListDto::progress);
+
+    private final String jsonName;
+    private final Function<TaskListDto, Object> accessor;
+
+    TaskListField(String jsonName, Function<TaskListDto, Object> accessor) {
+        this.jsonName = jsonName;
+        this.accessor = accessor;
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+
+    public Object valueOf(TaskListDto taskList) {
+        return accessor.apply(taskList);
+    }
+
+    /**
+     * Parses a comma-separated list such as "id,title,count".
+     * A null or blank value selects every field.
+     */
+    public static Set<TaskListField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return EnumSet.allOf(TaskListField.class);
+        }
+        Set<TaskListField> selected = EnumSet.noneOf(TaskListField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            selected.add(Arrays.stream(values())
+                    .filter(field -> field.jsonName.equals(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException(String.format(
+                            "Unknown field '%s'. Allowed values are: [%s]",
+                            trimmed,
+                            Arrays.stream(values()).map(TaskListField::jsonName).collect(Collectors.joining(", "))))));
+        }
+        return selected;
+    }
+}
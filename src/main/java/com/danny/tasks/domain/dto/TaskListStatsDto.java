@@ -0,0 +1,26 @@
+package com.danny.tasks.domain.dto;
+
+import com.danny.tasks.domain.entities.TaskPriority;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Response of GET /task-lists/{id}/stats.
+ *
+ * - open / closed: number of tasks per priority
+ * - overdue: open tasks whose due date has passed
+ * - burndown: net number of tasks closed per day (reopening counts -1), oldest day first; days without changes are left out
+ */
+public record TaskListStatsDto(
+        UUID taskListId,
+        Map<TaskPriority, Long> open,
+        Map<TaskPriority, Long> closed,
+        long overdue,
+        List<DailyClosed> burndown
+) {
+    public record DailyClosed(LocalDate date, long closed) {
+    }
+}
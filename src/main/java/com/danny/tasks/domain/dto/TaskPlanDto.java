@@ -0,0 +1,18 @@
+package com.danny.tasks.domain.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The open tasks of a list, planned along their dependencies (closed tasks are done and block nothing):
+ *
+ * - order: every open task, each after all of its open blockers; otherwise in list order.
+ * - criticalPath: the longest chain of open tasks that each wait for the one before, first to last.
+ *   Its length is the least number of tasks that have to be done one after another to finish the list.
+ */
+public record TaskPlanDto(
+        UUID taskListId,
+        List<UUID> order,
+        List<UUID> criticalPath
+) {
+}
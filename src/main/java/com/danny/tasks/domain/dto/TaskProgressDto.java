@@ -0,0 +1,19 @@
+package com.danny.tasks.domain.dto;
+
+import java.util.UUID;
+
+/**
+ * Progress of a task's subtasks (all levels, the task itself not included): the share that is CLOSED,
+ * the same measure as a task list's progress. null when the task has no subtasks.
+ */
+public record TaskProgressDto(
+        UUID taskId,
+        long subtaskCount,
+        long closedCount,
+        Double progress
+) {
+    public static TaskProgressDto of(UUID taskId, long subtaskCount, long closedCount) {
+        return new TaskProgressDto(taskId, subtaskCount, closedCount,
+                subtaskCount == 0 ? null : (double) closedCount / subtaskCount);
+    }
+}
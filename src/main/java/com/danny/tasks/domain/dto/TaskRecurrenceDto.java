@@ -0,0 +1,23 @@
+package com.danny.tasks.domain.dto;
+
+import com.danny.tasks.domain.entities.TaskPriority;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A recurring task. rule is a cron expression ("0 0 9 * * MON-FRI") or a macro ("@daily", "@weekly").
+ *
+ * On create, nextDueDate is optional: occurrences start at the first match at or after it (default: now).
+ * In responses it is the next occurrence that has no task yet, null once the rule has ended.
+ */
+public record TaskRecurrenceDto(
+        UUID id,
+        String title,
+        String description,
+        TaskPriority priority,
+        String rule,
+        LocalDateTime nextDueDate,
+        LocalDateTime endsAt
+) {
+}
@@ -0,0 +1,15 @@
+package com.danny.tasks.domain.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response of GET /task-list/{task_list_id}/tasks/{task_id}/subtasks: every subtask of the task, however deep,
+ * depth first (each task followed by its own subtasks, siblings in list order).
+ */
+public record TaskSubtreeDto(
+        UUID taskId,
+        TaskProgressDto progress,
+        List<SubtaskDto> subtasks
+) {
+}
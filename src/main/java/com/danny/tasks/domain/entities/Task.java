@@ -1,6 +1,8 @@
 package com.danny.tasks.domain.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -9,16 +11,19 @@ import java.util.UUID;
 
 @Entity
 @Table(name="tasks")
-public class Task {
+public class Task implements Persistable<UUID> {
+    // Size of the title and description columns (VARCHAR(255))
+    public static final int MAX_TEXT_LENGTH = 255;
+
+    // Assigned when the entity is created (see hashCode()), never changed
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     @Column(name="id", updatable = false, nullable = false)
     private UUID id;
 
-    @Column(name="title", nullable = false)
+    @Column(name="title", nullable = false, length = MAX_TEXT_LENGTH)
     private String title;
 
-    @Column(name="description")
+    @Column(name="description", length = MAX_TEXT_LENGTH)
     private String description;
 
     @Column(name="due_date")
@@ -40,9 +45,38 @@ public class Task {
     @Column(name="updated", nullable = false)
     private LocalDateTime updated;
 
+    // Position within the task list, compared as a plain string (see Ranks)
+    @Column(name="sort_rank", nullable = false)
+    private String sortRank;
+
+    // The task this one is a subtask of (same list), null for top-level tasks. The whole hierarchy is
+    // kept in task_closure as well, see TaskClosure.
+    @Column(name="parent_id")
+    private UUID parentId;
+
+    // Set by Hibernate on insert from the current tenant (see TenantIdentifierResolver), never by hand
+    @TenantId
+    @Column(name="tenant_id", nullable = false, updatable = false)
+    private String tenantId;
+
+    @Transient
+    private boolean persisted;
+
     public Task() {
     }
 
+    /**
+     * Rejects a title or description (null: not given) that wouldn't fit its column, before anything is written.
+     */
+    public static void checkTextLength(String title, String description) {
+        if (title != null && title.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException("Title cannot be longer than " + MAX_TEXT_LENGTH + " characters.");
+        }
+        if (description != null && description.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException("Description cannot be longer than " + MAX_TEXT_LENGTH + " characters.");
+        }
+    }
+
     public Task(
             UUID id,
             String title,
@@ -68,8 +102,19 @@ public class Task {
         return id;
     }
 
-    public void setId(UUID id) {
-        this.id = id;
+    /**
+     * True until the entity is saved or loaded. The id is assigned up front, so Spring Data can't tell a new
+     * entity by a null id and would otherwise merge (select, then insert) instead of persisting.
+     */
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        persisted = true;
     }
 
     public String getTitle() {
@@ -136,16 +181,53 @@ public class Task {
         this.updated = updated;
     }
 
-    @Override
-    public boolean equals(Object o) {
-        if (o == null || getClass() != o.getClass()) return false;
-        Task task = (Task) o;
-        return Objects.equals(id, task.id) && Objects.equals(title, task.title) && Objects.equals(description, task.description) && Objects.equals(dueDate, task.dueDate) && status == task.status && priority == task.priority && Objects.equals(taskList, task.taskList) && Objects.equals(created, task.created) && Objects.equals(updated, task.updated);
+    public String getSortRank() {
+        return sortRank;
+    }
+
+    public void setSortRank(String sortRank) {
+        this.sortRank = sortRank;
     }
 
+    public UUID getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(UUID parentId) {
+        this.parentId = parentId;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    /**
+     * Two tasks are equal when they have the same database id.
+     *
+     * - Only the id is compared: the other fields change over time, and comparing taskList
+     *   would initialize the lazy TaskList proxy (and hash its whole task list).
+     * - instanceof (instead of getClass()) also matches Hibernate proxies, and getId() on a proxy
+     *   does not trigger a database load.
+     * - A task without an id (input from a client, never saved as such) is only equal to itself.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Task task)) return false;
+        return id != null && id.equals(task.getId());
+    }
+
+    /**
+     * The id's hash, so tasks spread over the buckets of a HashSet or HashMap:
+     *
+     * - The id is assigned when a task is created for saving (not on persist) and never changes, so a task added to
+     *   a hash collection before it is saved stays findable, and hashes like any loaded copy of it.
+     * - getId(), not the field: on a Hibernate proxy it returns the id without loading the task.
+     * - A task without an id hashes to 0, in line with equals() above.
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(id, title, description, dueDate, status, priority, taskList, created, updated);
+        return Objects.hashCode(getId());
     }
 
     @Override
@@ -157,7 +239,8 @@ public class Task {
                 ", dueDate=" + dueDate +
                 ", status=" + status +
                 ", priority=" + priority +
-                ", tasklist=" + taskList +
+                // only the id, so printing a task never loads its task list
+                ", taskListId=" + (taskList != null ? taskList.getId() : null) +
                 ", created=" + created +
                 ", updated=" + updated +
                 '}';
@@ -0,0 +1,56 @@
+package com.danny.tasks.domain.entities;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * One (ancestor, descendant) pair of the subtask hierarchy, depth levels apart (1 for parent and child).
+ * Read through JPQL, written with the native statements in TaskClosureRepository.
+ */
+@Entity
+@Table(name="task_closure")
+@IdClass(TaskClosure.Key.class)
+public class TaskClosure {
+    @Id
+    @Column(name="ancestor_id", updatable = false, nullable = false)
+    private UUID ancestorId;
+
+    @Id
+    @Column(name="descendant_id", updatable = false, nullable = false)
+    private UUID descendantId;
+
+    @TenantId
+    @Column(name="tenant_id", nullable = false, updatable = false)
+    private String tenantId;
+
+    @Column(name="depth", nullable = false, updatable = false)
+    private int depth;
+
+    @Column(name="task_list_id", nullable = false, updatable = false)
+    private UUID taskListId;
+
+    public TaskClosure() {
+    }
+
+    public UUID getAncestorId() {
+        return ancestorId;
+    }
+
+    public UUID getDescendantId() {
+        return descendantId;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public UUID getTaskListId() {
+        return taskListId;
+    }
+
+    public record Key(UUID ancestorId, UUID descendantId) implements Serializable {
+    }
+}
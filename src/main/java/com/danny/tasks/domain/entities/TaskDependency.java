@@ -0,0 +1,57 @@
+package com.danny.tasks.domain.entities;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * "blockedId can't be closed before blockerId": an edge of a task list's dependency graph.
+ * Read through JPQL, written with the native statements in TaskDependencyRepository.
+ */
+@Entity
+@Table(name="task_dependencies")
+@IdClass(TaskDependency.Key.class)
+public class TaskDependency {
+    @Id
+    @Column(name="blocked_id", updatable = false, nullable = false)
+    private UUID blockedId;
+
+    @Id
+    @Column(name="blocker_id", updatable = false, nullable = false)
+    private UUID blockerId;
+
+    @TenantId
+    @Column(name="tenant_id", nullable = false, updatable = false)
+    private String tenantId;
+
+    @Column(name="task_list_id", nullable = false, updatable = false)
+    private UUID taskListId;
+
+    @Column(name="created", nullable = false, updatable = false)
+    private LocalDateTime created;
+
+    public TaskDependency() {
+    }
+
+    public UUID getBlockedId() {
+        return blockedId;
+    }
+
+    public UUID getBlockerId() {
+        return blockerId;
+    }
+
+    public UUID getTaskListId() {
+        return taskListId;
+    }
+
+    public LocalDateTime getCreated() {
+        return created;
+    }
+
+    public record Key(UUID blockedId, UUID blockerId) implements Serializable {
+    }
+}
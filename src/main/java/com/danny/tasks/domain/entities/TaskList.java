@@ -1,6 +1,8 @@
 package com.danny.tasks.domain.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -10,10 +12,10 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "task_lists")
-public class TaskList {
+public class TaskList implements Persistable<UUID> {
 
+    // Assigned when the entity is created (see hashCode()), never changed
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     @Column(name="id", updatable = false, nullable = false)
     private UUID id;
 
@@ -27,6 +29,7 @@ public class TaskList {
             CascadeType.REMOVE, // When we delete taskList all the tasks under it will be removed
             CascadeType.PERSIST //When We save a tasked List any tasks it contains will be saved as well
     })
+    @OrderBy("sortRank ASC, id ASC") // User-defined order, see Task.sortRank
     private List<Task> tasks;
 
     @Column(name="created", nullable = false)
@@ -35,6 +38,14 @@ public class TaskList {
     @Column(name="updated", nullable = false)
     private LocalDateTime updated;
 
+    // Set by Hibernate on insert from the current tenant (see TenantIdentifierResolver), never by hand
+    @TenantId
+    @Column(name="tenant_id", nullable = false, updatable = false)
+    private String tenantId;
+
+    @Transient
+    private boolean persisted;
+
     public TaskList() {
     }
 
@@ -51,8 +62,18 @@ public class TaskList {
         return id;
     }
 
-    public void setId(UUID id) {
-        this.id = id;
+    /**
+     * See Task.isNew().
+     */
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        persisted = true;
     }
 
     public String getTitle() {
@@ -95,16 +116,26 @@ public class TaskList {
         this.updated = updated;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    /**
+     * Same identity rules as Task: equal when the ids are equal, without touching the tasks collection.
+     */
     @Override
     public boolean equals(Object o) {
-        if (o == null || getClass() != o.getClass()) return false;
-        TaskList taskList = (TaskList) o;
-        return Objects.equals(id, taskList.id) && Objects.equals(title, taskList.title) && Objects.equals(description, taskList.description) && Objects.equals(tasks, taskList.tasks) && Objects.equals(created, taskList.created) && Objects.equals(updated, taskList.updated);
+        if (this == o) return true;
+        if (!(o instanceof TaskList taskList)) return false;
+        return id != null && id.equals(taskList.getId());
     }
 
+    /**
+     * The id's hash, for the reasons given in Task.hashCode().
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(id, title, description, tasks, created, updated);
+        return Objects.hashCode(getId());
     }
 
     @Override
@@ -113,7 +144,6 @@ public class TaskList {
                 "id=" + id +
                 ", title='" + title + '\'' +
                 ", description='" + description + '\'' +
-                ", tasks=" + tasks +
                 ", created=" + created +
                 ", updated=" + updated +
                 '}';
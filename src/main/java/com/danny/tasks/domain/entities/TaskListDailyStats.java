@@ -0,0 +1,59 @@
+package com.danny.tasks.domain.entities;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Net number of tasks closed in a list on one day (closing counts +1, reopening -1): one row of a burndown chart.
+ */
+@Entity
+@Table(name="task_list_daily_stats")
+@IdClass(TaskListDailyStats.Key.class)
+public class TaskListDailyStats {
+    @Id
+    @Column(name="task_list_id", updatable = false, nullable = false)
+    private UUID taskListId;
+
+    @Id
+    @Column(name="stat_date", updatable = false, nullable = false)
+    private LocalDate date;
+
+    @TenantId
+    @Column(name="tenant_id", nullable = false, updatable = false)
+    private String tenantId;
+
+    @Column(name="closed_count", nullable = false)
+    private long closedCount;
+
+    public TaskListDailyStats() {
+    }
+
+    public TaskListDailyStats(UUID taskListId, LocalDate date, long closedCount) {
+        this.taskListId = taskListId;
+        this.date = date;
+        this.closedCount = closedCount;
+    }
+
+    public UUID getTaskListId() {
+        return taskListId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public long getClosedCount() {
+        return closedCount;
+    }
+
+    public void addClosed(long delta) {
+        closedCount += delta;
+    }
+
+    public record Key(UUID taskListId, LocalDate date) implements Serializable {
+    }
+}
@@ -0,0 +1,100 @@
+package com.danny.tasks.domain.entities;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+
+import java.util.UUID;
+
+/**
+ * Number of tasks in a list per status and priority, maintained on every task write
+ * (see TaskListStatsService) so dashboards never have to count the tasks themselves.
+ */
+@Entity
+@Table(name="task_list_stats")
+public class TaskListStats {
+    @Id
+    @Column(name="task_list_id", updatable = false, nullable = false)
+    private UUID taskListId;
+
+    @TenantId
+    @Column(name="tenant_id", nullable = false, updatable = false)
+    private String tenantId;
+
+    @Column(name="open_high", nullable = false)
+    private long openHigh;
+
+    @Column(name="open_medium", nullable = false)
+    private long openMedium;
+
+    @Column(name="open_low", nullable = false)
+    private long openLow;
+
+    @Column(name="closed_high", nullable = false)
+    private long closedHigh;
+
+    @Column(name="closed_medium", nullable = false)
+    private long closedMedium;
+
+    @Column(name="closed_low", nullable = false)
+    private long closedLow;
+
+    // Bumped on every change to the list's task dependencies (see DependencyGraphs)
+    @Column(name="dependency_version", nullable = false)
+    private long dependencyVersion;
+
+    public TaskListStats() {
+    }
+
+    public TaskListStats(UUID taskListId) {
+        this.taskListId = taskListId;
+    }
+
+    public UUID getTaskListId() {
+        return taskListId;
+    }
+
+    public long getDependencyVersion() {
+        return dependencyVersion;
+    }
+
+    /**
+     * Returns the new version.
+     */
+    public long dependenciesChanged() {
+        return ++dependencyVersion;
+    }
+
+    public long count(TaskStatus status, TaskPriority priority) {
+        return switch (status) {
+            case OPEN -> switch (priority) {
+                case HIGH -> openHigh;
+                case MEDIUM -> openMedium;
+                case LOW -> openLow;
+            };
+            case CLOSED -> switch (priority) {
+                case HIGH -> closedHigh;
+                case MEDIUM -> closedMedium;
+                case LOW -> closedLow;
+            };
+        };
+    }
+
+    public void adjust(TaskStatus status, TaskPriority priority, long delta) {
+        switch (status) {
+            case OPEN -> {
+                switch (priority) {
+                    case HIGH -> openHigh += delta;
+                    case MEDIUM -> openMedium += delta;
+                    case LOW -> openLow += delta;
+                }
+            }
+            case CLOSED -> {
+                switch (priority) {
+                    case HIGH -> closedHigh += delta;
+                    case MEDIUM -> closedMedium += delta;
+                    case LOW -> closedLow += delta;
+                }
+            }
+        }
+    }
+}
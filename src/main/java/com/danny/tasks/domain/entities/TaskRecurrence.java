@@ -0,0 +1,126 @@
+package com.danny.tasks.domain.entities;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A recurring task: the template (title, description, priority) plus a cron rule for the due dates.
+ * RecurrenceMaterializer turns it into ordinary tasks ahead of time.
+ *
+ * nextDueDate is the first occurrence that has no task yet, null once the rule has ended (after endsAt).
+ */
+@Entity
+@Table(name = "task_recurrences")
+public class TaskRecurrence {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name="id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name="task_list_id", updatable = false, nullable = false)
+    private UUID taskListId;
+
+    @Column(name="title", nullable = false)
+    private String title;
+
+    @Column(name="description")
+    private String description;
+
+    @Column(name="priority", nullable = false)
+    private TaskPriority priority;
+
+    // A Spring cron expression ("0 0 9 * * MON-FRI") or macro ("@daily", "@weekly")
+    @Column(name="recurrence_rule", nullable = false)
+    private String rule;
+
+    @Column(name="next_due_date")
+    private LocalDateTime nextDueDate;
+
+    @Column(name="ends_at")
+    private LocalDateTime endsAt;
+
+    // Which materializer partition picks the rule up, see RecurrenceMaterializer
+    @Column(name="shard", updatable = false, nullable = false)
+    private int shard;
+
+    @Column(name="created", nullable = false)
+    private LocalDateTime created;
+
+    @Column(name="updated", nullable = false)
+    private LocalDateTime updated;
+
+    // Set by Hibernate on insert from the current tenant (see TenantIdentifierResolver), never by hand
+    @TenantId
+    @Column(name="tenant_id", nullable = false, updatable = false)
+    private String tenantId;
+
+    public TaskRecurrence() {
+    }
+
+    public TaskRecurrence(UUID id, UUID taskListId, String title, String description, TaskPriority priority, String rule,
+                          LocalDateTime nextDueDate, LocalDateTime endsAt, int shard, LocalDateTime created, LocalDateTime updated) {
+        this.id = id;
+        this.taskListId = taskListId;
+        this.title = title;
+        this.description = description;
+        this.priority = priority;
+        this.rule = rule;
+        this.nextDueDate = nextDueDate;
+        this.endsAt = endsAt;
+        this.shard = shard;
+        this.created = created;
+        this.updated = updated;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getTaskListId() {
+        return taskListId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public String getRule() {
+        return rule;
+    }
+
+    public LocalDateTime getNextDueDate() {
+        return nextDueDate;
+    }
+
+    public LocalDateTime getEndsAt() {
+        return endsAt;
+    }
+
+    public int getShard() {
+        return shard;
+    }
+
+    public LocalDateTime getCreated() {
+        return created;
+    }
+
+    public LocalDateTime getUpdated() {
+        return updated;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+}
@@ -0,0 +1,13 @@
+package com.danny.tasks.events;
+
+import java.util.UUID;
+
+/**
+ * Published by the service layer whenever a task list or one of its tasks is created, updated or deleted.
+ *
+ * Listeners that keep derived data (caches, read models) use it to drop what they hold for the list.
+ * The event is published inside the write transaction; listeners that must only see committed data
+ * should use @TransactionalEventListener.
+ */
+public record TaskListChangedEvent(UUID taskListId) {
+}
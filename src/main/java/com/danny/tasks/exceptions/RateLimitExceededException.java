@@ -0,0 +1,20 @@
+package com.danny.tasks.exceptions;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a client sends write requests faster than its rate limit allows.
+ * Mapped to HTTP 429 (Too Many Requests) by GlobalExceptionHandler.
+ */
+public class RateLimitExceededException extends RuntimeException{
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
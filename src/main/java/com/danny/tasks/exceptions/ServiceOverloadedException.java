@@ -0,0 +1,20 @@
+package com.danny.tasks.exceptions;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a request is shed because the service is already working at its concurrency limit.
+ * Mapped to HTTP 503 (Service Unavailable) by GlobalExceptionHandler.
+ */
+public class ServiceOverloadedException extends RuntimeException{
+    private final Duration retryAfter;
+
+    public ServiceOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,11 @@
+package com.danny.tasks.exceptions;
+
+/**
+ * Thrown when a task is closed while some of its blockers are still open.
+ * Mapped to HTTP 409 (Conflict) by GlobalExceptionHandler.
+ */
+public class TaskBlockedException extends RuntimeException{
+    public TaskBlockedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,54 @@
+package com.danny.tasks.invalidation;
+
+import com.danny.tasks.cache.TaskListResponseCache;
+import com.danny.tasks.events.TaskListChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Keeps the caches of all instances in step:
+ *
+ * - Local writes: every TaskListChangedEvent is sent over the {@link InvalidationBus}, tagged with this
+ *   instance's id. A bus that delivers on commit gets it inside the writing transaction, so the message
+ *   commits with the write; any other bus gets it once the transaction has committed.
+ * - Messages from other instances: the task list is evicted from the local caches.
+ *   Messages this instance sent itself are skipped, the local cache already handled the event.
+ */
+@Component
+public class ClusterInvalidation {
+
+    private final UUID instanceId = UUID.randomUUID();
+    private final InvalidationBus bus;
+    private final TaskListResponseCache responseCache;
+
+    public ClusterInvalidation(InvalidationBus bus, TaskListResponseCache responseCache) {
+        this.bus = bus;
+        this.responseCache = responseCache;
+        bus.subscribe(this::onMessage);
+    }
+
+    @EventListener
+    public void onTaskListChanged(TaskListChangedEvent event) {
+        InvalidationBus.InvalidationMessage message = new InvalidationBus.InvalidationMessage(instanceId, event.taskListId());
+        if (bus.deliversOnCommit() || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            bus.publish(message);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bus.publish(message);
+            }
+        });
+    }
+
+    private void onMessage(InvalidationBus.InvalidationMessage message) {
+        if (!instanceId.equals(message.origin())) {
+            responseCache.invalidate(message.taskListId());
+        }
+    }
+}
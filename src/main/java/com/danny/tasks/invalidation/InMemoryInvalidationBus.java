@@ -0,0 +1,38 @@
+package com.danny.tasks.invalidation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Bus shared by every application context in the same JVM, delivering synchronously on the publishing thread.
+ *
+ * Stand-in for a real bus in tests (several contexts side by side) and for single-instance deployments.
+ */
+public class InMemoryInvalidationBus implements InvalidationBus {
+
+    private static final List<Consumer<InvalidationMessage>> SUBSCRIBERS = new CopyOnWriteArrayList<>();
+
+    private final List<Consumer<InvalidationMessage>> own = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(InvalidationMessage message) {
+        for (Consumer<InvalidationMessage> subscriber : SUBSCRIBERS) {
+            subscriber.accept(message);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationMessage> subscriber) {
+        own.add(subscriber);
+        SUBSCRIBERS.add(subscriber);
+    }
+
+    /**
+     * Called when the context closes, so closed contexts stop receiving messages.
+     */
+    public void close() {
+        SUBSCRIBERS.removeAll(own);
+        own.clear();
+    }
+}
@@ -0,0 +1,43 @@
+package com.danny.tasks.invalidation;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Carries "task list X changed" messages between application instances, so each one can evict
+ * what it has cached about X.
+ *
+ * Implementations deliver a message to every instance's subscriber, including the sender's own;
+ * {@link ClusterInvalidation} drops the ones it sent itself.
+ */
+public interface InvalidationBus {
+
+    void publish(InvalidationMessage message);
+
+    void subscribe(Consumer<InvalidationMessage> subscriber);
+
+    /**
+     * True if publish() may be called inside the writing transaction and the message only goes out when (and if)
+     * that transaction commits. Otherwise {@link ClusterInvalidation} publishes after the commit.
+     */
+    default boolean deliversOnCommit() {
+        return false;
+    }
+
+    /**
+     * @param origin id of the instance that made the change
+     */
+    record InvalidationMessage(UUID origin, UUID taskListId) {
+
+        String encode() {
+            return origin + ":" + taskListId;
+        }
+
+        static InvalidationMessage decode(String payload) {
+            int separator = payload.indexOf(':');
+            return new InvalidationMessage(
+                    UUID.fromString(payload.substring(0, separator)),
+                    UUID.fromString(payload.substring(separator + 1)));
+        }
+    }
+}
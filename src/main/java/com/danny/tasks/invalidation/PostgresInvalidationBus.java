@@ -0,0 +1,147 @@
+package com.danny.tasks.invalidation;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Bus on top of Postgres LISTEN/NOTIFY, so instances sharing a database need no extra infrastructure.
+ *
+ * - Publishing runs "SELECT pg_notify(channel, payload)" through the application's JdbcTemplate, inside the
+ *   writing transaction ({@link #deliversOnCommit()}). Postgres only delivers the notification when that
+ *   transaction commits, and drops it on rollback: a committed write always notifies, even if the process dies
+ *   right after the commit, and publishing needs no connection or lock of its own.
+ * - A daemon thread keeps a separate connection LISTENing and polls it for notifications every 500ms at most
+ *   (pgjdbc returns as soon as one arrives). It comes straight from the driver, outside the Hikari pool, so it
+ *   never takes a pool slot.
+ *
+ * When the listening connection breaks, notifications sent meanwhile are lost. After reconnecting, the
+ * bus calls the reconnect hook so the instance can drop everything it had cached.
+ */
+public class PostgresInvalidationBus implements InvalidationBus, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresInvalidationBus.class);
+
+    static final String CHANNEL = "tasks_invalidation";
+    private static final int POLL_MILLIS = 500;
+    private static final long RECONNECT_DELAY_MILLIS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final Runnable onReconnect;
+    private final List<Consumer<InvalidationMessage>> subscribers = new CopyOnWriteArrayList<>();
+
+    private Thread listener;
+    private volatile boolean running;
+
+    public PostgresInvalidationBus(JdbcTemplate jdbcTemplate, String url, String username, String password,
+                                   Runnable onReconnect) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.onReconnect = onReconnect;
+    }
+
+    /**
+     * Part of the current transaction: if this fails, so does the write, as Postgres can't commit a transaction
+     * with a failed statement in it. Postgres also drops duplicate notifications within a transaction.
+     */
+    @Override
+    public void publish(InvalidationMessage message) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", resultSet -> null, CHANNEL, message.encode());
+    }
+
+    @Override
+    public boolean deliversOnCommit() {
+        return true;
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationMessage> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listener = new Thread(this::listen, "task-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        listener.interrupt();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnecting) {
+                    onReconnect.run();
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        deliver(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Invalidation listener lost its connection, reconnecting", e);
+                }
+            }
+            reconnecting = true;
+            sleep();
+        }
+    }
+
+    private void deliver(String payload) {
+        InvalidationMessage message;
+        try {
+            message = InvalidationMessage.decode(payload);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            log.warn("Ignoring malformed invalidation '{}'", payload);
+            return;
+        }
+        for (Consumer<InvalidationMessage> subscriber : subscribers) {
+            subscriber.accept(message);
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(RECONNECT_DELAY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.danny.tasks.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Low-level helpers shared by the hand-written deserializers.
+ *
+ * Each method expects the parser to be positioned on the value token. Anything the fast path
+ * doesn't understand is handed to Jackson's regular deserializers, so invalid input produces the
+ * same exceptions (and the same error messages from GlobalExceptionHandler) as before.
+ */
+final class JsonReaders {
+
+    private JsonReaders() {
+    }
+
+    static String readString(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (p.currentToken() == JsonToken.VALUE_STRING) {
+            return p.getText();
+        }
+        return ctxt.readValue(p, String.class);
+    }
+
+    static Integer readInteger(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (p.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return p.getIntValue();
+        }
+        return ctxt.readValue(p, Integer.class);
+    }
+
+    static Double readDouble(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (p.currentToken().isNumeric()) {
+            return p.getDoubleValue();
+        }
+        return ctxt.readValue(p, Double.class);
+    }
+
+    static UUID readUuid(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (p.currentToken() == JsonToken.VALUE_STRING) {
+            try {
+                return UUID.fromString(p.getText());
+            } catch (IllegalArgumentException e) {
+                // fall through to Jackson's error reporting
+            }
+        }
+        return ctxt.readValue(p, UUID.class);
+    }
+
+    static LocalDateTime readDateTime(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (p.currentToken() == JsonToken.VALUE_STRING) {
+            try {
+                return LocalDateTime.parse(p.getText());
+            } catch (DateTimeParseException e) {
+                // fall through to Jackson's lenient parsing and error reporting
+            }
+        }
+        return ctxt.readValue(p, LocalDateTime.class);
+    }
+
+    /**
+     * Accepts the constant name or its ordinal, like Jackson's default enum handling.
+     * Unknown values raise an InvalidFormatException, which GlobalExceptionHandler turns into
+     * a message listing the allowed values.
+     */
+    static <E extends Enum<E>> E readEnum(JsonParser p, DeserializationContext ctxt, Class<E> enumClass) throws IOException {
+        E[] constants = enumClass.getEnumConstants();
+        switch (p.currentToken()) {
+            case VALUE_NULL -> {
+                return null;
+            }
+            case VALUE_STRING -> {
+                String text = p.getText();
+                for (E constant : constants) {
+                    if (constant.name().equals(text)) {
+                        return constant;
+                    }
+                }
+                throw ctxt.weirdStringException(text, enumClass,
+                        "not one of the values accepted for Enum class: " + Arrays.stream(constants)
+                                .map(Enum::name)
+                                .collect(Collectors.joining(", ", "[", "]")));
+            }
+            case VALUE_NUMBER_INT -> {
+                int ordinal = p.getIntValue();
+                if (ordinal >= 0 && ordinal < constants.length) {
+                    return constants[ordinal];
+                }
+                throw ctxt.weirdNumberException(ordinal, enumClass,
+                        "index value outside legal index range [0.." + (constants.length - 1) + "]");
+            }
+            default -> {
+                return ctxt.readValue(p, enumClass);
+            }
+        }
+    }
+}
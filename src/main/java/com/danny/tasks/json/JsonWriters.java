@@ -0,0 +1,123 @@
+package com.danny.tasks.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+/**
+ * Low-level helpers shared by the hand-written serializers.
+ *
+ * The goal is to write values straight into the JsonGenerator without building a String for each one:
+ * - enum names are pre-encoded once (SerializedString caches the quoted UTF-8 bytes)
+ * - UUIDs and timestamps are formatted into a small per-thread char buffer
+ */
+final class JsonWriters {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    // Big enough for "yyyy-MM-ddTHH:mm:ss.nnnnnnnnn" (29 chars) and a UUID (36 chars)
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[36]);
+
+    private JsonWriters() {
+    }
+
+    /**
+     * Pre-encodes the names of an enum's constants, indexed by ordinal.
+     */
+    static SerializableString[] enumNames(Class<? extends Enum<?>> enumClass) {
+        Enum<?>[] constants = enumClass.getEnumConstants();
+        SerializableString[] names = new SerializableString[constants.length];
+        for (Enum<?> constant : constants) {
+            names[constant.ordinal()] = new SerializedString(constant.name());
+        }
+        return names;
+    }
+
+    static void writeEnum(JsonGenerator gen, SerializableString[] names, Enum<?> value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(names[value.ordinal()]);
+        }
+    }
+
+    static void writeUuid(JsonGenerator gen, UUID value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+            return;
+        }
+        char[] buffer = BUFFER.get();
+        long msb = value.getMostSignificantBits();
+        long lsb = value.getLeastSignificantBits();
+        hex(buffer, 0, msb >>> 32, 8);
+        buffer[8] = '-';
+        hex(buffer, 9, msb >>> 16, 4);
+        buffer[13] = '-';
+        hex(buffer, 14, msb, 4);
+        buffer[18] = '-';
+        hex(buffer, 19, lsb >>> 48, 4);
+        buffer[23] = '-';
+        hex(buffer, 24, lsb, 12);
+        gen.writeString(buffer, 0, 36);
+    }
+
+    /**
+     * Writes the same text as DateTimeFormatter.ISO_LOCAL_DATE_TIME (Jackson's default for LocalDateTime):
+     * seconds are always present, the fraction only when non-zero and without trailing zeros.
+     */
+    static void writeDateTime(JsonGenerator gen, LocalDateTime value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+            return;
+        }
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            // Signed or 5+ digit years are rare enough to take the formatter path
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+            return;
+        }
+        char[] buffer = BUFFER.get();
+        digits(buffer, 0, year, 4);
+        buffer[4] = '-';
+        digits(buffer, 5, value.getMonthValue(), 2);
+        buffer[7] = '-';
+        digits(buffer, 8, value.getDayOfMonth(), 2);
+        buffer[10] = 'T';
+        digits(buffer, 11, value.getHour(), 2);
+        buffer[13] = ':';
+        digits(buffer, 14, value.getMinute(), 2);
+        buffer[16] = ':';
+        digits(buffer, 17, value.getSecond(), 2);
+        int length = 19;
+
+        int nano = value.getNano();
+        if (nano != 0) {
+            buffer[19] = '.';
+            digits(buffer, 20, nano, 9);
+            length = 29;
+            while (buffer[length - 1] == '0') {
+                length--;
+            }
+        }
+        gen.writeString(buffer, 0, length);
+    }
+
+    private static void digits(char[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static void hex(char[] buffer, int offset, long value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.danny.tasks.json;
+
+import com.danny.tasks.domain.dto.TaskDto;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Hand-written JSON (de)serialization for TaskDto.
+ *
+ * Jackson's default record handling goes through reflection and looks up a serializer per property
+ * on every call. For large task lists that shows up in profiles, so TaskDto is written and read
+ * directly with the streaming JsonGenerator/JsonParser API instead.
+ *
+ * The output is identical to what the default ObjectMapper produced, so clients see no difference.
+ * Spring Boot picks up @JsonComponent classes and registers them on the application's ObjectMapper,
+ * which is used by both TaskController and TaskListController.
+ */
+@JsonComponent
+public class TaskDtoJsonComponent {
+
+    static final SerializableString ID = new SerializedString("id");
+    static final SerializableString TITLE = new SerializedString("title");
+    static final SerializableString DESCRIPTION = new SerializedString("description");
+    static final SerializableString DUE_DATE = new SerializedString("dueDate");
+    static final SerializableString PRIORITY = new SerializedString("priority");
+    static final SerializableString STATUS = new SerializedString("status");
+
+    private static final SerializableString[] PRIORITY_NAMES = JsonWriters.enumNames(TaskPriority.class);
+    private static final SerializableString[] STATUS_NAMES = JsonWriters.enumNames(TaskStatus.class);
+
+    public static class Serializer extends StdSerializer<TaskDto> {
+
+        public Serializer() {
+            super(TaskDto.class);
+        }
+
+        @Override
+        public void serialize(TaskDto task, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(task);
+            gen.writeFieldName(ID);
+            JsonWriters.writeUuid(gen, task.id());
+            gen.writeFieldName(TITLE);
+            gen.writeString(task.title());
+            gen.writeFieldName(DESCRIPTION);
+            gen.writeString(task.description());
+            gen.writeFieldName(DUE_DATE);
+            JsonWriters.writeDateTime(gen, task.dueDate());
+            gen.writeFieldName(PRIORITY);
+            JsonWriters.writeEnum(gen, PRIORITY_NAMES, task.priority());
+            gen.writeFieldName(STATUS);
+            JsonWriters.writeEnum(gen, STATUS_NAMES, task.status());
+            gen.writeEndObject();
+        }
+    }
+
+    public static class Deserializer extends StdDeserializer<TaskDto> {
+
+        public Deserializer() {
+            super(TaskDto.class);
+        }
+
+        @Override
+        public TaskDto deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.START_OBJECT) {
+                p.nextToken();
+            } else if (p.currentToken() != JsonToken.FIELD_NAME && p.currentToken() != JsonToken.END_OBJECT) {
+                return (TaskDto) ctxt.handleUnexpectedToken(TaskDto.class, p);
+            }
+
+            UUID id = null;
+            String title = null;
+            String description = null;
+            LocalDateTime dueDate = null;
+            TaskPriority priority = null;
+            TaskStatus status = null;
+
+            for (; p.currentToken() == JsonToken.FIELD_NAME; p.nextToken()) {
+                String field = p.currentName();
+                p.nextToken();
+                try {
+                    switch (field) {
+                        case "id" -> id = JsonReaders.readUuid(p, ctxt);
+                        case "title" -> title = JsonReaders.readString(p, ctxt);
+                        case "description" -> description = JsonReaders.readString(p, ctxt);
+                        case "dueDate" -> dueDate = JsonReaders.readDateTime(p, ctxt);
+                        case "priority" -> priority = JsonReaders.readEnum(p, ctxt, TaskPriority.class);
+                        case "status" -> status = JsonReaders.readEnum(p, ctxt, TaskStatus.class);
+                        default -> handleUnknownProperty(p, ctxt, TaskDto.class, field);
+                    }
+                } catch (JsonMappingException e) {
+                    // Records the field name, which GlobalExceptionHandler reports back to the client
+                    throw JsonMappingException.wrapWithPath(e, TaskDto.class, field);
+                }
+            }
+            return new TaskDto(id, title, description, dueDate, priority, status);
+        }
+    }
+}
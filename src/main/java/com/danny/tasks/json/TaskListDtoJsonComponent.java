@@ -0,0 +1,149 @@
+package com.danny.tasks.json;
+
+import com.danny.tasks.domain.dto.TaskDto;
+import com.danny.tasks.domain.dto.TaskListDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Hand-written JSON (de)serialization for TaskListDto, see TaskDtoJsonComponent.
+ *
+ * Embedded tasks are handled by calling the TaskDto (de)serializer directly,
+ * so there is no serializer lookup per element either.
+ */
+@JsonComponent
+public class TaskListDtoJsonComponent {
+
+    private static final SerializableString COUNT = new SerializedString("count");
+    private static final SerializableString PROGRESS = new SerializedString("progress");
+    private static final SerializableString TASKS = new SerializedString("tasks");
+
+    public static class Serializer extends StdSerializer<TaskListDto> {
+
+        private final TaskDtoJsonComponent.Serializer taskSerializer = new TaskDtoJsonComponent.Serializer();
+
+        public Serializer() {
+            super(TaskListDto.class);
+        }
+
+        @Override
+        public void serialize(TaskListDto taskList, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(taskList);
+            gen.writeFieldName(TaskDtoJsonComponent.ID);
+            JsonWriters.writeUuid(gen, taskList.id());
+            gen.writeFieldName(TaskDtoJsonComponent.TITLE);
+            gen.writeString(taskList.title());
+            gen.writeFieldName(TaskDtoJsonComponent.DESCRIPTION);
+            gen.writeString(taskList.description());
+
+            gen.writeFieldName(COUNT);
+            if (taskList.count() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(taskList.count());
+            }
+
+            gen.writeFieldName(PROGRESS);
+            if (taskList.progress() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(taskList.progress());
+            }
+
+            gen.writeFieldName(TASKS);
+            List<TaskDto> tasks = taskList.tasks();
+            if (tasks == null) {
+                gen.writeNull();
+            } else {
+                gen.writeStartArray(tasks, tasks.size());
+                for (TaskDto task : tasks) {
+                    if (task == null) {
+                        gen.writeNull();
+                    } else {
+                        taskSerializer.serialize(task, gen, provider);
+                    }
+                }
+                gen.writeEndArray();
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    public static class Deserializer extends StdDeserializer<TaskListDto> {
+
+        private final TaskDtoJsonComponent.Deserializer taskDeserializer = new TaskDtoJsonComponent.Deserializer();
+
+        public Deserializer() {
+            super(TaskListDto.class);
+        }
+
+        @Override
+        public TaskListDto deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.START_OBJECT) {
+                p.nextToken();
+            } else if (p.currentToken() != JsonToken.FIELD_NAME && p.currentToken() != JsonToken.END_OBJECT) {
+                return (TaskListDto) ctxt.handleUnexpectedToken(TaskListDto.class, p);
+            }
+
+            UUID id = null;
+            String title = null;
+            String description = null;
+            Integer count = null;
+            Double progress = null;
+            List<TaskDto> tasks = null;
+
+            for (; p.currentToken() == JsonToken.FIELD_NAME; p.nextToken()) {
+                String field = p.currentName();
+                p.nextToken();
+                try {
+                    switch (field) {
+                        case "id" -> id = JsonReaders.readUuid(p, ctxt);
+                        case "title" -> title = JsonReaders.readString(p, ctxt);
+                        case "description" -> description = JsonReaders.readString(p, ctxt);
+                        case "count" -> count = JsonReaders.readInteger(p, ctxt);
+                        case "progress" -> progress = JsonReaders.readDouble(p, ctxt);
+                        case "tasks" -> tasks = readTasks(p, ctxt);
+                        default -> handleUnknownProperty(p, ctxt, TaskListDto.class, field);
+                    }
+                } catch (JsonMappingException e) {
+                    throw JsonMappingException.wrapWithPath(e, TaskListDto.class, field);
+                }
+            }
+            return new TaskListDto(id, title, description, count, progress, tasks);
+        }
+
+        private List<TaskDto> readTasks(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            if (p.currentToken() != JsonToken.START_ARRAY) {
+                @SuppressWarnings("unchecked")
+                List<TaskDto> unexpected = (List<TaskDto>) ctxt.handleUnexpectedToken(List.class, p);
+                return unexpected;
+            }
+            List<TaskDto> tasks = new ArrayList<>();
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                try {
+                    tasks.add(p.currentToken() == JsonToken.VALUE_NULL ? null : taskDeserializer.deserialize(p, ctxt));
+                } catch (JsonMappingException e) {
+                    throw JsonMappingException.wrapWithPath(e, tasks, tasks.size());
+                }
+            }
+            return tasks;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.danny.tasks.overdue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes overdue tasks to the log. A stand-in until a real channel (mail, push, webhook) is plugged in;
+ * turn it off with tasks.overdue.log-notifier=false.
+ */
+@Component
+@ConditionalOnProperty(name = "tasks.overdue.log-notifier", havingValue = "true", matchIfMissing = true)
+public class LoggingOverdueNotifier implements OverdueNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingOverdueNotifier.class);
+
+    @Override
+    public void notify(List<OverdueTask> tasks) {
+        for (OverdueTask task : tasks) {
+            log.info("Task {} \"{}\" of list {} (tenant {}) is overdue since {}",
+                    task.taskId(), task.title(), task.taskListId(), task.tenantId(), task.dueDate());
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.danny.tasks.overdue;
+
+import com.danny.tasks.audit.AuditEvent;
+import com.danny.tasks.domain.entities.TaskStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reports tasks to the {@link OverdueNotifier}s when their due date passes.
+ *
+ * Every open task with a due date has a timer in a {@link TimerWheel}, so finding the tasks that just became
+ * overdue costs nothing per pending task and the tasks table is never polled:
+ * - On startup the open tasks with a due date are loaded once, in one streamed query.
+ * - From then on the timers follow the AuditEvents the service layer publishes for every task change
+ *   (TaskServiceImpl, write-behind updates, recurring tasks): a new or changed due date (re)schedules the
+ *   task's timer, closing or deleting the task cancels it.
+ * - Every tick the wheel is advanced on a background thread. The tasks whose timers fired are read back by id,
+ *   and only those still open with the same due date are reported. This also drops timers that went stale
+ *   because the task was changed on another instance or its list was deleted.
+ *
+ * A notification is first claimed in overdue_notifications (primary key task id + due date), so with several
+ * instances tracking the same tasks, each due date is reported once.
+ *
+ * Memory: about 120 bytes per pending timer (the timer, its map entry and the task id).
+ */
+@Component
+@ConditionalOnProperty(name = "tasks.storage.engine", havingValue = "jpa", matchIfMissing = true)
+@EnableConfigurationProperties(OverdueProperties.class)
+public class OverdueEngine implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(OverdueEngine.class);
+
+    private static final int LOAD_FETCH_SIZE = 10_000;
+    private static final Duration CLEANUP_INTERVAL = Duration.ofHours(1);
+
+    private final OverdueProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<OverdueNotifier> notifiers;
+
+    // Guards wheel and timers; held only for in-memory work
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TimerWheel<UUID> wheel;
+    private final Map<UUID, TimerWheel.Timer<UUID>> timers = new HashMap<>();
+    // Only one advance at a time (the scheduled one or a test's)
+    private final ReentrantLock advanceLock = new ReentrantLock();
+
+    private LocalDateTime nextCleanup = LocalDateTime.MIN;
+    private ScheduledExecutorService ticker;
+    private volatile boolean running;
+
+    public OverdueEngine(OverdueProperties properties, JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate,
+                         TransactionTemplate transactionTemplate, ObjectProvider<OverdueNotifier> notifiers) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.notifiers = notifiers;
+        this.wheel = new TimerWheel<>(properties.tick().toNanos() / 1000, micros(LocalDateTime.now()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(AuditEvent event) {
+        if (!properties.enabled() || event.taskId() == null) {
+            return;
+        }
+        switch (event.action()) {
+            case TASK_CREATED, TASK_UPDATED, TASK_MOVED -> {
+                if (event.status() == TaskStatus.OPEN && event.dueDate() != null) {
+                    track(event.taskId(), micros(event.dueDate()), true);
+                } else {
+                    untrack(event.taskId());
+                }
+            }
+            case TASK_DELETED -> untrack(event.taskId());
+            default -> {
+                // Deleted lists take their tasks along; their timers are dropped when they fire
+            }
+        }
+    }
+
+    /**
+     * Fires every timer due by now and reports the tasks that are still overdue.
+     * Runs every tick on the engine's thread; public for tests.
+     *
+     * @return the number of tasks reported
+     */
+    public int advance(LocalDateTime now) {
+        advanceLock.lock();
+        try {
+            List<TimerWheel.Timer<UUID>> due = new ArrayList<>();
+            lock.lock();
+            try {
+                wheel.advance(micros(now), timer -> {
+                    timers.remove(timer.value(), timer);
+                    due.add(timer);
+                });
+            } finally {
+                lock.unlock();
+            }
+
+            int reported = 0;
+            for (int from = 0; from < due.size(); from += properties.verifyBatchSize()) {
+                List<TimerWheel.Timer<UUID>> batch = due.subList(from, Math.min(from + properties.verifyBatchSize(), due.size()));
+                try {
+                    reported += report(batch, now);
+                } catch (RuntimeException e) {
+                    // Try these again next tick (unless the task has changed meanwhile)
+                    for (TimerWheel.Timer<UUID> timer : due.subList(from, due.size())) {
+                        track(timer.value(), timer.deadline(), false);
+                    }
+                    throw e;
+                }
+            }
+            if (!now.isBefore(nextCleanup)) {
+                jdbcTemplate.update("DELETE FROM overdue_notifications WHERE due_date < ?", now.minus(properties.claimRetention()));
+                nextCleanup = now.plus(CLEANUP_INTERVAL);
+            }
+            return reported;
+        } finally {
+            advanceLock.unlock();
+        }
+    }
+
+    public int pendingCount() {
+        lock.lock();
+        try {
+            return timers.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Schedules the open tasks with a due date after now - catch-up, across all tenants. Timers already set by
+     * events that came in meanwhile are newer than what the query read, so they are kept.
+     */
+    void load(LocalDateTime now) {
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        // Postgres only streams with a fetch size inside a transaction
+        streaming.setFetchSize(LOAD_FETCH_SIZE);
+        long started = System.nanoTime();
+        int[] loaded = {0};
+        transactionTemplate.executeWithoutResult(status -> streaming.query(
+                "SELECT id, due_date FROM tasks WHERE status = ? AND due_date > ?",
+                rs -> {
+                    track(rs.getObject("id", UUID.class), micros(rs.getObject("due_date", LocalDateTime.class)), false);
+                    loaded[0]++;
+                },
+                TaskStatus.OPEN.ordinal(), now.minus(properties.catchUp())));
+        log.info("Tracking {} due dates for overdue notifications (loaded in {} ms)",
+                loaded[0], (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void track(UUID taskId, long deadline, boolean replace) {
+        lock.lock();
+        try {
+            TimerWheel.Timer<UUID> existing = timers.get(taskId);
+            if (existing != null) {
+                if (!replace || existing.deadline() == deadline) {
+                    return;
+                }
+                wheel.cancel(existing);
+            }
+            timers.put(taskId, wheel.schedule(taskId, deadline));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void untrack(UUID taskId) {
+        lock.lock();
+        try {
+            TimerWheel.Timer<UUID> existing = timers.remove(taskId);
+            if (existing != null) {
+                wheel.cancel(existing);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int report(List<TimerWheel.Timer<UUID>> due, LocalDateTime now) {
+        Map<UUID, Long> deadlines = new HashMap<>();
+        for (TimerWheel.Timer<UUID> timer : due) {
+            deadlines.put(timer.value(), timer.deadline());
+        }
+        List<OverdueTask> overdue = namedJdbcTemplate.query(
+                "SELECT id, tenant_id, task_list_id, title, due_date FROM tasks WHERE id IN (:ids) AND status = :open",
+                new MapSqlParameterSource("ids", deadlines.keySet()).addValue("open", TaskStatus.OPEN.ordinal()),
+                (rs, rowNum) -> new OverdueTask(rs.getString("tenant_id"), rs.getObject("task_list_id", UUID.class),
+                        rs.getObject("id", UUID.class), rs.getString("title"), rs.getObject("due_date", LocalDateTime.class)));
+
+        List<OverdueTask> claimed = new ArrayList<>();
+        for (OverdueTask task : overdue) {
+            // A different due date means the timer is stale; the database keeps due dates to the microsecond
+            if (task.dueDate() != null && Math.abs(micros(task.dueDate()) - deadlines.get(task.taskId())) <= 1 && claim(task, now)) {
+                claimed.add(task);
+            }
+        }
+        if (!claimed.isEmpty()) {
+            notifiers.orderedStream().forEach(notifier -> {
+                try {
+                    notifier.notify(claimed);
+                } catch (RuntimeException e) {
+                    log.error("Overdue notifier {} failed for {} tasks", notifier.getClass().getSimpleName(), claimed.size(), e);
+                }
+            });
+        }
+        return claimed.size();
+    }
+
+    /**
+     * Records the notification as sent, in its own statement outside of any transaction.
+     *
+     * @return false if it was sent already, by this or another instance
+     */
+    private boolean claim(OverdueTask task, LocalDateTime now) {
+        try {
+            return jdbcTemplate.update("INSERT INTO overdue_notifications (task_id, due_date, tenant_id, task_list_id, notified_at) "
+                            + "SELECT ?, ?, ?, ?, ? WHERE NOT EXISTS "
+                            + "(SELECT 1 FROM overdue_notifications WHERE task_id = ? AND due_date = ?)",
+                    task.taskId(), task.dueDate(), task.tenantId(), task.taskListId(), now,
+                    task.taskId(), task.dueDate()) == 1;
+        } catch (DuplicateKeyException e) {
+            // Another instance claimed it at the same moment
+            return false;
+        }
+    }
+
+    // Due dates are local date-times, compared with LocalDateTime.now() like everywhere else
+    private static long micros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1000;
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-overdue");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Loaded on the engine's thread, so a large backlog of due dates doesn't hold up startup
+        ticker.execute(() -> {
+            try {
+                load(LocalDateTime.now());
+            } catch (RuntimeException e) {
+                log.error("Could not load due dates; only tasks changed from now on are tracked", e);
+            }
+        });
+        long tick = properties.tick().toMillis();
+        ticker.scheduleAtFixedRate(() -> {
+            try {
+                advance(LocalDateTime.now());
+            } catch (RuntimeException e) {
+                log.warn("Could not report overdue tasks", e);
+            }
+        }, tick, tick, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        ticker.shutdown();
+        try {
+            ticker.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
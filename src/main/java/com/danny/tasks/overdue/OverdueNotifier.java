@@ -0,0 +1,19 @@
+package com.danny.tasks.overdue;
+
+import java.util.List;
+
+/**
+ * Receives the tasks that have just become overdue. Every OverdueNotifier bean gets every notification;
+ * {@link LoggingOverdueNotifier} is the built-in one.
+ *
+ * Called on the overdue engine's own thread, with the tasks that came due within one tick (in chunks of
+ * tasks.overdue.verify-batch-size). Slow deliveries (mail, webhooks) hold up the following notifications,
+ * so an implementation that calls out to a remote service should hand the work off to its own executor.
+ *
+ * Delivery is at most once: a notification is recorded as sent before it is handed over, and an exception
+ * thrown here is logged, not retried.
+ */
+public interface OverdueNotifier {
+
+    void notify(List<OverdueTask> tasks);
+}
@@ -0,0 +1,26 @@
+package com.danny.tasks.overdue;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for overdue notifications, bound from "tasks.overdue.*".
+ *
+ * - enabled: track due dates and send notifications on this instance.
+ * - tick: resolution of the timer wheel; a task is reported at most this long after its due date.
+ * - catchUp: on startup, tasks that became overdue at most this long ago (e.g. while the application was down)
+ *   are still reported, unless that already happened before the restart.
+ * - claimRetention: how long a sent notification is remembered in overdue_notifications. Must be above catchUp.
+ * - verifyBatchSize: due tasks checked against the database per query.
+ */
+@ConfigurationProperties(prefix = "tasks.overdue")
+public record OverdueProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1s") Duration tick,
+        @DefaultValue("1d") Duration catchUp,
+        @DefaultValue("7d") Duration claimRetention,
+        @DefaultValue("500") int verifyBatchSize
+) {
+}
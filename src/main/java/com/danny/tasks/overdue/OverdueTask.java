@@ -0,0 +1,16 @@
+package com.danny.tasks.overdue;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A task that has just become overdue: still open, and its due date has passed.
+ */
+public record OverdueTask(
+        String tenantId,
+        UUID taskListId,
+        UUID taskId,
+        String title,
+        LocalDateTime dueDate
+) {
+}
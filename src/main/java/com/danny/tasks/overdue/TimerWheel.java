@@ -0,0 +1,197 @@
+package com.danny.tasks.overdue;
+
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timer wheel: schedule, cancel and firing are O(1) per timer, however many are pending.
+ *
+ * Time is counted in ticks of tickLength (in whatever unit the caller uses for deadlines). There are
+ * {@value #LEVELS} levels of {@value #SLOTS} slots; a slot of level n spans SLOTS^n ticks, so the wheel
+ * covers 2^32 ticks ahead (136 years at one tick per second). A timer goes into the coarsest level its
+ * distance from the current tick needs. Whenever the lower levels wrap around, the next slot of the level
+ * above is emptied and its timers are put back, one level finer (the "cascade"), until they end up in
+ * level 0 and fire. Each timer is moved at most LEVELS - 1 times on its way down.
+ *
+ * Timers farther ahead than the wheel covers wait in its last slot and are put back each time it cascades.
+ * Timers whose deadline has already passed fire on the next tick.
+ *
+ * Not thread-safe: the caller guards it (see OverdueEngine).
+ */
+final class TimerWheel<T> {
+
+    static final int LEVELS = 4;
+    static final int SLOTS = 256;
+
+    private static final int BITS = 8;
+    private static final int MASK = SLOTS - 1;
+    private static final long RANGE = 1L << (BITS * LEVELS);
+
+    static final class Timer<T> {
+        private final T value;
+        private final long deadline;
+        private final long deadlineTick;
+        private Timer<T> previous;
+        private Timer<T> next;
+        // Index into buckets, -1 once fired or cancelled
+        private int bucket = -1;
+
+        private Timer(T value, long deadline, long deadlineTick) {
+            this.value = value;
+            this.deadline = deadline;
+            this.deadlineTick = deadlineTick;
+        }
+
+        T value() {
+            return value;
+        }
+
+        long deadline() {
+            return deadline;
+        }
+
+        boolean isPending() {
+            return bucket >= 0;
+        }
+    }
+
+    private final long tickLength;
+    @SuppressWarnings("unchecked")
+    private final Timer<T>[] buckets = (Timer<T>[]) new Timer<?>[LEVELS * SLOTS];
+    private final int[] levelSizes = new int[LEVELS];
+    // Every timer due at or before this tick has fired
+    private long currentTick;
+
+    TimerWheel(long tickLength, long now) {
+        if (tickLength <= 0) {
+            throw new IllegalArgumentException("tickLength must be positive");
+        }
+        this.tickLength = tickLength;
+        this.currentTick = Math.floorDiv(now, tickLength);
+    }
+
+    /**
+     * Fires value once {@link #advance} reaches deadline (rounded up to the next tick).
+     */
+    Timer<T> schedule(T value, long deadline) {
+        Timer<T> timer = new Timer<>(value, deadline, -Math.floorDiv(-deadline, tickLength));
+        place(timer, currentTick + 1);
+        return timer;
+    }
+
+    /**
+     * @return false if the timer had already fired or been cancelled
+     */
+    boolean cancel(Timer<T> timer) {
+        if (!timer.isPending()) {
+            return false;
+        }
+        unlink(timer);
+        return true;
+    }
+
+    /**
+     * Moves the wheel up to now and hands every timer due by then to expired, in deadline order
+     * (timers due within the same tick in no particular order).
+     *
+     * Stretches without timers in the lower levels are skipped, so catching up after a long pause only
+     * costs a step per slot of the lowest level that holds timers.
+     */
+    void advance(long now, Consumer<? super Timer<T>> expired) {
+        long targetTick = Math.floorDiv(now, tickLength);
+        while (currentTick < targetTick) {
+            int emptyLevels = 0;
+            while (emptyLevels < LEVELS && levelSizes[emptyLevels] == 0) {
+                emptyLevels++;
+            }
+            if (emptyLevels > 0) {
+                // Nothing can fire before the next slot of the first level that holds timers cascades
+                long lastQuietTick = emptyLevels == LEVELS ? targetTick : currentTick | ((1L << (BITS * emptyLevels)) - 1);
+                if (lastQuietTick >= targetTick) {
+                    currentTick = targetTick;
+                    return;
+                }
+                currentTick = lastQuietTick;
+            }
+            currentTick++;
+            int index = (int) (currentTick & MASK);
+            if (index == 0) {
+                cascade();
+            }
+            Timer<T> timer = buckets[index];
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                unlink(timer);
+                expired.accept(timer);
+                timer = next;
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (int levelSize : levelSizes) {
+            size += levelSize;
+        }
+        return size;
+    }
+
+    // Level 0 has just wrapped around: pull the next slot of level 1 down, and the same for each level
+    // above as long as the one below wrapped around too
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int index = (int) ((currentTick >>> (BITS * level)) & MASK);
+            int bucket = level * SLOTS + index;
+            Timer<T> timer = buckets[bucket];
+            buckets[bucket] = null;
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                levelSizes[level]--;
+                timer.previous = null;
+                timer.next = null;
+                // Those due this very tick go into the level 0 slot that is about to fire
+                place(timer, currentTick);
+                timer = next;
+            }
+            if (index != 0) {
+                return;
+            }
+        }
+    }
+
+    private void place(Timer<T> timer, long earliestTick) {
+        long tick = Math.max(timer.deadlineTick, earliestTick);
+        long distance = tick - currentTick;
+        if (distance >= RANGE) {
+            tick = currentTick + RANGE - 1;
+            distance = RANGE - 1;
+        }
+        int level = 0;
+        while (distance >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        int bucket = level * SLOTS + (int) ((tick >>> (BITS * level)) & MASK);
+        Timer<T> head = buckets[bucket];
+        timer.next = head;
+        if (head != null) {
+            head.previous = timer;
+        }
+        buckets[bucket] = timer;
+        timer.bucket = bucket;
+        levelSizes[level]++;
+    }
+
+    private void unlink(Timer<T> timer) {
+        if (timer.previous != null) {
+            timer.previous.next = timer.next;
+        } else {
+            buckets[timer.bucket] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.previous = timer.previous;
+        }
+        levelSizes[timer.bucket / SLOTS]--;
+        timer.previous = null;
+        timer.next = null;
+        timer.bucket = -1;
+    }
+}
@@ -0,0 +1,19 @@
+package com.danny.tasks.ranking;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for task ordering, bound from "tasks.ranking.*".
+ *
+ * - rebalanceLength: a move that produces a rank at least this long schedules its list for rebalancing.
+ * - rebalanceInterval: how often scheduled lists are rebalanced.
+ */
+@ConfigurationProperties(prefix = "tasks.ranking")
+public record RankingProperties(
+        @DefaultValue("24") int rebalanceLength,
+        @DefaultValue("30s") Duration rebalanceInterval
+) {
+}
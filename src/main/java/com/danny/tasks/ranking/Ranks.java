@@ -0,0 +1,158 @@
+package com.danny.tasks.ranking;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fractional ranks: strings over "0-9a-z" that sort lexicographically (byte order) in the task's position order.
+ *
+ * There is always a rank between any two different ranks, so moving a task only rewrites that task's rank:
+ * between("a", "b") = "ai", between("a", "ai") = "a9", ...
+ *
+ * No rank ever ends in '0' (the smallest digit). That keeps room below every rank: nothing fits
+ * between "a" and "a0", but "a" is never followed by "a0".
+ *
+ * Ranks get one digit longer each time the same gap is halved again. {@link #evenlySpaced(int)} builds short,
+ * evenly spread ranks again when a list is rebalanced.
+ *
+ * Appending (the common case) doesn't halve the gap to the end of the range, which would add a digit every
+ * few tasks. {@link #after(String)} counts up at the same width instead: "a5", "a6", ..., "az", "b1", ...
+ * Only once every digit is 'z' does the rank get longer, and then twice as long ("zz" -> "zz01"), so a list
+ * appended to n times without a rebalance has ranks of about 2 * log36(n) digits.
+ */
+public final class Ranks {
+
+    private static final String DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+
+    private Ranks() {
+    }
+
+    /**
+     * A rank strictly between lower and upper.
+     *
+     * @param lower rank of the task before, or null for the start of the list
+     * @param upper rank of the task after, or null for the end of the list
+     */
+    public static String between(String lower, String upper) {
+        String low = lower != null ? lower : "";
+        if (upper != null && low.compareTo(upper) >= 0) {
+            throw new IllegalArgumentException("No rank between '" + lower + "' and '" + upper + "'");
+        }
+
+        StringBuilder rank = new StringBuilder();
+        String high = upper;
+        for (int i = 0; ; i++) {
+            int lowDigit = i < low.length() ? digit(low.charAt(i)) : 0;
+            int highDigit = high != null && i < high.length() ? digit(high.charAt(i)) : BASE;
+            int middle = (lowDigit + highDigit) / 2;
+            if (middle > lowDigit) {
+                return rank.append(DIGITS.charAt(middle)).toString();
+            }
+            rank.append(DIGITS.charAt(lowDigit));
+            if (highDigit > lowDigit) {
+                // Adjacent digits: the rank now starts below upper, only the rest of lower still bounds it
+                high = null;
+            }
+        }
+    }
+
+    /**
+     * A rank after last, for appending to the end of a list.
+     *
+     * @param last rank of the current last task, or null for an empty list
+     */
+    public static String after(String last) {
+        if (last == null || last.isEmpty()) {
+            return String.valueOf(DIGITS.charAt(1));
+        }
+        char[] digits = last.toCharArray();
+        for (int i = digits.length - 1; i >= 0; i--) {
+            int digit = digit(digits[i]);
+            if (digit < BASE - 1) {
+                // Increment here and carry: the digits after i wrap around to 0, but the rank can't end in 0
+                digits[i] = DIGITS.charAt(digit + 1);
+                for (int j = i + 1; j < digits.length; j++) {
+                    digits[j] = DIGITS.charAt(0);
+                }
+                if (i < digits.length - 1) {
+                    digits[digits.length - 1] = DIGITS.charAt(1);
+                }
+                return new String(digits);
+            }
+        }
+        // All 'z': only a longer rank is bigger. Doubling the width squares the room for further appends
+        return last + String.valueOf(DIGITS.charAt(0)).repeat(last.length() - 1) + DIGITS.charAt(1);
+    }
+
+    /**
+     * count ranks, all the same length, spread evenly over the lower half of the range (used when rebalancing).
+     * The upper half is left for {@link #after(String)}, so appends don't need to grow the ranks for a long time.
+     */
+    public static List<String> evenlySpaced(int count) {
+        return evenlySpacedAfter(null, count);
+    }
+
+    /**
+     * count ranks after last, in order, spread evenly over the lower half of the space above it. For appending
+     * many tasks at once: chaining {@link #after(String)} would use the space up one rank at a time.
+     *
+     * @param last rank of the current last task, or null for an empty list
+     */
+    public static List<String> evenlySpacedAfter(String last, int count) {
+        String low = last != null ? last : "";
+        int width = Math.max(1, low.length());
+        BigInteger base = BigInteger.valueOf(BASE);
+        BigInteger start = value(low, width);
+        BigInteger capacity = base.pow(width);
+        // At least BASE / 2 free ranks between neighbours, so plenty of moves fit before the next rebalance
+        BigInteger needed = BigInteger.valueOf(count + 1L).multiply(base);
+        while (capacity.subtract(start).compareTo(needed) < 0) {
+            width++;
+            capacity = capacity.multiply(base);
+            start = start.multiply(base);
+        }
+        BigInteger step = capacity.subtract(start).shiftRight(1).divide(BigInteger.valueOf(count + 1L));
+
+        List<String> ranks = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            ranks.add(format(start.add(step.multiply(BigInteger.valueOf(i))), width));
+        }
+        return ranks;
+    }
+
+    // The rank as a number of width digits, padded with zeros on the right
+    private static BigInteger value(String rank, int width) {
+        BigInteger value = BigInteger.ZERO;
+        BigInteger base = BigInteger.valueOf(BASE);
+        for (int i = 0; i < width; i++) {
+            value = value.multiply(base).add(BigInteger.valueOf(i < rank.length() ? digit(rank.charAt(i)) : 0));
+        }
+        return value;
+    }
+
+    private static String format(BigInteger value, int width) {
+        char[] digits = new char[width];
+        BigInteger base = BigInteger.valueOf(BASE);
+        for (int i = width - 1; i >= 0; i--) {
+            BigInteger[] quotientAndDigit = value.divideAndRemainder(base);
+            digits[i] = DIGITS.charAt(quotientAndDigit[1].intValue());
+            value = quotientAndDigit[0];
+        }
+        // Trailing zeros are dropped (see class comment); order among equal-width ranks is preserved
+        int length = width;
+        while (length > 1 && digits[length - 1] == '0') {
+            length--;
+        }
+        return new String(digits, 0, length);
+    }
+
+    private static int digit(char c) {
+        int digit = DIGITS.indexOf(c);
+        if (digit < 0) {
+            throw new IllegalArgumentException("Invalid rank character '" + c + "'");
+        }
+        return digit;
+    }
+}
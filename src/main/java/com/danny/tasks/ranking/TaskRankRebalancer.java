@@ -0,0 +1,84 @@
+package com.danny.tasks.ranking;
+
+import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.repositories.TaskRepository;
+import com.danny.tasks.tenancy.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gives the tasks of a list short, evenly spaced ranks again, in the same order.
+ *
+ * Moving tasks into the same gap over and over makes ranks one digit longer each time. When a move
+ * produces a rank of rebalance-length or more, the list is scheduled here, and a background job rewrites
+ * its ranks later, one transaction per list. This is the only place that touches every task of a list.
+ */
+@Component
+@ConditionalOnProperty(name = "tasks.storage.engine", havingValue = "jpa", matchIfMissing = true)
+@EnableConfigurationProperties(RankingProperties.class)
+public class TaskRankRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskRankRebalancer.class);
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RankingProperties properties;
+    private final Set<ListKey> scheduled = ConcurrentHashMap.newKeySet();
+
+    public TaskRankRebalancer(TaskRepository taskRepository, TransactionTemplate transactionTemplate,
+                              RankingProperties properties) {
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * Called with every rank handed out by a move.
+     */
+    public void onRankAssigned(UUID taskListId, String rank) {
+        if (rank.length() >= properties.rebalanceLength()) {
+            scheduled.add(new ListKey(TenantContext.current(), taskListId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.ranking.rebalance-interval:30s}")
+    public void rebalanceScheduled() {
+        for (ListKey key : scheduled) {
+            scheduled.remove(key);
+            try {
+                TenantContext.runAs(key.tenantId(),
+                        () -> transactionTemplate.executeWithoutResult(status -> rebalance(key.taskListId())));
+            } catch (RuntimeException e) {
+                log.warn("Could not rebalance ranks of task list {}", key.taskListId(), e);
+            }
+        }
+    }
+
+    /**
+     * Rewrites the ranks of one list. Also breaks ties left by concurrent moves into the same gap,
+     * keeping their current (rank, id) order. Must run in a write transaction as the list's tenant.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void rebalance(UUID taskListId) {
+        List<Task> tasks = taskRepository.findByTaskListId(taskListId);
+        List<String> ranks = Ranks.evenlySpaced(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).setSortRank(ranks.get(i));
+        }
+    }
+
+    private record ListKey(String tenantId, UUID taskListId) {
+    }
+}
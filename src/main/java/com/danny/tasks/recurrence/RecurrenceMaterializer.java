@@ -0,0 +1,275 @@
+package com.danny.tasks.recurrence;
+
+import com.danny.tasks.audit.AuditAction;
+import com.danny.tasks.audit.AuditEvent;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.events.TaskListChangedEvent;
+import com.danny.tasks.ranking.Ranks;
+import com.danny.tasks.ranking.TaskRankRebalancer;
+import com.danny.tasks.tenancy.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Creates the tasks of recurring rules (task_recurrences) ahead of time: every run, each occurrence up to
+ * now + horizon gets its task.
+ *
+ * Work is split into partitions (rule shard modulo the partition count). An instance only works on a
+ * partition while it holds its lease (see {@link SchedulerLeases}), so several instances share the work
+ * without doing any of it twice. Each partition is processed in batches of batch-size rules, one
+ * transaction per batch, and with a constant number of statements per batch however many rules and
+ * tasks it holds:
+ * - renew the lease (which also fences the batch, see SchedulerLeases.renew)
+ * - select the due rules
+ * - lock the affected lists' statistics rows, in id order, and read the last rank of each list
+ * - insert all new tasks as one JDBC batch, at the end of their lists in due date order
+ * - add the new tasks to the lists' statistics, as one batch
+ * - move each rule's next_due_date past the occurrences just created, as one batch
+ *
+ * This bypasses JPA (and with it the tenant filter) on purpose: rules of all tenants are handled together,
+ * and each task is written with the tenant of its rule.
+ */
+@Component
+@ConditionalOnProperty(name = "tasks.storage.engine", havingValue = "jpa", matchIfMissing = true)
+@EnableConfigurationProperties(RecurrenceProperties.class)
+public class RecurrenceMaterializer {
+
+    /**
+     * New rules get a random shard below this; partitions are shard modulo the partition count.
+     */
+    public static final int SHARDS = 1024;
+
+    private static final Logger log = LoggerFactory.getLogger(RecurrenceMaterializer.class);
+
+    public record Result(int rules, int tasks) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLeases leases;
+    private final TaskRankRebalancer rankRebalancer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RecurrenceProperties properties;
+
+    public RecurrenceMaterializer(NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                  SchedulerLeases leases, TaskRankRebalancer rankRebalancer,
+                                  ApplicationEventPublisher eventPublisher, RecurrenceProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.leases = leases;
+        this.rankRebalancer = rankRebalancer;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.recurrence.interval:1m}")
+    public void materializeScheduled() {
+        if (!properties.enabled()) {
+            return;
+        }
+        try {
+            Result result = materialize(LocalDateTime.now());
+            if (result.tasks() > 0) {
+                log.info("Created {} tasks for {} recurring rules", result.tasks(), result.rules());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not create the tasks of recurring rules", e);
+        }
+    }
+
+    /**
+     * Creates the tasks due up to now + horizon in every partition whose lease this instance can get.
+     */
+    public Result materialize(LocalDateTime now) {
+        LocalDateTime horizon = now.plus(properties.horizon());
+        int partitions = properties.partitions();
+        // Start at a random partition, so instances running at the same time mostly go for different ones
+        int start = ThreadLocalRandom.current().nextInt(partitions);
+        int rules = 0;
+        int tasks = 0;
+        for (int i = 0; i < partitions; i++) {
+            int partition = (start + i) % partitions;
+            String lease = "recurrence-" + partition + "-of-" + partitions;
+            if (!leases.tryAcquire(lease, properties.leaseDuration())) {
+                continue;
+            }
+            try {
+                while (true) {
+                    Result batch = transactionTemplate.execute(status -> materializeBatch(lease, partition, horizon, now, status));
+                    if (batch == null) {
+                        // Lease lost to another instance, which carries on with this partition
+                        break;
+                    }
+                    rules += batch.rules();
+                    tasks += batch.tasks();
+                    if (batch.rules() < properties.batchSize()) {
+                        break;
+                    }
+                }
+            } finally {
+                leases.release(lease);
+            }
+        }
+        return new Result(rules, tasks);
+    }
+
+    private Result materializeBatch(String lease, int partition, LocalDateTime horizon, LocalDateTime now, TransactionStatus status) {
+        if (!leases.renew(lease, properties.leaseDuration())) {
+            status.setRollbackOnly();
+            return null;
+        }
+        List<Rule> rules = jdbcTemplate.query("""
+                        SELECT id, tenant_id, task_list_id, title, description, priority, recurrence_rule, next_due_date, ends_at
+                        FROM task_recurrences
+                        WHERE next_due_date <= :horizon AND MOD(shard, :partitions) = :partition
+                        ORDER BY next_due_date
+                        LIMIT :limit""",
+                new MapSqlParameterSource()
+                        .addValue("horizon", horizon)
+                        .addValue("partitions", properties.partitions())
+                        .addValue("partition", partition)
+                        .addValue("limit", properties.batchSize()),
+                (rs, row) -> new Rule(
+                        rs.getObject("id", UUID.class),
+                        rs.getString("tenant_id"),
+                        rs.getObject("task_list_id", UUID.class),
+                        rs.getString("title"),
+                        rs.getString("description"),
+                        TaskPriority.values()[rs.getInt("priority")],
+                        rs.getString("recurrence_rule"),
+                        rs.getObject("next_due_date", LocalDateTime.class),
+                        rs.getObject("ends_at", LocalDateTime.class)));
+        if (rules.isEmpty()) {
+            return new Result(0, 0);
+        }
+
+        List<Occurrence> occurrences = new ArrayList<>();
+        List<Object[]> nextDueDates = new ArrayList<>(rules.size());
+        // Most rules share a handful of expressions ("@daily", ...), so each is parsed once per batch
+        Map<String, CronExpression> expressions = new HashMap<>();
+        for (Rule rule : rules) {
+            CronExpression expression = expressions.computeIfAbsent(rule.expression(), CronExpression::parse);
+            LocalDateTime due = rule.nextDueDate();
+            for (int n = 0; n < properties.maxOccurrencesPerRule() && due != null && !due.isAfter(horizon); n++) {
+                occurrences.add(new Occurrence(rule, due));
+                due = expression.next(due);
+                if (due != null && rule.endsAt() != null && due.isAfter(rule.endsAt())) {
+                    due = null;
+                }
+            }
+            nextDueDates.add(new Object[]{timestamp(due), Timestamp.valueOf(now), rule.id()});
+        }
+
+        if (!occurrences.isEmpty()) {
+            insertTasks(occurrences, now);
+        }
+        jdbcTemplate.getJdbcTemplate().batchUpdate(
+                "UPDATE task_recurrences SET next_due_date = ?, updated = ? WHERE id = ?", nextDueDates);
+        return new Result(rules.size(), occurrences.size());
+    }
+
+    private void insertTasks(List<Occurrence> occurrences, LocalDateTime now) {
+        // Per list in due date order, so each list's new tasks are appended in that order
+        occurrences.sort(Comparator.comparing((Occurrence occurrence) -> occurrence.rule().taskListId())
+                .thenComparing(Occurrence::dueDate)
+                .thenComparing(occurrence -> occurrence.rule().id()));
+        List<UUID> taskListIds = occurrences.stream().map(occurrence -> occurrence.rule().taskListId()).distinct().toList();
+        MapSqlParameterSource lists = new MapSqlParameterSource("ids", taskListIds);
+
+        // The same row lock TaskListStatsService takes for a single task, taken in id order so concurrent batches
+        // can't deadlock. The last rank is one index lookup per list on (tenant_id, task_list_id, sort_rank).
+        Map<UUID, String> lastRanks = new HashMap<>();
+        jdbcTemplate.query("""
+                        SELECT s.task_list_id,
+                               (SELECT t.sort_rank FROM tasks t
+                                WHERE t.tenant_id = s.tenant_id AND t.task_list_id = s.task_list_id
+                                ORDER BY t.sort_rank DESC LIMIT 1) AS last_rank
+                        FROM task_list_stats s
+                        WHERE s.task_list_id IN (:ids)
+                        ORDER BY s.task_list_id
+                        FOR UPDATE""",
+                lists,
+                rs -> {
+                    lastRanks.put(rs.getObject("task_list_id", UUID.class), rs.getString("last_rank"));
+                });
+        // Each list's new tasks get their ranks in one go, evenly spaced above its last task: appending them one by
+        // one could outgrow sort_rank within a single large batch
+        Map<UUID, Integer> newTasks = new HashMap<>();
+        occurrences.forEach(occurrence -> newTasks.merge(occurrence.rule().taskListId(), 1, Integer::sum));
+        Map<UUID, Iterator<String>> newRanks = new HashMap<>();
+        newTasks.forEach((taskListId, count) ->
+                newRanks.put(taskListId, Ranks.evenlySpacedAfter(lastRanks.get(taskListId), count).iterator()));
+        List<Object[]> tasks = new ArrayList<>(occurrences.size());
+        Map<UUID, long[]> openByPriority = new LinkedHashMap<>();
+        Map<UUID, String> tenants = new HashMap<>();
+        List<AuditEvent> auditEvents = new ArrayList<>(occurrences.size());
+        Instant created = Instant.now();
+        for (Occurrence occurrence : occurrences) {
+            Rule rule = occurrence.rule();
+            UUID id = UUID.randomUUID();
+            String sortRank = newRanks.get(rule.taskListId()).next();
+            lastRanks.put(rule.taskListId(), sortRank);
+            tasks.add(new Object[]{
+                    id, rule.tenantId(), rule.taskListId(), rule.title(), rule.description(),
+                    Timestamp.valueOf(occurrence.dueDate()), TaskStatus.OPEN.ordinal(), rule.priority().ordinal(), sortRank,
+                    Timestamp.valueOf(now), Timestamp.valueOf(now)});
+            openByPriority.computeIfAbsent(rule.taskListId(), ignored -> new long[TaskPriority.values().length])[rule.priority().ordinal()]++;
+            tenants.put(rule.taskListId(), rule.tenantId());
+            auditEvents.add(new AuditEvent(created, rule.tenantId(), AuditAction.TASK_CREATED, rule.taskListId(), id,
+                    rule.title(), rule.description(), occurrence.dueDate(), TaskStatus.OPEN, rule.priority(), sortRank));
+        }
+
+        jdbcTemplate.getJdbcTemplate().batchUpdate("""
+                INSERT INTO tasks (id, tenant_id, task_list_id, title, description, due_date, status, priority, sort_rank, created, updated)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""", tasks);
+        List<Object[]> stats = new ArrayList<>(openByPriority.size());
+        openByPriority.forEach((taskListId, counts) -> stats.add(new Object[]{
+                counts[TaskPriority.HIGH.ordinal()], counts[TaskPriority.MEDIUM.ordinal()], counts[TaskPriority.LOW.ordinal()], taskListId}));
+        jdbcTemplate.getJdbcTemplate().batchUpdate("""
+                UPDATE task_list_stats
+                SET open_high = open_high + ?, open_medium = open_medium + ?, open_low = open_low + ?
+                WHERE task_list_id = ?""", stats);
+
+        for (UUID taskListId : taskListIds) {
+            TenantContext.runAs(tenants.get(taskListId),
+                    () -> rankRebalancer.onRankAssigned(taskListId, lastRanks.get(taskListId)));
+            eventPublisher.publishEvent(new TaskListChangedEvent(taskListId));
+        }
+        auditEvents.forEach(eventPublisher::publishEvent);
+    }
+
+    private static Timestamp timestamp(LocalDateTime dateTime) {
+        return dateTime == null ? null : Timestamp.valueOf(dateTime);
+    }
+
+    private record Rule(UUID id, String tenantId, UUID taskListId, String title, String description, TaskPriority priority,
+                        String expression, LocalDateTime nextDueDate, LocalDateTime endsAt) {
+    }
+
+    private record Occurrence(Rule rule, LocalDateTime dueDate) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.danny.tasks.recurrence;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for recurring tasks, bound from "tasks.recurrence.*".
+ *
+ * - enabled: run the materializer on this instance.
+ * - interval: how often it runs.
+ * - horizon: how far ahead occurrences are created as tasks.
+ * - partitions: the rules are split into this many partitions, each worked on by one instance at a time.
+ *   Must be the same on all instances.
+ * - batchSize: rules per transaction.
+ * - leaseDuration: how long an instance keeps a partition without renewing the lease; another instance
+ *   takes over after that. Must be well above the clock difference between instances.
+ * - maxOccurrencesPerRule: occurrences of one rule per transaction, so a very frequent rule can't make
+ *   one batch arbitrarily large (the rest follows in the next batch).
+ */
+@ConfigurationProperties(prefix = "tasks.recurrence")
+public record RecurrenceProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1m") Duration interval,
+        @DefaultValue("7d") Duration horizon,
+        @DefaultValue("16") int partitions,
+        @DefaultValue("1000") int batchSize,
+        @DefaultValue("2m") Duration leaseDuration,
+        @DefaultValue("1000") int maxOccurrencesPerRule
+) {
+}
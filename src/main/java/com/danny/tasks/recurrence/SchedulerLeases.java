@@ -0,0 +1,81 @@
+package com.danny.tasks.recurrence;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Time-limited locks in the scheduler_leases table, so that of several instances only one works on a
+ * piece of background work at a time.
+ *
+ * A lease is held by one instance until it expires; the holder renews it while it works, and anyone can
+ * take it over once it has expired (e.g. after the holder crashed). Expiry uses the instances' clocks,
+ * so the lease duration has to be well above the clock difference between them.
+ *
+ * {@link #renew} inside the work's own transaction also fences it: the UPDATE locks the lease row until
+ * that transaction ends, and returns 0 once another instance has taken the lease over, so an instance
+ * that stalled past its lease can't commit work someone else is already doing.
+ */
+@Component
+@ConditionalOnProperty(name = "tasks.storage.engine", havingValue = "jpa", matchIfMissing = true)
+public class SchedulerLeases {
+
+    private final String owner = UUID.randomUUID().toString();
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchedulerLeases(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Takes the lease if it is free, expired or already ours. Outside of any transaction: each statement
+     * commits on its own, and a failed insert doesn't abort anything else.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean tryAcquire(String name, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        int taken = jdbcTemplate.update(
+                "UPDATE scheduler_leases SET owner = ?, expires_at = ? WHERE name = ? AND (owner = ? OR expires_at < ?)",
+                owner, now.plus(duration), name, owner, now);
+        if (taken == 1) {
+            return true;
+        }
+        try {
+            return jdbcTemplate.update("INSERT INTO scheduler_leases (name, owner, expires_at) "
+                            + "SELECT ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM scheduler_leases WHERE name = ?)",
+                    name, owner, now.plus(duration), name) == 1;
+        } catch (DuplicateKeyException e) {
+            // Another instance created it at the same moment
+            return false;
+        }
+    }
+
+    /**
+     * Extends a lease we hold, as part of the current transaction.
+     *
+     * @return false if we no longer hold it; the current transaction must then be rolled back
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean renew(String name, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.update(
+                "UPDATE scheduler_leases SET expires_at = ? WHERE name = ? AND owner = ? AND expires_at >= ?",
+                now.plus(duration), name, owner, now) == 1;
+    }
+
+    /**
+     * Gives a lease we hold back right away, so another instance doesn't have to wait for it to expire.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void release(String name) {
+        jdbcTemplate.update("UPDATE scheduler_leases SET expires_at = ? WHERE name = ? AND owner = ?",
+                LocalDateTime.now().minusSeconds(1), name, owner);
+    }
+}
@@ -0,0 +1,79 @@
+package com.danny.tasks.repositories;
+
+import com.danny.tasks.domain.dto.SubtaskDto;
+import com.danny.tasks.domain.entities.TaskClosure;
+import com.danny.tasks.domain.entities.TaskStatus;
+import jakarta.persistence.Tuple;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The subtask hierarchy (see TaskClosure and the V8 migration).
+ *
+ * Reads are JPQL, so they are scoped to the current tenant like every other query. The two writes are native
+ * INSERT ... SELECT / DELETE statements that work on whole subtrees at once; they take the tenant as a
+ * parameter, since Hibernate's tenant filter doesn't apply to native SQL.
+ */
+@Repository
+public interface TaskClosureRepository extends JpaRepository<TaskClosure, TaskClosure.Key> {
+
+    boolean existsByAncestorIdAndDescendantId(UUID ancestorId, UUID descendantId);
+
+    /**
+     * Every task below the given one, with its depth below it; a range scan of the primary key joined to tasks by id.
+     * Ordered by depth and then list order, so each task's subtasks come in list order.
+     */
+    @Query("""
+            SELECT new com.danny.tasks.domain.dto.SubtaskDto(t.id, t.parentId, c.depth, t.title, t.description, t.dueDate, t.priority, t.status)
+            FROM TaskClosure c JOIN Task t ON t.id = c.descendantId
+            WHERE c.ancestorId = :taskId AND t.taskList.id = :taskListId
+            ORDER BY c.depth, t.sortRank, t.id
+            """)
+    List<SubtaskDto> findSubtree(@Param("taskListId") UUID taskListId, @Param("taskId") UUID taskId);
+
+    /**
+     * Number of tasks below the given one ("total") and how many of them are closed ("closed"), in one aggregate.
+     */
+    @Query("""
+            SELECT COUNT(t.id) AS total, SUM(CASE WHEN t.status = :closed THEN 1 ELSE 0 END) AS closed
+            FROM TaskClosure c JOIN Task t ON t.id = c.descendantId
+            WHERE c.ancestorId = :taskId AND t.taskList.id = :taskListId
+            """)
+    Tuple countSubtree(@Param("taskListId") UUID taskListId, @Param("taskId") UUID taskId, @Param("closed") TaskStatus closed);
+
+    /**
+     * Hangs the task and everything below it under parentId: pairs each ancestor of parentId (and parentId itself)
+     * with each task of the subtree (and the task itself). O(depth x subtree size) rows, one statement.
+     * The subtree must not be attached anywhere yet (see {@link #detachSubtree}).
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO task_closure (tenant_id, ancestor_id, descendant_id, depth, task_list_id)
+            SELECT :tenantId, a.ancestor_id, s.descendant_id, a.depth + s.depth + 1, :taskListId
+            FROM (SELECT ancestor_id, depth FROM task_closure WHERE tenant_id = :tenantId AND descendant_id = :parentId
+                  UNION ALL SELECT :parentId, 0) a
+            CROSS JOIN (SELECT descendant_id, depth FROM task_closure WHERE tenant_id = :tenantId AND ancestor_id = :taskId
+                  UNION ALL SELECT :taskId, 0) s
+            """)
+    int attachSubtree(@Param("tenantId") String tenantId, @Param("taskListId") UUID taskListId,
+                      @Param("taskId") UUID taskId, @Param("parentId") UUID parentId);
+
+    /**
+     * Cuts the task and everything below it loose from the task's ancestors; the pairs within the subtree stay.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            DELETE FROM task_closure
+            WHERE tenant_id = :tenantId
+              AND ancestor_id IN (SELECT ancestor_id FROM task_closure WHERE tenant_id = :tenantId AND descendant_id = :taskId)
+              AND (descendant_id = :taskId
+                   OR descendant_id IN (SELECT descendant_id FROM task_closure WHERE tenant_id = :tenantId AND ancestor_id = :taskId))
+            """)
+    int detachSubtree(@Param("tenantId") String tenantId, @Param("taskId") UUID taskId);
+}
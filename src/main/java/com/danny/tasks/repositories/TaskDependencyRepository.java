@@ -0,0 +1,54 @@
+package com.danny.tasks.repositories;
+
+import com.danny.tasks.domain.entities.TaskDependency;
+import com.danny.tasks.domain.entities.TaskStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Task dependencies (see TaskDependency and the V9 migration).
+ *
+ * Reads are JPQL, so they are scoped to the current tenant like every other query. The writes are native
+ * statements that take the tenant as a parameter, since Hibernate's tenant filter doesn't apply to native SQL.
+ */
+@Repository
+public interface TaskDependencyRepository extends JpaRepository<TaskDependency, TaskDependency.Key> {
+
+    /**
+     * Every edge of a list as (blockerId, blockedId) pairs, to build its in-memory graph from.
+     */
+    @Query("SELECT d.blockerId, d.blockedId FROM TaskDependency d WHERE d.taskListId = :taskListId")
+    List<Object[]> findEdges(@Param("taskListId") UUID taskListId);
+
+    /**
+     * Number of the task's blockers that are still open: a range scan of the primary key joined to tasks by id.
+     */
+    @Query("""
+            SELECT COUNT(t.id)
+            FROM TaskDependency d JOIN Task t ON t.id = d.blockerId
+            WHERE d.taskListId = :taskListId AND d.blockedId = :taskId AND t.status = :open
+            """)
+    long countOpenBlockers(@Param("taskListId") UUID taskListId, @Param("taskId") UUID taskId, @Param("open") TaskStatus open);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO task_dependencies (tenant_id, blocked_id, blocker_id, task_list_id, created)
+            VALUES (:tenantId, :blockedId, :blockerId, :taskListId, :created)
+            """)
+    int insertEdge(@Param("tenantId") String tenantId, @Param("taskListId") UUID taskListId,
+               @Param("blockerId") UUID blockerId, @Param("blockedId") UUID blockedId,
+               @Param("created") LocalDateTime created);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            DELETE FROM task_dependencies WHERE tenant_id = :tenantId AND blocked_id = :blockedId AND blocker_id = :blockerId
+            """)
+    int deleteEdge(@Param("tenantId") String tenantId, @Param("blockerId") UUID blockerId, @Param("blockedId") UUID blockedId);
+}
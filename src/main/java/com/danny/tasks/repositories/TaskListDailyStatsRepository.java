@@ -0,0 +1,21 @@
+package com.danny.tasks.repositories;
+
+import com.danny.tasks.domain.entities.TaskListDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TaskListDailyStatsRepository extends JpaRepository<TaskListDailyStats, TaskListDailyStats.Key> {
+
+    Optional<TaskListDailyStats> findByTaskListIdAndDate(UUID taskListId, LocalDate date);
+
+    /**
+     * The burndown rows of a list from the given day on; a range scan of the primary key.
+     */
+    List<TaskListDailyStats> findByTaskListIdAndDateGreaterThanEqualOrderByDateAsc(UUID taskListId, LocalDate from);
+}
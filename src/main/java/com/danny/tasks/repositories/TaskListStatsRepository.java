@@ -0,0 +1,24 @@
+package com.danny.tasks.repositories;
+
+import com.danny.tasks.domain.entities.TaskListStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TaskListStatsRepository extends JpaRepository<TaskListStats, UUID> {
+
+    /**
+     * Loads the stats row with a row lock (SELECT ... FOR UPDATE), held until the transaction ends.
+     * Concurrent writers to the same list then apply their deltas one after another instead of losing updates.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM TaskListStats s WHERE s.taskListId = :taskListId")
+    Optional<TaskListStats> findForUpdate(@Param("taskListId") UUID taskListId);
+}
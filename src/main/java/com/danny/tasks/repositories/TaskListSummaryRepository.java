@@ -0,0 +1,32 @@
+package com.danny.tasks.repositories;
+
+import com.danny.tasks.domain.dto.TaskDto;
+import com.danny.tasks.domain.dto.TaskListDto;
+import com.danny.tasks.domain.dto.TaskListField;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Custom queries for sparse task list reads ("?fields=" / "?include=tasks").
+ *
+ * Spring Data can't derive these from method names because the selected columns depend on the request,
+ * so they are implemented by hand in TaskListSummaryRepositoryImpl and mixed into TaskListRepository.
+ */
+public interface TaskListSummaryRepository {
+
+    /**
+     * Selects only the requested columns of the task lists (all lists when taskListId is null).
+     * Fields that were not requested are left null; tasks are never loaded.
+     * count/progress are computed by the database with a single aggregate over tasks.
+     */
+    List<TaskListDto> findSummaries(Set<TaskListField> fields, UUID taskListId);
+
+    /**
+     * Loads the tasks of several lists at once as TaskDto, grouped by task list id.
+     */
+    Map<UUID, List<TaskDto>> findTaskDtosByTaskListIds(Collection<UUID> taskListIds);
+}
@@ -0,0 +1,126 @@
+package com.danny.tasks.repositories;
+
+import com.danny.tasks.domain.dto.TaskDto;
+import com.danny.tasks.domain.dto.TaskListDto;
+import com.danny.tasks.domain.dto.TaskListField;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Builds the JPQL for sparse reads from the requested fields.
+ *
+ * Only JPQL fragments from this class are concatenated into the query; request values are always bound
+ * as parameters.
+ */
+class TaskListSummaryRepositoryImpl implements TaskListSummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TaskListDto> findSummaries(Set<TaskListField> fields, UUID taskListId) {
+        boolean aggregate = fields.contains(TaskListField.COUNT) || fields.contains(TaskListField.PROGRESS);
+
+        // The id is always selected: it is needed to attach tasks and costs nothing extra
+        List<String> columns = new ArrayList<>(List.of("l.id AS id"));
+        if (fields.contains(TaskListField.TITLE)) {
+            columns.add("l.title AS title");
+        }
+        if (fields.contains(TaskListField.DESCRIPTION)) {
+            columns.add("l.description AS description");
+        }
+        if (aggregate) {
+            columns.add("COUNT(t.id) AS total");
+            columns.add("SUM(CASE WHEN t.status = :closed THEN 1 ELSE 0 END) AS closed");
+        }
+
+        StringBuilder jpql = new StringBuilder("SELECT ")
+                .append(String.join(", ", columns))
+                .append(" FROM TaskList l");
+        if (aggregate) {
+            jpql.append(" LEFT JOIN l.tasks t");
+        }
+        if (taskListId != null) {
+            jpql.append(" WHERE l.id = :taskListId");
+        }
+        if (aggregate) {
+            // Every non-aggregated column has to be grouped on
+            jpql.append(" GROUP BY ").append(String.join(", ", columns.stream()
+                    .filter(column -> column.startsWith("l."))
+                    .map(column -> column.substring(0, column.indexOf(" AS ")))
+                    .toList()));
+        }
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class);
+        if (aggregate) {
+            query.setParameter("closed", TaskStatus.CLOSED);
+        }
+        if (taskListId != null) {
+            query.setParameter("taskListId", taskListId);
+        }
+
+        return query.getResultList().stream()
+                .map(row -> toDto(row, fields, aggregate))
+                .toList();
+    }
+
+    @Override
+    public Map<UUID, List<TaskDto>> findTaskDtosByTaskListIds(Collection<UUID> taskListIds) {
+        Map<UUID, List<TaskDto>> tasksByList = new LinkedHashMap<>();
+        if (taskListIds.isEmpty()) {
+            return tasksByList;
+        }
+        List<Tuple> rows = entityManager.createQuery("""
+                        SELECT t.taskList.id AS taskListId, t.id AS id, t.title AS title, t.description AS description,
+                               t.dueDate AS dueDate, t.priority AS priority, t.status AS status
+                        FROM Task t
+                        WHERE t.taskList.id IN :taskListIds
+                        ORDER BY t.sortRank, t.id
+                        """, Tuple.class)
+                .setParameter("taskListIds", taskListIds)
+                .getResultList();
+        for (Tuple row : rows) {
+            tasksByList.computeIfAbsent(row.get("taskListId", UUID.class), id -> new ArrayList<>())
+                    .add(new TaskDto(
+                            row.get("id", UUID.class),
+                            row.get("title", String.class),
+                            row.get("description", String.class),
+                            row.get("dueDate", LocalDateTime.class),
+                            row.get("priority", TaskPriority.class),
+                            row.get("status", TaskStatus.class)));
+        }
+        return tasksByList;
+    }
+
+    private static TaskListDto toDto(Tuple row, Set<TaskListField> fields, boolean aggregate) {
+        Integer count = null;
+        Double progress = null;
+        if (aggregate) {
+            long total = row.get("total", Long.class);
+            Number closed = row.get("closed", Number.class);
+            count = (int) total;
+            progress = total == 0 ? null : (closed == null ? 0 : closed.doubleValue()) / total;
+        }
+        return new TaskListDto(
+                row.get("id", UUID.class),
+                fields.contains(TaskListField.TITLE) ? row.get("title", String.class) : null,
+                fields.contains(TaskListField.DESCRIPTION) ? row.get("description", String.class) : null,
+                fields.contains(TaskListField.COUNT) ? count : null,
+                fields.contains(TaskListField.PROGRESS) ? progress : null,
+                null
+        );
+    }
+}
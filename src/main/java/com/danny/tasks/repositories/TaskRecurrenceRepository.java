@@ -0,0 +1,15 @@
+package com.danny.tasks.repositories;
+
+import com.danny.tasks.domain.entities.TaskRecurrence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TaskRecurrenceRepository extends JpaRepository<TaskRecurrence, UUID> {
+    List<TaskRecurrence> findByTaskListIdOrderByCreatedAscIdAsc(UUID taskListId);
+    Optional<TaskRecurrence> findByTaskListIdAndId(UUID taskListId, UUID id);
+}
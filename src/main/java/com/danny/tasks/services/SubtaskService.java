@@ -0,0 +1,14 @@
+package com.danny.tasks.services;
+
+import com.danny.tasks.domain.dto.TaskProgressDto;
+import com.danny.tasks.domain.dto.TaskSubtreeDto;
+import com.danny.tasks.domain.entities.Task;
+
+import java.util.UUID;
+
+public interface SubtaskService {
+    Task createSubtask(UUID taskListId, UUID parentId, Task task);
+    TaskSubtreeDto getSubtree(UUID taskListId, UUID taskId);
+    TaskProgressDto getProgress(UUID taskListId, UUID taskId);
+    Task moveSubtree(UUID taskListId, UUID taskId, UUID newParentId);
+}
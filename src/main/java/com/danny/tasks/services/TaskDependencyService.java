@@ -0,0 +1,14 @@
+package com.danny.tasks.services;
+
+import com.danny.tasks.domain.dto.TaskDependenciesDto;
+import com.danny.tasks.domain.dto.TaskPlanDto;
+
+import java.util.UUID;
+
+public interface TaskDependencyService {
+    TaskDependenciesDto addBlocker(UUID taskListId, UUID taskId, UUID blockerId);
+    TaskDependenciesDto removeBlocker(UUID taskListId, UUID taskId, UUID blockerId);
+    TaskDependenciesDto getDependencies(UUID taskListId, UUID taskId);
+    TaskPlanDto getPlan(UUID taskListId);
+    void checkCanClose(UUID taskListId, UUID taskId);
+}
@@ -1,15 +1,20 @@
 package com.danny.tasks.services;
 
+import com.danny.tasks.domain.dto.TaskListDto;
+import com.danny.tasks.domain.dto.TaskListField;
 import com.danny.tasks.domain.entities.TaskList;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface TaskListService {
     List<TaskList> listTaskList();
+    List<TaskListDto> listTaskListSummaries(Set<TaskListField> fields, boolean includeTasks);
     TaskList createTaskList(TaskList taskList);
     Optional<TaskList> getTaskList(UUID id);
+    Optional<TaskListDto> getTaskListSummary(UUID id, Set<TaskListField> fields, boolean includeTasks);
     TaskList updateTaskList(UUID id, TaskList taskList);
     void deleteTaskList(UUID taskListId);
 }
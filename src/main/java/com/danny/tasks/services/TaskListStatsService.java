@@ -0,0 +1,15 @@
+package com.danny.tasks.services;
+
+import com.danny.tasks.domain.dto.TaskListStatsDto;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface TaskListStatsService {
+    void taskListCreated(UUID taskListId);
+    void taskCreated(UUID taskListId, TaskStatus status, TaskPriority priority);
+    void taskChanged(UUID taskListId, TaskStatus oldStatus, TaskPriority oldPriority, TaskStatus newStatus, TaskPriority newPriority);
+    Optional<TaskListStatsDto> getStats(UUID taskListId, int days);
+}
@@ -0,0 +1,12 @@
+package com.danny.tasks.services;
+
+import com.danny.tasks.domain.dto.TaskRecurrenceDto;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface TaskRecurrenceService {
+    List<TaskRecurrenceDto> listRecurrences(UUID taskListId);
+    TaskRecurrenceDto createRecurrence(UUID taskListId, TaskRecurrenceDto recurrence);
+    void deleteRecurrence(UUID taskListId, UUID recurrenceId);
+}
@@ -1,6 +1,8 @@
 package com.danny.tasks.services;
 
+import com.danny.tasks.domain.dto.TaskDto;
 import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskStatus;
 
 import java.util.List;
 import java.util.Optional;
@@ -8,8 +10,12 @@ import java.util.UUID;
 
 public interface TaskService {
     List<Task> listTask(UUID taskListId);
+    List<Task> listTask(UUID taskListId, TaskStatus status);
+    List<TaskDto> listTaskDto(UUID taskListId, TaskStatus status);
     Task createTask(UUID taskListId, Task task);
     Optional<Task> getTask(UUID taskListId, UUID taskId);
+    Optional<TaskDto> getTaskDto(UUID taskListId, UUID taskId);
     void deleteTask(UUID taskListId, UUID taskId);
     Task updateTask(UUID taskListId,UUID taskId, Task task);
+    Task moveTask(UUID taskListId, UUID taskId, UUID afterTaskId, UUID beforeTaskId);
 }
@@ -0,0 +1,124 @@
+package com.danny.tasks.services.impl;
+
+import com.danny.tasks.audit.AuditAction;
+import com.danny.tasks.audit.AuditEvent;
+import com.danny.tasks.domain.dto.TaskListDto;
+import com.danny.tasks.domain.dto.TaskListField;
+import com.danny.tasks.domain.entities.TaskList;
+import com.danny.tasks.events.TaskListChangedEvent;
+import com.danny.tasks.exceptions.ResourceNotFoundException;
+import com.danny.tasks.services.TaskListService;
+import com.danny.tasks.storage.memory.InMemoryTaskStore;
+import com.danny.tasks.storage.memory.StoredTaskList;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * TaskListService on the memory storage engine (tasks.storage.engine=memory), with the same rules and errors
+ * as TaskListServiceImpl.
+ *
+ * Sparse reads cost the same as full ones here, except for the tasks: count and progress come from
+ * counters the store keeps per list, and tasks are only copied out when includeTasks is set.
+ */
+@Service
+@ConditionalOnProperty(name = "tasks.storage.engine", havingValue = "memory")
+public class InMemoryTaskListServiceImpl implements TaskListService {
+    private final InMemoryTaskStore store;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public InMemoryTaskListServiceImpl(InMemoryTaskStore store, ApplicationEventPublisher eventPublisher) {
+        this.store = store;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public List<TaskList> listTaskList() {
+        return store.lists().stream().map(this::withTasks).toList();
+    }
+
+    @Override
+    public List<TaskListDto> listTaskListSummaries(Set<TaskListField> fields, boolean includeTasks) {
+        return store.lists().stream()
+                .map(list -> summary(list.id(), fields, includeTasks))
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    @Override
+    public TaskList createTaskList(TaskList taskList) {
+        if (null != taskList.getId()){
+            throw new IllegalArgumentException("Task list already has an ID!");
+        }
+
+        if (taskList.getTitle() == null || taskList.getTitle().isBlank()) {
+            throw new IllegalArgumentException("Title is required");
+        }
+        StoredTaskList created = store.createList(taskList.getTitle(), taskList.getDescription(), LocalDateTime.now());
+        eventPublisher.publishEvent(AuditEvent.taskList(AuditAction.TASK_LIST_CREATED, InMemoryTaskServiceImpl.toTaskList(created)));
+        return withTasks(created);
+    }
+
+    @Override
+    public Optional<TaskList> getTaskList(UUID id) {
+        return store.list(id).map(this::withTasks);
+    }
+
+    @Override
+    public Optional<TaskListDto> getTaskListSummary(UUID id, Set<TaskListField> fields, boolean includeTasks) {
+        return summary(id, fields, includeTasks);
+    }
+
+    @Override
+    public TaskList updateTaskList(UUID taskListId, TaskList taskList) {
+        StoredTaskList updated = store.updateList(taskListId, existing -> new StoredTaskList(
+                        existing.id(),
+                        existing.tenantId(),
+                        // Only update the title if a new one is provided
+                        taskList.getTitle() != null && !taskList.getTitle().isBlank() ? taskList.getTitle() : existing.title(),
+                        taskList.getDescription() != null ? taskList.getDescription() : existing.description(),
+                        existing.created(),
+                        LocalDateTime.now()))
+                .orElseThrow(() -> new ResourceNotFoundException("Task list with ID " + taskListId + " not found"));
+        eventPublisher.publishEvent(new TaskListChangedEvent(taskListId));
+        eventPublisher.publishEvent(AuditEvent.taskList(AuditAction.TASK_LIST_UPDATED, InMemoryTaskServiceImpl.toTaskList(updated)));
+        return withTasks(updated);
+    }
+
+    @Override
+    public void deleteTaskList(UUID taskListId) {
+        if (!store.deleteList(taskListId)) {
+            throw new ResourceNotFoundException("Task list with ID " + taskListId + " not found");
+        }
+        eventPublisher.publishEvent(new TaskListChangedEvent(taskListId));
+        eventPublisher.publishEvent(AuditEvent.taskListDeleted(taskListId));
+    }
+
+    private TaskList withTasks(StoredTaskList list) {
+        TaskList taskList = InMemoryTaskServiceImpl.toTaskList(list);
+        taskList.setTasks(store.tasks(list.id(), null).stream()
+                .map(task -> InMemoryTaskServiceImpl.toTask(task, taskList))
+                .toList());
+        return taskList;
+    }
+
+    private Optional<TaskListDto> summary(UUID id, Set<TaskListField> fields, boolean includeTasks) {
+        return store.summary(id).map(summary -> new TaskListDto(
+                summary.list().id(),
+                fields.contains(TaskListField.TITLE) ? summary.list().title() : null,
+                fields.contains(TaskListField.DESCRIPTION) ? summary.list().description() : null,
+                fields.contains(TaskListField.COUNT) ? (int) summary.total() : null,
+                fields.contains(TaskListField.PROGRESS) && summary.total() > 0
+                        ? (double) summary.closed() / summary.total()
+                        : null,
+                includeTasks
+                        ? store.tasks(id, null).stream().map(InMemoryTaskServiceImpl::toDto).toList()
+                        : null));
+    }
+}
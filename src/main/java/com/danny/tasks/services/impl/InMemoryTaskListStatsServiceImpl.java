@@ -0,0 +1,44 @@
+package com.danny.tasks.services.impl;
+
+import com.danny.tasks.domain.dto.TaskListStatsDto;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.services.TaskListStatsService;
+import com.danny.tasks.storage.memory.InMemoryTaskStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Statistics on the memory storage engine. The store keeps the counters itself as tasks change,
+ * so the notifications the JPA services send are not needed here.
+ */
+@Service
+@ConditionalOnProperty(name = "tasks.storage.engine", havingValue = "memory")
+public class InMemoryTaskListStatsServiceImpl implements TaskListStatsService {
+    private final InMemoryTaskStore store;
+
+    public InMemoryTaskListStatsServiceImpl(InMemoryTaskStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void taskListCreated(UUID taskListId) {
+    }
+
+    @Override
+    public void taskCreated(UUID taskListId, TaskStatus status, TaskPriority priority) {
+    }
+
+    @Override
+    public void taskChanged(UUID taskListId, TaskStatus oldStatus, TaskPriority oldPriority,
+                            TaskStatus newStatus, TaskPriority newPriority) {
+    }
+
+    @Override
+    public Optional<TaskListStatsDto> getStats(UUID taskListId, int days) {
+        return store.stats(taskListId, days);
+    }
+}
@@ -0,0 +1,167 @@
+package com.danny.tasks.services.impl;
+
+import com.danny.tasks.audit.AuditAction;
+import com.danny.tasks.audit.AuditEvent;
+import com.danny.tasks.domain.dto.TaskDto;
+import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskList;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.events.TaskListChangedEvent;
+import com.danny.tasks.exceptions.ResourceNotFoundException;
+import com.danny.tasks.services.TaskService;
+import com.danny.tasks.storage.memory.InMemoryTaskStore;
+import com.danny.tasks.storage.memory.StoredTask;
+import com.danny.tasks.storage.memory.StoredTaskList;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * TaskService on the memory storage engine (tasks.storage.engine=memory), with the same rules and errors as
+ * TaskServiceImpl. Returned Task entities are detached copies; changing them changes nothing.
+ */
+@Service
+@ConditionalOnProperty(name = "tasks.storage.engine", havingValue = "memory")
+public class InMemoryTaskServiceImpl implements TaskService {
+    private final InMemoryTaskStore store;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public InMemoryTaskServiceImpl(InMemoryTaskStore store, ApplicationEventPublisher eventPublisher) {
+        this.store = store;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public List<Task> listTask(UUID taskListId) {
+        return listTask(taskListId, null);
+    }
+
+    @Override
+    public List<Task> listTask(UUID taskListId, TaskStatus status) {
+        return store.list(taskListId)
+                .map(list -> {
+                    TaskList taskList = toTaskList(list);
+                    return store.tasks(taskListId, status).stream().map(task -> toTask(task, taskList)).toList();
+                })
+                .orElse(List.of());
+    }
+
+    @Override
+    public List<TaskDto> listTaskDto(UUID taskListId, TaskStatus status) {
+        return store.tasks(taskListId, status).stream().map(InMemoryTaskServiceImpl::toDto).toList();
+    }
+
+    @Override
+    public Task createTask(UUID taskListId, Task task) {
+        if(null!= task.getId()){
+            throw new IllegalArgumentException("Task already has an ID!");
+        }
+
+        if(task.getTitle() == null || task.getTitle().isBlank()){
+            throw new IllegalArgumentException("A task Must have a title");
+        }
+
+        TaskPriority taskPriority = Optional.ofNullable(task.getPriority()).orElse(TaskPriority.MEDIUM);
+
+        TaskStatus taskStatus = Optional.ofNullable(task.getStatus()).orElse(TaskStatus.OPEN);
+
+        StoredTask savedTask = store.createTask(taskListId, task.getTitle(), task.getDescription(), task.getDueDate(),
+                        taskStatus, taskPriority, LocalDateTime.now())
+                .orElseThrow(()-> new IllegalArgumentException("Invalid Task List ID provided"));
+        Task createdTask = toTask(savedTask, store.list(taskListId).map(InMemoryTaskServiceImpl::toTaskList).orElse(null));
+        eventPublisher.publishEvent(new TaskListChangedEvent(taskListId));
+        eventPublisher.publishEvent(AuditEvent.task(AuditAction.TASK_CREATED, taskListId, createdTask));
+        return createdTask;
+    }
+
+    @Override
+    public Optional<Task> getTask(UUID taskListId, UUID taskId) {
+        return store.task(taskListId, taskId)
+                .map(task -> toTask(task, store.list(taskListId).map(InMemoryTaskServiceImpl::toTaskList).orElse(null)));
+    }
+
+    @Override
+    public Optional<TaskDto> getTaskDto(UUID taskListId, UUID taskId) {
+        return store.task(taskListId, taskId).map(InMemoryTaskServiceImpl::toDto);
+    }
+
+    @Override
+    public void deleteTask(UUID taskListId, UUID taskId) {
+        if (store.deleteTask(taskListId, taskId)) {
+            eventPublisher.publishEvent(new TaskListChangedEvent(taskListId));
+            eventPublisher.publishEvent(AuditEvent.taskDeleted(taskListId, taskId));
+        }
+    }
+
+    @Override
+    public Task updateTask(UUID taskListId, UUID taskId, Task task) {
+        LocalDateTime now = LocalDateTime.now();
+        if (task.getDueDate() != null && task.getDueDate().isBefore(now)) {
+            throw new IllegalArgumentException("Due date cannot be in the past.");
+        }
+        Task.checkTextLength(task.getTitle(), task.getDescription());
+        StoredTask updatedTask = store.updateTask(taskListId, taskId, existing -> new StoredTask(
+                        existing.id(),
+                        existing.tenantId(),
+                        existing.taskListId(),
+                        task.getTitle() != null && !task.getTitle().isBlank() ? task.getTitle() : existing.title(),
+                        task.getDescription() != null && !task.getDescription().isBlank() ? task.getDescription() : existing.description(),
+                        task.getDueDate() != null ? task.getDueDate() : existing.dueDate(),
+                        task.getStatus() != null ? task.getStatus() : existing.status(),
+                        task.getPriority() != null ? task.getPriority() : existing.priority(),
+                        existing.sortRank(),
+                        existing.created(),
+                        now))
+                .orElseThrow(()-> new ResourceNotFoundException("Task with Not found!"));
+        Task existingTask = toTask(updatedTask, store.list(taskListId).map(InMemoryTaskServiceImpl::toTaskList).orElse(null));
+        eventPublisher.publishEvent(new TaskListChangedEvent(taskListId));
+        eventPublisher.publishEvent(AuditEvent.task(AuditAction.TASK_UPDATED, taskListId, existingTask));
+        return existingTask;
+    }
+
+    @Override
+    public Task moveTask(UUID taskListId, UUID taskId, UUID afterTaskId, UUID beforeTaskId) {
+        if ((afterTaskId == null) == (beforeTaskId == null)) {
+            throw new IllegalArgumentException("Give exactly one of 'after' or 'before'.");
+        }
+        UUID anchorId = afterTaskId != null ? afterTaskId : beforeTaskId;
+        if (anchorId.equals(taskId)) {
+            throw new IllegalArgumentException("A task cannot be moved next to itself.");
+        }
+        StoredTask storedTask = store.moveTask(taskListId, taskId, anchorId, afterTaskId != null, LocalDateTime.now());
+        Task movedTask = toTask(storedTask, store.list(taskListId).map(InMemoryTaskServiceImpl::toTaskList).orElse(null));
+        eventPublisher.publishEvent(new TaskListChangedEvent(taskListId));
+        eventPublisher.publishEvent(AuditEvent.task(AuditAction.TASK_MOVED, taskListId, movedTask));
+        return movedTask;
+    }
+
+    static TaskList toTaskList(StoredTaskList list) {
+        return new TaskList(list.id(), list.title(), list.description(), null, list.created(), list.updated());
+    }
+
+    static Task toTask(StoredTask stored, TaskList taskList) {
+        Task task = new Task(
+                stored.id(),
+                stored.title(),
+                stored.description(),
+                stored.dueDate(),
+                stored.status(),
+                stored.priority(),
+                taskList,
+                stored.created(),
+                stored.updated()
+        );
+        task.setSortRank(stored.sortRank());
+        return task;
+    }
+
+    static TaskDto toDto(StoredTask task) {
+        return new TaskDto(task.id(), task.title(), task.description(), task.dueDate(), task.priority(), task.status());
+    }
+}
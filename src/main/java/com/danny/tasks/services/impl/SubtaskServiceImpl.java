@@ -0,0 +1,147 @@
+package com.danny.tasks.services.impl;
+
+import com.danny.tasks.domain.dto.SubtaskDto;
+import com.danny.tasks.domain.dto.TaskProgressDto;
+import com.danny.tasks.domain.dto.TaskSubtreeDto;
+import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.exceptions.ResourceNotFoundException;
+import com.danny.tasks.repositories.TaskClosureRepository;
+import com.danny.tasks.repositories.TaskListStatsRepository;
+import com.danny.tasks.repositories.TaskRepository;
+import com.danny.tasks.services.SubtaskService;
+import com.danny.tasks.services.TaskService;
+import com.danny.tasks.tenancy.TenantContext;
+import jakarta.persistence.Tuple;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Subtasks, kept in task_closure next to tasks.parent_id (see TaskClosureRepository).
+ *
+ * Reading a subtree or its progress is one query however deep the tree goes, and moving a subtree is a fixed
+ * number of statements. Changes to a list's hierarchy are serialized on its statistics row, so two concurrent
+ * moves can't build a cycle between them.
+ */
+@Service
+@ConditionalOnProperty(name = "tasks.storage.engine", havingValue = "jpa", matchIfMissing = true)
+public class SubtaskServiceImpl implements SubtaskService {
+    private final TaskService taskService;
+    private final TaskRepository taskRepository;
+    private final TaskClosureRepository closureRepository;
+    private final TaskListStatsRepository statsRepository;
+
+    public SubtaskServiceImpl(TaskService taskService, TaskRepository taskRepository,
+                              TaskClosureRepository closureRepository, TaskListStatsRepository statsRepository) {
+        this.taskService = taskService;
+        this.taskRepository = taskRepository;
+        this.closureRepository = closureRepository;
+        this.statsRepository = statsRepository;
+    }
+
+    @Override
+    @Transactional
+    public Task createSubtask(UUID taskListId, UUID parentId, Task task) {
+        if (!taskRepository.existsByTaskListIdAndId(taskListId, parentId)) {
+            throw new ResourceNotFoundException("Task with ID " + parentId + " not found");
+        }
+        Task created = taskService.createTask(taskListId, task);
+        // Before the native insert below flushes the new task, so it is inserted with its parent in one go
+        created.setParentId(parentId);
+        closureRepository.attachSubtree(TenantContext.current(), taskListId, created.getId(), parentId);
+        return created;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskSubtreeDto getSubtree(UUID taskListId, UUID taskId) {
+        if (!taskRepository.existsByTaskListIdAndId(taskListId, taskId)) {
+            throw new ResourceNotFoundException("Task with ID " + taskId + " not found");
+        }
+        List<SubtaskDto> rows = closureRepository.findSubtree(taskListId, taskId);
+
+        // Rows come by depth, then list order; put each task's subtasks right behind it
+        Map<UUID, List<SubtaskDto>> children = new HashMap<>();
+        long closed = 0;
+        for (SubtaskDto row : rows) {
+            children.computeIfAbsent(row.parentId(), parent -> new ArrayList<>()).add(row);
+            if (row.status() == TaskStatus.CLOSED) {
+                closed++;
+            }
+        }
+        List<SubtaskDto> depthFirst = new ArrayList<>(rows.size());
+        Deque<SubtaskDto> stack = new ArrayDeque<>();
+        pushChildren(stack, children.get(taskId));
+        while (!stack.isEmpty()) {
+            SubtaskDto next = stack.pop();
+            depthFirst.add(next);
+            pushChildren(stack, children.get(next.id()));
+        }
+        return new TaskSubtreeDto(taskId, TaskProgressDto.of(taskId, rows.size(), closed), depthFirst);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskProgressDto getProgress(UUID taskListId, UUID taskId) {
+        if (!taskRepository.existsByTaskListIdAndId(taskListId, taskId)) {
+            throw new ResourceNotFoundException("Task with ID " + taskId + " not found");
+        }
+        Tuple counts = closureRepository.countSubtree(taskListId, taskId, TaskStatus.CLOSED);
+        long total = counts.get("total", Long.class);
+        Number closed = counts.get("closed", Number.class);
+        return TaskProgressDto.of(taskId, total, closed == null ? 0 : closed.longValue());
+    }
+
+    /**
+     * Moves the task, with all of its subtasks, under newParentId (null: to the top level).
+     * Its place in the list order doesn't change.
+     */
+    @Override
+    @Transactional
+    public Task moveSubtree(UUID taskListId, UUID taskId, UUID newParentId) {
+        statsRepository.findForUpdate(taskListId);
+        Task task = taskRepository.findByTaskListIdAndId(taskListId, taskId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task with ID " + taskId + " not found"));
+        if (Objects.equals(task.getParentId(), newParentId)) {
+            return task;
+        }
+        if (newParentId != null) {
+            if (!taskRepository.existsByTaskListIdAndId(taskListId, newParentId)) {
+                throw new ResourceNotFoundException("Task with ID " + newParentId + " not found");
+            }
+            if (newParentId.equals(taskId) || closureRepository.existsByAncestorIdAndDescendantId(taskId, newParentId)) {
+                throw new IllegalArgumentException("A task can't be moved under itself or one of its subtasks");
+            }
+        }
+
+        String tenantId = TenantContext.current();
+        closureRepository.detachSubtree(tenantId, taskId);
+        if (newParentId != null) {
+            closureRepository.attachSubtree(tenantId, taskListId, taskId, newParentId);
+        }
+        task.setParentId(newParentId);
+        task.setUpdated(LocalDateTime.now());
+        return task;
+    }
+
+    // Last sibling first, so the first one is popped first
+    private static void pushChildren(Deque<SubtaskDto> stack, List<SubtaskDto> children) {
+        if (children == null) {
+            return;
+        }
+        for (int i = children.size() - 1; i >= 0; i--) {
+            stack.push(children.get(i));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.danny.tasks.services.impl;
+
+import com.danny.tasks.dependencies.DependencyChangedEvent;
+import com.danny.tasks.dependencies.DependencyGraph;
+import com.danny.tasks.dependencies.DependencyGraphs;
+import com.danny.tasks.domain.dto.TaskDependenciesDto;
+import com.danny.tasks.domain.dto.TaskPlanDto;
+import com.danny.tasks.domain.entities.TaskListStats;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.exceptions.ResourceNotFoundException;
+import com.danny.tasks.exceptions.TaskBlockedException;
+import com.danny.tasks.repositories.TaskDependencyRepository;
+import com.danny.tasks.repositories.TaskListStatsRepository;
+import com.danny.tasks.repositories.TaskRepository;
+import com.danny.tasks.services.TaskDependencyService;
+import com.danny.tasks.tenancy.TenantContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Task dependencies, stored in task_dependencies and read through the list's in-memory graph (see DependencyGraphs).
+ *
+ * Changes to a list's dependencies lock its statistics row, like changes to its tasks, so a cycle check always runs
+ * against the graph as last committed and two concurrent inserts can't build a cycle between them. The same lock
+ * keeps a task from being closed while a blocker is being added to it.
+ */
+@Service
+@ConditionalOnProperty(name = "tasks.storage.engine", havingValue = "jpa", matchIfMissing = true)
+public class TaskDependencyServiceImpl implements TaskDependencyService {
+    private final TaskRepository taskRepository;
+    private final TaskDependencyRepository dependencyRepository;
+    private final TaskListStatsRepository statsRepository;
+    private final DependencyGraphs graphs;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public TaskDependencyServiceImpl(TaskRepository taskRepository, TaskDependencyRepository dependencyRepository,
+                                     TaskListStatsRepository statsRepository, DependencyGraphs graphs,
+                                     ApplicationEventPublisher eventPublisher) {
+        this.taskRepository = taskRepository;
+        this.dependencyRepository = dependencyRepository;
+        this.statsRepository = statsRepository;
+        this.graphs = graphs;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Makes taskId wait for blockerId. Adding a dependency that already exists changes nothing.
+     */
+    @Override
+    @Transactional
+    public TaskDependenciesDto addBlocker(UUID taskListId, UUID taskId, UUID blockerId) {
+        TaskListStats stats = lock(taskListId);
+        requireTask(taskListId, taskId);
+        requireTask(taskListId, blockerId);
+        DependencyGraph graph = graphs.get(taskListId, stats.getDependencyVersion());
+        List<UUID> blockers = new ArrayList<>(graph.blockersOf(taskId));
+        if (!blockers.contains(blockerId)) {
+            if (graph.wouldCreateCycle(blockerId, taskId)) {
+                throw new IllegalArgumentException("Task " + blockerId + " already waits for task " + taskId
+                        + " (or is the same task), so it can't block it");
+            }
+            dependencyRepository.insertEdge(TenantContext.current(), taskListId, blockerId, taskId, LocalDateTime.now());
+            eventPublisher.publishEvent(new DependencyChangedEvent(taskListId, stats.dependenciesChanged(), blockerId, taskId, true));
+            blockers.add(blockerId);
+        }
+        return new TaskDependenciesDto(taskId, blockers, graph.blockedBy(taskId));
+    }
+
+    @Override
+    @Transactional
+    public TaskDependenciesDto removeBlocker(UUID taskListId, UUID taskId, UUID blockerId) {
+        TaskListStats stats = lock(taskListId);
+        requireTask(taskListId, taskId);
+        DependencyGraph graph = graphs.get(taskListId, stats.getDependencyVersion());
+        List<UUID> blockers = new ArrayList<>(graph.blockersOf(taskId));
+        if (blockers.remove(blockerId)) {
+            dependencyRepository.deleteEdge(TenantContext.current(), blockerId, taskId);
+            eventPublisher.publishEvent(new DependencyChangedEvent(taskListId, stats.dependenciesChanged(), blockerId, taskId, false));
+        }
+        return new TaskDependenciesDto(taskId, blockers, graph.blockedBy(taskId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskDependenciesDto getDependencies(UUID taskListId, UUID taskId) {
+        TaskListStats stats = find(taskListId);
+        requireTask(taskListId, taskId);
+        DependencyGraph graph = graphs.get(taskListId, stats.getDependencyVersion());
+        return new TaskDependenciesDto(taskId, graph.blockersOf(taskId), graph.blockedBy(taskId));
+    }
+
+    /**
+     * One index scan for the ids of the open tasks, in list order; the rest runs on the in-memory graph.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPlanDto getPlan(UUID taskListId) {
+        TaskListStats stats = find(taskListId);
+        DependencyGraph graph = graphs.get(taskListId, stats.getDependencyVersion());
+        DependencyGraph.Plan plan = graph.plan(taskRepository.findIdsByTaskListIdAndStatus(taskListId, TaskStatus.OPEN));
+        return new TaskPlanDto(taskListId, plan.order(), plan.criticalPath());
+    }
+
+    /**
+     * Throws TaskBlockedException if any of the task's blockers is open. One primary key range scan,
+     * only run when a task is being closed.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void checkCanClose(UUID taskListId, UUID taskId) {
+        long openBlockers = dependencyRepository.countOpenBlockers(taskListId, taskId, TaskStatus.OPEN);
+        if (openBlockers > 0) {
+            throw new TaskBlockedException("Task " + taskId + " can't be closed: it waits for "
+                    + openBlockers + " open task(s)");
+        }
+    }
+
+    private TaskListStats lock(UUID taskListId) {
+        return statsRepository.findForUpdate(taskListId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task list with ID " + taskListId + " not found"));
+    }
+
+    private TaskListStats find(UUID taskListId) {
+        return statsRepository.findById(taskListId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task list with ID " + taskListId + " not found"));
+    }
+
+    private void requireTask(UUID taskListId, UUID taskId) {
+        if (!taskRepository.existsByTaskListIdAndId(taskListId, taskId)) {
+            throw new ResourceNotFoundException("Task with ID " + taskId + " not found");
+        }
+    }
+}
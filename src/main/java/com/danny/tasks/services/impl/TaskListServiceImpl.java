@@ -1,29 +1,65 @@
 package com.danny.tasks.services.impl;
 
+import com.danny.tasks.audit.AuditAction;
+import com.danny.tasks.audit.AuditEvent;
+import com.danny.tasks.domain.dto.TaskDto;
+import com.danny.tasks.domain.dto.TaskListDto;
+import com.danny.tasks.domain.dto.TaskListField;
 import com.danny.tasks.domain.entities.TaskList;
+import com.danny.tasks.events.TaskListChangedEvent;
 import com.danny.tasks.exceptions.ResourceNotFoundException;
 import com.danny.tasks.repositories.TaskListRepository;
 import com.danny.tasks.services.TaskListService;
+import com.danny.tasks.services.TaskListStatsService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
+/**
+ * Every public method runs in exactly one transaction.
+ *
+ * - Reads use readOnly = true: Spring switches the Hibernate session to FlushMode.MANUAL and
+ *   read-only mode, so loaded entities are not snapshotted or dirty-checked, and no flush happens.
+ * - Writes load and modify managed entities in the same transaction; changes are flushed once on commit.
+ */
 @Service
+@ConditionalOnProperty(name = "tasks.storage.engine", havingValue = "jpa", matchIfMissing = true)
 public class TaskListServiceImpl implements TaskListService {
     private final TaskListRepository taskListRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskListStatsService statsService;
 
-    public TaskListServiceImpl(TaskListRepository taskListRepository) {
+    public TaskListServiceImpl(TaskListRepository taskListRepository, ApplicationEventPublisher eventPublisher,
+                               TaskListStatsService statsService) {
         this.taskListRepository = taskListRepository;
+        this.eventPublisher = eventPublisher;
+        this.statsService = statsService;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TaskList> listTaskList() {
         return taskListRepository.findAll();
     }
+
+    /**
+     * Sparse read: the query only selects the requested columns, and tasks are fetched
+     * (with one extra query for all lists) only when includeTasks is set.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskListDto> listTaskListSummaries(Set<TaskListField> fields, boolean includeTasks) {
+        return withTasks(taskListRepository.findSummaries(fields, null), includeTasks);
+    }
     /**
      * Creates and persists a new TaskList while explicitly controlling which fields are stored.
      *
@@ -37,6 +73,7 @@ public class TaskListServiceImpl implements TaskListService {
      */
 
     @Override
+    @Transactional
     public TaskList createTaskList(TaskList taskList) {
         if (null != taskList.getId()){
             throw new IllegalArgumentException("Task list already has an ID!");
@@ -46,22 +83,50 @@ public class TaskListServiceImpl implements TaskListService {
             throw new IllegalArgumentException("Title is required");
         }
         LocalDateTime now = LocalDateTime.now();
-        return taskListRepository.save(new TaskList(
-                null,
+        TaskList savedTaskList = taskListRepository.save(new TaskList(
+                UUID.randomUUID(),
                 taskList.getTitle(),
                 taskList.getDescription(),
                 null,
                 now,
                 now
         ));
+        statsService.taskListCreated(savedTaskList.getId());
+        eventPublisher.publishEvent(AuditEvent.taskList(AuditAction.TASK_LIST_CREATED, savedTaskList));
+        return savedTaskList;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<TaskList> getTaskList(UUID id) {
         return taskListRepository.findById(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Optional<TaskListDto> getTaskListSummary(UUID id, Set<TaskListField> fields, boolean includeTasks) {
+        return withTasks(taskListRepository.findSummaries(fields, id), includeTasks).stream().findFirst();
+    }
+
+    private List<TaskListDto> withTasks(List<TaskListDto> summaries, boolean includeTasks) {
+        if (!includeTasks || summaries.isEmpty()) {
+            return summaries;
+        }
+        Map<UUID, List<TaskDto>> tasksByList = taskListRepository.findTaskDtosByTaskListIds(
+                summaries.stream().map(TaskListDto::id).toList());
+        return summaries.stream()
+                .map(summary -> new TaskListDto(
+                        summary.id(),
+                        summary.title(),
+                        summary.description(),
+                        summary.count(),
+                        summary.progress(),
+                        tasksByList.getOrDefault(summary.id(), List.of())))
+                .toList();
+    }
+
+    @Override
+    @Transactional
     public TaskList updateTaskList(UUID taskListId, TaskList taskList) {
 
         TaskList existingTaskList = taskListRepository.findById(taskListId)
@@ -77,10 +142,14 @@ public class TaskListServiceImpl implements TaskListService {
             existingTaskList.setDescription(taskList.getDescription());
         }
         existingTaskList.setUpdated(LocalDateTime.now());
-        return taskListRepository.save(existingTaskList);
+        eventPublisher.publishEvent(new TaskListChangedEvent(taskListId));
+        eventPublisher.publishEvent(AuditEvent.taskList(AuditAction.TASK_LIST_UPDATED, existingTaskList));
+        // existingTaskList is managed, so the changes are flushed on commit without an extra save/merge
+        return existingTaskList;
     }
 
     @Override
+    @Transactional
     public void deleteTaskList(UUID taskListId) {
         boolean exist = taskListRepository.existsById(taskListId);
 
@@ -88,5 +157,7 @@ public class TaskListServiceImpl implements TaskListService {
             throw new ResourceNotFoundException("Task list with ID " + taskListId + " not found");
         }
         taskListRepository.deleteById(taskListId);
+        eventPublisher.publishEvent(new TaskListChangedEvent(taskListId));
+        eventPublisher.publishEvent(AuditEvent.taskListDeleted(taskListId));
     }
 }
@@ -0,0 +1,118 @@
+package com.danny.tasks.services.impl;
+
+import com.danny.tasks.domain.dto.TaskListStatsDto;
+import com.danny.tasks.domain.entities.TaskListDailyStats;
+import com.danny.tasks.domain.entities.TaskListStats;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.repositories.TaskListDailyStatsRepository;
+import com.danny.tasks.repositories.TaskListStatsRepository;
+import com.danny.tasks.repositories.TaskRepository;
+import com.danny.tasks.services.TaskListStatsService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps task_list_stats and task_list_daily_stats in step with the tasks.
+ *
+ * The update methods are called by the services that write tasks, inside their transaction
+ * (Propagation.MANDATORY), so the counters commit or roll back together with the task itself.
+ * Each one locks the list's stats row first; that also makes the find-or-create of today's
+ * daily row safe, because only one transaction per list can be past the lock.
+ * All rows are looked up before any is changed, so the lookups never force an early flush.
+ */
+@Service
+@ConditionalOnProperty(name = "tasks.storage.engine", havingValue = "jpa", matchIfMissing = true)
+public class TaskListStatsServiceImpl implements TaskListStatsService {
+    private final TaskListStatsRepository statsRepository;
+    private final TaskListDailyStatsRepository dailyStatsRepository;
+    private final TaskRepository taskRepository;
+
+    public TaskListStatsServiceImpl(TaskListStatsRepository statsRepository,
+                                    TaskListDailyStatsRepository dailyStatsRepository,
+                                    TaskRepository taskRepository) {
+        this.statsRepository = statsRepository;
+        this.dailyStatsRepository = dailyStatsRepository;
+        this.taskRepository = taskRepository;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void taskListCreated(UUID taskListId) {
+        statsRepository.save(new TaskListStats(taskListId));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void taskCreated(UUID taskListId, TaskStatus status, TaskPriority priority) {
+        TaskListStats stats = lock(taskListId);
+        if (status == TaskStatus.CLOSED) {
+            addClosedToday(taskListId, 1);
+        }
+        stats.adjust(status, priority, 1);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void taskChanged(UUID taskListId, TaskStatus oldStatus, TaskPriority oldPriority,
+                            TaskStatus newStatus, TaskPriority newPriority) {
+        if (oldStatus == newStatus && oldPriority == newPriority) {
+            return;
+        }
+        TaskListStats stats = lock(taskListId);
+        if (oldStatus != newStatus) {
+            addClosedToday(taskListId, newStatus == TaskStatus.CLOSED ? 1 : -1);
+        }
+        stats.adjust(oldStatus, oldPriority, -1);
+        stats.adjust(newStatus, newPriority, 1);
+    }
+
+    /**
+     * Reads a handful of rows: the list's stats row, its last "days" daily rows, and one index count for overdue tasks.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<TaskListStatsDto> getStats(UUID taskListId, int days) {
+        return statsRepository.findById(taskListId).map(stats -> {
+            Map<TaskPriority, Long> open = new EnumMap<>(TaskPriority.class);
+            Map<TaskPriority, Long> closed = new EnumMap<>(TaskPriority.class);
+            for (TaskPriority priority : TaskPriority.values()) {
+                open.put(priority, stats.count(TaskStatus.OPEN, priority));
+                closed.put(priority, stats.count(TaskStatus.CLOSED, priority));
+            }
+            long overdue = taskRepository.countByTaskListIdAndStatusAndDueDateBefore(
+                    taskListId, TaskStatus.OPEN, LocalDateTime.now());
+            LocalDate from = LocalDate.now().minusDays(days - 1L);
+            return new TaskListStatsDto(
+                    taskListId,
+                    open,
+                    closed,
+                    overdue,
+                    dailyStatsRepository.findByTaskListIdAndDateGreaterThanEqualOrderByDateAsc(taskListId, from)
+                            .stream()
+                            .map(day -> new TaskListStatsDto.DailyClosed(day.getDate(), day.getClosedCount()))
+                            .toList());
+        });
+    }
+
+    private TaskListStats lock(UUID taskListId) {
+        return statsRepository.findForUpdate(taskListId)
+                .orElseThrow(() -> new IllegalStateException("No statistics row for task list " + taskListId));
+    }
+
+    private void addClosedToday(UUID taskListId, long delta) {
+        LocalDate today = LocalDate.now();
+        dailyStatsRepository.findByTaskListIdAndDate(taskListId, today).ifPresentOrElse(
+                day -> day.addClosed(delta),
+                () -> dailyStatsRepository.save(new TaskListDailyStats(taskListId, today, delta)));
+    }
+}
@@ -0,0 +1,105 @@
+package com.danny.tasks.services.impl;
+
+import com.danny.tasks.domain.dto.TaskRecurrenceDto;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskRecurrence;
+import com.danny.tasks.exceptions.ResourceNotFoundException;
+import com.danny.tasks.recurrence.RecurrenceMaterializer;
+import com.danny.tasks.repositories.TaskListRepository;
+import com.danny.tasks.repositories.TaskRecurrenceRepository;
+import com.danny.tasks.services.TaskRecurrenceService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Recurring rules only. Their tasks are created by RecurrenceMaterializer on its next run; deleting a rule
+ * keeps the tasks already created.
+ */
+@Service
+@ConditionalOnProperty(name = "tasks.storage.engine", havingValue = "jpa", matchIfMissing = true)
+public class TaskRecurrenceServiceImpl implements TaskRecurrenceService {
+    private final TaskRecurrenceRepository recurrenceRepository;
+    private final TaskListRepository taskListRepository;
+
+    public TaskRecurrenceServiceImpl(TaskRecurrenceRepository recurrenceRepository, TaskListRepository taskListRepository) {
+        this.recurrenceRepository = recurrenceRepository;
+        this.taskListRepository = taskListRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskRecurrenceDto> listRecurrences(UUID taskListId) {
+        return recurrenceRepository.findByTaskListIdOrderByCreatedAscIdAsc(taskListId).stream()
+                .map(TaskRecurrenceServiceImpl::toDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public TaskRecurrenceDto createRecurrence(UUID taskListId, TaskRecurrenceDto recurrence) {
+        if (null != recurrence.id()) {
+            throw new IllegalArgumentException("Recurring task already has an ID!");
+        }
+        if (recurrence.title() == null || recurrence.title().isBlank()) {
+            throw new IllegalArgumentException("A recurring task must have a title");
+        }
+        if (recurrence.rule() == null || recurrence.rule().isBlank()) {
+            throw new IllegalArgumentException("A recurring task must have a rule");
+        }
+        // Throws IllegalArgumentException for an invalid expression
+        CronExpression expression = CronExpression.parse(recurrence.rule());
+        if (!taskListRepository.existsById(taskListId)) {
+            throw new IllegalArgumentException("Invalid Task List ID provided");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = Optional.ofNullable(recurrence.nextDueDate()).orElse(now);
+        // next() is strictly after its argument; the start itself counts if it matches
+        LocalDateTime first = expression.next(start.minusNanos(1));
+        if (first != null && recurrence.endsAt() != null && first.isAfter(recurrence.endsAt())) {
+            first = null;
+        }
+
+        TaskRecurrence saved = recurrenceRepository.save(new TaskRecurrence(
+                null,
+                taskListId,
+                recurrence.title(),
+                recurrence.description(),
+                Optional.ofNullable(recurrence.priority()).orElse(TaskPriority.MEDIUM),
+                recurrence.rule(),
+                first,
+                recurrence.endsAt(),
+                ThreadLocalRandom.current().nextInt(RecurrenceMaterializer.SHARDS),
+                now,
+                now
+        ));
+        return toDto(saved);
+    }
+
+    @Override
+    @Transactional
+    public void deleteRecurrence(UUID taskListId, UUID recurrenceId) {
+        TaskRecurrence recurrence = recurrenceRepository.findByTaskListIdAndId(taskListId, recurrenceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Recurring task with ID " + recurrenceId + " not found"));
+        recurrenceRepository.delete(recurrence);
+    }
+
+    private static TaskRecurrenceDto toDto(TaskRecurrence recurrence) {
+        return new TaskRecurrenceDto(
+                recurrence.getId(),
+                recurrence.getTitle(),
+                recurrence.getDescription(),
+                recurrence.getPriority(),
+                recurrence.getRule(),
+                recurrence.getNextDueDate(),
+                recurrence.getEndsAt());
+    }
+}
@@ -1,37 +1,88 @@
 package com.danny.tasks.services.impl;
 
+import com.danny.tasks.audit.AuditAction;
+import com.danny.tasks.audit.AuditEvent;
+import com.danny.tasks.domain.dto.TaskDto;
 import com.danny.tasks.domain.entities.Task;
 import com.danny.tasks.domain.entities.TaskList;
 import com.danny.tasks.domain.entities.TaskPriority;
 import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.events.TaskListChangedEvent;
 import com.danny.tasks.exceptions.ResourceNotFoundException;
+import com.danny.tasks.ranking.Ranks;
+import com.danny.tasks.ranking.TaskRankRebalancer;
 import com.danny.tasks.repositories.TaskListRepository;
 import com.danny.tasks.repositories.TaskRepository;
+import com.danny.tasks.services.TaskDependencyService;
+import com.danny.tasks.services.TaskListStatsService;
 import com.danny.tasks.services.TaskService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.swing.text.html.Option;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Every public method runs in exactly one transaction.
+ *
+ * - Reads use readOnly = true: Spring switches the Hibernate session to FlushMode.MANUAL and
+ *   read-only mode, so loaded tasks are not snapshotted or dirty-checked, and no flush happens.
+ * - Writes load and modify managed entities in the same transaction; changes are flushed once on commit.
+ */
 @Service
+@ConditionalOnProperty(name = "tasks.storage.engine", havingValue = "jpa", matchIfMissing = true)
 public class TaskServiceImpl implements TaskService {
     private final TaskRepository taskRepository;
     private final TaskListRepository taskListRepository;
-
-    public TaskServiceImpl(TaskRepository taskRepository, TaskListRepository taskListRepository) {
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskRankRebalancer rankRebalancer;
+    private final TaskListStatsService statsService;
+    private final TaskDependencyService dependencyService;
+
+    public TaskServiceImpl(TaskRepository taskRepository, TaskListRepository taskListRepository,
+                           ApplicationEventPublisher eventPublisher, TaskRankRebalancer rankRebalancer,
+                           TaskListStatsService statsService, TaskDependencyService dependencyService) {
         this.taskRepository = taskRepository;
         this.taskListRepository = taskListRepository;
+        this.eventPublisher = eventPublisher;
+        this.rankRebalancer = rankRebalancer;
+        this.statsService = statsService;
+        this.dependencyService = dependencyService;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Task> listTask(UUID taskListId) {
         return taskRepository.findByTaskListId(taskListId);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<Task> listTask(UUID taskListId, TaskStatus status) {
+        if (status == null) {
+            return listTask(taskListId);
+        }
+        return taskRepository.findByTaskListIdAndStatusOrderBySortRankAscIdAsc(taskListId, status);
+    }
+
+    /**
+     * Read path for the API: selects straight into TaskDto without hydrating Task entities.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskDto> listTaskDto(UUID taskListId, TaskStatus status) {
+        if (status == null) {
+            return taskRepository.findDtoByTaskListId(taskListId);
+        }
+        return taskRepository.findDtoByTaskListIdAndStatus(taskListId, status);
+    }
+
+    @Override
+    @Transactional
     public Task createTask(UUID taskListId, Task task) {
         if(null!= task.getId()){
             throw new IllegalArgumentException("Task already has an ID!");
@@ -50,7 +101,7 @@ public class TaskServiceImpl implements TaskService {
         LocalDateTime now = LocalDateTime.now();
 
         Task taskToSave = new Task(
-                null,
+                UUID.randomUUID(),
                 task.getTitle(),
                 task.getDescription(),
                 task.getDueDate(),
@@ -60,24 +111,52 @@ public class TaskServiceImpl implements TaskService {
                 now,
                 now
         );
-
-        return taskRepository.save(taskToSave);
+        // New tasks go to the end of the list
+        String sortRank = Ranks.after(taskRepository.findLastSortRank(taskListId).orElse(null));
+        taskToSave.setSortRank(sortRank);
+        rankRebalancer.onRankAssigned(taskListId, sortRank);
+
+        Task savedTask = taskRepository.save(taskToSave);
+        statsService.taskCreated(taskListId, taskStatus, taskPriority);
+        eventPublisher.publishEvent(new TaskListChangedEvent(taskListId));
+        eventPublisher.publishEvent(AuditEvent.task(AuditAction.TASK_CREATED, taskListId, savedTask));
+        return savedTask;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Task> getTask(UUID taskListId, UUID taskId) {
         return taskRepository.findByTaskListIdAndId(taskListId, taskId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<TaskDto> getTaskDto(UUID taskListId, UUID taskId) {
+        return taskRepository.findDtoByTaskListIdAndId(taskListId, taskId);
+    }
+
     @Override
     public void deleteTask(UUID taskListId, UUID taskId) {
 //        boolean exist
     }
 
     @Override
+    @Transactional
     public Task updateTask(UUID taskListId, UUID taskId, Task task) {
         Task existingTask = taskRepository.findByTaskListIdAndId(taskListId, taskId)
                 .orElseThrow(()-> new ResourceNotFoundException("Task with Not found!"));
+        Task.checkTextLength(task.getTitle(), task.getDescription());
+        // Before the task is modified, so the stats queries don't trigger an early flush of it
+        statsService.taskChanged(
+                taskListId,
+                existingTask.getStatus(),
+                existingTask.getPriority(),
+                Optional.ofNullable(task.getStatus()).orElse(existingTask.getStatus()),
+                Optional.ofNullable(task.getPriority()).orElse(existingTask.getPriority()));
+        // After the list's stats row is locked above, so no blocker can be added in between
+        if (task.getStatus() == TaskStatus.CLOSED && existingTask.getStatus() != TaskStatus.CLOSED) {
+            dependencyService.checkCanClose(taskListId, taskId);
+        }
 
         if(task.getTitle() !=null && !task.getTitle().isBlank()){
             existingTask.setTitle(task.getTitle());
@@ -98,6 +177,54 @@ public class TaskServiceImpl implements TaskService {
             existingTask.setPriority(task.getPriority());
         }
         existingTask.setUpdated(LocalDateTime.now());
-        return taskRepository.save(existingTask);
+        eventPublisher.publishEvent(new TaskListChangedEvent(taskListId));
+        eventPublisher.publishEvent(AuditEvent.task(AuditAction.TASK_UPDATED, taskListId, existingTask));
+        // existingTask is managed, so the changes are flushed on commit without an extra save/merge
+        return existingTask;
+    }
+
+    /**
+     * Moves a task right after afterTaskId, or right before beforeTaskId (exactly one must be given).
+     *
+     * Only the moved task is written: it gets a rank between its new neighbours, found with two index lookups.
+     * If the anchor shares its rank with another task (two concurrent moves into the same gap),
+     * the list is rebalanced first so the new position is well-defined.
+     */
+    @Override
+    @Transactional
+    public Task moveTask(UUID taskListId, UUID taskId, UUID afterTaskId, UUID beforeTaskId) {
+        if ((afterTaskId == null) == (beforeTaskId == null)) {
+            throw new IllegalArgumentException("Give exactly one of 'after' or 'before'.");
+        }
+        UUID anchorId = afterTaskId != null ? afterTaskId : beforeTaskId;
+        if (anchorId.equals(taskId)) {
+            throw new IllegalArgumentException("A task cannot be moved next to itself.");
+        }
+
+        Task task = taskRepository.findByTaskListIdAndId(taskListId, taskId)
+                .orElseThrow(()-> new ResourceNotFoundException("Task with ID " + taskId + " not found"));
+        Task anchor = taskRepository.findByTaskListIdAndId(taskListId, anchorId)
+                .orElseThrow(()-> new ResourceNotFoundException("Task with ID " + anchorId + " not found"));
+        if (taskRepository.countByTaskListIdAndSortRank(taskListId, anchor.getSortRank()) > 1) {
+            rankRebalancer.rebalance(taskListId);
+        }
+
+        String lower;
+        String upper;
+        if (afterTaskId != null) {
+            lower = anchor.getSortRank();
+            upper = taskRepository.findNextSortRank(taskListId, lower, taskId).orElse(null);
+        } else {
+            upper = anchor.getSortRank();
+            lower = taskRepository.findPreviousSortRank(taskListId, upper, taskId).orElse(null);
+        }
+
+        String sortRank = Ranks.between(lower, upper);
+        task.setSortRank(sortRank);
+        task.setUpdated(LocalDateTime.now());
+        rankRebalancer.onRankAssigned(taskListId, sortRank);
+        eventPublisher.publishEvent(new TaskListChangedEvent(taskListId));
+        eventPublisher.publishEvent(AuditEvent.task(AuditAction.TASK_MOVED, taskListId, task));
+        return task;
     }
 }
@@ -0,0 +1,33 @@
+package com.danny.tasks.storage;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Where task lists and tasks are kept, bound from "tasks.storage.*".
+ *
+ * - engine: "jpa" (default) keeps them in the database. "memory" keeps them in this process
+ *   (see InMemoryTaskStore), for edge deployments without Postgres; use it with the "memory" profile,
+ *   which also switches off the DataSource, JPA and Flyway.
+ * - memory.directory: where the memory engine's snapshot and log live. Must be on local disk and survive restarts.
+ * - memory.fsync: force every log record to disk before a write returns. Turning it off is faster,
+ *   but an OS crash (not just a process crash) can then lose the last writes.
+ * - memory.snapshot-after: once the log is this big, a new snapshot is written and the log starts over.
+ * - memory.stripes: number of lock stripes per map; more stripes mean less contention between writers.
+ */
+@ConfigurationProperties(prefix = "tasks.storage")
+public record StorageProperties(
+        @DefaultValue("jpa") String engine,
+        @DefaultValue Memory memory
+) {
+    public record Memory(
+            @DefaultValue("data/memory-store") Path directory,
+            @DefaultValue("false") boolean fsync,
+            @DefaultValue("64MB") DataSize snapshotAfter,
+            @DefaultValue("64") int stripes
+    ) {
+    }
+}
@@ -0,0 +1,379 @@
+package com.danny.tasks.storage.memory;
+
+import com.danny.tasks.domain.dto.TaskListStatsDto;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.exceptions.ResourceNotFoundException;
+import com.danny.tasks.ranking.RankingProperties;
+import com.danny.tasks.ranking.Ranks;
+import com.danny.tasks.storage.StorageProperties;
+import com.danny.tasks.tenancy.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * The "memory" storage engine (tasks.storage.engine=memory): all task lists and tasks live in this process.
+ *
+ * Layout:
+ * - tasks: every task by id, in a {@link StripedUuidMap}, for single-task reads.
+ * - lists: a {@link ListIndex} per task list, also by id, with the list's tasks in order, by status and by due date.
+ * Stored values are immutable records; a change replaces them, so a reader sees either the old or the new task.
+ *
+ * Concurrency: every change to a list or its tasks holds that list's write lock, so changes to one list are
+ * applied (and logged) in order while different lists are written in parallel. Reads of a whole list
+ * take its read lock and copy out what they need.
+ *
+ * Durability: each change is appended to {@link StoreLog} before it is applied, and the store is rebuilt from
+ * the snapshot and log on startup. When the log grows past tasks.storage.memory.snapshot-after, the writer that
+ * noticed writes a new snapshot; all writes wait for that (readers don't).
+ *
+ * Tenancy: every list and task records its tenant. Lists of other tenants look exactly like lists that don't exist.
+ */
+@Component
+@ConditionalOnProperty(name = "tasks.storage.engine", havingValue = "memory")
+@EnableConfigurationProperties({StorageProperties.class, RankingProperties.class})
+public class InMemoryTaskStore implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryTaskStore.class);
+
+    public record ListSummary(StoredTaskList list, long total, long closed) {
+    }
+
+    private final StripedUuidMap<StoredTask> tasks;
+    private final StripedUuidMap<ListIndex> lists;
+    private final StoreLog storeLog;
+    private final long snapshotAfterBytes;
+    private final int rebalanceLength;
+
+    // Writers hold the read side (many at once); a snapshot takes the write side to see a consistent store
+    private final ReentrantReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+    private final AtomicBoolean snapshotting = new AtomicBoolean();
+
+    public InMemoryTaskStore(StorageProperties storageProperties, RankingProperties rankingProperties) throws IOException {
+        StorageProperties.Memory properties = storageProperties.memory();
+        this.tasks = new StripedUuidMap<>(properties.stripes());
+        this.lists = new StripedUuidMap<>(properties.stripes());
+        this.snapshotAfterBytes = properties.snapshotAfter().toBytes();
+        this.rebalanceLength = rankingProperties.rebalanceLength();
+        this.storeLog = new StoreLog(properties.directory(), properties.fsync());
+        storeLog.replay(this::apply);
+        log.info("Loaded {} task lists and {} tasks from {}", lists.size(), tasks.size(), properties.directory());
+    }
+
+    // ---- Task lists ----
+
+    public List<StoredTaskList> lists() {
+        String tenant = TenantContext.current();
+        List<StoredTaskList> result = new ArrayList<>();
+        lists.forEach(index -> {
+            StoredTaskList list = index.list;
+            if (list.tenantId().equals(tenant)) {
+                result.add(list);
+            }
+        });
+        result.sort(Comparator.comparing(StoredTaskList::created).thenComparing(StoredTaskList::id));
+        return result;
+    }
+
+    public Optional<StoredTaskList> list(UUID taskListId) {
+        return index(taskListId).map(index -> index.list);
+    }
+
+    public Optional<ListSummary> summary(UUID taskListId) {
+        return index(taskListId).map(index -> read(index, () ->
+                new ListSummary(index.list, index.tasks.size(), index.count(TaskStatus.CLOSED))));
+    }
+
+    public StoredTaskList createList(String title, String description, LocalDateTime now) {
+        StoredTaskList list = new StoredTaskList(UUID.randomUUID(), TenantContext.current(), title, description, now, now);
+        // Not in the index yet, so there's no list lock to take; nobody else can see the list either
+        snapshotLock.readLock().lock();
+        try {
+            record(new StoreChange.ListSaved(list));
+        } finally {
+            snapshotLock.readLock().unlock();
+            snapshotIfLogIsLarge();
+        }
+        return list;
+    }
+
+    public Optional<StoredTaskList> updateList(UUID taskListId, UnaryOperator<StoredTaskList> change) {
+        return index(taskListId).flatMap(index -> write(index, () -> {
+            StoredTaskList updated = change.apply(index.list);
+            record(new StoreChange.ListSaved(updated));
+            return updated;
+        }));
+    }
+
+    public boolean deleteList(UUID taskListId) {
+        return index(taskListId).flatMap(index -> write(index, () -> {
+            record(new StoreChange.ListDeleted(taskListId));
+            return true;
+        })).orElse(false);
+    }
+
+    // ---- Tasks ----
+
+    /**
+     * The list's tasks in list order, optionally only those with the given status.
+     */
+    public List<StoredTask> tasks(UUID taskListId, TaskStatus status) {
+        return index(taskListId)
+                .map(index -> read(index, () -> List.copyOf(status == null ? index.tasks : index.tasksByStatus.get(status))))
+                .orElse(List.of());
+    }
+
+    public Optional<StoredTask> task(UUID taskListId, UUID taskId) {
+        StoredTask task = tasks.get(taskId);
+        if (task == null || !task.taskListId().equals(taskListId) || !task.tenantId().equals(TenantContext.current())) {
+            return Optional.empty();
+        }
+        return Optional.of(task);
+    }
+
+    /**
+     * Adds a task at the end of the list. Empty if there is no such list.
+     */
+    public Optional<StoredTask> createTask(UUID taskListId, String title, String description, LocalDateTime dueDate,
+                                           TaskStatus status, TaskPriority priority, LocalDateTime now) {
+        return index(taskListId).flatMap(index -> write(index, () -> {
+            StoredTask last = index.last();
+            StoredTask task = new StoredTask(UUID.randomUUID(), index.list.tenantId(), taskListId, title, description,
+                    dueDate, status, priority, Ranks.after(last != null ? last.sortRank() : null), now, now);
+            record(new StoreChange.TaskSaved(task));
+            if (status == TaskStatus.CLOSED) {
+                recordClosed(index, now.toLocalDate(), 1);
+            }
+            return task;
+        }));
+    }
+
+    /**
+     * Replaces a task with change(task). Empty if there is no such task in the list.
+     */
+    public Optional<StoredTask> updateTask(UUID taskListId, UUID taskId, UnaryOperator<StoredTask> change) {
+        return index(taskListId).flatMap(index -> write(index, () -> {
+            StoredTask existing = task(taskListId, taskId).orElse(null);
+            if (existing == null) {
+                return null;
+            }
+            StoredTask updated = change.apply(existing);
+            record(new StoreChange.TaskSaved(updated));
+            if (existing.status() != updated.status()) {
+                recordClosed(index, updated.updated().toLocalDate(), updated.status() == TaskStatus.CLOSED ? 1 : -1);
+            }
+            return updated;
+        }));
+    }
+
+    /**
+     * Moves a task right after (or right before) the anchor task, see TaskService.moveTask.
+     * Ranks that grow to tasks.ranking.rebalance-length are rebalanced right away; in memory that's cheap.
+     */
+    public StoredTask moveTask(UUID taskListId, UUID taskId, UUID anchorId, boolean after, LocalDateTime now) {
+        ListIndex index = index(taskListId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task with ID " + taskId + " not found"));
+        return write(index, () -> {
+            StoredTask task = task(taskListId, taskId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Task with ID " + taskId + " not found"));
+            StoredTask anchor = task(taskListId, anchorId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Task with ID " + anchorId + " not found"));
+            // Ranks are unique here (they are only ever handed out under the list lock), so there is always a gap
+            StoredTask neighbour = index.neighbour(anchor, after, taskId);
+            String lower = after ? anchor.sortRank() : (neighbour != null ? neighbour.sortRank() : null);
+            String upper = after ? (neighbour != null ? neighbour.sortRank() : null) : anchor.sortRank();
+            StoredTask moved = task.withSortRank(Ranks.between(lower, upper), now);
+            record(new StoreChange.TaskSaved(moved));
+            if (moved.sortRank().length() >= rebalanceLength) {
+                rebalance(index, now);
+                return tasks.get(taskId);
+            }
+            return moved;
+        }).orElseThrow();
+    }
+
+    public boolean deleteTask(UUID taskListId, UUID taskId) {
+        return index(taskListId).flatMap(index -> write(index, () -> {
+            StoredTask existing = task(taskListId, taskId).orElse(null);
+            if (existing == null) {
+                return null;
+            }
+            record(new StoreChange.TaskDeleted(taskListId, taskId));
+            return true;
+        })).orElse(false);
+    }
+
+    // ---- Statistics ----
+
+    public Optional<TaskListStatsDto> stats(UUID taskListId, int days) {
+        return index(taskListId).map(index -> read(index, () -> {
+            Map<TaskPriority, Long> open = new EnumMap<>(TaskPriority.class);
+            Map<TaskPriority, Long> closed = new EnumMap<>(TaskPriority.class);
+            for (TaskPriority priority : TaskPriority.values()) {
+                open.put(priority, index.count(TaskStatus.OPEN, priority));
+                closed.put(priority, index.count(TaskStatus.CLOSED, priority));
+            }
+            LocalDate from = LocalDate.now().minusDays(days - 1L);
+            return new TaskListStatsDto(
+                    taskListId,
+                    open,
+                    closed,
+                    index.overdue(LocalDateTime.now()),
+                    index.closedPerDay.tailMap(from, true).entrySet().stream()
+                            .map(day -> new TaskListStatsDto.DailyClosed(day.getKey(), day.getValue()))
+                            .toList());
+        }));
+    }
+
+    @Override
+    public void close() throws IOException {
+        storeLog.close();
+    }
+
+    /**
+     * Writes a new snapshot now, whatever the size of the log.
+     */
+    public void snapshot() {
+        snapshotLock.writeLock().lock();
+        try {
+            storeLog.writeSnapshot(sink -> lists.forEach(index -> {
+                sink.accept(new StoreChange.ListSaved(index.list));
+                index.tasks.forEach(task -> sink.accept(new StoreChange.TaskSaved(task)));
+                index.closedPerDay.forEach((date, closed) -> sink.accept(new StoreChange.ClosedOnDay(index.list.id(), date, closed)));
+            }));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the task store snapshot", e);
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    // ---- Internals ----
+
+    private Optional<ListIndex> index(UUID taskListId) {
+        ListIndex index = lists.get(taskListId);
+        if (index == null || !index.list.tenantId().equals(TenantContext.current())) {
+            return Optional.empty();
+        }
+        return Optional.of(index);
+    }
+
+    private <T> T read(ListIndex index, Supplier<T> reader) {
+        index.lock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            index.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a change under the list's write lock. Empty if the list was deleted meanwhile, or the change returned null.
+     */
+    private <T> Optional<T> write(ListIndex index, Supplier<T> change) {
+        snapshotLock.readLock().lock();
+        try {
+            index.lock.writeLock().lock();
+            try {
+                return index.deleted ? Optional.empty() : Optional.ofNullable(change.get());
+            } finally {
+                index.lock.writeLock().unlock();
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
+            snapshotIfLogIsLarge();
+        }
+    }
+
+    private void record(StoreChange change) {
+        storeLog.append(change);
+        apply(change);
+    }
+
+    private void recordClosed(ListIndex index, LocalDate date, long delta) {
+        long closed = index.closedPerDay.getOrDefault(date, 0L) + delta;
+        record(new StoreChange.ClosedOnDay(index.list.id(), date, closed));
+    }
+
+    private void rebalance(ListIndex index, LocalDateTime now) {
+        List<StoredTask> ordered = List.copyOf(index.tasks);
+        List<String> ranks = Ranks.evenlySpaced(ordered.size());
+        for (int i = 0; i < ordered.size(); i++) {
+            record(new StoreChange.TaskSaved(ordered.get(i).withSortRank(ranks.get(i), now)));
+        }
+    }
+
+    private void snapshotIfLogIsLarge() {
+        try {
+            if (storeLog.logSize() < snapshotAfterBytes || !snapshotting.compareAndSet(false, true)) {
+                return;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            snapshot();
+        } finally {
+            snapshotting.set(false);
+        }
+    }
+
+    /**
+     * Applies a change to the in-memory structures. Used for new changes (under the list's write lock)
+     * and, single-threaded, for replaying the snapshot and log.
+     */
+    private void apply(StoreChange change) {
+        switch (change) {
+            case StoreChange.ListSaved(StoredTaskList list) -> {
+                ListIndex index = lists.get(list.id());
+                if (index == null) {
+                    lists.put(list.id(), new ListIndex(list));
+                } else {
+                    index.list = list;
+                }
+            }
+            case StoreChange.ListDeleted(UUID taskListId) -> {
+                ListIndex index = lists.remove(taskListId);
+                if (index != null) {
+                    index.tasks.forEach(task -> tasks.remove(task.id()));
+                    index.deleted = true;
+                }
+            }
+            case StoreChange.TaskSaved(StoredTask task) -> {
+                ListIndex index = lists.get(task.taskListId());
+                StoredTask previous = tasks.put(task.id(), task);
+                if (previous != null) {
+                    index.remove(previous);
+                }
+                index.add(task);
+            }
+            case StoreChange.TaskDeleted(UUID taskListId, UUID taskId) -> {
+                StoredTask previous = tasks.remove(taskId);
+                if (previous != null) {
+                    lists.get(taskListId).remove(previous);
+                }
+            }
+            case StoreChange.ClosedOnDay(UUID taskListId, LocalDate date, long closed) ->
+                    lists.get(taskListId).closedPerDay.put(date, closed);
+        }
+    }
+}
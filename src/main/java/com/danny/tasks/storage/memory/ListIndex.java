@@ -0,0 +1,110 @@
+package com.danny.tasks.storage.memory;
+
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One task list and the secondary indexes over its tasks:
+ * - every task, in list order (sort rank, then id)
+ * - per status, in list order, for "?status=" reads
+ * - open tasks with a due date, by due date, for the overdue count
+ * - task counts per status and priority, and the closed tasks per day, for the statistics
+ *
+ * Guarded by {@link #lock}: InMemoryTaskStore holds the write lock for every change to the list or its tasks,
+ * and the read lock to read more than a single task.
+ */
+final class ListIndex {
+
+    static final Comparator<StoredTask> LIST_ORDER =
+            Comparator.comparing(StoredTask::sortRank).thenComparing(StoredTask::id);
+    private static final Comparator<StoredTask> DUE_DATE_ORDER =
+            Comparator.comparing(StoredTask::dueDate).thenComparing(StoredTask::id);
+    private static final UUID LOWEST_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    StoredTaskList list;
+    // Set when the list is deleted, for writers that looked the index up just before
+    boolean deleted;
+
+    final NavigableSet<StoredTask> tasks = new TreeSet<>(LIST_ORDER);
+    final Map<TaskStatus, NavigableSet<StoredTask>> tasksByStatus = new EnumMap<>(TaskStatus.class);
+    final NavigableSet<StoredTask> openByDueDate = new TreeSet<>(DUE_DATE_ORDER);
+    final long[] counts = new long[TaskStatus.values().length * TaskPriority.values().length];
+    final TreeMap<LocalDate, Long> closedPerDay = new TreeMap<>();
+
+    ListIndex(StoredTaskList list) {
+        this.list = list;
+        for (TaskStatus status : TaskStatus.values()) {
+            tasksByStatus.put(status, new TreeSet<>(LIST_ORDER));
+        }
+    }
+
+    void add(StoredTask task) {
+        tasks.add(task);
+        tasksByStatus.get(task.status()).add(task);
+        if (task.status() == TaskStatus.OPEN && task.dueDate() != null) {
+            openByDueDate.add(task);
+        }
+        counts[slot(task.status(), task.priority())]++;
+    }
+
+    void remove(StoredTask task) {
+        tasks.remove(task);
+        tasksByStatus.get(task.status()).remove(task);
+        if (task.status() == TaskStatus.OPEN && task.dueDate() != null) {
+            openByDueDate.remove(task);
+        }
+        counts[slot(task.status(), task.priority())]--;
+    }
+
+    long count(TaskStatus status, TaskPriority priority) {
+        return counts[slot(status, priority)];
+    }
+
+    long count(TaskStatus status) {
+        long count = 0;
+        for (TaskPriority priority : TaskPriority.values()) {
+            count += count(status, priority);
+        }
+        return count;
+    }
+
+    long overdue(LocalDateTime now) {
+        return openByDueDate.headSet(probe(now), false).size();
+    }
+
+    StoredTask last() {
+        return tasks.isEmpty() ? null : tasks.last();
+    }
+
+    /**
+     * The task right after (or before) the given one in list order, skipping the excluded task.
+     */
+    StoredTask neighbour(StoredTask task, boolean after, UUID excluded) {
+        StoredTask neighbour = after ? tasks.higher(task) : tasks.lower(task);
+        while (neighbour != null && neighbour.id().equals(excluded)) {
+            neighbour = after ? tasks.higher(neighbour) : tasks.lower(neighbour);
+        }
+        return neighbour;
+    }
+
+    private static StoredTask probe(LocalDateTime dueDate) {
+        return new StoredTask(LOWEST_ID, null, null, null, null, dueDate, null, null, null, null, null);
+    }
+
+    private static int slot(TaskStatus status, TaskPriority priority) {
+        return status.ordinal() * TaskPriority.values().length + priority.ordinal();
+    }
+}
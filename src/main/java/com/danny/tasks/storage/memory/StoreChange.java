@@ -0,0 +1,34 @@
+package com.danny.tasks.storage.memory;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One entry of the memory store's log and snapshot (see {@link StoreLog}).
+ *
+ * Every change carries the full new state of what it touches, never a difference. Replaying a change
+ * twice, or replaying older changes onto a newer snapshot, therefore ends in the same state.
+ */
+sealed interface StoreChange {
+
+    record ListSaved(StoredTaskList list) implements StoreChange {
+    }
+
+    /**
+     * Also removes all tasks of the list.
+     */
+    record ListDeleted(UUID taskListId) implements StoreChange {
+    }
+
+    record TaskSaved(StoredTask task) implements StoreChange {
+    }
+
+    record TaskDeleted(UUID taskListId, UUID taskId) implements StoreChange {
+    }
+
+    /**
+     * Net number of tasks closed in a list on one day (the burndown of GET /task-lists/{id}/stats).
+     */
+    record ClosedOnDay(UUID taskListId, LocalDate date, long closed) implements StoreChange {
+    }
+}
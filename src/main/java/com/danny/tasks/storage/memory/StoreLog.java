@@ -0,0 +1,366 @@
+package com.danny.tasks.storage.memory;
+
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Durability for {@link InMemoryTaskStore}: a snapshot file plus an append-only log of the changes since.
+ *
+ * Files (in the configured directory):
+ * - store.snapshot: the whole store, written by {@link #writeSnapshot} to a temporary file and then
+ *   moved into place atomically, so there is always one complete snapshot.
+ * - store.log: every change since that snapshot, appended as it happens. Emptied after each new snapshot.
+ *
+ * Both start with a header, [int magic "TSTO"][long generation], followed by records in the same layout as the
+ * write-behind WAL: [int payload length][int CRC32 of payload][payload].
+ * A crash can leave a half-written record at the end of the log; {@link #replay} stops at the first record
+ * that is incomplete or fails its checksum and cuts the log off there.
+ *
+ * Generations: every snapshot gets the next generation, and the log emptied after it is stamped with the same one.
+ * A crash between moving a new snapshot into place and emptying the log leaves a log of an older generation,
+ * whose changes are all in the snapshot already; {@link #replay} skips it. (Replaying it would not be harmless:
+ * it can refer to a list the snapshot no longer has.) Files written before generations have no header and count
+ * as generation 0.
+ *
+ * {@link #append} is thread-safe; each record goes to the file with a single write.
+ */
+class StoreLog implements Closeable {
+
+    static final String SNAPSHOT_FILE = "store.snapshot";
+    static final String LOG_FILE = "store.log";
+
+    static final int FILE_HEADER_BYTES = 12;
+    private static final int MAGIC = 0x5453544F;
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+
+    private static final byte LIST_SAVED = 1;
+    private static final byte LIST_DELETED = 2;
+    private static final byte TASK_SAVED = 3;
+    private static final byte TASK_DELETED = 4;
+    private static final byte CLOSED_ON_DAY = 5;
+
+    private final Path directory;
+    private final boolean fsync;
+    private final FileChannel log;
+    private long generation;
+
+    StoreLog(Path directory, boolean fsync) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.fsync = fsync;
+        this.log = FileChannel.open(directory.resolve(LOG_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Feeds the snapshot and then the log to the consumer, oldest first. Call once, before the first append.
+     */
+    void replay(Consumer<StoreChange> consumer) throws IOException {
+        long snapshotGeneration = 0;
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshot)) {
+            try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+                long found = generationOf(channel);
+                snapshotGeneration = Math.max(found, 0);
+                channel.position(found < 0 ? 0 : FILE_HEADER_BYTES);
+                read(new BufferedInputStream(Channels.newInputStream(channel)), consumer);
+            }
+        }
+        generation = snapshotGeneration;
+
+        long logGeneration = generationOf(log);
+        long start = logGeneration < 0 ? 0 : FILE_HEADER_BYTES;
+        if (logGeneration < 0 && log.size() > 0) {
+            logGeneration = 0;
+        }
+        if (logGeneration > snapshotGeneration) {
+            throw new IOException("Task store log is of generation " + logGeneration + " but the snapshot only of "
+                    + snapshotGeneration + "; was " + SNAPSHOT_FILE + " replaced or removed?");
+        }
+        if (logGeneration < snapshotGeneration) {
+            // Empty, or left over from before the snapshot
+            startLog(snapshotGeneration);
+            return;
+        }
+        log.position(start);
+        long valid = start + read(new BufferedInputStream(Channels.newInputStream(log)), consumer);
+        // Drop a torn record at the end, so new records don't end up behind it
+        log.truncate(valid);
+        log.position(valid);
+    }
+
+    void append(StoreChange change) {
+        ByteBuffer record = frame(encode(change));
+        try {
+            synchronized (log) {
+                while (record.hasRemaining()) {
+                    log.write(record);
+                }
+            }
+            if (fsync) {
+                log.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write to the task store log", e);
+        }
+    }
+
+    long logSize() throws IOException {
+        return log.size();
+    }
+
+    /**
+     * Replaces the snapshot with the changes the writer produces, then empties the log.
+     * The caller must make sure nothing is appended meanwhile.
+     */
+    void writeSnapshot(Consumer<Consumer<StoreChange>> writer) throws IOException {
+        long next = generation + 1;
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024);
+            out.write(header(next).array());
+            writer.accept(change -> {
+                ByteBuffer record = frame(encode(change));
+                try {
+                    out.write(record.array(), 0, record.limit());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+            channel.force(true);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        startLog(next);
+    }
+
+    /**
+     * Empties the log and stamps it with the generation of the snapshot it follows.
+     */
+    private void startLog(long generation) throws IOException {
+        synchronized (log) {
+            log.truncate(0);
+            ByteBuffer header = header(generation);
+            while (header.hasRemaining()) {
+                log.write(header, header.position());
+            }
+            log.position(FILE_HEADER_BYTES);
+            log.force(true);
+            this.generation = generation;
+        }
+    }
+
+    private static ByteBuffer header(long generation) {
+        return ByteBuffer.allocate(FILE_HEADER_BYTES).putInt(MAGIC).putLong(generation).flip();
+    }
+
+    /**
+     * @return the generation in the file's header, or -1 if it has none (empty, or written before generations)
+     */
+    private static long generationOf(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+            // Read until full or end of file
+        }
+        if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+            return -1;
+        }
+        return header.getLong(4);
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    /**
+     * @return the number of bytes holding complete, valid records
+     */
+    private static long read(InputStream stream, Consumer<StoreChange> consumer) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        long valid = 0;
+        CRC32 crc = new CRC32();
+        while (true) {
+            int length;
+            int checksum;
+            byte[] payload;
+            try {
+                length = in.readInt();
+                checksum = in.readInt();
+                if (length < 0 || length > MAX_RECORD_BYTES) {
+                    return valid;
+                }
+                payload = new byte[length];
+                in.readFully(payload);
+            } catch (EOFException e) {
+                return valid;
+            }
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                return valid;
+            }
+            consumer.accept(decode(ByteBuffer.wrap(payload)));
+            valid += HEADER_BYTES + length;
+        }
+    }
+
+    private static ByteBuffer frame(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return ByteBuffer.allocate(HEADER_BYTES + payload.length)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .flip();
+    }
+
+    private static byte[] encode(StoreChange change) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            switch (change) {
+                case StoreChange.ListSaved(StoredTaskList list) -> {
+                    out.writeByte(LIST_SAVED);
+                    writeUuid(out, list.id());
+                    writeString(out, list.tenantId());
+                    writeString(out, list.title());
+                    writeString(out, list.description());
+                    writeDateTime(out, list.created());
+                    writeDateTime(out, list.updated());
+                }
+                case StoreChange.ListDeleted(UUID taskListId) -> {
+                    out.writeByte(LIST_DELETED);
+                    writeUuid(out, taskListId);
+                }
+                case StoreChange.TaskSaved(StoredTask task) -> {
+                    out.writeByte(TASK_SAVED);
+                    writeUuid(out, task.id());
+                    writeString(out, task.tenantId());
+                    writeUuid(out, task.taskListId());
+                    writeString(out, task.title());
+                    writeString(out, task.description());
+                    writeDateTime(out, task.dueDate());
+                    out.writeByte(task.status().ordinal());
+                    out.writeByte(task.priority().ordinal());
+                    writeString(out, task.sortRank());
+                    writeDateTime(out, task.created());
+                    writeDateTime(out, task.updated());
+                }
+                case StoreChange.TaskDeleted(UUID taskListId, UUID taskId) -> {
+                    out.writeByte(TASK_DELETED);
+                    writeUuid(out, taskListId);
+                    writeUuid(out, taskId);
+                }
+                case StoreChange.ClosedOnDay(UUID taskListId, LocalDate date, long closed) -> {
+                    out.writeByte(CLOSED_ON_DAY);
+                    writeUuid(out, taskListId);
+                    out.writeLong(date.toEpochDay());
+                    out.writeLong(closed);
+                }
+            }
+        } catch (IOException e) {
+            // ByteArrayOutputStream doesn't throw
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static StoreChange decode(ByteBuffer in) {
+        byte type = in.get();
+        return switch (type) {
+            case LIST_SAVED -> new StoreChange.ListSaved(new StoredTaskList(
+                    readUuid(in), readString(in), readString(in), readString(in), readDateTime(in), readDateTime(in)));
+            case LIST_DELETED -> new StoreChange.ListDeleted(readUuid(in));
+            case TASK_SAVED -> new StoreChange.TaskSaved(new StoredTask(
+                    readUuid(in),
+                    readString(in),
+                    readUuid(in),
+                    readString(in),
+                    readString(in),
+                    readDateTime(in),
+                    TaskStatus.values()[in.get()],
+                    TaskPriority.values()[in.get()],
+                    readString(in),
+                    readDateTime(in),
+                    readDateTime(in)));
+            case TASK_DELETED -> new StoreChange.TaskDeleted(readUuid(in), readUuid(in));
+            case CLOSED_ON_DAY -> new StoreChange.ClosedOnDay(readUuid(in), LocalDate.ofEpochDay(in.getLong()), in.getLong());
+            default -> throw new IllegalStateException("Unknown task store record type " + type);
+        };
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(ByteBuffer in) {
+        return new UUID(in.getLong(), in.getLong());
+    }
+
+    // Length -1 stands for null
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime dateTime) throws IOException {
+        out.writeBoolean(dateTime != null);
+        if (dateTime != null) {
+            out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(dateTime.getNano());
+        }
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer in) {
+        if (in.get() == 0) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,29 @@
+package com.danny.tasks.storage.memory;
+
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A task as kept by {@link InMemoryTaskStore}. Immutable, like {@link StoredTaskList}.
+ */
+public record StoredTask(
+        UUID id,
+        String tenantId,
+        UUID taskListId,
+        String title,
+        String description,
+        LocalDateTime dueDate,
+        TaskStatus status,
+        TaskPriority priority,
+        String sortRank,
+        LocalDateTime created,
+        LocalDateTime updated
+) {
+
+    public StoredTask withSortRank(String sortRank, LocalDateTime updated) {
+        return new StoredTask(id, tenantId, taskListId, title, description, dueDate, status, priority, sortRank, created, updated);
+    }
+}
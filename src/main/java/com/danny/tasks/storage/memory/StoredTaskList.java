@@ -0,0 +1,18 @@
+package com.danny.tasks.storage.memory;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A task list as kept by {@link InMemoryTaskStore}. Immutable: a change stores a new copy,
+ * so readers never see a half-applied update.
+ */
+public record StoredTaskList(
+        UUID id,
+        String tenantId,
+        String title,
+        String description,
+        LocalDateTime created,
+        LocalDateTime updated
+) {
+}
@@ -0,0 +1,226 @@
+package com.danny.tasks.storage.memory;
+
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Concurrent map from UUID to value, split into independently locked stripes.
+ *
+ * Each stripe is an open-addressing hash table (linear probing) that keeps the keys as two long arrays,
+ * so a mapping costs two longs and a reference instead of a UUID, a map entry and a boxed hash.
+ * Lookups only take the stripe's read lock; writers to different stripes never wait for each other.
+ *
+ * Values must not be null (an empty slot is a null value).
+ */
+final class StripedUuidMap<V> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Stripe[] stripes;
+    private final int stripeShift;
+
+    StripedUuidMap(int stripeCount) {
+        int count = Integer.highestOneBit(Math.max(1, stripeCount - 1) << 1);
+        stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        // The top bits of the hash pick the stripe, the low bits the slot, so the two don't correlate
+        stripeShift = 64 - Integer.numberOfTrailingZeros(count);
+    }
+
+    V get(UUID key) {
+        long msb = key.getMostSignificantBits();
+        long lsb = key.getLeastSignificantBits();
+        long hash = hash(msb, lsb);
+        Stripe stripe = stripe(hash);
+        stripe.lock.readLock().lock();
+        try {
+            int slot = stripe.find(msb, lsb, hash);
+            return slot >= 0 ? value(stripe, slot) : null;
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the previous value, or null
+     */
+    V put(UUID key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        long msb = key.getMostSignificantBits();
+        long lsb = key.getLeastSignificantBits();
+        long hash = hash(msb, lsb);
+        Stripe stripe = stripe(hash);
+        stripe.lock.writeLock().lock();
+        try {
+            int slot = stripe.find(msb, lsb, hash);
+            if (slot >= 0) {
+                V previous = value(stripe, slot);
+                stripe.values[slot] = value;
+                return previous;
+            }
+            if ((stripe.size + 1) * 4 > stripe.values.length * 3) {
+                stripe.resize(stripe.values.length * 2);
+            }
+            stripe.insert(msb, lsb, hash, value);
+            return null;
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the removed value, or null
+     */
+    V remove(UUID key) {
+        long msb = key.getMostSignificantBits();
+        long lsb = key.getLeastSignificantBits();
+        long hash = hash(msb, lsb);
+        Stripe stripe = stripe(hash);
+        stripe.lock.writeLock().lock();
+        try {
+            int slot = stripe.find(msb, lsb, hash);
+            if (slot < 0) {
+                return null;
+            }
+            V removed = value(stripe, slot);
+            stripe.delete(slot);
+            return removed;
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+            try {
+                size += stripe.size;
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Visits every value, one stripe at a time. Not a snapshot: concurrent writes to stripes not yet
+     * visited may or may not be seen.
+     */
+    void forEach(Consumer<? super V> action) {
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+            try {
+                for (Object value : stripe.values) {
+                    if (value != null) {
+                        action.accept(cast(value));
+                    }
+                }
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+    }
+
+    void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.writeLock().lock();
+            try {
+                stripe.msbs = new long[INITIAL_CAPACITY];
+                stripe.lsbs = new long[INITIAL_CAPACITY];
+                stripe.values = new Object[INITIAL_CAPACITY];
+                stripe.size = 0;
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private Stripe stripe(long hash) {
+        return stripes[(int) (hash >>> stripeShift) & (stripes.length - 1)];
+    }
+
+    private V value(Stripe stripe, int slot) {
+        return cast(stripe.values[slot]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V cast(Object value) {
+        return (V) value;
+    }
+
+    private static long hash(long msb, long lsb) {
+        // Random UUIDs are already well mixed, time-based ones are not; one multiply spreads both
+        return (msb ^ Long.rotateLeft(lsb, 32)) * 0x9E3779B97F4A7C15L;
+    }
+
+    private static final class Stripe {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        long[] msbs = new long[INITIAL_CAPACITY];
+        long[] lsbs = new long[INITIAL_CAPACITY];
+        Object[] values = new Object[INITIAL_CAPACITY];
+        int size;
+
+        int find(long msb, long lsb, long hash) {
+            int mask = values.length - 1;
+            for (int slot = (int) hash & mask; values[slot] != null; slot = (slot + 1) & mask) {
+                if (msbs[slot] == msb && lsbs[slot] == lsb) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        void insert(long msb, long lsb, long hash, Object value) {
+            int mask = values.length - 1;
+            int slot = (int) hash & mask;
+            while (values[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            msbs[slot] = msb;
+            lsbs[slot] = lsb;
+            values[slot] = value;
+            size++;
+        }
+
+        /**
+         * Backward-shift deletion: moves later entries of the probe chain up, so no tombstones are needed.
+         */
+        void delete(int slot) {
+            int mask = values.length - 1;
+            int hole = slot;
+            for (int next = (hole + 1) & mask; values[next] != null; next = (next + 1) & mask) {
+                int home = (int) hash(msbs[next], lsbs[next]) & mask;
+                // The entry at next may move into the hole only if its home slot is not in (hole, next]
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    msbs[hole] = msbs[next];
+                    lsbs[hole] = lsbs[next];
+                    values[hole] = values[next];
+                    hole = next;
+                }
+            }
+            values[hole] = null;
+            size--;
+        }
+
+        void resize(int capacity) {
+            long[] oldMsbs = msbs;
+            long[] oldLsbs = lsbs;
+            Object[] oldValues = values;
+            msbs = new long[capacity];
+            lsbs = new long[capacity];
+            values = new Object[capacity];
+            size = 0;
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] != null) {
+                    insert(oldMsbs[i], oldLsbs[i], hash(oldMsbs[i], oldLsbs[i]), oldValues[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.danny.tasks.tenancy;
+
+import java.util.function.Supplier;
+
+/**
+ * Thread-bound tenant of the current request (or background job).
+ *
+ * Hibernate reads it through {@link TenantIdentifierResolver} whenever a session is opened, and scopes
+ * every query on TaskList and Task to it. Threads that never set a tenant act as {@link #DEFAULT_TENANT},
+ * which is also the tenant all data created before multi-tenancy belongs to.
+ */
+public final class TenantContext {
+
+    public static final String DEFAULT_TENANT = "default";
+
+    private static final ThreadLocal<String> TENANT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String current() {
+        String tenant = TENANT.get();
+        return tenant != null ? tenant : DEFAULT_TENANT;
+    }
+
+    public static void set(String tenantId) {
+        TENANT.set(tenantId);
+    }
+
+    public static void clear() {
+        TENANT.remove();
+    }
+
+    /**
+     * Runs work as the given tenant, restoring the previous tenant afterwards.
+     */
+    public static <T> T callAs(String tenantId, Supplier<T> work) {
+        String previous = TENANT.get();
+        TENANT.set(tenantId);
+        try {
+            return work.get();
+        } finally {
+            TENANT.set(previous);
+        }
+    }
+
+    public static void runAs(String tenantId, Runnable work) {
+        callAs(tenantId, () -> {
+            work.run();
+            return null;
+        });
+    }
+}
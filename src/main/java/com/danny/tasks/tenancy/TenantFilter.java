@@ -0,0 +1,48 @@
+package com.danny.tasks.tenancy;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Takes the tenant of each request from the X-Tenant-Id header and binds it to {@link TenantContext}.
+ *
+ * - No header: the request runs as the default tenant, as every request did before multi-tenancy.
+ * - Malformed header: 400.
+ *
+ * The header is trusted as-is; it is meant to be set by the gateway that authenticated the caller.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class TenantFilter extends OncePerRequestFilter {
+
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+
+    // Same limit as the tenant_id columns
+    private static final Pattern VALID_TENANT = Pattern.compile("[A-Za-z0-9_.-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String tenant = request.getHeader(TENANT_HEADER);
+        if (tenant != null && !VALID_TENANT.matcher(tenant).matches()) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid " + TENANT_HEADER + " header");
+            return;
+        }
+
+        TenantContext.set(tenant);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.danny.tasks.tenancy;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Hands the tenant from {@link TenantContext} to Hibernate.
+ *
+ * TaskList and Task mark their tenant_id column with @TenantId. Hibernate then:
+ * - fills tenant_id in on insert,
+ * - adds "tenant_id = ?" (its built-in tenant filter) to every query and load of those entities,
+ * so repositories and services never pass the tenant around themselves.
+ */
+@Component
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver<String>, HibernatePropertiesCustomizer {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return TenantContext.current();
+    }
+
+    /**
+     * Sessions are opened per transaction, so a session never outlives the tenant it was opened for.
+     */
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, this);
+    }
+}
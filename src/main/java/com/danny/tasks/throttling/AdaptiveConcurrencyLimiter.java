@@ -0,0 +1,68 @@
+package com.danny.tasks.throttling;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the number of requests working in the service layer at once, and adapts the cap to latency (AIMD):
+ *
+ * - A request that finishes within the target latency counts as a success. After "limit" successes in
+ *   a row the limit grows by one (additive increase).
+ * - A request slower than the target means the database is saturating: the limit shrinks by 10%
+ *   (multiplicative decrease).
+ * - The limit stays between minLimit and maxLimit. maxLimit defaults to the Hikari pool size, so requests
+ *   are shed with a 503 before they would queue up waiting for a database connection.
+ *
+ * All counters are atomics; no lock is taken on the request path.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger successes = new AtomicInteger();
+
+    public AdaptiveConcurrencyLimiter(int minLimit, int maxLimit, Duration targetLatency) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.limit = new AtomicInteger(maxLimit);
+    }
+
+    /**
+     * @return true if the request may proceed; it must then call {@link #release(long)} when done
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        if (latencyNanos > targetLatencyNanos) {
+            successes.set(0);
+            limit.updateAndGet(current -> Math.max(minLimit, (int) (current * 0.9)));
+        } else if (successes.incrementAndGet() >= limit.get()) {
+            successes.set(0);
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
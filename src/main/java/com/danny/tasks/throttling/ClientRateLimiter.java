@@ -0,0 +1,72 @@
+package com.danny.tasks.throttling;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One TokenBucket per client key (API key or remote address).
+ *
+ * Buckets are created on first use and kept in a bounded LRU map: at most maxClients of them, spread over
+ * a fixed number of stripes so clients in different stripes don't wait on each other. When a stripe is full
+ * its least recently used bucket is dropped, in O(1), so a scan from many addresses can't grow the map and
+ * costs no more per request than normal traffic. A dropped client starts again with a full bucket.
+ */
+public class ClientRateLimiter {
+
+    private static final int STRIPES = 16;
+
+    private final double permitsPerSecond;
+    private final int burst;
+    private final LruBuckets[] stripes = new LruBuckets[STRIPES];
+
+    public ClientRateLimiter(double permitsPerSecond, int burst, int maxClients) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        int perStripe = Math.max(1, (maxClients + STRIPES - 1) / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new LruBuckets(perStripe);
+        }
+    }
+
+    /**
+     * @return Duration.ZERO when the request may proceed, otherwise how long the client should wait
+     */
+    public Duration tryAcquire(String clientKey) {
+        long now = System.nanoTime();
+        LruBuckets stripe = stripes[(clientKey.hashCode() & Integer.MAX_VALUE) % STRIPES];
+        TokenBucket bucket;
+        synchronized (stripe) {
+            bucket = stripe.computeIfAbsent(clientKey, key -> new TokenBucket(permitsPerSecond, burst, now));
+        }
+        // The bucket itself is lock-free
+        return Duration.ofNanos(bucket.tryAcquire(now));
+    }
+
+    /**
+     * Number of buckets currently kept.
+     */
+    public int size() {
+        int size = 0;
+        for (LruBuckets stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private static final class LruBuckets extends LinkedHashMap<String, TokenBucket> {
+        private final int capacity;
+
+        LruBuckets(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+            return size() > capacity;
+        }
+    }
+}
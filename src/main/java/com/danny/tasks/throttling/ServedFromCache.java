@@ -0,0 +1,16 @@
+package com.danny.tasks.throttling;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Implemented by controllers that answer some requests from an in-memory cache. ThrottlingInterceptor lets those
+ * requests past the concurrency limit: they never wait for a database connection, so shedding them would only
+ * turn cheap answers into 503s.
+ */
+public interface ServedFromCache {
+
+    /**
+     * Called before the handler runs, once the request has been mapped to it.
+     */
+    boolean isServedFromCache(HttpServletRequest request);
+}
@@ -0,0 +1,110 @@
+package com.danny.tasks.throttling;
+
+import com.danny.tasks.exceptions.RateLimitExceededException;
+import com.danny.tasks.exceptions.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Runs in front of the controllers (and therefore the service layer) for the task API.
+ *
+ * 1. Write requests are checked against the client's token bucket -> 429 when exhausted.
+ *    Clients are told apart by X-API-Key, but only for configured keys: anything else is keyed by the remote
+ *    address, so sending a new made-up key with every request doesn't get a fresh bucket every time.
+ * 2. Every request must get a slot from the adaptive concurrency limiter -> 503 when full. Requests the handler
+ *    answers from its cache (see {@link ServedFromCache}) don't need one. An entry invalidated between this check
+ *    and the handler lets that one request through without a slot, which is harmless.
+ *
+ * Rejections are counted in the "tasks.requests.rejected" metric, tagged with the reason.
+ * Exceptions thrown here are turned into ErrorResponse bodies by GlobalExceptionHandler.
+ */
+public class ThrottlingInterceptor implements HandlerInterceptor {
+
+    static final String API_KEY_HEADER = "X-API-Key";
+    private static final String STARTED_AT = ThrottlingInterceptor.class.getName() + ".startedAt";
+    private static final Duration OVERLOAD_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final ClientRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Set<String> apiKeys;
+    private final Counter rateLimited;
+    private final Counter shed;
+
+    /**
+     * Either limiter may be null when it is disabled.
+     */
+    public ThrottlingInterceptor(ClientRateLimiter rateLimiter, AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                 Set<String> apiKeys, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.apiKeys = Set.copyOf(apiKeys);
+        this.rateLimited = Counter.builder("tasks.requests.rejected")
+                .description("Requests rejected by throttling")
+                .tag("reason", "rate_limit")
+                .register(meterRegistry);
+        this.shed = Counter.builder("tasks.requests.rejected")
+                .description("Requests rejected by throttling")
+                .tag("reason", "concurrency_limit")
+                .register(meterRegistry);
+        if (concurrencyLimiter != null) {
+            Gauge.builder("tasks.requests.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .register(meterRegistry);
+            Gauge.builder("tasks.requests.concurrency.in_flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (rateLimiter != null && isWrite(request)) {
+            Duration wait = rateLimiter.tryAcquire(clientKey(request));
+            if (!wait.isZero()) {
+                rateLimited.increment();
+                throw new RateLimitExceededException("Too many write requests, slow down.", wait);
+            }
+        }
+
+        if (concurrencyLimiter != null && !isServedFromCache(request, handler)) {
+            if (!concurrencyLimiter.tryAcquire()) {
+                shed.increment();
+                throw new ServiceOverloadedException("Service is busy, try again shortly.", OVERLOAD_RETRY_AFTER);
+            }
+            request.setAttribute(STARTED_AT, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        // Only requests that actually took a slot carry the attribute
+        if (request.getAttribute(STARTED_AT) instanceof Long startedAt) {
+            concurrencyLimiter.release(System.nanoTime() - startedAt);
+        }
+    }
+
+    String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "addr:" + request.getRemoteAddr();
+    }
+
+    private static boolean isServedFromCache(HttpServletRequest request, Object handler) {
+        return handler instanceof HandlerMethod method
+                && method.getBean() instanceof ServedFromCache cache
+                && cache.isServedFromCache(request);
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        HttpMethod method = HttpMethod.valueOf(request.getMethod());
+        return method == HttpMethod.POST || method == HttpMethod.PUT
+                || method == HttpMethod.PATCH || method == HttpMethod.DELETE;
+    }
+}
@@ -0,0 +1,43 @@
+package com.danny.tasks.throttling;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Settings for request throttling, bound from "tasks.throttling.*". Both limits are off unless enabled.
+ *
+ * rate-limit: per-client token bucket on write requests (POST, PUT, PATCH, DELETE)
+ * - permits-per-second / burst: sustained rate and how many writes may arrive at once
+ * - max-clients: number of client buckets kept; the least recently used ones are dropped beyond that
+ * - api-keys: the X-API-Key values that get a bucket of their own; any other (or no) key counts as its remote address.
+ *   Behind a proxy or load balancer that is the proxy's address unless server.forward-headers-strategy is set
+ *
+ * concurrency: adaptive limit on requests in flight, shared by all clients
+ * - min-limit / max-limit: bounds of the adaptive limit; max-limit defaults to the Hikari pool size
+ * - target-latency: requests slower than this make the limit shrink
+ */
+@ConfigurationProperties(prefix = "tasks.throttling")
+public record ThrottlingProperties(
+        @DefaultValue RateLimit rateLimit,
+        @DefaultValue Concurrency concurrency
+) {
+    public record RateLimit(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("20") double permitsPerSecond,
+            @DefaultValue("40") int burst,
+            @DefaultValue("100000") int maxClients,
+            @DefaultValue Set<String> apiKeys
+    ) {
+    }
+
+    public record Concurrency(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("2") int minLimit,
+            Integer maxLimit,
+            @DefaultValue("250ms") Duration targetLatency
+    ) {
+    }
+}
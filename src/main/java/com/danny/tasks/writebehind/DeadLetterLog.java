@@ -0,0 +1,67 @@
+package com.danny.tasks.writebehind;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Task updates that were accepted (202) but can't be written, kept for an operator to look at.
+ *
+ * One line per update in "dead-letter.log" next to the write-ahead log:
+ * the time, the update and the error that kept it out of the database, tab-separated.
+ * An update only ends up here after it failed on its own (not just as part of a batch), with an error
+ * that retrying won't fix; see WriteBehindQueue.flush().
+ *
+ * Not thread-safe; WriteBehindQueue only writes it from the flush.
+ */
+public class DeadLetterLog implements Closeable {
+
+    static final String FILE_NAME = "dead-letter.log";
+
+    private final Path file;
+    private final boolean fsync;
+    private final FileChannel channel;
+
+    public DeadLetterLog(Path directory, boolean fsync) throws IOException {
+        this.file = Files.createDirectories(directory).resolve(FILE_NAME);
+        this.fsync = fsync;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    public void append(TaskUpdate update, Throwable error) throws IOException {
+        String line = Instant.now() + "\t" + update + "\t" + describe(error) + "\n";
+        ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    public List<String> read() throws IOException {
+        return Files.readAllLines(file, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // The innermost cause is usually the one that says what's wrong (e.g. the database's message)
+    private static String describe(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        String message = cause.getClass().getName() + ": " + cause.getMessage();
+        return message.replace('\n', ' ').replace('\t', ' ');
+    }
+}
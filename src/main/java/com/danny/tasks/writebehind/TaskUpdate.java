@@ -0,0 +1,91 @@
+package com.danny.tasks.writebehind;
+
+import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.tenancy.TenantContext;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A pending change to one task, as accepted by PUT /task-list/{id}/tasks/{id} in write-behind mode.
+ *
+ * Null fields are "not changed", the same as in TaskServiceImpl.updateTask.
+ * updated is the time the change was accepted, and becomes the task's "updated" column.
+ * tenantId is the tenant of the request; the update is written as that tenant.
+ */
+public record TaskUpdate(
+        String tenantId,
+        UUID taskListId,
+        UUID taskId,
+        String title,
+        String description,
+        LocalDateTime dueDate,
+        TaskStatus status,
+        TaskPriority priority,
+        LocalDateTime updated
+) {
+
+    /**
+     * Builds an update from the request body, applying the same validation as the synchronous update.
+     */
+    public static TaskUpdate of(UUID taskListId, UUID taskId, Task changes) {
+        LocalDateTime now = LocalDateTime.now();
+        if (changes.getDueDate() != null && changes.getDueDate().isBefore(now)) {
+            throw new IllegalArgumentException("Due date cannot be in the past.");
+        }
+        Task.checkTextLength(changes.getTitle(), changes.getDescription());
+        return new TaskUpdate(
+                TenantContext.current(),
+                taskListId,
+                taskId,
+                blankToNull(changes.getTitle()),
+                blankToNull(changes.getDescription()),
+                changes.getDueDate(),
+                changes.getStatus(),
+                changes.getPriority(),
+                now
+        );
+    }
+
+    /**
+     * Coalesces two updates to the same task: fields set in the newer update win.
+     */
+    public TaskUpdate mergedWith(TaskUpdate newer) {
+        return new TaskUpdate(
+                tenantId,
+                taskListId,
+                taskId,
+                newer.title != null ? newer.title : title,
+                newer.description != null ? newer.description : description,
+                newer.dueDate != null ? newer.dueDate : dueDate,
+                newer.status != null ? newer.status : status,
+                newer.priority != null ? newer.priority : priority,
+                newer.updated
+        );
+    }
+
+    public void applyTo(Task task) {
+        if (title != null) {
+            task.setTitle(title);
+        }
+        if (description != null) {
+            task.setDescription(description);
+        }
+        if (dueDate != null) {
+            task.setDueDate(dueDate);
+        }
+        if (status != null) {
+            task.setStatus(status);
+        }
+        if (priority != null) {
+            task.setPriority(priority);
+        }
+        task.setUpdated(updated);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
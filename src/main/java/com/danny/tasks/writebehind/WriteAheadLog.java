@@ -0,0 +1,273 @@
+package com.danny.tasks.writebehind;
+
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.tenancy.TenantContext;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of accepted task updates, so nothing acknowledged is lost if the process dies before a flush.
+ *
+ * Files:
+ * - The log is a series of segment files named by sequence number ("00000000000000000001.wal", ...).
+ * - New records go to the newest ("current") segment. {@link #rotate()} starts a new one, and once
+ *   everything in the older segments is in the database they are removed with {@link #deleteSealed()}.
+ *
+ * Segment layout: [int magic "TWAL"][byte format version], then records.
+ * Record layout: [int payload length][int CRC32 of payload][payload]
+ * Payload: tenant, task list id, task id, a bit set of the fields present, then the fields themselves.
+ *
+ * Versions:
+ * - 1: segments without a header, written before multi-tenancy. Their payload has no tenant; they are read
+ *   as the default tenant, which all data from that time belongs to. (The magic can't be mistaken for the
+ *   length of their first record: it is larger than any record.)
+ * - 2: the current format.
+ * Segments of any other version were written by a newer release; recovery refuses them rather than guess.
+ * A crash can leave a half-written record at the end of a segment; {@link #recover()} stops reading
+ * a segment at the first record that is incomplete or fails its checksum.
+ *
+ * Not thread-safe; WriteBehindQueue serializes access.
+ */
+public class WriteAheadLog implements Closeable {
+
+    private static final String SUFFIX = ".wal";
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+    private static final int MAGIC = 0x5457414C;
+    private static final int SEGMENT_HEADER_BYTES = 5;
+    private static final byte UNTENANTED_VERSION = 1;
+    static final byte VERSION = 2;
+
+    private static final int HAS_TITLE = 1;
+    private static final int HAS_DESCRIPTION = 1 << 1;
+    private static final int HAS_DUE_DATE = 1 << 2;
+    private static final int HAS_STATUS = 1 << 3;
+    private static final int HAS_PRIORITY = 1 << 4;
+
+    private final Path directory;
+    private final boolean fsync;
+    private long sequence;
+    private FileChannel current;
+    private long syncs;
+
+    public WriteAheadLog(Path directory, boolean fsync) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.fsync = fsync;
+        List<Path> segments = segments();
+        this.sequence = segments.isEmpty() ? 0 : sequenceOf(segments.get(segments.size() - 1));
+        openNextSegment();
+    }
+
+    /**
+     * Reads every record left by a previous run, oldest first. The segments stay on disk until
+     * {@link #deleteSealed()}, so a crash during recovery loses nothing either.
+     */
+    public List<TaskUpdate> recover() throws IOException {
+        List<TaskUpdate> updates = new ArrayList<>();
+        for (Path segment : segments()) {
+            if (sequenceOf(segment) == sequence) {
+                continue;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+            byte version = UNTENANTED_VERSION;
+            if (buffer.remaining() >= SEGMENT_HEADER_BYTES && buffer.getInt(0) == MAGIC) {
+                buffer.getInt();
+                version = buffer.get();
+                if (version != VERSION) {
+                    throw new IOException("Write-ahead log segment " + segment + " has format version " + version
+                            + ", this release reads versions " + UNTENANTED_VERSION + " and " + VERSION);
+                }
+            }
+            while (buffer.remaining() >= HEADER_BYTES) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length < 0 || length > MAX_RECORD_BYTES || length > buffer.remaining()) {
+                    break;
+                }
+                ByteBuffer payload = buffer.slice(buffer.position(), length);
+                if (crc(payload) != checksum) {
+                    break;
+                }
+                updates.add(decode(payload, version));
+                buffer.position(buffer.position() + length);
+            }
+        }
+        return updates;
+    }
+
+    /**
+     * Writes the record; it is only durable after the next {@link #sync()}.
+     */
+    public void append(TaskUpdate update) throws IOException {
+        ByteBuffer payload = encode(update);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + payload.remaining());
+        record.putInt(payload.remaining()).putInt(crc(payload)).put(payload).flip();
+        while (record.hasRemaining()) {
+            current.write(record);
+        }
+    }
+
+    /**
+     * Forces everything appended so far to disk (unless fsync is off). One sync covers any number of appends.
+     */
+    public void sync() throws IOException {
+        if (fsync) {
+            current.force(false);
+        }
+        syncs++;
+    }
+
+    long syncs() {
+        return syncs;
+    }
+
+    /**
+     * Closes the current segment and starts a new one. Records appended from now on are not "sealed".
+     */
+    public void rotate() throws IOException {
+        current.close();
+        openNextSegment();
+    }
+
+    /**
+     * Removes every segment except the current one.
+     */
+    public void deleteSealed() throws IOException {
+        for (Path segment : segments()) {
+            if (sequenceOf(segment) != sequence) {
+                Files.deleteIfExists(segment);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        current.close();
+    }
+
+    private void openNextSegment() throws IOException {
+        sequence++;
+        current = FileChannel.open(directory.resolve("%020d%s".formatted(sequence, SUFFIX)),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES).putInt(MAGIC).put(VERSION).flip();
+        while (header.hasRemaining()) {
+            current.write(header);
+        }
+        if (fsync) {
+            current.force(false);
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            // Fixed-width names, so name order is sequence order
+            return files.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    private static int crc(ByteBuffer payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        return (int) crc.getValue();
+    }
+
+    private static ByteBuffer encode(TaskUpdate update) {
+        byte[] tenant = bytes(update.tenantId());
+        byte[] title = bytes(update.title());
+        byte[] description = bytes(update.description());
+        int flags = (update.title() != null ? HAS_TITLE : 0)
+                | (update.description() != null ? HAS_DESCRIPTION : 0)
+                | (update.dueDate() != null ? HAS_DUE_DATE : 0)
+                | (update.status() != null ? HAS_STATUS : 0)
+                | (update.priority() != null ? HAS_PRIORITY : 0);
+
+        ByteBuffer buffer = ByteBuffer.allocate(4 + tenant.length + 32 + 1 + 4 + title.length + 4 + description.length + 12 + 2 + 12);
+        buffer.putInt(tenant.length).put(tenant);
+        putUuid(buffer, update.taskListId());
+        putUuid(buffer, update.taskId());
+        buffer.put((byte) flags);
+        buffer.putInt(title.length).put(title);
+        buffer.putInt(description.length).put(description);
+        if (update.dueDate() != null) {
+            putDateTime(buffer, update.dueDate());
+        }
+        if (update.status() != null) {
+            buffer.put((byte) update.status().ordinal());
+        }
+        if (update.priority() != null) {
+            buffer.put((byte) update.priority().ordinal());
+        }
+        putDateTime(buffer, update.updated());
+        return buffer.flip();
+    }
+
+    private static TaskUpdate decode(ByteBuffer buffer, byte version) {
+        String tenantId = version == UNTENANTED_VERSION ? TenantContext.DEFAULT_TENANT : getString(buffer);
+        UUID taskListId = getUuid(buffer);
+        UUID taskId = getUuid(buffer);
+        int flags = buffer.get();
+        String title = getString(buffer);
+        String description = getString(buffer);
+        LocalDateTime dueDate = (flags & HAS_DUE_DATE) != 0 ? getDateTime(buffer) : null;
+        TaskStatus status = (flags & HAS_STATUS) != 0 ? TaskStatus.values()[buffer.get()] : null;
+        TaskPriority priority = (flags & HAS_PRIORITY) != 0 ? TaskPriority.values()[buffer.get()] : null;
+        LocalDateTime updated = getDateTime(buffer);
+        return new TaskUpdate(
+                tenantId,
+                taskListId,
+                taskId,
+                (flags & HAS_TITLE) != 0 ? title : null,
+                (flags & HAS_DESCRIPTION) != 0 ? description : null,
+                dueDate,
+                status,
+                priority,
+                updated
+        );
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static void putDateTime(ByteBuffer buffer, LocalDateTime dateTime) {
+        buffer.putLong(dateTime.toEpochSecond(ZoneOffset.UTC)).putInt(dateTime.getNano());
+    }
+
+    private static LocalDateTime getDateTime(ByteBuffer buffer) {
+        return LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,30 @@
+package com.danny.tasks.writebehind;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for write-behind task updates, bound from "tasks.write-behind.*".
+ *
+ * - enabled: PUT on a task is acknowledged with 202 and written to the database in the background.
+ * - directory: where the write-ahead log lives. Must be on local disk and survive restarts.
+ * - fsync: force every WAL record to disk before acknowledging (one sync per group of concurrent submits).
+ *   Turning it off is faster,
+ *   but an OS crash (not just a process crash) can then lose acknowledged updates.
+ * - maxPending: distinct tasks waiting to be flushed; beyond that new updates get a 503.
+ * - batchSize: tasks written per transaction. Reaching it also triggers an early flush.
+ * - flushInterval: how often pending updates are written.
+ */
+@ConfigurationProperties(prefix = "tasks.write-behind")
+public record WriteBehindProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data/write-behind") Path directory,
+        @DefaultValue("true") boolean fsync,
+        @DefaultValue("10000") int maxPending,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("200ms") Duration flushInterval
+) {
+}
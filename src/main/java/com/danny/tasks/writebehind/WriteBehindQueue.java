@@ -0,0 +1,524 @@
+package com.danny.tasks.writebehind;
+
+import com.danny.tasks.audit.AuditAction;
+import com.danny.tasks.audit.AuditEvent;
+import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.events.TaskListChangedEvent;
+import com.danny.tasks.exceptions.ResourceNotFoundException;
+import com.danny.tasks.exceptions.ServiceOverloadedException;
+import com.danny.tasks.repositories.TaskRepository;
+import com.danny.tasks.services.TaskDependencyService;
+import com.danny.tasks.services.TaskListStatsService;
+import com.danny.tasks.tenancy.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind mode for task updates (off unless tasks.write-behind.enabled=true).
+ *
+ * submit():
+ * 0. Checks what the synchronous update would (the task exists, see also TaskUpdate.of), so a 202 is only
+ *    given to updates that can be written.
+ * 1. Hands the update to the log writer thread and waits for it to:
+ *    - append it to the write-ahead log and fsync, so it survives a crash. Updates submitted while a sync is in
+ *      progress are appended together and share the next one (group commit), so throughput isn't bounded by
+ *      how many syncs per second the disk manages;
+ *    - coalesce it with any update to the same task that is still pending. A task flipped ten
+ *      times between flushes is written once, with the combined result.
+ * 2. Returns; the caller acknowledges with 202 Accepted.
+ *
+ * flush() runs every flush-interval on a single background thread:
+ * - It takes all pending updates and rotates the log, between two groups of the log writer, so new submits go to
+ *   a fresh segment and every update in the older segments is in the batch.
+ * - Outside the lock it writes them in batches (one transaction per batch, one query to load the batch's tasks).
+ *   A batch only holds one tenant's updates and is written as that tenant.
+ * - If a batch fails with an error retrying can fix (the database is unreachable, a deadlock, ...), it and the
+ *   batches after it go back into the queue (older than anything submitted since) and are retried next time.
+ * - If a batch fails for any other reason, its updates are written one by one, so the rest of the batch gets
+ *   through. An update that fails on its own goes to the {@link DeadLetterLog} instead of blocking the queue.
+ *   So does closing a task that has gained an open blocker since it was submitted: that is checked again while
+ *   the batch holds the list's statistics row, the lock adding a blocker takes too.
+ * - Then the old log segments are deleted. Updates going back into the queue are first logged again, merged with
+ *   anything newer, to the current segment, so the log never holds more than what is pending.
+ *
+ * On startup, updates left in the log by a previous run are replayed before the web server starts.
+ * On shutdown, the web server is stopped first, then the queue is flushed one last time.
+ *
+ * Reads are not affected: until a flush, GET returns the task as it is in the database.
+ */
+@Component
+@ConditionalOnProperty(name = "tasks.storage.engine", havingValue = "jpa", matchIfMissing = true)
+@EnableConfigurationProperties(WriteBehindProperties.class)
+public class WriteBehindQueue implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindQueue.class);
+    // Queued by stop(): the log writer exits after logging everything before it
+    private static final Append STOP = new Append(null, null);
+
+    private final WriteBehindProperties properties;
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskListStatsService statsService;
+    // Absent with the memory storage engine
+    private final TaskDependencyService dependencyService;
+
+    // Guards pending only, never held while doing I/O
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guards the write-ahead log: held by the log writer for one group, and by flushes to rotate it.
+    // Package-private so tests can hold up the log writer
+    final ReentrantLock walLock = new ReentrantLock();
+    // Submitted updates waiting for the log writer
+    private final BlockingQueue<Append> appends = new LinkedBlockingQueue<>();
+    // Only one flush at a time (the scheduled one, an early one, or the final one on shutdown)
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Keyed by tenant too, so a request can never merge into (or overwrite) another tenant's update
+    private final Map<Key, TaskUpdate> pending = new LinkedHashMap<>();
+    private final AtomicBoolean earlyFlushRequested = new AtomicBoolean();
+
+    private WriteAheadLog wal;
+    private DeadLetterLog deadLetters;
+    private ScheduledExecutorService flusher;
+    private Thread logWriter;
+    private volatile boolean running;
+
+    public WriteBehindQueue(WriteBehindProperties properties, TaskRepository taskRepository,
+                            TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+                            TaskListStatsService statsService, ObjectProvider<TaskDependencyService> dependencyService) {
+        this.properties = properties;
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.statsService = statsService;
+        this.dependencyService = dependencyService.getIfAvailable();
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    public void submit(TaskUpdate update) {
+        // Outside the lock: a database read must not hold up the other submitters
+        if (!taskRepository.existsByTaskListIdAndId(update.taskListId(), update.taskId())) {
+            throw new ResourceNotFoundException("Task with ID " + update.taskId() + " not found");
+        }
+        Append append = new Append(update, new CompletableFuture<>());
+        lock.lock();
+        try {
+            if (!running) {
+                throw new ServiceOverloadedException("Task updates are not being accepted right now.", properties.flushInterval());
+            }
+            appends.add(append);
+        } finally {
+            lock.unlock();
+        }
+        try {
+            append.done().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The log writer thread: takes whatever has been submitted since its last group and logs it as one group.
+     */
+    private void writeLog() {
+        List<Append> group = new ArrayList<>();
+        while (true) {
+            try {
+                group.add(appends.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            appends.drainTo(group);
+            // Nothing is submitted after STOP, so it can only be last
+            boolean stopping = group.get(group.size() - 1) == STOP;
+            if (stopping) {
+                group.remove(group.size() - 1);
+            }
+            try {
+                logGroup(group);
+            } catch (RuntimeException e) {
+                // Unless already answered
+                group.forEach(append -> append.done().completeExceptionally(e));
+            }
+            group.clear();
+            if (stopping) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Appends a group of updates to the write-ahead log, syncs once for all of them, adds them to pending and
+     * acknowledges them. Updates over max-pending are refused before they are logged.
+     */
+    private void logGroup(List<Append> group) {
+        List<Append> accepted = new ArrayList<>(group.size());
+        walLock.lock();
+        try {
+            lock.lock();
+            try {
+                Set<Key> added = new HashSet<>();
+                for (Append append : group) {
+                    Key key = Key.of(append.update());
+                    boolean known = pending.containsKey(key) || added.contains(key);
+                    if (!known && pending.size() + added.size() >= properties.maxPending()) {
+                        append.done().completeExceptionally(new ServiceOverloadedException(
+                                "Too many task updates waiting to be saved.", properties.flushInterval()));
+                        continue;
+                    }
+                    added.add(key);
+                    accepted.add(append);
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (accepted.isEmpty()) {
+                return;
+            }
+
+            try {
+                for (Append append : accepted) {
+                    wal.append(append.update());
+                }
+                wal.sync();
+            } catch (IOException e) {
+                UncheckedIOException failure = new UncheckedIOException("Could not write task update to the write-ahead log", e);
+                accepted.forEach(append -> append.done().completeExceptionally(failure));
+                return;
+            }
+
+            lock.lock();
+            try {
+                for (Append append : accepted) {
+                    pending.merge(Key.of(append.update()), append.update(), TaskUpdate::mergedWith);
+                }
+                if (pending.size() >= properties.batchSize() && earlyFlushRequested.compareAndSet(false, true)) {
+                    flusher.execute(this::flush);
+                }
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            walLock.unlock();
+        }
+        accepted.forEach(append -> append.done().complete(null));
+    }
+
+    public int pendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes everything that is pending. Safe to call from any thread; mostly used by the scheduler and tests.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            earlyFlushRequested.set(false);
+            List<TaskUpdate> batch;
+            walLock.lock();
+            try {
+                lock.lock();
+                try {
+                    if (pending.isEmpty()) {
+                        return;
+                    }
+                    batch = new ArrayList<>(pending.values());
+                    pending.clear();
+                } finally {
+                    lock.unlock();
+                }
+                wal.rotate();
+            } finally {
+                walLock.unlock();
+            }
+
+            List<TaskUpdate> retry = new ArrayList<>();
+            for (List<TaskUpdate> chunk : chunksPerTenant(batch)) {
+                if (!retry.isEmpty()) {
+                    // The database is having trouble; leave the rest for the next flush
+                    retry.addAll(chunk);
+                    continue;
+                }
+                try {
+                    writeAs(chunk);
+                } catch (RuntimeException e) {
+                    if (isTransient(e)) {
+                        log.warn("Failed to write {} task updates, will retry", chunk.size(), e);
+                        retry.addAll(chunk);
+                    } else {
+                        writeOneByOne(chunk, retry);
+                    }
+                }
+            }
+            if (!retry.isEmpty()) {
+                requeue(retry);
+            }
+            walLock.lock();
+            try {
+                wal.deleteSealed();
+            } finally {
+                walLock.unlock();
+            }
+        } catch (IOException e) {
+            log.error("Write-ahead log failure during flush", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Finds the update(s) that made a whole batch fail: each one is written in a transaction of its own.
+     * Those that still fail with a permanent error are dead-lettered; transient failures go to retry.
+     */
+    private void writeOneByOne(List<TaskUpdate> chunk, List<TaskUpdate> retry) throws IOException {
+        for (TaskUpdate update : chunk) {
+            if (!retry.isEmpty()) {
+                retry.add(update);
+                continue;
+            }
+            try {
+                writeAs(List.of(update));
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    retry.add(update);
+                } else {
+                    log.error("Task update {} can't be written, moving it to the dead-letter log", update, e);
+                    deadLetters.append(update, e);
+                }
+            }
+        }
+    }
+
+    private void writeAs(List<TaskUpdate> chunk) {
+        TenantContext.runAs(chunk.get(0).tenantId(), () -> write(chunk));
+    }
+
+    // Errors that say nothing about the update itself: the same update is expected to succeed later
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private List<List<TaskUpdate>> chunksPerTenant(List<TaskUpdate> batch) {
+        Map<String, List<TaskUpdate>> perTenant = batch.stream()
+                .collect(Collectors.groupingBy(TaskUpdate::tenantId, LinkedHashMap::new, Collectors.toList()));
+        List<List<TaskUpdate>> chunks = new ArrayList<>();
+        for (List<TaskUpdate> updates : perTenant.values()) {
+            for (int from = 0; from < updates.size(); from += properties.batchSize()) {
+                chunks.add(updates.subList(from, Math.min(updates.size(), from + properties.batchSize())));
+            }
+        }
+        return chunks;
+    }
+
+    private void write(List<TaskUpdate> updates) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<UUID, Task> tasks = taskRepository.findAllById(updates.stream().map(TaskUpdate::taskId).toList())
+                    .stream()
+                    .collect(Collectors.toMap(Task::getId, Function.identity()));
+            Set<UUID> changedLists = new HashSet<>();
+            for (TaskUpdate update : updates) {
+                Task task = tasks.get(update.taskId());
+                if (task == null || task.getTasklist() == null || !task.getTasklist().getId().equals(update.taskListId())) {
+                    // Deleted (or never existed) by the time it was flushed; nothing left to update
+                    log.warn("Dropping update for unknown task {} in list {}", update.taskId(), update.taskListId());
+                    continue;
+                }
+                statsService.taskChanged(
+                        update.taskListId(),
+                        task.getStatus(),
+                        task.getPriority(),
+                        update.status() != null ? update.status() : task.getStatus(),
+                        update.priority() != null ? update.priority() : task.getPriority());
+                if (update.status() == TaskStatus.CLOSED && task.getStatus() != TaskStatus.CLOSED && dependencyService != null) {
+                    // Checked again now that the list's row is locked: a blocker may have been added since submit.
+                    // Throws, and the update ends up in the dead-letter log (see writeOneByOne)
+                    dependencyService.checkCanClose(update.taskListId(), update.taskId());
+                }
+                update.applyTo(task);
+                changedLists.add(update.taskListId());
+                eventPublisher.publishEvent(AuditEvent.task(AuditAction.TASK_UPDATED, update.taskListId(), task));
+            }
+            changedLists.forEach(id -> eventPublisher.publishEvent(new TaskListChangedEvent(id)));
+        });
+    }
+
+    /**
+     * Puts the updates back, older than anything submitted since, and logs the merged result to the current
+     * segment: later records win on replay, and the sealed segments holding the originals can then go.
+     */
+    private void requeue(List<TaskUpdate> failed) throws IOException {
+        walLock.lock();
+        try {
+            List<TaskUpdate> merged = new ArrayList<>(failed.size());
+            lock.lock();
+            try {
+                for (TaskUpdate older : failed) {
+                    merged.add(pending.merge(Key.of(older), older, (newer, ignored) -> older.mergedWith(newer)));
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (TaskUpdate update : merged) {
+                wal.append(update);
+            }
+            wal.sync();
+        } finally {
+            walLock.unlock();
+        }
+    }
+
+    DeadLetterLog deadLetters() {
+        return deadLetters;
+    }
+
+    int waitingForLog() {
+        return appends.size();
+    }
+
+    long walSyncs() {
+        walLock.lock();
+        try {
+            return wal.syncs();
+        } finally {
+            walLock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        try {
+            wal = new WriteAheadLog(properties.directory(), properties.fsync());
+            deadLetters = new DeadLetterLog(properties.directory(), properties.fsync());
+            List<TaskUpdate> recovered = wal.recover();
+            for (TaskUpdate update : recovered) {
+                pending.merge(Key.of(update), update, TaskUpdate::mergedWith);
+            }
+            if (!recovered.isEmpty()) {
+                log.info("Replaying {} task updates from the write-ahead log", recovered.size());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open write-ahead log in " + properties.directory(), e);
+        }
+        flush();
+
+        long interval = properties.flushInterval().toMillis();
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+        logWriter = new Thread(this::writeLog, "task-write-behind-log");
+        logWriter.setDaemon(true);
+        logWriter.start();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        lock.lock();
+        try {
+            running = false;
+            // Under the lock, so no submit can queue an update behind it
+            appends.add(STOP);
+        } finally {
+            lock.unlock();
+        }
+        try {
+            // Logs everything submitted before STOP; the writer is never interrupted, an interrupt closes the channel
+            logWriter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        try {
+            wal.close();
+            deadLetters.close();
+        } catch (IOException e) {
+            log.warn("Could not close write-ahead log", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Below the web server's phase: started (and replayed) before it accepts requests, stopped after it.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    // A submitted update and its submitter, who waits for done
+    private record Append(TaskUpdate update, CompletableFuture<Void> done) {
+    }
+
+    private record Key(String tenantId, UUID taskId) {
+        static Key of(TaskUpdate update) {
+            return new Key(update.tenantId(), update.taskId());
+        }
+    }
+}
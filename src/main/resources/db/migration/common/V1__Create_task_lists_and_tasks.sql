@@ -0,0 +1,34 @@
+-- Baseline schema for task lists and tasks.
+-- Mirrors the JPA mappings in TaskList and Task so that Hibernate can run with ddl-auto=validate.
+-- Enum columns (status, priority) are stored as ordinals, which is Hibernate's default mapping.
+-- IF NOT EXISTS lets databases that were created by ddl-auto=update pick up the missing index.
+
+CREATE TABLE IF NOT EXISTS task_lists (
+    id          UUID         NOT NULL,
+    title       VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    created     TIMESTAMP(6) NOT NULL,
+    updated     TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_task_lists PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS tasks (
+    id           UUID         NOT NULL,
+    title        VARCHAR(255) NOT NULL,
+    description  VARCHAR(255),
+    due_date     TIMESTAMP(6),
+    status       SMALLINT     NOT NULL,
+    priority     SMALLINT     NOT NULL,
+    task_list_id UUID,
+    created      TIMESTAMP(6) NOT NULL,
+    updated      TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_tasks PRIMARY KEY (id),
+    CONSTRAINT fk_tasks_task_list FOREIGN KEY (task_list_id) REFERENCES task_lists (id) ON DELETE CASCADE,
+    -- TaskStatus: OPEN(0), CLOSED(1)
+    CONSTRAINT ck_tasks_status CHECK (status BETWEEN 0 AND 1),
+    -- TaskPriority: HIGH(0), MEDIUM(1), LOW(2)
+    CONSTRAINT ck_tasks_priority CHECK (priority BETWEEN 0 AND 2)
+);
+
+-- Serves TaskRepository.findByTaskListId / findByTaskListIdAndId and the FK lookups on task list deletes.
+CREATE INDEX IF NOT EXISTS idx_tasks_task_list_id ON tasks (task_list_id);
@@ -0,0 +1,18 @@
+-- Multi-tenancy: every task list and task belongs to a tenant.
+--
+-- Rows that existed before belong to the 'default' tenant (TenantContext.DEFAULT_TENANT).
+-- Hibernate sets tenant_id itself on insert (@TenantId), the column default only covers the backfill.
+--
+-- Every query is scoped to one tenant, so the indexes lead with tenant_id.
+
+ALTER TABLE task_lists ADD COLUMN tenant_id VARCHAR(64) DEFAULT 'default' NOT NULL;
+ALTER TABLE tasks ADD COLUMN tenant_id VARCHAR(64) DEFAULT 'default' NOT NULL;
+
+-- Serves TaskListRepository.findAll and the summary queries (per-tenant listing of task lists)
+CREATE INDEX idx_task_lists_tenant_id ON task_lists (tenant_id, id);
+
+-- Replaces (task_list_id, status): serves findByTaskListId / findByTaskListIdAndStatus within a tenant
+DROP INDEX IF EXISTS idx_tasks_task_list_id_status;
+CREATE INDEX idx_tasks_tenant_id_task_list_id_status ON tasks (tenant_id, task_list_id, status);
+-- Without a tenant_id, the FK check and ON DELETE CASCADE on task list deletes can't use the index above
+CREATE INDEX idx_tasks_task_list_id ON tasks (task_list_id);
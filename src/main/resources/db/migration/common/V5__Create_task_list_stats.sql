@@ -0,0 +1,55 @@
+-- Pre-aggregated task list statistics, kept up to date by TaskListStatsService on every task write.
+--
+-- task_list_stats: one row per list with the number of tasks per (status, priority).
+--   Writes to a list lock its row, which also serializes the daily upserts below.
+-- task_list_daily_stats: net number of tasks closed per list and day (reopening counts -1), for burndown charts.
+--
+-- Both are filled from the existing tasks here. Tasks closed before this migration count on the day
+-- they were last updated, which is the closest record of when they were closed.
+
+CREATE TABLE task_list_stats (
+    task_list_id  UUID        NOT NULL,
+    tenant_id     VARCHAR(64) NOT NULL,
+    open_high     BIGINT      NOT NULL,
+    open_medium   BIGINT      NOT NULL,
+    open_low      BIGINT      NOT NULL,
+    closed_high   BIGINT      NOT NULL,
+    closed_medium BIGINT      NOT NULL,
+    closed_low    BIGINT      NOT NULL,
+    CONSTRAINT pk_task_list_stats PRIMARY KEY (task_list_id),
+    CONSTRAINT fk_task_list_stats_task_list FOREIGN KEY (task_list_id) REFERENCES task_lists (id) ON DELETE CASCADE
+);
+
+CREATE TABLE task_list_daily_stats (
+    task_list_id UUID        NOT NULL,
+    stat_date    DATE        NOT NULL,
+    tenant_id    VARCHAR(64) NOT NULL,
+    closed_count BIGINT      NOT NULL,
+    CONSTRAINT pk_task_list_daily_stats PRIMARY KEY (task_list_id, stat_date),
+    CONSTRAINT fk_task_list_daily_stats_task_list FOREIGN KEY (task_list_id) REFERENCES task_lists (id) ON DELETE CASCADE
+);
+
+-- Status: OPEN(0), CLOSED(1). Priority: HIGH(0), MEDIUM(1), LOW(2)
+INSERT INTO task_list_stats (task_list_id, tenant_id, open_high, open_medium, open_low, closed_high, closed_medium, closed_low)
+SELECT l.id,
+       l.tenant_id,
+       SUM(CASE WHEN t.status = 0 AND t.priority = 0 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN t.status = 0 AND t.priority = 1 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN t.status = 0 AND t.priority = 2 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN t.status = 1 AND t.priority = 0 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN t.status = 1 AND t.priority = 1 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN t.status = 1 AND t.priority = 2 THEN 1 ELSE 0 END)
+FROM task_lists l
+LEFT JOIN tasks t ON t.task_list_id = l.id
+GROUP BY l.id, l.tenant_id;
+
+INSERT INTO task_list_daily_stats (task_list_id, stat_date, tenant_id, closed_count)
+SELECT task_list_id, CAST(updated AS DATE), tenant_id, COUNT(*)
+FROM tasks
+WHERE status = 1 AND task_list_id IS NOT NULL
+GROUP BY task_list_id, CAST(updated AS DATE), tenant_id;
+
+-- Overdue count (open tasks of a list with due_date < now) is read straight from this index.
+-- It also serves everything the (tenant_id, task_list_id, status) index did, which it replaces.
+DROP INDEX IF EXISTS idx_tasks_tenant_id_task_list_id_status;
+CREATE INDEX idx_tasks_tenant_id_task_list_id_status_due_date ON tasks (tenant_id, task_list_id, status, due_date);
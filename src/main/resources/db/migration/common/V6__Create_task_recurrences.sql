@@ -0,0 +1,41 @@
+-- Recurring tasks: a rule per recurring task, materialized into ordinary tasks ahead of time by RecurrenceMaterializer.
+--
+-- task_recurrences.next_due_date is the first occurrence that has no task yet (NULL once the rule has ended).
+-- The materializer picks up every rule with next_due_date inside its horizon, inserts the tasks and moves
+-- next_due_date past them in one transaction, so each occurrence is created exactly once.
+-- shard spreads the rules over the materializer's partitions (shard modulo the partition count).
+--
+-- scheduler_leases: one row per partition of a background job. An instance only works on a partition while
+-- it holds the lease (owner, until expires_at); this is what keeps several instances from doing the same work.
+
+CREATE TABLE task_recurrences (
+    id              UUID         NOT NULL,
+    tenant_id       VARCHAR(64)  NOT NULL,
+    task_list_id    UUID         NOT NULL,
+    title           VARCHAR(255) NOT NULL,
+    description     VARCHAR(255),
+    priority        SMALLINT     NOT NULL,
+    recurrence_rule VARCHAR(255) NOT NULL,
+    next_due_date   TIMESTAMP(6),
+    ends_at         TIMESTAMP(6),
+    shard           INTEGER      NOT NULL,
+    created         TIMESTAMP(6) NOT NULL,
+    updated         TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_task_recurrences PRIMARY KEY (id),
+    CONSTRAINT fk_task_recurrences_task_list FOREIGN KEY (task_list_id) REFERENCES task_lists (id) ON DELETE CASCADE,
+    -- TaskPriority: HIGH(0), MEDIUM(1), LOW(2)
+    CONSTRAINT ck_task_recurrences_priority CHECK (priority BETWEEN 0 AND 2)
+);
+
+-- Serves the per-list listing within a tenant, and the FK lookups on task list deletes
+CREATE INDEX idx_task_recurrences_tenant_id_task_list_id ON task_recurrences (tenant_id, task_list_id);
+CREATE INDEX idx_task_recurrences_task_list_id ON task_recurrences (task_list_id);
+-- Serves the materializer's "due within the horizon" scan, across tenants
+CREATE INDEX idx_task_recurrences_next_due_date ON task_recurrences (next_due_date);
+
+CREATE TABLE scheduler_leases (
+    name       VARCHAR(128) NOT NULL,
+    owner      VARCHAR(128) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_scheduler_leases PRIMARY KEY (name)
+);
@@ -0,0 +1,18 @@
+-- Overdue notifications that have been sent, one row per task and due date.
+--
+-- OverdueEngine inserts the row before handing a task to the notifiers; the primary key makes sure a due date is
+-- reported once, however many instances track the task. A task whose due date changes gets a new row for the new one.
+-- No foreign key to tasks: its primary key is (id, status) on Postgres, and the rows are only kept for
+-- tasks.overdue.claim-retention anyway.
+
+CREATE TABLE overdue_notifications (
+    task_id      UUID         NOT NULL,
+    due_date     TIMESTAMP(6) NOT NULL,
+    tenant_id    VARCHAR(64)  NOT NULL,
+    task_list_id UUID         NOT NULL,
+    notified_at  TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_overdue_notifications PRIMARY KEY (task_id, due_date)
+);
+
+-- Serves the retention cleanup
+CREATE INDEX idx_overdue_notifications_due_date ON overdue_notifications (due_date);
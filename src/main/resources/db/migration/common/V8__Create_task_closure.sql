@@ -0,0 +1,26 @@
+-- Subtasks: tasks.parent_id points at the parent task (same list), task_closure holds the whole hierarchy.
+--
+-- task_closure has a row for every (ancestor, descendant) pair with the distance between them: a task three levels
+-- down has rows for its parent (depth 1), grandparent (2) and great-grandparent (3). Tasks without a parent or
+-- subtasks have no rows, so flat lists cost nothing. A subtree is then one indexed range of rows, and moving one is a
+-- fixed number of statements (see TaskClosureRepository), however deep or large it is.
+--
+-- No foreign keys to tasks: its primary key is (id, status) on Postgres. Rows go with their task list.
+
+ALTER TABLE tasks ADD COLUMN parent_id UUID;
+
+CREATE TABLE task_closure (
+    tenant_id     VARCHAR(64) NOT NULL,
+    ancestor_id   UUID        NOT NULL,
+    descendant_id UUID        NOT NULL,
+    depth         INTEGER     NOT NULL,
+    task_list_id  UUID        NOT NULL,
+    CONSTRAINT pk_task_closure PRIMARY KEY (tenant_id, ancestor_id, descendant_id),
+    CONSTRAINT fk_task_closure_task_list FOREIGN KEY (task_list_id) REFERENCES task_lists (id) ON DELETE CASCADE,
+    CONSTRAINT ck_task_closure_depth CHECK (depth > 0)
+);
+
+-- Serves the ancestors of a task (moves, cycle checks); the primary key serves its descendants
+CREATE INDEX idx_task_closure_tenant_id_descendant_id ON task_closure (tenant_id, descendant_id, depth);
+-- Serves the FK lookups on task list deletes
+CREATE INDEX idx_task_closure_task_list_id ON task_closure (task_list_id);
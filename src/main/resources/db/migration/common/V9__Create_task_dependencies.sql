@@ -0,0 +1,25 @@
+-- Task dependencies: "blocked_id is blocked by blocker_id", both tasks of the same list.
+--
+-- A task can't be closed while one of its blockers is open, and no chain of dependencies may loop back on itself.
+-- Cycles are checked against an in-memory graph per list (see DependencyGraphs), which is only trusted while its
+-- version matches task_list_stats.dependency_version. Every change locks the list's stats row and bumps that version,
+-- so all instances see the same order of changes.
+--
+-- No foreign keys to tasks: its primary key is (id, status) on Postgres. Rows go with their task list.
+
+CREATE TABLE task_dependencies (
+    tenant_id    VARCHAR(64) NOT NULL,
+    blocked_id   UUID        NOT NULL,
+    blocker_id   UUID        NOT NULL,
+    task_list_id UUID        NOT NULL,
+    created      TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_task_dependencies PRIMARY KEY (tenant_id, blocked_id, blocker_id),
+    CONSTRAINT fk_task_dependencies_task_list FOREIGN KEY (task_list_id) REFERENCES task_lists (id) ON DELETE CASCADE,
+    CONSTRAINT ck_task_dependencies_not_self CHECK (blocked_id <> blocker_id)
+);
+
+-- Loads a list's whole graph; also serves the FK lookups on task list deletes.
+-- The primary key serves the blockers of a task (the check on close).
+CREATE INDEX idx_task_dependencies_task_list_id ON task_dependencies (task_list_id);
+
+ALTER TABLE task_list_stats ADD COLUMN dependency_version BIGINT NOT NULL DEFAULT 0;
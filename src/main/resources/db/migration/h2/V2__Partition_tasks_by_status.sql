@@ -0,0 +1,8 @@
+-- H2 fallback for the Postgres hot/cold partitioning of tasks (see db/migration/postgresql).
+--
+-- H2 has no declarative partitioning, so the table stays as it is and only gets the same
+-- (task_list_id, status) index, keeping the index set identical across both databases.
+
+DROP INDEX IF EXISTS idx_tasks_task_list_id;
+
+CREATE INDEX idx_tasks_task_list_id_status ON tasks (task_list_id, status);
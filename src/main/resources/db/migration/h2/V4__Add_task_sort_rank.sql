@@ -0,0 +1,16 @@
+-- H2 version of the Postgres migration: same column, backfill and index.
+-- H2 has no UPDATE ... FROM, so the position is looked up with a correlated subquery.
+-- H2 already compares strings by code point, no collation needed.
+
+ALTER TABLE tasks ADD COLUMN sort_rank VARCHAR(255);
+
+UPDATE tasks t
+SET sort_rank = (
+    SELECT LPAD(CAST(r.position AS VARCHAR), 10, '0') || 'i'
+    FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY task_list_id ORDER BY created, id) AS position FROM tasks) r
+    WHERE r.id = t.id
+);
+
+ALTER TABLE tasks ALTER COLUMN sort_rank SET NOT NULL;
+
+CREATE INDEX idx_tasks_tenant_id_task_list_id_sort_rank ON tasks (tenant_id, task_list_id, sort_rank);
@@ -0,0 +1,52 @@
+-- Hot/cold split of the tasks table.
+--
+-- CLOSED tasks make up most of the rows but are rarely read, so tasks is turned into a LIST-partitioned
+-- table on status: open-task queries (status = 0) are pruned to the small tasks_open partition, while
+-- closed tasks live in tasks_closed. Postgres moves a row between partitions when its status changes.
+--
+-- Postgres requires the partition key in every unique constraint, so the primary key becomes (id, status).
+-- Ids are still generated as UUIDs by Hibernate, so they stay unique on their own.
+--
+-- Existing rows are copied in this migration's transaction. On very large tables, run it in a
+-- maintenance window (the copy holds an ACCESS EXCLUSIVE lock on the old table).
+
+ALTER TABLE tasks RENAME TO tasks_unpartitioned;
+
+CREATE TABLE tasks_partitioned (
+    id           UUID         NOT NULL,
+    title        VARCHAR(255) NOT NULL,
+    description  VARCHAR(255),
+    due_date     TIMESTAMP(6),
+    status       SMALLINT     NOT NULL,
+    priority     SMALLINT     NOT NULL,
+    task_list_id UUID,
+    created      TIMESTAMP(6) NOT NULL,
+    updated      TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_tasks_partitioned PRIMARY KEY (id, status),
+    CONSTRAINT fk_tasks_partitioned_task_list FOREIGN KEY (task_list_id) REFERENCES task_lists (id) ON DELETE CASCADE,
+    CONSTRAINT ck_tasks_partitioned_status CHECK (status BETWEEN 0 AND 1),
+    CONSTRAINT ck_tasks_partitioned_priority CHECK (priority BETWEEN 0 AND 2)
+) PARTITION BY LIST (status);
+
+-- TaskStatus.OPEN
+CREATE TABLE tasks_open PARTITION OF tasks_partitioned FOR VALUES IN (0);
+-- TaskStatus.CLOSED
+CREATE TABLE tasks_closed PARTITION OF tasks_partitioned FOR VALUES IN (1);
+
+INSERT INTO tasks_partitioned (id, title, description, due_date, status, priority, task_list_id, created, updated)
+SELECT id, title, description, due_date, status, priority, task_list_id, created, updated
+FROM tasks_unpartitioned;
+
+DROP TABLE tasks_unpartitioned;
+
+ALTER TABLE tasks_partitioned RENAME TO tasks;
+ALTER TABLE tasks RENAME CONSTRAINT pk_tasks_partitioned TO pk_tasks;
+ALTER TABLE tasks RENAME CONSTRAINT fk_tasks_partitioned_task_list TO fk_tasks_task_list;
+ALTER TABLE tasks RENAME CONSTRAINT ck_tasks_partitioned_status TO ck_tasks_status;
+ALTER TABLE tasks RENAME CONSTRAINT ck_tasks_partitioned_priority TO ck_tasks_priority;
+
+-- Created on the parent, so every partition gets its own copy.
+-- Serves both findByTaskListId (leading column) and findByTaskListIdAndStatus.
+CREATE INDEX idx_tasks_task_list_id_status ON tasks (task_list_id, status);
+
+ANALYZE tasks;
@@ -0,0 +1,18 @@
+-- User-defined order of the tasks in a list (see Ranks).
+--
+-- Ranks are compared byte by byte, so the column uses the "C" collation rather than the database's
+-- locale collation. Existing tasks are ranked by creation time: fixed-width position + 'i'.
+
+ALTER TABLE tasks ADD COLUMN sort_rank VARCHAR(255) COLLATE "C";
+
+UPDATE tasks t
+SET sort_rank = LPAD(r.position::text, 10, '0') || 'i'
+FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY task_list_id ORDER BY created, id) AS position FROM tasks) r
+WHERE t.id = r.id;
+
+ALTER TABLE tasks ALTER COLUMN sort_rank SET NOT NULL;
+
+-- Serves findByTaskListId / findDtoByTaskListId in rank order, and the neighbour lookups of a move
+CREATE INDEX idx_tasks_tenant_id_task_list_id_sort_rank ON tasks (tenant_id, task_list_id, sort_rank);
+
+ANALYZE tasks;
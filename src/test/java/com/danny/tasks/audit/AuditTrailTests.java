@@ -0,0 +1,86 @@
+package com.danny.tasks.audit;
+
+import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskList;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.services.TaskListService;
+import com.danny.tasks.services.TaskService;
+import com.danny.tasks.tenancy.TenantContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuditTrailTests {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void auditLog(DynamicPropertyRegistry registry) {
+        registry.add("tasks.audit.enabled", () -> "true");
+        registry.add("tasks.audit.directory", () -> directory.toString());
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskListService taskListService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private AuditTrail auditTrail;
+
+    @Test
+    void serviceWritesAreRecordedAfterCommit() throws Exception {
+        UUID taskListId = taskListService.createTaskList(new TaskList(null, "Audited", null, null, null, null)).getId();
+        UUID taskId = taskService.createTask(taskListId, new Task(null, "Write report", null, null, null, null, null, null, null)).getId();
+        taskService.updateTask(taskListId, taskId, new Task(null, null, null, null, TaskStatus.CLOSED, null, null, null, null));
+
+        mockMvc.perform(get("/task-list/{list}/tasks/{task}/history", taskListId, taskId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].action").value("TASK_CREATED"))
+                .andExpect(jsonPath("$[0].status").value("OPEN"))
+                .andExpect(jsonPath("$[1].action").value("TASK_UPDATED"))
+                .andExpect(jsonPath("$[1].status").value("CLOSED"))
+                .andExpect(jsonPath("$[1].title").value("Write report"));
+
+        assertThat(auditTrail.taskListHistory(taskListId)).extracting(AuditEvent::action)
+                .containsExactly(AuditAction.TASK_LIST_CREATED, AuditAction.TASK_CREATED, AuditAction.TASK_UPDATED);
+        assertThat(TenantContext.callAs("other", () -> auditTrail.taskHistory(taskId))).isEmpty();
+    }
+
+    @Test
+    void failedWritesAreNotRecorded() {
+        UUID taskListId = taskListService.createTaskList(new TaskList(null, "Audited", null, null, null, null)).getId();
+        UUID taskId = taskService.createTask(taskListId, new Task(null, "Write report", null, null, null, null, null, null, null)).getId();
+
+        // Past due date: rejected after the title was changed, and rolled back
+        assertThatThrownBy(() -> taskService.updateTask(taskListId, taskId,
+                new Task(null, "Renamed", null, LocalDateTime.now().minusDays(1), null, null, null, null, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(auditTrail.taskHistory(taskId)).extracting(AuditEvent::action).containsExactly(AuditAction.TASK_CREATED);
+    }
+}
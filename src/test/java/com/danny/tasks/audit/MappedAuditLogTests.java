@@ -0,0 +1,205 @@
+package com.danny.tasks.audit;
+
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedAuditLogTests {
+
+    private static final long SEGMENT_SIZE = 4096;
+    private static final Instant NOW = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+    @TempDir
+    Path directory;
+
+    private final UUID listId = UUID.randomUUID();
+    private final UUID taskId = UUID.randomUUID();
+
+    @Test
+    void historyHoldsEveryStateOfTheTaskInOrder() throws IOException {
+        try (MappedAuditLog log = new MappedAuditLog(directory, SEGMENT_SIZE)) {
+            log.append(event(AuditAction.TASK_CREATED, taskId, "Draft", TaskStatus.OPEN, NOW));
+            log.append(event(AuditAction.TASK_CREATED, UUID.randomUUID(), "Other task", TaskStatus.OPEN, NOW));
+            log.append(event(AuditAction.TASK_UPDATED, taskId, "Final", TaskStatus.CLOSED, NOW.plusSeconds(1)));
+
+            // Readable while the writer is still open
+            List<AuditEvent> history = new AuditLogReader(directory).history("default", taskId);
+
+            assertThat(history).extracting(AuditEvent::action).containsExactly(AuditAction.TASK_CREATED, AuditAction.TASK_UPDATED);
+            assertThat(history.get(1)).isEqualTo(event(AuditAction.TASK_UPDATED, taskId, "Final", TaskStatus.CLOSED, NOW.plusSeconds(1)));
+        }
+    }
+
+    @Test
+    void historyIsScopedToTheTenant() throws IOException {
+        try (MappedAuditLog log = new MappedAuditLog(directory, SEGMENT_SIZE)) {
+            log.append(event(AuditAction.TASK_CREATED, taskId, "Draft", TaskStatus.OPEN, NOW));
+        }
+
+        assertThat(new AuditLogReader(directory).history("other", taskId)).isEmpty();
+        assertThat(new AuditLogReader(directory).taskListHistory("default", listId)).hasSize(1);
+    }
+
+    @Test
+    void fullSegmentsRollOverAndAppendsContinueAfterARestart() throws IOException {
+        try (MappedAuditLog log = new MappedAuditLog(directory, SEGMENT_SIZE)) {
+            appendUpdates(log, 0, 100);
+            assertThat(log.sequence()).isGreaterThan(1);
+        }
+        try (MappedAuditLog log = new MappedAuditLog(directory, SEGMENT_SIZE)) {
+            appendUpdates(log, 100, 10);
+        }
+
+        assertThat(new AuditLogReader(directory).history("default", taskId))
+                .extracting(AuditEvent::title)
+                .containsExactlyElementsOf(titles("Title ", 0, 110));
+    }
+
+    @Test
+    void aTornRecordIsCutOffOnRestart() throws IOException {
+        try (MappedAuditLog log = new MappedAuditLog(directory, SEGMENT_SIZE)) {
+            appendUpdates(log, 0, 3);
+        }
+        // A length without a matching payload behind the last record, as a crash could leave it
+        Path segment = AuditSegments.path(directory, 1);
+        int end = endOfRecords(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(12).putInt(200).putInt(42).putInt(7).flip(), end);
+        }
+
+        try (MappedAuditLog log = new MappedAuditLog(directory, SEGMENT_SIZE)) {
+            appendUpdates(log, 3, 1);
+        }
+
+        assertThat(new AuditLogReader(directory).history("default", taskId))
+                .extracting(AuditEvent::title)
+                .containsExactlyElementsOf(titles("Title ", 0, 4));
+    }
+
+    @Test
+    void compactionPacksSealedSegmentsAndDropsOldEvents() throws IOException {
+        try (MappedAuditLog log = new MappedAuditLog(directory, SEGMENT_SIZE)) {
+            for (int i = 0; i < 100; i++) {
+                log.append(event(AuditAction.TASK_UPDATED, taskId, "Update " + i, TaskStatus.OPEN, NOW.plusSeconds(i)));
+            }
+            int before = AuditSegments.list(directory).size();
+
+            AuditLogCompactor.Result result = AuditLogCompactor.compact(directory, NOW.plusSeconds(50), 64 * 1024);
+
+            assertThat(result.segmentsBefore()).isEqualTo(before);
+            assertThat(result.segmentsAfter()).isEqualTo(2);
+            assertThat(result.recordsDropped()).isEqualTo(50);
+            assertThat(result.bytesAfter()).isLessThan(result.bytesBefore());
+
+            // Still appending to the segment the compactor left alone
+            log.append(event(AuditAction.TASK_UPDATED, taskId, "Update 100", TaskStatus.OPEN, NOW.plusSeconds(100)));
+        }
+
+        assertThat(new AuditLogReader(directory).history("default", taskId))
+                .extracting(AuditEvent::title)
+                .containsExactlyElementsOf(titles("Update ", 50, 51));
+    }
+
+    @Test
+    void segmentsCoveredByACompactedSegmentAreIgnoredAndCleanedUp() throws IOException {
+        try (MappedAuditLog log = new MappedAuditLog(directory, SEGMENT_SIZE)) {
+            appendUpdates(log, 0, 100);
+        }
+        List<Path> originals = AuditSegments.list(directory).stream().map(AuditSegments.Segment::path).toList();
+        // As if the compactor stopped right after moving its output into place: the inputs are still there
+        Path keep = Files.copy(originals.get(1), directory.resolve("keep"));
+        AuditLogCompactor.compact(directory, null, 64 * 1024);
+        Files.move(keep, originals.get(1));
+
+        assertThat(new AuditLogReader(directory).history("default", taskId))
+                .extracting(AuditEvent::title)
+                .containsExactlyElementsOf(titles("Title ", 0, 100));
+
+        new MappedAuditLog(directory, SEGMENT_SIZE).close();
+        assertThat(originals.get(1)).doesNotExist();
+    }
+
+    @Test
+    void historyOnlyReadsTheSegmentsThatMayHoldTheTask() throws IOException {
+        Random random = new Random(3);
+        try (MappedAuditLog log = new MappedAuditLog(directory, SEGMENT_SIZE)) {
+            appendUpdates(log, 0, 3);
+            for (int i = 0; i < 300; i++) {
+                UUID other = new UUID(random.nextLong(), random.nextLong());
+                log.append(event(AuditAction.TASK_UPDATED, other, "Other " + i, TaskStatus.OPEN, NOW));
+            }
+        }
+        int segments = AuditSegments.list(directory).size();
+        assertThat(segments).isGreaterThan(5);
+
+        AuditLogReader first = new AuditLogReader(directory);
+        assertThat(first.history("default", taskId)).extracting(AuditEvent::title).containsExactlyElementsOf(titles("Title ", 0, 3));
+        // Nothing to go by yet: every segment is read, and the sealed ones get a filter
+        assertThat(first.segmentsRead()).isEqualTo(segments);
+        assertThat(filterFiles()).hasSize(segments - 1);
+
+        AuditLogReader second = new AuditLogReader(directory);
+        assertThat(second.history("default", taskId)).extracting(AuditEvent::title).containsExactlyElementsOf(titles("Title ", 0, 3));
+        // The segment with the task, and the newest one, which has no filter
+        assertThat(second.segmentsRead()).isEqualTo(2);
+        assertThat(second.taskListHistory("default", listId)).hasSize(303);
+
+        AuditLogCompactor.compact(directory, null, 64 * 1024);
+        new MappedAuditLog(directory, SEGMENT_SIZE).close();
+        assertThat(filterFiles()).isEmpty();
+        assertThat(new AuditLogReader(directory).history("default", taskId)).hasSize(3);
+    }
+
+    private List<Path> filterFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SegmentIdFilter.SUFFIX)).toList();
+        }
+    }
+
+    private void appendUpdates(MappedAuditLog log, int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            log.append(event(AuditAction.TASK_UPDATED, taskId, "Title " + i, TaskStatus.OPEN, NOW));
+        }
+    }
+
+    private static List<String> titles(String prefix, int from, int count) {
+        List<String> titles = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            titles.add(prefix + i);
+        }
+        return titles;
+    }
+
+    private AuditEvent event(AuditAction action, UUID id, String title, TaskStatus status, Instant timestamp) {
+        return new AuditEvent(timestamp, "default", action, listId, id, title, "Some description",
+                LocalDateTime.of(2030, 1, 1, 12, 0), status, TaskPriority.HIGH, "m");
+    }
+
+    private static int endOfRecords(Path segment) throws IOException {
+        ByteBuffer buffer = AuditSegments.map(segment, FileChannel.MapMode.READ_ONLY);
+        int offset = AuditSegments.SEGMENT_HEADER_BYTES;
+        int next;
+        while ((next = AuditSegments.next(buffer, offset, true)) > 0) {
+            offset = next;
+        }
+        return offset;
+    }
+}
@@ -0,0 +1,96 @@
+package com.danny.tasks.benchmarks;
+
+import com.danny.tasks.audit.AuditAction;
+import com.danny.tasks.audit.AuditEvent;
+import com.danny.tasks.audit.AuditLogReader;
+import com.danny.tasks.audit.MappedAuditLog;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The audit log's hot path: appending one task event (encode, checksum, copy into the mapped segment),
+ * single-threaded and from 4 threads sharing the log. Includes segment rollover every 64MB.
+ *
+ * history looks up one task's entries (100 of them, among the first 5% of events) in a log of historyEvents
+ * events spread over 1MB segments. After the first lookup the sealed segments have their filters, so it reads
+ * the segments holding the task and the newest one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditLogBenchmark {
+
+    @Param({"100000"})
+    public int historyEvents;
+
+    private Path directory;
+    private MappedAuditLog auditLog;
+    private AuditEvent event;
+
+    private Path historyDirectory;
+    private AuditLogReader reader;
+    private UUID trackedTask;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("audit-benchmark");
+        auditLog = new MappedAuditLog(directory, 64L * 1024 * 1024);
+        event = event(UUID.randomUUID(), UUID.randomUUID());
+
+        historyDirectory = Files.createTempDirectory("audit-history-benchmark");
+        trackedTask = UUID.randomUUID();
+        UUID taskListId = UUID.randomUUID();
+        try (MappedAuditLog history = new MappedAuditLog(historyDirectory, 1024 * 1024)) {
+            for (int i = 0; i < historyEvents; i++) {
+                history.append(event(taskListId, i < historyEvents / 20 && i % (historyEvents / 2000) == 0
+                        ? trackedTask : UUID.randomUUID()));
+            }
+        }
+        reader = new AuditLogReader(historyDirectory);
+        reader.history("default", trackedTask);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        auditLog.close();
+        FileSystemUtils.deleteRecursively(directory);
+        FileSystemUtils.deleteRecursively(historyDirectory);
+    }
+
+    @Benchmark
+    public void append() {
+        auditLog.append(event);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void appendContended() {
+        auditLog.append(event);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<AuditEvent> history() {
+        return reader.history("default", trackedTask);
+    }
+
+    private static AuditEvent event(UUID taskListId, UUID taskId) {
+        return new AuditEvent(Instant.now(), "default", AuditAction.TASK_UPDATED, taskListId, taskId,
+                "Prepare the quarterly report", "Collect the numbers from every team and summarise them",
+                LocalDateTime.now().plusDays(7), TaskStatus.OPEN, TaskPriority.HIGH, "m");
+    }
+}
@@ -0,0 +1,85 @@
+package com.danny.tasks.benchmarks;
+
+import com.danny.tasks.dependencies.DependencyGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory dependency graph of one large task list: taskCount tasks, each blocked by up to three earlier ones
+ * (in a hidden "true" order), added in random order so the topological order has to be repaired along the way.
+ *
+ * - plan: topological order and critical path over all tasks, as GET /task-list/{id}/plan computes it after
+ *   reading the open task ids.
+ * - load: building the graph from the edge rows, as after a version change.
+ * - addAndRemove: the cycle check and insert of a random dependency (refused if it would loop), then its removal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DependencyGraphBenchmark {
+
+    @Param({"50000"})
+    public int taskCount;
+
+    private List<UUID> tasks;
+    private List<Object[]> edges;
+    private DependencyGraph graph;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(UUID.randomUUID());
+        }
+        edges = new ArrayList<>();
+        for (int i = 1; i < taskCount; i++) {
+            int blockers = random.nextInt(4);
+            for (int b = 0; b < blockers; b++) {
+                // Mostly recent tasks, so chains get long
+                int blocker = Math.max(0, i - 1 - random.nextInt(Math.min(i, 50)));
+                edges.add(new Object[] {tasks.get(blocker), tasks.get(i)});
+            }
+        }
+        Collections.shuffle(edges, random);
+        graph = new DependencyGraph(0);
+        for (Object[] edge : edges) {
+            graph.add((UUID) edge[0], (UUID) edge[1]);
+        }
+        // The plan takes the tasks in list order, which has nothing to do with the dependencies
+        Collections.shuffle(tasks, random);
+    }
+
+    @Benchmark
+    public DependencyGraph.Plan plan() {
+        return graph.plan(tasks);
+    }
+
+    @Benchmark
+    public DependencyGraph load() {
+        return DependencyGraph.of(1, edges);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean addAndRemove() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UUID blocker = tasks.get(random.nextInt(taskCount));
+        UUID blocked = tasks.get(random.nextInt(taskCount));
+        if (graph.hasEdge(blocker, blocked) || !graph.add(blocker, blocked)) {
+            return false;
+        }
+        graph.remove(blocker, blocked);
+        return true;
+    }
+}
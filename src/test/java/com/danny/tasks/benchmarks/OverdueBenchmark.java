@@ -0,0 +1,89 @@
+package com.danny.tasks.benchmarks;
+
+import com.danny.tasks.TasksApplication;
+import com.danny.tasks.audit.AuditAction;
+import com.danny.tasks.audit.AuditEvent;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.overdue.OverdueEngine;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The overdue engine with pendingDeadlines open tasks due over the next 30 days:
+ * - reschedule: one task's due date changes (what every task update with a due date costs on top).
+ * - advanceOneHour: the wheel moves an hour ahead, one-second ticks, and the tasks due in it (about 2800) are
+ *   checked against the database. The tasks don't exist there, so nothing is reported.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class OverdueBenchmark {
+
+    private static final long SPREAD_SECONDS = 30 * 24 * 3600;
+
+    @Param({"2000000"})
+    public int pendingDeadlines;
+
+    private ConfigurableApplicationContext context;
+    private OverdueEngine engine;
+    private UUID[] taskIds;
+    private LocalDateTime start;
+    private LocalDateTime clock;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start(TasksApplication.class,
+                "tasks.overdue.enabled=true",
+                "tasks.overdue.log-notifier=false");
+        engine = context.getBean(OverdueEngine.class);
+        // Ticks come from the benchmark
+        engine.stop();
+
+        start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        clock = start;
+        taskIds = new UUID[pendingDeadlines];
+        for (int i = 0; i < pendingDeadlines; i++) {
+            taskIds[i] = UUID.randomUUID();
+            engine.onTaskChanged(event(taskIds[i], randomDueDate()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void reschedule() {
+        UUID taskId = taskIds[ThreadLocalRandom.current().nextInt(taskIds.length)];
+        engine.onTaskChanged(event(taskId, randomDueDate()));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int advanceOneHour() {
+        clock = clock.plusHours(1);
+        return engine.advance(clock);
+    }
+
+    private LocalDateTime randomDueDate() {
+        return start.plusSeconds(ThreadLocalRandom.current().nextLong(1, SPREAD_SECONDS));
+    }
+
+    private static AuditEvent event(UUID taskId, LocalDateTime dueDate) {
+        return new AuditEvent(Instant.now(), "default", AuditAction.TASK_UPDATED, null, taskId,
+                "Task", null, dueDate, TaskStatus.OPEN, TaskPriority.MEDIUM, "m");
+    }
+}
@@ -0,0 +1,82 @@
+package com.danny.tasks.benchmarks;
+
+import com.danny.tasks.TasksApplication;
+import com.danny.tasks.domain.entities.TaskList;
+import com.danny.tasks.recurrence.RecurrenceMaterializer;
+import com.danny.tasks.services.TaskListService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One materializer run over ruleCount due rules spread over 1000 lists, each producing one task
+ * (horizon 1h, daily rules due now): the time one instance needs to catch up with all of them.
+ * H2 in-memory, so this leaves out the network round trips that the batching saves on Postgres.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RecurrenceBenchmark {
+
+    private static final int LISTS = 1000;
+
+    @Param({"100000"})
+    public int ruleCount;
+
+    private ConfigurableApplicationContext context;
+    private RecurrenceMaterializer materializer;
+    private JdbcTemplate jdbcTemplate;
+    private LocalDateTime now;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start(TasksApplication.class,
+                "tasks.recurrence.enabled=false",
+                "tasks.recurrence.horizon=1h");
+        materializer = context.getBean(RecurrenceMaterializer.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        TaskListService taskListService = context.getBean(TaskListService.class);
+
+        List<UUID> taskListIds = new ArrayList<>();
+        for (int l = 0; l < LISTS; l++) {
+            taskListIds.add(taskListService.createTaskList(new TaskList(null, "List " + l, null, null, null, null)).getId());
+        }
+        now = LocalDateTime.now();
+        List<Object[]> rules = new ArrayList<>(ruleCount);
+        for (int i = 0; i < ruleCount; i++) {
+            rules.add(new Object[]{UUID.randomUUID(), taskListIds.get(i % LISTS), "Rule " + i,
+                    ThreadLocalRandom.current().nextInt(RecurrenceMaterializer.SHARDS), Timestamp.valueOf(now)});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO task_recurrences (id, tenant_id, task_list_id, title, priority, recurrence_rule, next_due_date, shard, created, updated)
+                VALUES (?, 'default', ?, ?, 1, '@daily', NULL, ?, ?, ?)""",
+                rules.stream().map(rule -> new Object[]{rule[0], rule[1], rule[2], rule[3], rule[4], rule[4]}).toList());
+    }
+
+    @Setup(Level.Iteration)
+    public void makeAllRulesDue() {
+        jdbcTemplate.update("DELETE FROM tasks");
+        jdbcTemplate.update("UPDATE task_recurrences SET next_due_date = ?", Timestamp.valueOf(now.plusMinutes(1)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public RecurrenceMaterializer.Result materialize() {
+        return materializer.materialize(now);
+    }
+}
@@ -0,0 +1,108 @@
+package com.danny.tasks.benchmarks;
+
+import com.danny.tasks.TasksApplication;
+import com.danny.tasks.domain.dto.TaskDto;
+import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskList;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.services.TaskListService;
+import com.danny.tasks.services.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the two storage engines behind the same services:
+ * - jpa:    Hibernate on H2 (in-memory, so this flatters JPA compared to Postgres over the network)
+ * - memory: InMemoryTaskStore, logging every write to a local file (without fsync)
+ *
+ *   ... org.openjdk.jmh.Main StorageEngineBenchmark
+ *   ... org.openjdk.jmh.Main StorageEngineBenchmark -t 4     (4 threads, to see lock contention)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageEngineBenchmark {
+
+    private static final int LISTS = 20;
+    private static final int TASKS_PER_LIST = 100;
+
+    @Param({"jpa", "memory"})
+    public String engine;
+
+    private ConfigurableApplicationContext context;
+    private Path directory;
+    private TaskService taskService;
+    private final List<UUID> taskListIds = new ArrayList<>();
+    private final List<UUID> taskIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("storage-benchmark");
+        context = engine.equals("memory")
+                ? BenchmarkContexts.start(TasksApplication.class,
+                        "spring.profiles.active=memory",
+                        "tasks.storage.memory.directory=" + directory)
+                : BenchmarkContexts.start(TasksApplication.class);
+        taskService = context.getBean(TaskService.class);
+        TaskListService taskListService = context.getBean(TaskListService.class);
+
+        for (int l = 0; l < LISTS; l++) {
+            UUID taskListId = taskListService.createTaskList(new TaskList(null, "List " + l, null, null, null, null)).getId();
+            taskListIds.add(taskListId);
+            for (int i = 0; i < TASKS_PER_LIST; i++) {
+                taskIds.add(taskService.createTask(taskListId, task("Task " + i,
+                        i % 2 == 0 ? TaskStatus.OPEN : TaskStatus.CLOSED)).getId());
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Optional<TaskDto> getTask() {
+        int i = ThreadLocalRandom.current().nextInt(taskIds.size());
+        return taskService.getTaskDto(taskListIds.get(i / TASKS_PER_LIST), taskIds.get(i));
+    }
+
+    @Benchmark
+    public List<TaskDto> listOpenTasks() {
+        UUID taskListId = taskListIds.get(ThreadLocalRandom.current().nextInt(LISTS));
+        return taskService.listTaskDto(taskListId, TaskStatus.OPEN);
+    }
+
+    @Benchmark
+    public Task updateTask() {
+        int i = ThreadLocalRandom.current().nextInt(taskIds.size());
+        return taskService.updateTask(taskListIds.get(i / TASKS_PER_LIST), taskIds.get(i),
+                task(null, i % 2 == 0 ? TaskStatus.CLOSED : TaskStatus.OPEN));
+    }
+
+    @Benchmark
+    public Task createTask() {
+        UUID taskListId = taskListIds.get(ThreadLocalRandom.current().nextInt(LISTS));
+        return taskService.createTask(taskListId, task("New task", null));
+    }
+
+    private static Task task(String title, TaskStatus status) {
+        return new Task(null, title, null, null, status, TaskPriority.MEDIUM, null, null, null);
+    }
+}
@@ -0,0 +1,121 @@
+package com.danny.tasks.benchmarks;
+
+import com.danny.tasks.TasksApplication;
+import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskList;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.proxy.HibernateProxy;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashes and compares a large task list the way mapping and caching code does.
+ *
+ * Every task points at a real Hibernate proxy of its task list, taken from an entity manager that is closed
+ * before the benchmark starts: initializing it throws a LazyInitializationException, exactly when an uninitialized
+ * proxy would hit the database. The benchmark therefore only completes if hashing or comparing a task never
+ * touches its task list.
+ *
+ * - hashAll: hashCode() on every task.
+ * - equalsAll: every task against a detached copy with the same id, as after loading it again.
+ * - buildHashSet: every task into a HashSet, which only scales if tasks spread over its buckets.
+ * - indexById: the same tasks in a map keyed by id, for comparison with buildHashSet.
+ *
+ * Run with -prof gc: hashAll and equalsAll should report ~0 B/op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskHashingBenchmark {
+
+    @Param({"100000"})
+    public int taskCount;
+
+    private ConfigurableApplicationContext context;
+    private List<Task> tasks;
+    private List<Task> copies;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start(TasksApplication.class);
+        EntityManager entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        TaskList taskList = entityManager.getReference(TaskList.class, UUID.randomUUID());
+        entityManager.close();
+        if (!(taskList instanceof HibernateProxy)) {
+            throw new IllegalStateException("Expected a lazy proxy, got " + taskList.getClass());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        tasks = new ArrayList<>(taskCount);
+        copies = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            UUID id = UUID.randomUUID();
+            tasks.add(new Task(id, "Task " + i, "Description " + i, now,
+                    TaskStatus.OPEN, TaskPriority.MEDIUM, taskList, now, now));
+            copies.add(new Task(id, "Task " + i, "Changed " + i, now,
+                    TaskStatus.CLOSED, TaskPriority.HIGH, taskList, now, now));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int hashAll() {
+        int result = 0;
+        for (Task task : tasks) {
+            result += task.hashCode();
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int equalsAll() {
+        int equal = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            if (tasks.get(i).equals(copies.get(i))) {
+                equal++;
+            }
+        }
+        if (equal != tasks.size()) {
+            throw new IllegalStateException("Copies with the same id must be equal");
+        }
+        return equal;
+    }
+
+    @Benchmark
+    public Set<Task> buildHashSet() {
+        Set<Task> set = new HashSet<>(tasks);
+        if (set.size() != tasks.size()) {
+            throw new IllegalStateException("Tasks with different ids must not be equal");
+        }
+        return set;
+    }
+
+    @Benchmark
+    public Map<UUID, Task> indexById() {
+        Map<UUID, Task> byId = new HashMap<>(tasks.size() * 2);
+        for (Task task : tasks) {
+            byId.put(task.getId(), task);
+        }
+        return byId;
+    }
+}
@@ -0,0 +1,84 @@
+package com.danny.tasks.benchmarks;
+
+import com.danny.tasks.domain.dto.TaskDto;
+import com.danny.tasks.domain.dto.TaskListDto;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.json.TaskDtoJsonComponent;
+import com.danny.tasks.json.TaskListDtoJsonComponent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the hand-written TaskListDto/TaskDto (de)serializers against the ObjectMapper
+ * Spring Boot would build without them (reflection-based record handling + JavaTimeModule).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskJsonBenchmark {
+
+    @Param({"1000"})
+    public int taskCount;
+
+    private ObjectMapper defaultMapper;
+    private ObjectMapper customMapper;
+    private TaskListDto taskList;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        defaultMapper = bootDefaults().build();
+        customMapper = bootDefaults()
+                .serializers(new TaskDtoJsonComponent.Serializer(), new TaskListDtoJsonComponent.Serializer())
+                .deserializerByType(TaskDto.class, new TaskDtoJsonComponent.Deserializer())
+                .deserializerByType(TaskListDto.class, new TaskListDtoJsonComponent.Deserializer())
+                .build();
+
+        LocalDateTime due = LocalDateTime.of(2025, 6, 1, 17, 30, 15, 250_000_000);
+        List<TaskDto> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(new TaskDto(UUID.randomUUID(), "Task " + i, "Description of task " + i, due.plusHours(i),
+                    TaskPriority.values()[i % 3], TaskStatus.values()[i % 2]));
+        }
+        taskList = new TaskListDto(UUID.randomUUID(), "Benchmark", "A large list", taskCount, 0.5, tasks);
+        json = defaultMapper.writeValueAsBytes(taskList);
+    }
+
+    @Benchmark
+    public byte[] serializeDefault() throws IOException {
+        return defaultMapper.writeValueAsBytes(taskList);
+    }
+
+    @Benchmark
+    public byte[] serializeCustom() throws IOException {
+        return customMapper.writeValueAsBytes(taskList);
+    }
+
+    @Benchmark
+    public TaskListDto deserializeDefault() throws IOException {
+        return defaultMapper.readValue(json, TaskListDto.class);
+    }
+
+    @Benchmark
+    public TaskListDto deserializeCustom() throws IOException {
+        return customMapper.readValue(json, TaskListDto.class);
+    }
+
+    private static Jackson2ObjectMapperBuilder bootDefaults() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
@@ -0,0 +1,77 @@
+package com.danny.tasks.benchmarks;
+
+import com.danny.tasks.TasksApplication;
+import com.danny.tasks.domain.dto.TaskDto;
+import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskList;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.mappers.TaskMapper;
+import com.danny.tasks.services.TaskListService;
+import com.danny.tasks.services.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the two ways of reading the tasks of a list for the API:
+ * - entities:   load managed Task entities, then map each one with TaskMapper.toDto
+ * - projection: select straight into TaskDto with a JPQL constructor expression
+ *
+ * Run with the GC profiler to see allocations per call (see README, "Benchmarks"):
+ *   ... org.openjdk.jmh.Main TaskReadBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskReadBenchmark {
+
+    @Param({"100", "1000"})
+    public int taskCount;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private TaskMapper taskMapper;
+    private UUID taskListId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start(TasksApplication.class);
+        taskService = context.getBean(TaskService.class);
+        taskMapper = context.getBean(TaskMapper.class);
+
+        TaskList taskList = context.getBean(TaskListService.class)
+                .createTaskList(new TaskList(null, "Benchmark", null, null, null, null));
+        taskListId = taskList.getId();
+        for (int i = 0; i < taskCount; i++) {
+            taskService.createTask(taskListId, new Task(
+                    null, "Task " + i, "Description " + i, null,
+                    i % 2 == 0 ? TaskStatus.OPEN : TaskStatus.CLOSED, TaskPriority.MEDIUM,
+                    null, null, null));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TaskDto> entities() {
+        return taskService.listTask(taskListId)
+                .stream()
+                .map(taskMapper::toDto)
+                .toList();
+    }
+
+    @Benchmark
+    public List<TaskDto> projection() {
+        return taskService.listTaskDto(taskListId, null);
+    }
+}
@@ -0,0 +1,94 @@
+package com.danny.tasks.benchmarks;
+
+import com.danny.tasks.domain.dto.TaskDto;
+import com.danny.tasks.domain.dto.TaskListDto;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.json.TaskDtoJsonComponent;
+import com.danny.tasks.json.TaskListDtoJsonComponent;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON vs CBOR for a full task list, using the mappers the application configures
+ * (same modules and hand-written serializers, only the wire format differs).
+ *
+ * Payload sizes are printed once per trial; encode/decode throughput is what JMH measures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskWireFormatBenchmark {
+
+    @Param({"1000"})
+    public int taskCount;
+
+    private ObjectMapper jsonMapper;
+    private ObjectMapper cborMapper;
+    private TaskListDto taskList;
+    private byte[] json;
+    private byte[] cbor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        jsonMapper = applicationMapper(new JsonFactory());
+        cborMapper = applicationMapper(new CBORFactory());
+
+        LocalDateTime due = LocalDateTime.of(2025, 6, 1, 17, 30);
+        List<TaskDto> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(new TaskDto(UUID.randomUUID(), "Task " + i, "Description of task " + i, due.plusHours(i),
+                    TaskPriority.values()[i % 3], TaskStatus.values()[i % 2]));
+        }
+        taskList = new TaskListDto(UUID.randomUUID(), "Benchmark", "A large list", taskCount, 0.5, tasks);
+        json = jsonMapper.writeValueAsBytes(taskList);
+        cbor = cborMapper.writeValueAsBytes(taskList);
+
+        System.out.printf("%nPayload size for %d tasks: JSON %,d bytes, CBOR %,d bytes (%.0f%%)%n",
+                taskCount, json.length, cbor.length, 100.0 * cbor.length / json.length);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws IOException {
+        return jsonMapper.writeValueAsBytes(taskList);
+    }
+
+    @Benchmark
+    public byte[] encodeCbor() throws IOException {
+        return cborMapper.writeValueAsBytes(taskList);
+    }
+
+    @Benchmark
+    public TaskListDto decodeJson() throws IOException {
+        return jsonMapper.readValue(json, TaskListDto.class);
+    }
+
+    @Benchmark
+    public TaskListDto decodeCbor() throws IOException {
+        return cborMapper.readValue(cbor, TaskListDto.class);
+    }
+
+    private static ObjectMapper applicationMapper(JsonFactory factory) {
+        return Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializers(new TaskDtoJsonComponent.Serializer(), new TaskListDtoJsonComponent.Serializer())
+                .deserializerByType(TaskDto.class, new TaskDtoJsonComponent.Deserializer())
+                .deserializerByType(TaskListDto.class, new TaskListDtoJsonComponent.Deserializer())
+                .build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.danny.tasks.benchmarks;
+
+import com.danny.tasks.TasksApplication;
+import com.danny.tasks.domain.dto.TaskDto;
+import com.danny.tasks.domain.dto.TaskListDto;
+import com.danny.tasks.domain.dto.TaskListField;
+import com.danny.tasks.services.TaskListService;
+import com.danny.tasks.services.TaskService;
+import com.danny.tasks.tenancy.TenantContext;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-tenant read latency with many tenants in the same tables:
+ * - taskLists: GET /task-lists for one tenant (summaries with count and progress)
+ * - tasks:     GET /task-list/{id}/tasks for one of that tenant's lists
+ *
+ * Each call picks the next tenant round-robin, so the whole data set is touched rather than one hot tenant.
+ * Rows are inserted with plain JDBC batches to keep the set-up short.
+ *
+ *   ... org.openjdk.jmh.Main TenantReadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TenantReadBenchmark {
+
+    @Param({"1000"})
+    public int tenantCount;
+
+    @Param({"5"})
+    public int listsPerTenant;
+
+    @Param({"20"})
+    public int tasksPerList;
+
+    private ConfigurableApplicationContext context;
+    private TaskListService taskListService;
+    private TaskService taskService;
+    private String[] tenants;
+    private UUID[] firstListOfTenant;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start(TasksApplication.class);
+        taskListService = context.getBean(TaskListService.class);
+        taskService = context.getBean(TaskService.class);
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+
+        tenants = new String[tenantCount];
+        firstListOfTenant = new UUID[tenantCount];
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int t = 0; t < tenantCount; t++) {
+            tenants[t] = "tenant-" + t;
+            List<Object[]> lists = new ArrayList<>();
+            List<Object[]> tasks = new ArrayList<>();
+            for (int l = 0; l < listsPerTenant; l++) {
+                UUID listId = UUID.randomUUID();
+                if (l == 0) {
+                    firstListOfTenant[t] = listId;
+                }
+                lists.add(new Object[]{listId, "List " + l, now, now, tenants[t]});
+                for (int i = 0; i < tasksPerList; i++) {
+                    tasks.add(new Object[]{UUID.randomUUID(), "Task " + i, i % 2, 1, listId, now, now, tenants[t], "%05di".formatted(i)});
+                }
+            }
+            jdbc.batchUpdate("INSERT INTO task_lists (id, title, created, updated, tenant_id) VALUES (?, ?, ?, ?, ?)", lists);
+            jdbc.batchUpdate("INSERT INTO tasks (id, title, status, priority, task_list_id, created, updated, tenant_id, sort_rank)"
+                    + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", tasks);
+        }
+        jdbc.execute("ANALYZE");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TaskListDto> taskLists() {
+        int tenant = nextTenant();
+        return TenantContext.callAs(tenants[tenant], () -> taskListService.listTaskListSummaries(
+                EnumSet.of(TaskListField.ID, TaskListField.TITLE, TaskListField.COUNT, TaskListField.PROGRESS), false));
+    }
+
+    @Benchmark
+    public List<TaskDto> tasks() {
+        int tenant = nextTenant();
+        return TenantContext.callAs(tenants[tenant], () -> taskService.listTaskDto(firstListOfTenant[tenant], null));
+    }
+
+    private int nextTenant() {
+        next = next + 1 == tenantCount ? 0 : next + 1;
+        return next;
+    }
+}
@@ -0,0 +1,41 @@
+package com.danny.tasks.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaDataSourceConfigTests {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(DataSourcePropertiesConfig.class, ReplicaDataSourceConfig.class)
+            .withPropertyValues(
+                    "spring.datasource.url=jdbc:h2:mem:replica-config-primary",
+                    "tasks.datasource.replica.url=jdbc:h2:mem:replica-config-replica",
+                    "spring.datasource.hikari.maximum-pool-size=3",
+                    "spring.datasource.hikari.connection-timeout=1500");
+
+    @Test
+    void bothPoolsTakeTheHikariSettings() {
+        runner.run(context -> {
+            HikariDataSource primary = context.getBean("primaryDataSource", HikariDataSource.class);
+            HikariDataSource replica = context.getBean("replicaDataSource", HikariDataSource.class);
+
+            assertThat(primary.getMaximumPoolSize()).isEqualTo(3);
+            assertThat(primary.getConnectionTimeout()).isEqualTo(1500);
+            assertThat(primary.getPoolName()).isEqualTo("primary");
+            assertThat(replica.getMaximumPoolSize()).isEqualTo(3);
+            assertThat(replica.getConnectionTimeout()).isEqualTo(1500);
+            assertThat(replica.isReadOnly()).isTrue();
+        });
+    }
+
+    @Configuration
+    @EnableConfigurationProperties(DataSourceProperties.class)
+    static class DataSourcePropertiesConfig {
+    }
+}
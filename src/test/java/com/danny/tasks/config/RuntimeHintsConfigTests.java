@@ -0,0 +1,36 @@
+package com.danny.tasks.config;
+
+import com.danny.tasks.domain.dto.TaskListDto;
+import com.danny.tasks.domain.dto.TaskListStatsDto;
+import com.danny.tasks.domain.entities.Task;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuntimeHintsConfigTests {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    RuntimeHintsConfigTests() {
+        new RuntimeHintsConfig.TaskRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void entityFieldsAreReflective() throws NoSuchFieldException {
+        assertThat(RuntimeHintsPredicates.reflection().onField(Task.class.getDeclaredField("sortRank"))).accepts(hints);
+    }
+
+    @Test
+    void dtoRecordsAndTheirNestedTypesAreBound() throws NoSuchMethodException {
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(TaskListDto.class.getMethod("tasks"))).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(TaskListStatsDto.DailyClosed.class)).accepts(hints);
+    }
+
+    @Test
+    void vendorMigrationsAreIncluded() {
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/migration/common/V1__Create_task_lists_and_tasks.sql")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/migration/postgresql/V4__Add_task_sort_rank.sql")).accepts(hints);
+    }
+}
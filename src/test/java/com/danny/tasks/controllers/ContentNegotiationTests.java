@@ -0,0 +1,73 @@
+package com.danny.tasks.controllers;
+
+import com.danny.tasks.domain.dto.TaskDto;
+import com.danny.tasks.domain.dto.TaskListDto;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The same resources can be exchanged as JSON or CBOR, chosen by Accept / Content-Type.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ContentNegotiationTests {
+
+    private final ObjectMapper cbor = CBORMapper.builder().addModule(new JavaTimeModule()).build();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @Test
+    void exchangesTasksAsCbor() throws Exception {
+        byte[] createdList = mockMvc.perform(post("/task-lists")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cbor.writeValueAsBytes(new TaskListDto(null, "Binary", null, null, null, null))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        TaskListDto taskList = cbor.readValue(createdList, TaskListDto.class);
+
+        TaskDto task = new TaskDto(null, "Encode me", null, LocalDateTime.now().plusDays(1).withNano(0),
+                TaskPriority.LOW, TaskStatus.OPEN);
+        mockMvc.perform(post("/task-list/{id}/tasks", taskList.id())
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cbor.writeValueAsBytes(task)))
+                .andExpect(status().isOk());
+
+        byte[] cborTasks = mockMvc.perform(get("/task-list/{id}/tasks", taskList.id())
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] jsonTasks = mockMvc.perform(get("/task-list/{id}/tasks", taskList.id())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        TaskDto[] fromCbor = cbor.readValue(cborTasks, TaskDto[].class);
+        assertThat(fromCbor).containsExactly(json.readValue(jsonTasks, TaskDto[].class));
+        assertThat(fromCbor[0].title()).isEqualTo("Encode me");
+        assertThat(fromCbor[0].dueDate()).isEqualTo(task.dueDate());
+    }
+}
@@ -0,0 +1,67 @@
+package com.danny.tasks.controllers;
+
+import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskList;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.services.TaskListService;
+import com.danny.tasks.services.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SparseTaskListTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskListService taskListService;
+
+    @Autowired
+    private TaskService taskService;
+
+    private UUID taskListId;
+
+    @BeforeEach
+    void setUp() {
+        taskListId = taskListService.createTaskList(new TaskList(null, "Sparse", "Not returned", null, null, null)).getId();
+        taskService.createTask(taskListId, new Task(null, "Open", null, null, TaskStatus.OPEN, null, null, null, null));
+        taskService.createTask(taskListId, new Task(null, "Closed", null, null, TaskStatus.CLOSED, null, null, null, null));
+    }
+
+    @Test
+    void returnsOnlyTheRequestedFields() throws Exception {
+        mockMvc.perform(get("/task-lists/{id}", taskListId).param("fields", "title,count,progress"))
+                .andExpect(jsonPath("$.title").value("Sparse"))
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.progress").value(0.5))
+                .andExpect(jsonPath("$.description").doesNotExist())
+                .andExpect(jsonPath("$.tasks").doesNotExist());
+    }
+
+    @Test
+    void embedsTasksOnlyWhenIncluded() throws Exception {
+        mockMvc.perform(get("/task-lists/{id}", taskListId).param("fields", "id").param("include", "tasks"))
+                .andExpect(jsonPath("$.id").value(taskListId.toString()))
+                .andExpect(jsonPath("$.title").doesNotExist())
+                .andExpect(jsonPath("$.tasks", hasSize(2)));
+    }
+
+    @Test
+    void rejectsUnknownFields() throws Exception {
+        mockMvc.perform(get("/task-lists").param("fields", "title,owner"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,142 @@
+package com.danny.tasks.controllers;
+
+import com.danny.tasks.domain.dto.SubtaskDto;
+import com.danny.tasks.domain.dto.TaskSubtreeDto;
+import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskList;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.services.SubtaskService;
+import com.danny.tasks.services.TaskListService;
+import com.danny.tasks.services.TaskService;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SubtaskTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskListService taskListService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private SubtaskService subtaskService;
+
+    private UUID taskListId;
+
+    @BeforeEach
+    void setUp() {
+        taskListId = taskListService.createTaskList(new TaskList(null, "Release", null, null, null, null)).getId();
+    }
+
+    @Test
+    void theSubtreeComesDepthFirstWithItsProgress() throws Exception {
+        UUID release = create("Release");
+        UUID build = subtask(release, "Build");
+        UUID compile = subtask(build, "Compile");
+        subtask(build, "Package");
+        UUID publish = subtask(release, "Publish");
+        taskService.updateTask(taskListId, compile, closed());
+        taskService.updateTask(taskListId, publish, closed());
+
+        TaskSubtreeDto subtree = subtaskService.getSubtree(taskListId, release);
+
+        assertThat(subtree.subtasks()).extracting(SubtaskDto::title).containsExactly("Build", "Compile", "Package", "Publish");
+        assertThat(subtree.subtasks()).extracting(SubtaskDto::depth).containsExactly(1, 2, 2, 1);
+        assertThat(subtree.subtasks().get(1).parentId()).isEqualTo(build);
+        assertThat(subtree.progress().progress()).isEqualTo(0.5);
+
+        mockMvc.perform(get("/task-list/{list}/tasks/{task}/progress", taskListId, build))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.subtaskCount").value(2))
+                .andExpect(jsonPath("$.closedCount").value(1))
+                .andExpect(jsonPath("$.progress").value(0.5));
+        mockMvc.perform(get("/task-list/{list}/tasks/{task}/subtasks", taskListId, compile))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.subtasks", hasSize(0)))
+                .andExpect(jsonPath("$.progress.progress").doesNotExist());
+    }
+
+    @Test
+    void aMovedSubtreeTakesItsSubtasksAlong() throws Exception {
+        UUID backlog = create("Backlog");
+        UUID sprint = create("Sprint");
+        UUID story = subtask(backlog, "Story");
+        UUID step = subtask(story, "Step");
+        subtask(step, "Detail");
+
+        mockMvc.perform(put("/task-list/{list}/tasks/{task}/parent", taskListId, story)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"parentId\": \"" + sprint + "\"}"))
+                .andExpect(status().isOk());
+
+        assertThat(subtaskService.getSubtree(taskListId, backlog).subtasks()).isEmpty();
+        assertThat(subtaskService.getSubtree(taskListId, sprint).subtasks())
+                .extracting(SubtaskDto::title, SubtaskDto::depth)
+                .containsExactly(tuple("Story", 1),
+                        tuple("Step", 2),
+                        tuple("Detail", 3));
+        assertThat(taskService.getTask(taskListId, story)).get().extracting(Task::getParentId).isEqualTo(sprint);
+
+        subtaskService.moveSubtree(taskListId, step, null);
+        assertThat(subtaskService.getSubtree(taskListId, sprint).subtasks()).extracting(SubtaskDto::title).containsExactly("Story");
+        assertThat(subtaskService.getSubtree(taskListId, step).subtasks()).extracting(SubtaskDto::depth).containsExactly(1);
+    }
+
+    @Test
+    void aTaskCannotMoveUnderItsOwnSubtree() throws Exception {
+        UUID parent = create("Parent");
+        UUID child = subtask(parent, "Child");
+        UUID grandchild = subtask(child, "Grandchild");
+
+        mockMvc.perform(put("/task-list/{list}/tasks/{task}/parent", taskListId, parent)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"parentId\": \"" + grandchild + "\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/task-list/{list}/tasks/{task}/subtasks", taskListId, UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Orphan\"}"))
+                .andExpect(status().isNotFound());
+
+        assertThat(subtaskService.getSubtree(taskListId, parent).subtasks()).hasSize(2);
+    }
+
+    private UUID create(String title) {
+        return taskService.createTask(taskListId, new Task(null, title, null, null, null, null, null, null, null)).getId();
+    }
+
+    private UUID subtask(UUID parentId, String title) throws Exception {
+        String response = mockMvc.perform(post("/task-list/{list}/tasks/{task}/subtasks", taskListId, parentId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"" + title + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return UUID.fromString(JsonPath.read(response, "$.id"));
+    }
+
+    private static Task closed() {
+        return new Task(null, null, null, null, TaskStatus.CLOSED, null, null, null, null);
+    }
+}
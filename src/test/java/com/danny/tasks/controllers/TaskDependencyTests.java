@@ -0,0 +1,165 @@
+package com.danny.tasks.controllers;
+
+import com.danny.tasks.domain.dto.TaskPlanDto;
+import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskList;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.exceptions.TaskBlockedException;
+import com.danny.tasks.services.TaskDependencyService;
+import com.danny.tasks.services.TaskListService;
+import com.danny.tasks.services.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskDependencyTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskListService taskListService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskDependencyService dependencyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID taskListId;
+
+    @BeforeEach
+    void setUp() {
+        taskListId = taskListService.createTaskList(new TaskList(null, "Launch", null, null, null, null)).getId();
+    }
+
+    @Test
+    void aTaskCanOnlyBeClosedOnceItsBlockersAre() throws Exception {
+        UUID design = create("Design");
+        UUID build = create("Build");
+        block(build, design).andExpect(status().isOk())
+                .andExpect(jsonPath("$.blockedBy[0]").value(design.toString()));
+
+        mockMvc.perform(put("/task-list/{list}/tasks/{task}", taskListId, build)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\": \"CLOSED\"}"))
+                .andExpect(status().isConflict());
+        assertThat(taskService.getTask(taskListId, build)).get().extracting(Task::getStatus).isEqualTo(TaskStatus.OPEN);
+
+        taskService.updateTask(taskListId, design, withStatus(TaskStatus.CLOSED));
+        mockMvc.perform(put("/task-list/{list}/tasks/{task}", taskListId, build)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\": \"CLOSED\"}"))
+                .andExpect(status().isOk());
+
+        // Reopening the blocker is fine, closing the blocked task again isn't until it's closed
+        taskService.updateTask(taskListId, design, withStatus(TaskStatus.OPEN));
+        taskService.updateTask(taskListId, build, withStatus(TaskStatus.OPEN));
+        assertThatThrownBy(() -> taskService.updateTask(taskListId, build, withStatus(TaskStatus.CLOSED)))
+                .isInstanceOf(TaskBlockedException.class);
+
+        mockMvc.perform(delete("/task-list/{list}/tasks/{task}/blockers/{blocker}", taskListId, build, design))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.blockedBy").isEmpty());
+        taskService.updateTask(taskListId, build, withStatus(TaskStatus.CLOSED));
+    }
+
+    @Test
+    void dependenciesCannotLoop() throws Exception {
+        UUID first = create("First");
+        UUID second = create("Second");
+        UUID third = create("Third");
+        block(second, first).andExpect(status().isOk());
+        block(third, second).andExpect(status().isOk());
+
+        block(first, third).andExpect(status().isBadRequest());
+        block(first, first).andExpect(status().isBadRequest());
+        block(first, UUID.randomUUID()).andExpect(status().isNotFound());
+        // Adding an existing dependency again changes nothing
+        block(third, second).andExpect(status().isOk())
+                .andExpect(jsonPath("$.blockedBy.length()").value(1));
+
+        mockMvc.perform(get("/task-list/{list}/tasks/{task}/dependencies", taskListId, second))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.blockedBy[0]").value(first.toString()))
+                .andExpect(jsonPath("$.blocks[0]").value(third.toString()));
+    }
+
+    @Test
+    void thePlanPutsBlockersFirstAndFollowsTheLongestChain() throws Exception {
+        UUID docs = create("Docs");
+        UUID release = create("Release");
+        UUID test = create("Test");
+        UUID build = create("Build");
+        UUID design = create("Design");
+        block(release, test);
+        block(release, docs);
+        block(test, build);
+        block(build, design);
+
+        TaskPlanDto plan = dependencyService.getPlan(taskListId);
+        assertThat(plan.order()).containsExactly(docs, design, build, test, release);
+        assertThat(plan.criticalPath()).containsExactly(design, build, test, release);
+
+        taskService.updateTask(taskListId, design, withStatus(TaskStatus.CLOSED));
+        mockMvc.perform(get("/task-list/{list}/plan", taskListId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.order.length()").value(4))
+                .andExpect(jsonPath("$.criticalPath.length()").value(3))
+                .andExpect(jsonPath("$.criticalPath[0]").value(build.toString()));
+    }
+
+    @Test
+    void aChangeCommittedElsewhereIsPickedUpByTheVersionCheck() {
+        UUID first = create("First");
+        UUID second = create("Second");
+        assertThat(dependencyService.getPlan(taskListId).criticalPath()).hasSize(1);
+
+        // As if by another instance: the edge plus the version bump it makes
+        jdbcTemplate.update("INSERT INTO task_dependencies (tenant_id, blocked_id, blocker_id, task_list_id, created) "
+                + "VALUES ('default', ?, ?, ?, ?)", second, first, taskListId, LocalDateTime.now());
+        jdbcTemplate.update("UPDATE task_list_stats SET dependency_version = dependency_version + 1 WHERE task_list_id = ?",
+                taskListId);
+
+        assertThat(dependencyService.getPlan(taskListId).criticalPath()).containsExactly(first, second);
+        assertThatThrownBy(() -> dependencyService.addBlocker(taskListId, first, second))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private UUID create(String title) {
+        return taskService.createTask(taskListId, new Task(null, title, null, null, null, null, null, null, null)).getId();
+    }
+
+    private ResultActions block(UUID taskId, UUID blockerId) throws Exception {
+        return mockMvc.perform(post("/task-list/{list}/tasks/{task}/blockers", taskListId, taskId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"blockerId\": \"" + blockerId + "\"}"));
+    }
+
+    private static Task withStatus(TaskStatus status) {
+        return new Task(null, null, null, null, status, null, null, null, null);
+    }
+}
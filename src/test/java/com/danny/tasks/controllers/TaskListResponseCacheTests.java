@@ -0,0 +1,67 @@
+package com.danny.tasks.controllers;
+
+import com.danny.tasks.cache.TaskListResponseCache;
+import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskList;
+import com.danny.tasks.services.TaskListService;
+import com.danny.tasks.services.TaskService;
+import com.danny.tasks.tenancy.TenantContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+@SpringBootTest(properties = "tasks.cache.task-list-responses.compress-min-size=0")
+@AutoConfigureMockMvc
+class TaskListResponseCacheTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskListService taskListService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskListResponseCache responseCache;
+
+    @Test
+    void servesCachedResponsesUntilTheListChanges() throws Exception {
+        UUID taskListId = taskListService.createTaskList(new TaskList(null, "Cached", null, null, null, null)).getId();
+
+        mockMvc.perform(get("/task-lists/{id}", taskListId)).andExpect(jsonPath("$.count").value(0));
+        assertThat(responseCache.get(TenantContext.DEFAULT_TENANT, taskListId)).isPresent();
+
+        taskService.createTask(taskListId, new Task(null, "New task", null, null, null, null, null, null, null));
+        assertThat(responseCache.get(TenantContext.DEFAULT_TENANT, taskListId)).isEmpty();
+
+        mockMvc.perform(get("/task-lists/{id}", taskListId)).andExpect(jsonPath("$.count").value(1));
+    }
+
+    @Test
+    void servesPreCompressedBytesToGzipClients() throws Exception {
+        UUID taskListId = taskListService.createTaskList(new TaskList(null, "Compressed", null, null, null, null)).getId();
+
+        byte[] body = mockMvc.perform(get("/task-lists/{id}", taskListId).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(gzip.readAllBytes(), StandardCharsets.UTF_8)).contains("\"title\":\"Compressed\"");
+        }
+    }
+}
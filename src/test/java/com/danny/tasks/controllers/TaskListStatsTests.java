@@ -0,0 +1,83 @@
+package com.danny.tasks.controllers;
+
+import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskList;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.services.TaskListService;
+import com.danny.tasks.services.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskListStatsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskListService taskListService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID taskListId;
+
+    @BeforeEach
+    void setUp() {
+        taskListId = taskListService.createTaskList(new TaskList(null, "Dashboard", null, null, null, null)).getId();
+    }
+
+    @Test
+    void countsFollowTaskWrites() throws Exception {
+        UUID high = create(TaskStatus.OPEN, TaskPriority.HIGH);
+        create(TaskStatus.OPEN, TaskPriority.LOW);
+        UUID closedLater = create(TaskStatus.OPEN, TaskPriority.LOW);
+        create(TaskStatus.CLOSED, TaskPriority.MEDIUM);
+
+        taskService.updateTask(taskListId, closedLater, new Task(null, null, null, null, TaskStatus.CLOSED, null, null, null, null));
+        taskService.updateTask(taskListId, high, new Task(null, null, null, null, null, TaskPriority.MEDIUM, null, null, null));
+        // Made overdue behind the service's back: the API doesn't accept past due dates
+        jdbcTemplate.update("UPDATE tasks SET due_date = ? WHERE id = ?", LocalDate.now().minusDays(1).atStartOfDay(), high);
+
+        mockMvc.perform(get("/task-lists/{id}/stats", taskListId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.open.HIGH").value(0))
+                .andExpect(jsonPath("$.open.MEDIUM").value(1))
+                .andExpect(jsonPath("$.open.LOW").value(1))
+                .andExpect(jsonPath("$.closed.MEDIUM").value(1))
+                .andExpect(jsonPath("$.closed.LOW").value(1))
+                .andExpect(jsonPath("$.overdue").value(1))
+                .andExpect(jsonPath("$.burndown", hasSize(1)))
+                .andExpect(jsonPath("$.burndown[0].date").value(LocalDate.now().toString()))
+                .andExpect(jsonPath("$.burndown[0].closed").value(2));
+    }
+
+    @Test
+    void unknownListIs404() throws Exception {
+        mockMvc.perform(get("/task-lists/{id}/stats", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    private UUID create(TaskStatus status, TaskPriority priority) {
+        return taskService.createTask(taskListId,
+                new Task(null, "Task", null, null, status, priority, null, null, null)).getId();
+    }
+}
@@ -0,0 +1,158 @@
+package com.danny.tasks.dependencies;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DependencyGraphTests {
+
+    @Test
+    void anEdgeClosingACycleIsRefusedAndLeavesTheGraphAsItWas() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        DependencyGraph graph = new DependencyGraph(0);
+        // Added against the initial order, so the second one reorders
+        assertThat(graph.add(b, c)).isTrue();
+        assertThat(graph.add(a, b)).isTrue();
+
+        assertThat(graph.wouldCreateCycle(c, a)).isTrue();
+        assertThat(graph.wouldCreateCycle(a, a)).isTrue();
+        assertThat(graph.wouldCreateCycle(a, c)).isFalse();
+        assertThat(graph.add(c, a)).isFalse();
+        assertThat(graph.edgeCount()).isEqualTo(2);
+        assertThat(graph.plan(List.of(c, b, a)).order()).containsExactly(a, b, c);
+
+        graph.remove(b, c);
+        assertThat(graph.add(c, a)).isTrue();
+        assertThat(graph.plan(List.of(a, b, c)).order()).containsExactly(c, a, b);
+    }
+
+    @Test
+    void randomGraphsMatchAPlainReachabilityCheck() {
+        Random random = new Random(7);
+        int size = 200;
+        List<UUID> tasks = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            tasks.add(UUID.randomUUID());
+        }
+        DependencyGraph graph = new DependencyGraph(0);
+        Map<UUID, List<UUID>> edges = new HashMap<>();
+
+        for (int i = 0; i < 2000; i++) {
+            UUID blocker = tasks.get(random.nextInt(size));
+            UUID blocked = tasks.get(random.nextInt(size));
+            boolean cycle = blocker.equals(blocked) || reaches(edges, blocked, blocker);
+
+            assertThat(graph.wouldCreateCycle(blocker, blocked)).isEqualTo(cycle);
+            assertThat(graph.add(blocker, blocked)).isEqualTo(!cycle);
+            if (!cycle && !edges.getOrDefault(blocker, List.of()).contains(blocked)) {
+                edges.computeIfAbsent(blocker, task -> new ArrayList<>()).add(blocked);
+            }
+        }
+
+        DependencyGraph.Plan plan = graph.plan(tasks);
+        assertThat(plan.order()).containsExactlyInAnyOrderElementsOf(tasks);
+        Map<UUID, Integer> placeInOrder = new HashMap<>();
+        for (int i = 0; i < plan.order().size(); i++) {
+            placeInOrder.put(plan.order().get(i), i);
+        }
+        edges.forEach((blocker, blocked) -> blocked.forEach(task ->
+                assertThat(placeInOrder.get(blocker)).isLessThan(placeInOrder.get(task))));
+
+        List<UUID> path = plan.criticalPath();
+        for (int i = 1; i < path.size(); i++) {
+            assertThat(edges.get(path.get(i - 1))).contains(path.get(i));
+        }
+        assertThat(path).hasSize(longestChain(edges, tasks));
+
+        DependencyGraph reloaded = DependencyGraph.of(1, edgeRows(edges));
+        assertThat(reloaded.edgeCount()).isEqualTo(graph.edgeCount());
+        assertThat(reloaded.plan(tasks)).isEqualTo(plan);
+    }
+
+    @Test
+    void closedTasksBlockNothingInThePlan() {
+        UUID design = UUID.randomUUID();
+        UUID build = UUID.randomUUID();
+        UUID test = UUID.randomUUID();
+        UUID docs = UUID.randomUUID();
+        DependencyGraph graph = new DependencyGraph(0);
+        graph.add(design, build);
+        graph.add(build, test);
+
+        // design is closed: build is ready, and the longest open chain is build -> test
+        DependencyGraph.Plan plan = graph.plan(List.of(test, docs, build));
+
+        assertThat(plan.order()).containsExactly(docs, build, test);
+        assertThat(plan.criticalPath()).containsExactly(build, test);
+        assertThat(graph.plan(List.of()).criticalPath()).isEmpty();
+    }
+
+    @Test
+    void changesOnlyApplyOnTopOfTheVersionTheyFollow() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        DependencyGraph graph = new DependencyGraph(3);
+
+        assertThat(graph.apply(new DependencyChangedEvent(null, 5, a, b, true))).isFalse();
+        assertThat(graph.apply(new DependencyChangedEvent(null, 4, a, b, true))).isTrue();
+        assertThat(graph.version()).isEqualTo(4);
+        assertThat(graph.blockersOf(b)).containsExactly(a);
+        // Already part of the graph
+        assertThat(graph.apply(new DependencyChangedEvent(null, 4, a, b, true))).isTrue();
+        assertThat(graph.apply(new DependencyChangedEvent(null, 5, a, b, false))).isTrue();
+        assertThat(graph.blockedBy(a)).isEmpty();
+    }
+
+    private static boolean reaches(Map<UUID, List<UUID>> edges, UUID from, UUID to) {
+        List<UUID> stack = new ArrayList<>(List.of(from));
+        List<UUID> seen = new ArrayList<>();
+        while (!stack.isEmpty()) {
+            UUID task = stack.remove(stack.size() - 1);
+            if (task.equals(to)) {
+                return true;
+            }
+            if (!seen.contains(task)) {
+                seen.add(task);
+                stack.addAll(edges.getOrDefault(task, List.of()));
+            }
+        }
+        return false;
+    }
+
+    private static int longestChain(Map<UUID, List<UUID>> edges, List<UUID> tasks) {
+        Map<UUID, Integer> memo = new HashMap<>();
+        int longest = 0;
+        for (UUID task : tasks) {
+            longest = Math.max(longest, chainFrom(edges, task, memo));
+        }
+        return longest;
+    }
+
+    private static int chainFrom(Map<UUID, List<UUID>> edges, UUID task, Map<UUID, Integer> memo) {
+        Integer known = memo.get(task);
+        if (known != null) {
+            return known;
+        }
+        int longest = 1;
+        for (UUID next : edges.getOrDefault(task, List.of())) {
+            longest = Math.max(longest, 1 + chainFrom(edges, next, memo));
+        }
+        memo.put(task, longest);
+        return longest;
+    }
+
+    private static List<Object[]> edgeRows(Map<UUID, List<UUID>> edges) {
+        List<Object[]> rows = new ArrayList<>();
+        edges.forEach((blocker, blocked) -> blocked.forEach(task -> rows.add(new Object[] {blocker, task})));
+        return rows;
+    }
+}
@@ -0,0 +1,44 @@
+package com.danny.tasks.domain.entities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskIdentityTests {
+
+    @Test
+    void aTaskHashedBeforeItIsSavedStillMatchesALoadedCopy() {
+        Task task = new Task(UUID.randomUUID(), "New", null, null, null, null, null, null, null);
+        Set<Task> tasks = new HashSet<>();
+        tasks.add(task);
+
+        Task loaded = new Task(task.getId(), "Changed since", null, null, TaskStatus.CLOSED, null, null, null, null);
+
+        assertThat(task.isNew()).isTrue();
+        assertThat(loaded).isEqualTo(task).hasSameHashCodeAs(task);
+        assertThat(tasks).contains(loaded);
+    }
+
+    @Test
+    void tasksSpreadOverTheBucketsOfAHashSet() {
+        Set<Integer> hashes = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            hashes.add(new Task(UUID.randomUUID(), "Task " + i, null, null, null, null, null, null, null).hashCode());
+        }
+        assertThat(hashes).hasSizeGreaterThan(990);
+    }
+
+    @Test
+    void taskListsFollowTheSameRules() {
+        TaskList list = new TaskList(UUID.randomUUID(), "New", null, null, null, null);
+        TaskList loaded = new TaskList(list.getId(), "Renamed", null, null, null, null);
+
+        assertThat(loaded).isEqualTo(list).hasSameHashCodeAs(list);
+        assertThat(new TaskList()).isNotEqualTo(new TaskList());
+        assertThat(new TaskList(UUID.randomUUID(), "Other", null, null, null, null).hashCode()).isNotEqualTo(list.hashCode());
+    }
+}
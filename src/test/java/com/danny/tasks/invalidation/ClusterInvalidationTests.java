@@ -0,0 +1,144 @@
+package com.danny.tasks.invalidation;
+
+import com.danny.tasks.TasksApplication;
+import com.danny.tasks.cache.TaskListResponseCache;
+import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskList;
+import com.danny.tasks.events.TaskListChangedEvent;
+import com.danny.tasks.services.TaskListService;
+import com.danny.tasks.services.TaskService;
+import com.danny.tasks.tenancy.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two application instances on one database, connected by the in-memory bus.
+ */
+class ClusterInvalidationTests {
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+
+    @BeforeEach
+    void startNodes() {
+        String url = "jdbc:h2:mem:cluster-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        nodeA = start(url);
+        nodeB = start(url);
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    void aWriteOnOneNodeEvictsTheListOnTheOther() {
+        UUID taskListId = nodeA.getBean(TaskListService.class)
+                .createTaskList(new TaskList(null, "Shared", null, null, null, null)).getId();
+        TaskListResponseCache cacheA = nodeA.getBean(TaskListResponseCache.class);
+        TaskListResponseCache cacheB = nodeB.getBean(TaskListResponseCache.class);
+        cache(cacheA, taskListId);
+        cache(cacheB, taskListId);
+
+        nodeA.getBean(TaskService.class).createTask(taskListId,
+                new Task(null, "Written on A", null, null, null, null, null, null, null));
+
+        assertThat(cacheA.get(TenantContext.DEFAULT_TENANT, taskListId)).isEmpty();
+        assertThat(cacheB.get(TenantContext.DEFAULT_TENANT, taskListId)).isEmpty();
+    }
+
+    @Test
+    void closedNodesStopReceivingMessages() {
+        UUID taskListId = nodeA.getBean(TaskListService.class)
+                .createTaskList(new TaskList(null, "Shared", null, null, null, null)).getId();
+        TaskListResponseCache cacheA = nodeA.getBean(TaskListResponseCache.class);
+        cache(cacheA, taskListId);
+
+        nodeA.close();
+        nodeB.getBean(TaskListService.class).updateTaskList(taskListId,
+                new TaskList(null, "Renamed on B", null, null, null, null));
+
+        assertThat(cacheA.get(TenantContext.DEFAULT_TENANT, taskListId)).isPresent();
+    }
+
+    @Test
+    void aBusThatDeliversOnCommitIsCalledInsideTheWritingTransaction() {
+        RecordingBus bus = new RecordingBus(true);
+        ClusterInvalidation invalidation = new ClusterInvalidation(bus, nodeA.getBean(TaskListResponseCache.class));
+        TransactionTemplate transaction = new TransactionTemplate(nodeA.getBean(PlatformTransactionManager.class));
+
+        transaction.executeWithoutResult(status -> {
+            invalidation.onTaskListChanged(new TaskListChangedEvent(UUID.randomUUID()));
+            assertThat(bus.published).hasSize(1);
+        });
+    }
+
+    @Test
+    void anyOtherBusOnlyHearsOfCommittedWrites() {
+        RecordingBus bus = new RecordingBus(false);
+        ClusterInvalidation invalidation = new ClusterInvalidation(bus, nodeA.getBean(TaskListResponseCache.class));
+        TransactionTemplate transaction = new TransactionTemplate(nodeA.getBean(PlatformTransactionManager.class));
+
+        transaction.executeWithoutResult(status -> {
+            invalidation.onTaskListChanged(new TaskListChangedEvent(UUID.randomUUID()));
+            status.setRollbackOnly();
+        });
+        assertThat(bus.published).isEmpty();
+
+        transaction.executeWithoutResult(status -> {
+            invalidation.onTaskListChanged(new TaskListChangedEvent(UUID.randomUUID()));
+            assertThat(bus.published).isEmpty();
+        });
+        assertThat(bus.published).hasSize(1);
+    }
+
+    private static void cache(TaskListResponseCache cache, UUID taskListId) {
+        cache.put(TenantContext.DEFAULT_TENANT, taskListId, cache.version(taskListId),
+                "{}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ConfigurableApplicationContext start(String url) {
+        return new SpringApplicationBuilder(TasksApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=" + url, "tasks.invalidation.bus=in-memory")
+                .run();
+    }
+
+    private static class RecordingBus implements InvalidationBus {
+        private final boolean deliversOnCommit;
+        private final List<InvalidationMessage> published = new ArrayList<>();
+
+        RecordingBus(boolean deliversOnCommit) {
+            this.deliversOnCommit = deliversOnCommit;
+        }
+
+        @Override
+        public void publish(InvalidationMessage message) {
+            published.add(message);
+        }
+
+        @Override
+        public void subscribe(Consumer<InvalidationMessage> subscriber) {
+        }
+
+        @Override
+        public boolean deliversOnCommit() {
+            return deliversOnCommit;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.danny.tasks.json;
+
+import com.danny.tasks.domain.dto.TaskDto;
+import com.danny.tasks.domain.dto.TaskListDto;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The hand-written (de)serializers must be drop-in replacements:
+ * same JSON as Spring's default ObjectMapper, and the same errors for invalid input.
+ */
+class TaskJsonComponentTests {
+
+    private final ObjectMapper defaultMapper = bootDefaults().build();
+    private final ObjectMapper customMapper = customMapper();
+
+    @Test
+    void writesTheSameJsonAsTheDefaultMapper() throws Exception {
+        TaskListDto taskList = taskList();
+
+        assertThat(customMapper.writeValueAsString(taskList))
+                .isEqualTo(defaultMapper.writeValueAsString(taskList));
+    }
+
+    @Test
+    void readsWhatItWrites() throws Exception {
+        TaskListDto taskList = taskList();
+
+        assertThat(customMapper.readValue(customMapper.writeValueAsBytes(taskList), TaskListDto.class))
+                .isEqualTo(taskList);
+    }
+
+    @Test
+    void reportsInvalidEnumValuesWithTheFieldName() {
+        String json = "{\"title\":\"Buy milk\",\"priority\":\"HIG\"}";
+
+        assertThatThrownBy(() -> customMapper.readValue(json, TaskDto.class))
+                .isInstanceOfSatisfying(InvalidFormatException.class, e -> {
+                    assertThat(e.getTargetType()).isEqualTo(TaskPriority.class);
+                    assertThat(e.getPath().get(0).getFieldName()).isEqualTo("priority");
+                });
+    }
+
+    /**
+     * The builder as Spring Boot configures it: ISO-8601 text for dates instead of arrays.
+     */
+    static Jackson2ObjectMapperBuilder bootDefaults() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    static ObjectMapper customMapper() {
+        return bootDefaults()
+                .serializers(new TaskDtoJsonComponent.Serializer(), new TaskListDtoJsonComponent.Serializer())
+                .deserializerByType(TaskDto.class, new TaskDtoJsonComponent.Deserializer())
+                .deserializerByType(TaskListDto.class, new TaskListDtoJsonComponent.Deserializer())
+                .build();
+    }
+
+    private static TaskListDto taskList() {
+        List<TaskDto> tasks = Arrays.asList(
+                new TaskDto(UUID.randomUUID(), "Buy milk", "2 litres",
+                        LocalDateTime.of(2025, 3, 7, 9, 5, 0), TaskPriority.HIGH, TaskStatus.OPEN),
+                new TaskDto(UUID.randomUUID(), "Call \"Bob\"", null,
+                        LocalDateTime.of(2025, 12, 31, 23, 59, 58, 120_000_000), TaskPriority.LOW, TaskStatus.CLOSED),
+                new TaskDto(UUID.randomUUID(), "No due date", "ünïcødé", null, null, null));
+        return new TaskListDto(UUID.randomUUID(), "Groceries", null, 3, 1.0 / 3, tasks);
+    }
+}
@@ -0,0 +1,138 @@
+package com.danny.tasks.overdue;
+
+import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskList;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.services.TaskListService;
+import com.danny.tasks.services.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "tasks.overdue.enabled=true")
+class OverdueEngineTests {
+
+    // The wheel only moves forward, so each test starts a day after everything the previous ones advanced to
+    private static LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @TestConfiguration
+    static class CapturingNotifierConfig {
+
+        @Bean
+        CapturingNotifier capturingNotifier() {
+            return new CapturingNotifier();
+        }
+    }
+
+    static class CapturingNotifier implements OverdueNotifier {
+
+        final List<OverdueTask> notified = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void notify(List<OverdueTask> tasks) {
+            notified.addAll(tasks);
+        }
+    }
+
+    @Autowired
+    private OverdueEngine engine;
+
+    @Autowired
+    private CapturingNotifier notifier;
+
+    @Autowired
+    private TaskListService taskListService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID taskListId;
+
+    @BeforeEach
+    void setUp() {
+        // Time is moved by the tests, not by the engine's own thread (stop() waits for the startup load too)
+        engine.stop();
+        start = start.plusDays(1);
+        taskListId = taskListService.createTaskList(new TaskList(null, "Deadlines", null, null, null, null)).getId();
+    }
+
+    @Test
+    void anOpenTaskIsReportedOnceWhenItsDueDatePasses() {
+        Task task = createTask("File taxes", start.plusHours(1));
+
+        engine.advance(start.plusMinutes(59));
+        assertThat(notifiedFor(task)).isEmpty();
+
+        engine.advance(start.plusHours(1).plusSeconds(1));
+        engine.advance(start.plusHours(2));
+
+        assertThat(notifiedFor(task)).singleElement().satisfies(overdue -> {
+            assertThat(overdue.title()).isEqualTo("File taxes");
+            assertThat(overdue.dueDate()).isEqualTo(start.plusHours(1));
+            assertThat(overdue.taskListId()).isEqualTo(taskListId);
+            assertThat(overdue.tenantId()).isEqualTo("default");
+        });
+    }
+
+    @Test
+    void changedDueDatesAndClosedTasksAreFollowed() {
+        Task postponed = createTask("Postponed", start.plusHours(1));
+        Task closed = createTask("Closed", start.plusHours(1));
+
+        taskService.updateTask(taskListId, postponed.getId(), new Task(null, null, null, start.plusHours(3), null, null, null, null, null));
+        taskService.updateTask(taskListId, closed.getId(), new Task(null, null, null, null, TaskStatus.CLOSED, null, null, null, null));
+
+        engine.advance(start.plusHours(2));
+        assertThat(notifiedFor(postponed)).isEmpty();
+
+        engine.advance(start.plusHours(4));
+        assertThat(notifiedFor(postponed)).singleElement().extracting(OverdueTask::dueDate).isEqualTo(start.plusHours(3));
+        assertThat(notifiedFor(closed)).isEmpty();
+    }
+
+    @Test
+    void aRestartPicksUpDueDatesFromTheDatabaseWithoutReportingTwice() {
+        Task reported = createTask("Reported before the restart", start.plusHours(1));
+        engine.advance(start.plusHours(2));
+        // Written behind the service's back, as if by an instance this one never heard from
+        UUID unseen = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO tasks (id, title, due_date, status, priority, task_list_id, created, updated, sort_rank, tenant_id) "
+                        + "VALUES (?, 'Unseen', ?, 0, 1, ?, ?, ?, 'zz', 'default')",
+                unseen, start.plusHours(1).plusMinutes(30), taskListId, start, start);
+
+        engine.load(start.plusHours(2));
+        engine.advance(start.plusHours(3));
+
+        assertThat(notifiedFor(reported.getId())).hasSize(1);
+        assertThat(notifiedFor(unseen)).singleElement().extracting(OverdueTask::title).isEqualTo("Unseen");
+    }
+
+    private Task createTask(String title, LocalDateTime dueDate) {
+        Task task = taskService.createTask(taskListId, new Task(null, title, null, dueDate, null, null, null, null, null));
+        assertThat(engine.pendingCount()).isPositive();
+        return task;
+    }
+
+    private List<OverdueTask> notifiedFor(Task task) {
+        return notifiedFor(task.getId());
+    }
+
+    private List<OverdueTask> notifiedFor(UUID taskId) {
+        return notifier.notified.stream().filter(overdue -> overdue.taskId().equals(taskId)).toList();
+    }
+}
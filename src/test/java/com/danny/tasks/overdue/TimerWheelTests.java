@@ -0,0 +1,82 @@
+package com.danny.tasks.overdue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimerWheelTests {
+
+    @Test
+    void timersFireOnceTheirDeadlineIsReached() {
+        TimerWheel<String> wheel = new TimerWheel<>(10, 0);
+        wheel.schedule("a", 25);
+        wheel.schedule("b", 30);
+
+        assertThat(advance(wheel, 29)).isEmpty();
+        // Rounded up to the next tick
+        assertThat(advance(wheel, 30)).containsExactlyInAnyOrder("a", "b");
+        assertThat(advance(wheel, 1000)).isEmpty();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void timersFarAheadCascadeDownAndFireInDeadlineOrder() {
+        TimerWheel<Long> wheel = new TimerWheel<>(1, 0);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            // Spread over all four levels
+            long deadline = 1 + (long) (random.nextDouble() * (1L << (8 * (1 + i % 4))));
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        long now = 0;
+        while (wheel.size() > 0) {
+            now += 1 + random.nextInt(100_000);
+            long reached = now;
+            wheel.advance(now, timer -> {
+                assertThat(timer.deadline()).isLessThanOrEqualTo(reached);
+                fired.add(timer.value());
+            });
+        }
+
+        assertThat(fired).hasSize(deadlines.size()).isSorted();
+    }
+
+    @Test
+    void cancelledTimersDoNotFire() {
+        TimerWheel<String> wheel = new TimerWheel<>(1, 0);
+        TimerWheel.Timer<String> near = wheel.schedule("near", 5);
+        TimerWheel.Timer<String> far = wheel.schedule("far", 100_000);
+        wheel.schedule("kept", 100_000);
+
+        assertThat(wheel.cancel(near)).isTrue();
+        assertThat(wheel.cancel(far)).isTrue();
+        assertThat(wheel.cancel(far)).isFalse();
+
+        assertThat(advance(wheel, 200_000)).containsExactly("kept");
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextTickAndFarFutureOnesWait() {
+        TimerWheel<String> wheel = new TimerWheel<>(1, 1_000);
+        wheel.schedule("past", 10);
+        wheel.schedule("far future", Long.MAX_VALUE / 2);
+
+        assertThat(advance(wheel, 1_001)).containsExactly("past");
+        assertThat(advance(wheel, 1L << 33)).isEmpty();
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    private static <T> List<T> advance(TimerWheel<T> wheel, long now) {
+        List<T> fired = new ArrayList<>();
+        wheel.advance(now, timer -> fired.add(timer.value()));
+        return fired;
+    }
+}
@@ -0,0 +1,92 @@
+package com.danny.tasks.ranking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class RanksTests {
+
+    @Test
+    void betweenIsStrictlyBetweenItsBounds() {
+        assertThat(Ranks.between("a", "b")).isEqualTo("ai");
+        assertThat(Ranks.between("a", "ai")).isEqualTo("a9");
+        assertThat(Ranks.between(null, "01")).isGreaterThan("").isLessThan("01");
+        assertThat(Ranks.between("z", null)).isGreaterThan("z");
+        assertThatIllegalArgumentException().isThrownBy(() -> Ranks.between("b", "a"));
+    }
+
+    @Test
+    void randomInsertsKeepOrderAndNeverEndInZero() {
+        List<String> ranks = new ArrayList<>(List.of(Ranks.after(null)));
+        Random random = new Random(42);
+        for (int i = 0; i < 5_000; i++) {
+            int position = random.nextInt(ranks.size() + 1);
+            String lower = position == 0 ? null : ranks.get(position - 1);
+            String upper = position == ranks.size() ? null : ranks.get(position);
+            String rank = Ranks.between(lower, upper);
+            assertThat(rank).doesNotEndWith("0");
+            ranks.add(position, rank);
+        }
+        assertThat(ranks).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void appendsStayShort() {
+        String rank = null;
+        for (int i = 0; i < 1_000; i++) {
+            String next = Ranks.after(rank);
+            assertThat(rank == null || next.compareTo(rank) > 0).isTrue();
+            rank = next;
+        }
+        assertThat(rank).hasSizeLessThanOrEqualTo(4);
+
+        List<String> rebalanced = Ranks.evenlySpaced(10_000);
+        assertThat(rebalanced).isSorted().doesNotHaveDuplicates().allMatch(r -> r.length() <= 4);
+        assertThat(Ranks.after(rebalanced.get(rebalanced.size() - 1))).hasSizeLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void appendsKeepTheirWidthUntilItIsUsedUp() {
+        String rank = null;
+        for (int i = 0; i < 100_000; i++) {
+            String next = Ranks.after(rank);
+            assertThat(rank == null || next.compareTo(rank) > 0).isTrue();
+            assertThat(next).doesNotEndWith("0");
+            rank = next;
+        }
+        assertThat(rank).hasSizeLessThanOrEqualTo(8);
+
+        // The upper half a rebalance leaves free takes many thousand appends at the same width
+        List<String> rebalanced = Ranks.evenlySpaced(1_000);
+        rank = rebalanced.get(rebalanced.size() - 1);
+        int width = rank.length();
+        for (int i = 0; i < 20_000; i++) {
+            String next = Ranks.after(rank);
+            assertThat(next.compareTo(rank)).isPositive();
+            rank = next;
+        }
+        assertThat(rank).hasSize(width);
+    }
+
+    @Test
+    void aBatchIsSpacedEvenlyAfterTheLastRank() {
+        for (String last : new String[]{null, "0h", "n"}) {
+            List<String> batch = Ranks.evenlySpacedAfter(last, 5_000);
+            assertThat(batch).hasSize(5_000).isSorted().doesNotHaveDuplicates()
+                    .allMatch(r -> r.length() <= 4 && !r.endsWith("0"));
+            assertThat(last == null || batch.get(0).compareTo(last) > 0).isTrue();
+            // Still room for single appends and moves between them
+            assertThat(Ranks.between(batch.get(0), batch.get(1))).hasSizeLessThanOrEqualTo(4);
+            assertThat(Ranks.after(batch.get(batch.size() - 1))).hasSizeLessThanOrEqualTo(4);
+        }
+
+        // No room left at this width: the batch goes one level deeper, as few levels as it needs
+        List<String> batch = Ranks.evenlySpacedAfter("zzz", 5_000);
+        assertThat(batch).isSorted().doesNotHaveDuplicates().allMatch(r -> r.startsWith("zzz") && r.length() <= 7);
+    }
+}
@@ -0,0 +1,103 @@
+package com.danny.tasks.ranking;
+
+import com.danny.tasks.domain.dto.TaskDto;
+import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskList;
+import com.danny.tasks.services.TaskListService;
+import com.danny.tasks.services.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskMoveTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskListService taskListService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRankRebalancer rankRebalancer;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UUID taskListId;
+    private final List<UUID> taskIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        taskListId = taskListService.createTaskList(new TaskList(null, "Ordered", null, null, null, null)).getId();
+        for (String title : List.of("A", "B", "C", "D")) {
+            taskIds.add(taskService.createTask(taskListId,
+                    new Task(null, title, null, null, null, null, null, null, null)).getId());
+        }
+    }
+
+    @Test
+    void newTasksAreAppendedInOrder() {
+        assertThat(titles()).containsExactly("A", "B", "C", "D");
+    }
+
+    @Test
+    void movesATaskAfterOrBeforeAnother() throws Exception {
+        move(taskIds.get(0), "{\"after\":\"" + taskIds.get(2) + "\"}");
+        assertThat(titles()).containsExactly("B", "C", "A", "D");
+
+        move(taskIds.get(3), "{\"before\":\"" + taskIds.get(1) + "\"}");
+        assertThat(titles()).containsExactly("D", "B", "C", "A");
+    }
+
+    @Test
+    void rebalancingKeepsTheOrder() {
+        // Keep moving D right after A: every move halves the same gap, so the ranks keep growing
+        for (int i = 0; i < 30; i++) {
+            UUID moving = i % 2 == 0 ? taskIds.get(3) : taskIds.get(2);
+            taskService.moveTask(taskListId, moving, taskIds.get(0), null);
+        }
+        List<String> before = titles();
+
+        transactionTemplate.executeWithoutResult(status -> rankRebalancer.rebalance(taskListId));
+
+        assertThat(titles()).isEqualTo(before);
+        assertThat(taskService.listTask(taskListId)).allMatch(task -> task.getSortRank().length() <= 2);
+    }
+
+    @Test
+    void needsExactlyOneAnchor() throws Exception {
+        mockMvc.perform(post("/task-list/{list}/tasks/{task}/move", taskListId, taskIds.get(0))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void move(UUID taskId, String body) throws Exception {
+        mockMvc.perform(post("/task-list/{list}/tasks/{task}/move", taskListId, taskId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk());
+    }
+
+    private List<String> titles() {
+        return taskService.listTaskDto(taskListId, null).stream().map(TaskDto::title).toList();
+    }
+}
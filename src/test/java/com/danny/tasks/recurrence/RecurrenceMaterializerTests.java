@@ -0,0 +1,185 @@
+package com.danny.tasks.recurrence;
+
+import com.danny.tasks.domain.dto.TaskRecurrenceDto;
+import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskList;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.services.TaskListService;
+import com.danny.tasks.services.TaskListStatsService;
+import com.danny.tasks.services.TaskRecurrenceService;
+import com.danny.tasks.services.TaskService;
+import com.danny.tasks.tenancy.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RecurrenceMaterializerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RecurrenceMaterializer materializer;
+
+    @Autowired
+    private TaskRecurrenceService recurrenceService;
+
+    @Autowired
+    private TaskListService taskListService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskListStatsService statsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID taskListId;
+
+    @BeforeEach
+    void setUp() {
+        taskListId = taskListService.createTaskList(new TaskList(null, "Routines", null, null, null, null)).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM scheduler_leases");
+    }
+
+    @Test
+    void occurrencesWithinTheHorizonBecomeTasksOnce() {
+        taskService.createTask(taskListId, new Task(null, "Existing", null, null, null, null, null, null, null));
+        TaskRecurrenceDto daily = recurrenceService.createRecurrence(taskListId,
+                new TaskRecurrenceDto(null, "Water the plants", null, TaskPriority.HIGH, "@daily", null, null));
+        LocalDateTime now = LocalDateTime.now();
+
+        materializer.materialize(now);
+        materializer.materialize(now);
+
+        List<Task> tasks = taskService.listTask(taskListId);
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        // Appended after the existing task, in due date order
+        assertThat(tasks).extracting(Task::getTitle).containsExactly("Existing",
+                "Water the plants", "Water the plants", "Water the plants", "Water the plants",
+                "Water the plants", "Water the plants", "Water the plants");
+        assertThat(tasks.subList(1, tasks.size())).extracting(Task::getDueDate).containsExactly(
+                tomorrow.atStartOfDay(), tomorrow.plusDays(1).atStartOfDay(), tomorrow.plusDays(2).atStartOfDay(),
+                tomorrow.plusDays(3).atStartOfDay(), tomorrow.plusDays(4).atStartOfDay(), tomorrow.plusDays(5).atStartOfDay(),
+                tomorrow.plusDays(6).atStartOfDay());
+        assertThat(tasks).extracting(Task::getPriority).containsOnly(TaskPriority.MEDIUM, TaskPriority.HIGH);
+
+        assertThat(statsService.getStats(taskListId, 1)).hasValueSatisfying(stats -> {
+            assertThat(stats.open().get(TaskPriority.HIGH)).isEqualTo(7);
+            assertThat(stats.open().get(TaskPriority.MEDIUM)).isEqualTo(1);
+        });
+        assertThat(recurrenceService.listRecurrences(taskListId)).singleElement()
+                .extracting(TaskRecurrenceDto::nextDueDate)
+                .isEqualTo(tomorrow.plusDays(7).atStartOfDay());
+        assertThat(daily.nextDueDate()).isEqualTo(tomorrow.atStartOfDay());
+    }
+
+    @Test
+    void aRuleStopsAtItsEnd() {
+        LocalDateTime start = LocalDate.now().plusDays(1).atTime(LocalTime.NOON);
+        recurrenceService.createRecurrence(taskListId,
+                new TaskRecurrenceDto(null, "Take medicine", null, null, "0 0 12 * * *", start, start.plusDays(2)));
+
+        materializer.materialize(LocalDateTime.now());
+
+        assertThat(taskService.listTask(taskListId)).extracting(Task::getDueDate)
+                .containsExactly(start, start.plusDays(1), start.plusDays(2));
+        assertThat(recurrenceService.listRecurrences(taskListId)).singleElement()
+                .extracting(TaskRecurrenceDto::nextDueDate)
+                .isNull();
+    }
+
+    @Test
+    void thousandsOfOccurrencesForOneListGetShortRanksInDueDateOrder() {
+        taskService.createTask(taskListId, new Task(null, "Existing", null, null, null, null, null, null, null));
+        for (int second = 0; second < 3; second++) {
+            recurrenceService.createRecurrence(taskListId,
+                    new TaskRecurrenceDto(null, "Poll " + second, null, null, second * 20 + " * * * * *", null, null));
+        }
+
+        // 3 rules x 1000 occurrences, all in the same batch
+        assertThat(materializer.materialize(LocalDateTime.now()).tasks()).isEqualTo(3000);
+
+        List<Task> tasks = taskService.listTask(taskListId);
+        assertThat(tasks).hasSize(3001);
+        assertThat(tasks.getFirst().getTitle()).isEqualTo("Existing");
+        assertThat(tasks).extracting(Task::getSortRank)
+                .isSorted()
+                .doesNotHaveDuplicates()
+                .allSatisfy(rank -> assertThat(rank).hasSizeLessThanOrEqualTo(8));
+        for (int second = 0; second < 3; second++) {
+            String title = "Poll " + second;
+            assertThat(tasks.stream().filter(task -> task.getTitle().equals(title)).map(Task::getDueDate).toList())
+                    .hasSize(1000)
+                    .isSorted();
+        }
+    }
+
+    @Test
+    void partitionsLeasedToAnotherInstanceAreLeftAlone() {
+        recurrenceService.createRecurrence(taskListId,
+                new TaskRecurrenceDto(null, "Standup notes", null, null, "@daily", null, null));
+        LocalDateTime now = LocalDateTime.now();
+        for (int partition = 0; partition < 16; partition++) {
+            jdbcTemplate.update("INSERT INTO scheduler_leases (name, owner, expires_at) VALUES (?, 'other-instance', ?)",
+                    "recurrence-" + partition + "-of-16", now.plusMinutes(5));
+        }
+
+        assertThat(materializer.materialize(now).tasks()).isZero();
+        assertThat(taskService.listTask(taskListId)).isEmpty();
+
+        // The other instance went away: its leases expire and this one takes over
+        jdbcTemplate.update("UPDATE scheduler_leases SET expires_at = ?", now.minusSeconds(1));
+        materializer.materialize(now);
+        assertThat(taskService.listTask(taskListId)).hasSize(7);
+    }
+
+    @Test
+    void tasksBelongToTheTenantOfTheirRule() {
+        UUID otherListId = TenantContext.callAs("team-a", () -> {
+            UUID id = taskListService.createTaskList(new TaskList(null, "Team A routines", null, null, null, null)).getId();
+            recurrenceService.createRecurrence(id, new TaskRecurrenceDto(null, "Team A review", null, null, "@weekly", null, null));
+            return id;
+        });
+
+        materializer.materialize(LocalDateTime.now());
+
+        assertThat(TenantContext.callAs("team-a", () -> taskService.listTask(otherListId)))
+                .singleElement()
+                .satisfies(task -> assertThat(task.getStatus()).isEqualTo(TaskStatus.OPEN));
+        assertThat(taskService.listTask(otherListId)).isEmpty();
+    }
+
+    @Test
+    void invalidRulesAreRejected() throws Exception {
+        mockMvc.perform(post("/task-list/{id}/recurrences", taskListId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Broken\", \"rule\": \"every tuesday\"}"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,25 @@
+package com.danny.tasks.services;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+
+/**
+ * Runs the contract on the memory storage engine, with the "memory" profile: no DataSource, JPA or Flyway at all.
+ */
+@SpringBootTest
+@ActiveProfiles("memory")
+class InMemoryTaskServiceContractTests extends TaskServiceContractTests {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void storeDirectory(DynamicPropertyRegistry registry) {
+        registry.add("tasks.storage.memory.directory", () -> directory.toString());
+    }
+}
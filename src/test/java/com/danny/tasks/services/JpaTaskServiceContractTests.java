@@ -0,0 +1,7 @@
+package com.danny.tasks.services;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class JpaTaskServiceContractTests extends TaskServiceContractTests {
+}
@@ -0,0 +1,210 @@
+package com.danny.tasks.services;
+
+import com.danny.tasks.domain.dto.TaskDto;
+import com.danny.tasks.domain.dto.TaskListDto;
+import com.danny.tasks.domain.dto.TaskListField;
+import com.danny.tasks.domain.dto.TaskListStatsDto;
+import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskList;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.exceptions.ResourceNotFoundException;
+import com.danny.tasks.tenancy.TenantContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * What every storage engine has to do behind TaskService, TaskListService and TaskListStatsService.
+ * Each engine runs it through a subclass (JpaTaskServiceContractTests, InMemoryTaskServiceContractTests).
+ */
+abstract class TaskServiceContractTests {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskListService taskListService;
+
+    @Autowired
+    private TaskListStatsService statsService;
+
+    private UUID taskListId;
+
+    @BeforeEach
+    void setUp() {
+        taskListId = taskListService.createTaskList(new TaskList(null, "Chores", "Around the house", null, null, null)).getId();
+    }
+
+    @Test
+    void createdTaskListCanBeReadBack() {
+        TaskList taskList = taskListService.getTaskList(taskListId).orElseThrow();
+
+        assertThat(taskList.getTitle()).isEqualTo("Chores");
+        assertThat(taskList.getDescription()).isEqualTo("Around the house");
+        assertThat(taskList.getCreated()).isNotNull();
+        assertThat(taskService.listTask(taskListId)).isEmpty();
+        assertThat(taskListService.listTaskList()).extracting(TaskList::getId).contains(taskListId);
+    }
+
+    @Test
+    void taskListsNeedATitleAndNoId() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> taskListService.createTaskList(new TaskList(null, " ", null, null, null, null)));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> taskListService.createTaskList(new TaskList(UUID.randomUUID(), "Chores", null, null, null, null)));
+    }
+
+    @Test
+    void newTasksGetDefaultsAndGoToTheEnd() {
+        Task first = taskService.createTask(taskListId, task("First", null));
+        Task second = taskService.createTask(taskListId, task("Second", TaskStatus.CLOSED));
+
+        assertThat(first.getId()).isNotNull();
+        assertThat(first.getStatus()).isEqualTo(TaskStatus.OPEN);
+        assertThat(first.getPriority()).isEqualTo(TaskPriority.MEDIUM);
+        assertThat(taskService.listTask(taskListId)).extracting(Task::getId).containsExactly(first.getId(), second.getId());
+        assertThat(taskListService.getTaskListSummary(taskListId, EnumSet.of(TaskListField.COUNT), false))
+                .map(TaskListDto::count).contains(2);
+    }
+
+    @Test
+    void tasksNeedATitleAndAnExistingList() {
+        assertThatIllegalArgumentException().isThrownBy(() -> taskService.createTask(taskListId, task("", null)));
+        assertThatIllegalArgumentException().isThrownBy(() -> taskService.createTask(UUID.randomUUID(), task("Lost", null)));
+    }
+
+    @Test
+    void tasksCanBeFilteredByStatus() {
+        Task open = taskService.createTask(taskListId, task("Open", TaskStatus.OPEN));
+        Task closed = taskService.createTask(taskListId, task("Closed", TaskStatus.CLOSED));
+
+        assertThat(taskService.listTask(taskListId, TaskStatus.OPEN)).extracting(Task::getId).containsExactly(open.getId());
+        assertThat(taskService.listTaskDto(taskListId, TaskStatus.CLOSED)).extracting(TaskDto::id).containsExactly(closed.getId());
+        assertThat(taskService.listTaskDto(taskListId, null)).hasSize(2);
+        assertThat(taskService.getTaskDto(taskListId, open.getId())).map(TaskDto::title).contains("Open");
+        assertThat(taskService.getTask(UUID.randomUUID(), open.getId())).isEmpty();
+    }
+
+    @Test
+    void updateOnlyChangesTheGivenFields() {
+        Task created = taskService.createTask(taskListId, task("Title", null));
+        LocalDateTime dueDate = LocalDateTime.now().plusDays(3).withNano(0);
+
+        Task changes = new Task(null, null, "Now with a description", dueDate, TaskStatus.CLOSED, TaskPriority.HIGH, null, null, null);
+        taskService.updateTask(taskListId, created.getId(), changes);
+
+        Task updated = taskService.getTask(taskListId, created.getId()).orElseThrow();
+        assertThat(updated.getTitle()).isEqualTo("Title");
+        assertThat(updated.getDescription()).isEqualTo("Now with a description");
+        assertThat(updated.getDueDate()).isEqualTo(dueDate);
+        assertThat(updated.getStatus()).isEqualTo(TaskStatus.CLOSED);
+        assertThat(updated.getPriority()).isEqualTo(TaskPriority.HIGH);
+    }
+
+    @Test
+    void updatesAreValidated() {
+        Task created = taskService.createTask(taskListId, task("Title", null));
+        Task pastDueDate = new Task(null, null, null, LocalDateTime.now().minusDays(1), null, null, null, null, null);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> taskService.updateTask(taskListId, created.getId(), pastDueDate));
+        assertThatThrownBy(() -> taskService.updateTask(taskListId, UUID.randomUUID(), task("Title", null)))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void movedTasksChangePlace() {
+        Task a = taskService.createTask(taskListId, task("A", null));
+        Task b = taskService.createTask(taskListId, task("B", null));
+        Task c = taskService.createTask(taskListId, task("C", null));
+
+        taskService.moveTask(taskListId, c.getId(), null, a.getId());
+        assertThat(taskService.listTask(taskListId)).extracting(Task::getTitle).containsExactly("C", "A", "B");
+
+        taskService.moveTask(taskListId, c.getId(), b.getId(), null);
+        assertThat(taskService.listTask(taskListId)).extracting(Task::getTitle).containsExactly("A", "B", "C");
+
+        assertThatIllegalArgumentException().isThrownBy(() -> taskService.moveTask(taskListId, a.getId(), b.getId(), c.getId()));
+        assertThatIllegalArgumentException().isThrownBy(() -> taskService.moveTask(taskListId, a.getId(), a.getId(), null));
+        assertThatThrownBy(() -> taskService.moveTask(taskListId, a.getId(), UUID.randomUUID(), null))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void summariesOnlyFillTheRequestedFields() {
+        taskService.createTask(taskListId, task("Open", TaskStatus.OPEN));
+        taskService.createTask(taskListId, task("Closed", TaskStatus.CLOSED));
+
+        TaskListDto summary = taskListService.getTaskListSummary(taskListId,
+                EnumSet.of(TaskListField.ID, TaskListField.COUNT, TaskListField.PROGRESS), false).orElseThrow();
+        assertThat(summary.title()).isNull();
+        assertThat(summary.count()).isEqualTo(2);
+        assertThat(summary.progress()).isEqualTo(0.5);
+        assertThat(summary.tasks()).isNull();
+
+        TaskListDto withTasks = taskListService.getTaskListSummary(taskListId, EnumSet.of(TaskListField.TITLE), true).orElseThrow();
+        assertThat(withTasks.title()).isEqualTo("Chores");
+        assertThat(withTasks.count()).isNull();
+        assertThat(withTasks.tasks()).extracting(TaskDto::title).containsExactly("Open", "Closed");
+
+        assertThat(taskListService.listTaskListSummaries(EnumSet.of(TaskListField.ID), false))
+                .extracting(TaskListDto::id).contains(taskListId);
+        assertThat(taskListService.getTaskListSummary(UUID.randomUUID(), EnumSet.of(TaskListField.ID), false)).isEmpty();
+    }
+
+    @Test
+    void taskListsCanBeUpdatedAndDeleted() {
+        taskService.createTask(taskListId, task("Doomed", null));
+
+        TaskList updated = taskListService.updateTaskList(taskListId, new TaskList(null, "Renamed", null, null, null, null));
+        assertThat(updated.getTitle()).isEqualTo("Renamed");
+        assertThat(updated.getDescription()).isEqualTo("Around the house");
+
+        taskListService.deleteTaskList(taskListId);
+        assertThat(taskListService.getTaskList(taskListId)).isEmpty();
+        assertThat(taskService.listTask(taskListId)).isEmpty();
+        assertThatThrownBy(() -> taskListService.deleteTaskList(taskListId)).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> taskListService.updateTaskList(taskListId, new TaskList(null, "Again", null, null, null, null)))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void otherTenantsSeeNothing() {
+        Task task = taskService.createTask(taskListId, task("Mine", null));
+
+        TenantContext.runAs("someone-else", () -> {
+            assertThat(taskListService.getTaskList(taskListId)).isEmpty();
+            assertThat(taskListService.listTaskList()).extracting(TaskList::getId).doesNotContain(taskListId);
+            assertThat(taskService.getTask(taskListId, task.getId())).isEmpty();
+            assertThat(taskService.listTaskDto(taskListId, null)).isEmpty();
+            assertThatIllegalArgumentException().isThrownBy(() -> taskService.createTask(taskListId, task("Theirs", null)));
+        });
+    }
+
+    @Test
+    void statisticsFollowTheTasks() {
+        Task task = taskService.createTask(taskListId, task("Ship it", null));
+        taskService.createTask(taskListId, new Task(null, "Urgent", null, null, TaskStatus.OPEN, TaskPriority.HIGH, null, null, null));
+        taskService.updateTask(taskListId, task.getId(), task(null, TaskStatus.CLOSED));
+
+        TaskListStatsDto stats = statsService.getStats(taskListId, 7).orElseThrow();
+        assertThat(stats.open()).containsEntry(TaskPriority.HIGH, 1L).containsEntry(TaskPriority.MEDIUM, 0L);
+        assertThat(stats.closed()).containsEntry(TaskPriority.MEDIUM, 1L);
+        assertThat(stats.overdue()).isZero();
+        assertThat(stats.burndown()).containsExactly(new TaskListStatsDto.DailyClosed(LocalDate.now(), 1));
+        assertThat(statsService.getStats(UUID.randomUUID(), 7)).isEmpty();
+    }
+
+    private static Task task(String title, TaskStatus status) {
+        return new Task(null, title, null, null, status, null, null, null, null);
+    }
+}
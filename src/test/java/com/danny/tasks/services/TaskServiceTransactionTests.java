@@ -0,0 +1,82 @@
+package com.danny.tasks.services;
+
+import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskList;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the transaction boundaries of the service layer using Hibernate's statistics:
+ * one transaction per service call, no flush for reads, a single flush for writes.
+ */
+@SpringBootTest
+class TaskServiceTransactionTests {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskListService taskListService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UUID taskListId;
+    private UUID taskId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        TaskList taskList = taskListService.createTaskList(new TaskList(null, "Chores", null, null, null, null));
+        taskListId = taskList.getId();
+        taskId = taskService.createTask(taskListId, task("Take out the trash", null)).getId();
+
+        statistics.clear();
+    }
+
+    @Test
+    void readsRunInOneTransactionWithoutFlushing() {
+        taskService.listTask(taskListId);
+        taskService.getTask(taskListId, taskId);
+        taskListService.getTaskList(taskListId);
+
+        assertThat(statistics.getTransactionCount()).isEqualTo(3);
+        assertThat(statistics.getFlushCount()).isZero();
+    }
+
+    @Test
+    void updateTaskRunsInOneTransactionWithOneFlush() {
+        taskService.updateTask(taskListId, taskId, task(null, TaskStatus.CLOSED));
+
+        assertThat(statistics.getTransactionCount()).isEqualTo(1);
+        assertThat(statistics.getFlushCount()).isEqualTo(1);
+        // The task, and its list's task_list_stats row
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(2);
+    }
+
+    @Test
+    void updateTaskListRunsInOneTransactionWithOneFlush() {
+        taskListService.updateTaskList(taskListId, new TaskList(null, "Weekend chores", null, null, null, null));
+
+        assertThat(statistics.getTransactionCount()).isEqualTo(1);
+        assertThat(statistics.getFlushCount()).isEqualTo(1);
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(1);
+    }
+
+    private static Task task(String title, TaskStatus status) {
+        return new Task(null, title, null, null, status, TaskPriority.HIGH, null, null, null);
+    }
+}
@@ -0,0 +1,206 @@
+package com.danny.tasks.storage.memory;
+
+import com.danny.tasks.domain.dto.TaskListStatsDto;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.ranking.RankingProperties;
+import com.danny.tasks.storage.StorageProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryTaskStoreTests {
+
+    @TempDir
+    Path directory;
+
+    private InMemoryTaskStore store;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void changesSurviveARestart() throws IOException {
+        store = open(DataSize.ofMegabytes(64));
+        UUID listId = populate();
+
+        store = reopen(DataSize.ofMegabytes(64));
+
+        assertState(listId);
+    }
+
+    @Test
+    void changesAfterASnapshotAreReplayedOnTopOfIt() throws IOException {
+        store = open(DataSize.ofMegabytes(64));
+        UUID listId = populate();
+        store.snapshot();
+        // Just the header
+        assertThat(Files.size(directory.resolve(StoreLog.LOG_FILE))).isEqualTo(StoreLog.FILE_HEADER_BYTES);
+        UUID extra = store.createTask(listId, "After the snapshot", null, null, TaskStatus.OPEN, TaskPriority.LOW, LocalDateTime.now())
+                .orElseThrow().id();
+
+        store = reopen(DataSize.ofMegabytes(64));
+
+        assertThat(store.task(listId, extra)).map(StoredTask::title).contains("After the snapshot");
+        store.deleteTask(listId, extra);
+        assertState(listId);
+    }
+
+    @Test
+    void aLargeLogTriggersASnapshot() throws IOException {
+        store = open(DataSize.ofBytes(1));
+        UUID listId = populate();
+
+        assertThat(directory.resolve(StoreLog.SNAPSHOT_FILE)).exists();
+        store = reopen(DataSize.ofBytes(1));
+
+        assertState(listId);
+    }
+
+    @Test
+    void aTornRecordAtTheEndOfTheLogIsDropped() throws IOException {
+        store = open(DataSize.ofMegabytes(64));
+        UUID listId = populate();
+        store.close();
+        // A crash in the middle of an append: a length and checksum, but only part of the payload
+        Files.write(directory.resolve(StoreLog.LOG_FILE), new byte[] {0, 0, 0, 100, 1, 2, 3, 4, 5, 6}, StandardOpenOption.APPEND);
+
+        store = open(DataSize.ofMegabytes(64));
+        assertState(listId);
+        UUID extra = store.createTask(listId, "After the crash", null, null, TaskStatus.OPEN, TaskPriority.LOW, LocalDateTime.now())
+                .orElseThrow().id();
+
+        store = reopen(DataSize.ofMegabytes(64));
+        assertThat(store.task(listId, extra)).isPresent();
+    }
+
+    @Test
+    void aCrashBeforeTheLogIsEmptiedDoesNotReplayItOverTheNewSnapshot() throws IOException {
+        store = open(DataSize.ofMegabytes(64));
+        UUID listId = populate();
+        UUID doomedId = store.createList("Doomed", null, LocalDateTime.now()).id();
+        StoredTask doomedTask = store.createTask(doomedId, "Doomed task", null, null, TaskStatus.OPEN, TaskPriority.LOW,
+                LocalDateTime.now()).orElseThrow();
+        store.snapshot();
+        // Logged after the first snapshot: changes to a list that is then deleted
+        store.updateTask(doomedId, doomedTask.id(), task -> new StoredTask(task.id(), task.tenantId(), task.taskListId(),
+                task.title(), task.description(), task.dueDate(), TaskStatus.CLOSED, task.priority(), task.sortRank(),
+                task.created(), LocalDateTime.now()));
+        store.deleteList(doomedId);
+        byte[] logBeforeSnapshot = Files.readAllBytes(directory.resolve(StoreLog.LOG_FILE));
+        store.snapshot();
+        store.close();
+        // The crash: the new snapshot is in place, the log was never emptied
+        Files.write(directory.resolve(StoreLog.LOG_FILE), logBeforeSnapshot);
+
+        store = open(DataSize.ofMegabytes(64));
+
+        assertState(listId);
+        assertThat(store.list(doomedId)).isEmpty();
+        UUID extra = store.createTask(listId, "After the crash", null, null, TaskStatus.OPEN, TaskPriority.LOW, LocalDateTime.now())
+                .orElseThrow().id();
+        store = reopen(DataSize.ofMegabytes(64));
+        assertThat(store.task(listId, extra)).isPresent();
+    }
+
+    @Test
+    void deletedListsStayDeleted() throws IOException {
+        store = open(DataSize.ofMegabytes(64));
+        UUID listId = populate();
+        StoredTask task = store.tasks(listId, null).get(0);
+        store.deleteList(listId);
+
+        store = reopen(DataSize.ofMegabytes(64));
+
+        assertThat(store.list(listId)).isEmpty();
+        assertThat(store.task(listId, task.id())).isEmpty();
+        assertThat(store.lists()).isEmpty();
+    }
+
+    @Test
+    void stripedMapMatchesAHashMap() {
+        store = open(DataSize.ofMegabytes(64));
+        StripedUuidMap<Integer> map = new StripedUuidMap<>(4);
+        Map<UUID, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        UUID[] keys = new UUID[2_000];
+        for (int i = 0; i < keys.length; i++) {
+            // Few distinct high bits, so keys collide within stripes and probe chains get long
+            keys[i] = new UUID(random.nextInt(4), random.nextLong());
+        }
+        for (int i = 0; i < 50_000; i++) {
+            UUID key = keys[random.nextInt(keys.length)];
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+            } else {
+                assertThat(map.put(key, i)).isEqualTo(expected.put(key, i));
+            }
+        }
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (UUID key : keys) {
+            assertThat(map.get(key)).isEqualTo(expected.get(key));
+        }
+    }
+
+    /**
+     * A list with three tasks (one closed, one moved to the front, one deleted) and a renamed title.
+     */
+    private UUID populate() {
+        LocalDateTime now = LocalDateTime.now();
+        UUID listId = store.createList("Chores", null, now).id();
+        StoredTask dishes = store.createTask(listId, "Dishes", null, now.plusDays(1), TaskStatus.OPEN, TaskPriority.HIGH, now).orElseThrow();
+        StoredTask laundry = store.createTask(listId, "Laundry", "Whites", null, TaskStatus.OPEN, TaskPriority.MEDIUM, now).orElseThrow();
+        StoredTask trash = store.createTask(listId, "Trash", null, null, TaskStatus.OPEN, TaskPriority.LOW, now).orElseThrow();
+        StoredTask gone = store.createTask(listId, "Gone", null, null, TaskStatus.OPEN, TaskPriority.LOW, now).orElseThrow();
+        store.updateTask(listId, laundry.id(), task -> new StoredTask(task.id(), task.tenantId(), task.taskListId(), task.title(),
+                task.description(), task.dueDate(), TaskStatus.CLOSED, task.priority(), task.sortRank(), task.created(), now));
+        store.moveTask(listId, trash.id(), dishes.id(), false, now);
+        store.deleteTask(listId, gone.id());
+        store.updateList(listId, list -> new StoredTaskList(list.id(), list.tenantId(), "Weekend chores", list.description(),
+                list.created(), now));
+        return listId;
+    }
+
+    private void assertState(UUID listId) {
+        assertThat(store.list(listId)).map(StoredTaskList::title).contains("Weekend chores");
+        assertThat(store.tasks(listId, null)).extracting(StoredTask::title).containsExactly("Trash", "Dishes", "Laundry");
+        assertThat(store.tasks(listId, TaskStatus.CLOSED)).extracting(StoredTask::description).containsExactly("Whites");
+        TaskListStatsDto stats = store.stats(listId, 1).orElseThrow();
+        assertThat(stats.open()).containsEntry(TaskPriority.HIGH, 1L).containsEntry(TaskPriority.LOW, 1L);
+        assertThat(stats.closed()).containsEntry(TaskPriority.MEDIUM, 1L);
+        assertThat(stats.burndown()).containsExactly(new TaskListStatsDto.DailyClosed(LocalDate.now(), 1));
+        assertThat(store.summary(listId)).map(InMemoryTaskStore.ListSummary::total).contains(3L);
+    }
+
+    private InMemoryTaskStore reopen(DataSize snapshotAfter) throws IOException {
+        store.close();
+        return open(snapshotAfter);
+    }
+
+    private InMemoryTaskStore open(DataSize snapshotAfter) {
+        try {
+            return new InMemoryTaskStore(
+                    new StorageProperties("memory", new StorageProperties.Memory(directory, false, snapshotAfter, 4)),
+                    new RankingProperties(24, Duration.ofSeconds(30)));
+        } catch (IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        }
+    }
+}
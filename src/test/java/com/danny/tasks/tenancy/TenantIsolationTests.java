@@ -0,0 +1,90 @@
+package com.danny.tasks.tenancy;
+
+import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskList;
+import com.danny.tasks.services.TaskListService;
+import com.danny.tasks.services.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TenantIsolationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskListService taskListService;
+
+    @Autowired
+    private TaskService taskService;
+
+    private UUID taskListId;
+    private UUID taskId;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.runAs("team-a", () -> {
+            taskListId = taskListService.createTaskList(new TaskList(null, "Team A only", null, null, null, null)).getId();
+            taskId = taskService.createTask(taskListId,
+                    new Task(null, "Secret", null, null, null, null, null, null, null)).getId();
+        });
+    }
+
+    @Test
+    void tenantsOnlySeeTheirOwnTaskLists() throws Exception {
+        mockMvc.perform(get("/task-lists").header(TenantFilter.TENANT_HEADER, "team-a"))
+                .andExpect(jsonPath("$[*].id", hasItem(taskListId.toString())));
+        mockMvc.perform(get("/task-lists").header(TenantFilter.TENANT_HEADER, "team-b"))
+                .andExpect(jsonPath("$[*].id", not(hasItem(taskListId.toString()))));
+        mockMvc.perform(get("/task-lists"))
+                .andExpect(jsonPath("$[*].id", not(hasItem(taskListId.toString()))));
+
+        // Also when the id is known, and when the list is already in the response cache
+        mockMvc.perform(get("/task-lists/{id}", taskListId).header(TenantFilter.TENANT_HEADER, "team-a"))
+                .andExpect(jsonPath("$.title").value("Team A only"));
+        mockMvc.perform(get("/task-lists/{id}", taskListId).header(TenantFilter.TENANT_HEADER, "team-b"))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/task-list/{id}/tasks", taskListId).header(TenantFilter.TENANT_HEADER, "team-b"))
+                .andExpect(content().json("[]"));
+    }
+
+    @Test
+    void lookupsByIdAreScopedToo() {
+        assertThat(TenantContext.callAs("team-a", () -> taskListService.getTaskList(taskListId))).isPresent();
+        assertThat(TenantContext.callAs("team-b", () -> taskListService.getTaskList(taskListId))).isEmpty();
+        assertThat(TenantContext.callAs("team-b", () -> taskService.getTask(taskListId, taskId))).isEmpty();
+    }
+
+    @Test
+    void cannotAddTasksToAnotherTenantsList() throws Exception {
+        mockMvc.perform(post("/task-list/{id}/tasks", taskListId)
+                        .header(TenantFilter.TENANT_HEADER, "team-b")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Sneaky\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rejectsMalformedTenantIds() throws Exception {
+        mockMvc.perform(get("/task-lists").header(TenantFilter.TENANT_HEADER, "a b/c"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,171 @@
+package com.danny.tasks.throttling;
+
+import com.danny.tasks.exceptions.ServiceOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "tasks.throttling.rate-limit.enabled=true",
+        "tasks.throttling.concurrency.enabled=true",
+        "tasks.throttling.rate-limit.permits-per-second=0.01",
+        "tasks.throttling.rate-limit.burst=2",
+        "tasks.throttling.rate-limit.api-keys=greedy,polite"
+})
+@AutoConfigureMockMvc
+class ThrottlingTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private HandlerMapping handlerMapping;
+
+    @Test
+    void rejectsWritesOverTheClientsBurstWith429() throws Exception {
+        mockMvc.perform(createList("greedy")).andExpect(status().isOk());
+        mockMvc.perform(createList("greedy")).andExpect(status().isOk());
+        mockMvc.perform(createList("greedy"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        // Other clients and reads are unaffected
+        mockMvc.perform(createList("polite")).andExpect(status().isOk());
+        mockMvc.perform(get("/task-lists").header(ThrottlingInterceptor.API_KEY_HEADER, "greedy"))
+                .andExpect(status().isOk());
+
+        assertThat(meterRegistry.get("tasks.requests.rejected").tag("reason", "rate_limit").counter().count())
+                .isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void unknownApiKeysShareTheBucketOfTheirAddress() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(createList(UUID.randomUUID().toString()).with(from("10.0.0.7"))).andExpect(status().isOk());
+        }
+        mockMvc.perform(createList(UUID.randomUUID().toString()).with(from("10.0.0.7")))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(createList(null).with(from("10.0.0.7")))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(createList(null).with(from("10.0.0.8"))).andExpect(status().isOk());
+    }
+
+    @Test
+    void clientBucketsAreCappedLeastRecentlyUsedFirst() {
+        ClientRateLimiter limiter = new ClientRateLimiter(0.01, 1, 32);
+        assertThat(limiter.tryAcquire("addr:first")).isZero();
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("addr:" + i);
+        }
+
+        assertThat(limiter.size()).isLessThanOrEqualTo(32);
+        // Forgotten, so it starts over with a full bucket
+        assertThat(limiter.tryAcquire("addr:first")).isZero();
+        assertThat(limiter.tryAcquire("addr:first")).isPositive();
+    }
+
+    @Test
+    void concurrencyLimiterShedsWhenFullAndShrinksOnSlowRequests() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 2, Duration.ofMillis(10));
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release(Duration.ofSeconds(1).toNanos());
+        assertThat(limiter.getLimit()).isEqualTo(1);
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release(Duration.ofMillis(1).toNanos());
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void cacheHitsDoNotNeedAConcurrencySlot() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, Duration.ofSeconds(1));
+        ThrottlingInterceptor interceptor = new ThrottlingInterceptor(null, limiter, Set.of(), new SimpleMeterRegistry());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(new MockHttpServletRequest(), response, handler(false))).isTrue();
+
+        assertThatThrownBy(() -> interceptor.preHandle(new MockHttpServletRequest(), response, handler(false)))
+                .isInstanceOf(ServiceOverloadedException.class);
+        assertThat(interceptor.preHandle(new MockHttpServletRequest(), response, handler(true))).isTrue();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void aTaskListIsServedFromCacheOnceItHasBeenRead() throws Exception {
+        String body = mockMvc.perform(createList(null).with(from("10.0.0.9")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String id = body.replaceAll(".*\"id\":\"([^\"]+)\".*", "$1");
+
+        assertThat(isServedFromCache(get("/task-lists/{id}", id))).isFalse();
+        mockMvc.perform(get("/task-lists/{id}", id)).andExpect(status().isOk());
+
+        assertThat(isServedFromCache(get("/task-lists/{id}", id))).isTrue();
+        assertThat(isServedFromCache(get("/task-lists/{id}", id).param("fields", "title"))).isFalse();
+        assertThat(isServedFromCache(get("/task-lists/{id}", id).accept(MediaType.APPLICATION_CBOR))).isFalse();
+        assertThat(isServedFromCache(get("/task-lists/{id}/stats", id))).isFalse();
+    }
+
+    // Maps the request the way the DispatcherServlet does, then asks its handler
+    private boolean isServedFromCache(MockHttpServletRequestBuilder builder) throws Exception {
+        MockHttpServletRequest request = builder.buildRequest(new MockServletContext());
+        HandlerExecutionChain chain = handlerMapping.getHandler(request);
+        assertThat(chain).isNotNull();
+        return chain.getHandler() instanceof HandlerMethod method
+                && method.getBean() instanceof ServedFromCache cache
+                && cache.isServedFromCache(request);
+    }
+
+    private static HandlerMethod handler(boolean servedFromCache) throws NoSuchMethodException {
+        ServedFromCache controller = request -> servedFromCache;
+        return new HandlerMethod(controller, "isServedFromCache", HttpServletRequest.class);
+    }
+
+    private static MockHttpServletRequestBuilder createList(String apiKey) {
+        MockHttpServletRequestBuilder request = post("/task-lists")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Throttled\"}");
+        return apiKey == null ? request : request.header(ThrottlingInterceptor.API_KEY_HEADER, apiKey);
+    }
+
+    private static RequestPostProcessor from(String remoteAddress) {
+        return request -> {
+            request.setRemoteAddr(remoteAddress);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,106 @@
+package com.danny.tasks.writebehind;
+
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.tenancy.TenantContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WriteAheadLogTests {
+
+    @TempDir
+    Path directory;
+
+    private final UUID taskListId = UUID.randomUUID();
+
+    @Test
+    void recoversEverythingWrittenByThePreviousRun() throws IOException {
+        TaskUpdate first = update("Write report", TaskStatus.OPEN, null);
+        TaskUpdate second = update(null, TaskStatus.CLOSED, TaskPriority.HIGH);
+        try (WriteAheadLog wal = new WriteAheadLog(directory, true)) {
+            wal.append(first);
+            wal.rotate();
+            wal.append(second);
+        }
+
+        try (WriteAheadLog wal = new WriteAheadLog(directory, true)) {
+            assertThat(wal.recover()).containsExactly(first, second);
+            wal.deleteSealed();
+        }
+        try (WriteAheadLog wal = new WriteAheadLog(directory, true)) {
+            assertThat(wal.recover()).isEmpty();
+        }
+    }
+
+    @Test
+    void ignoresATornRecordAtTheEndOfASegment() throws IOException {
+        TaskUpdate complete = update("Complete", null, null);
+        try (WriteAheadLog wal = new WriteAheadLog(directory, true)) {
+            wal.append(complete);
+            wal.append(update("Half written", null, null));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        try (WriteAheadLog wal = new WriteAheadLog(directory, true)) {
+            List<TaskUpdate> recovered = wal.recover();
+            assertThat(recovered).containsExactly(complete);
+        }
+    }
+
+    @Test
+    void readsSegmentsWrittenBeforeTenantsAsTheDefaultTenant() throws IOException {
+        UUID taskId = UUID.randomUUID();
+        // Version 1: no segment header, no tenant in the payload
+        ByteBuffer payload = ByteBuffer.allocate(54);
+        payload.putLong(taskListId.getMostSignificantBits()).putLong(taskListId.getLeastSignificantBits());
+        payload.putLong(taskId.getMostSignificantBits()).putLong(taskId.getLeastSignificantBits());
+        payload.put((byte) (1 << 3)).putInt(0).putInt(0).put((byte) TaskStatus.CLOSED.ordinal());
+        payload.putLong(1_735_734_615L).putInt(0).flip();
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        ByteBuffer record = ByteBuffer.allocate(8 + payload.remaining())
+                .putInt(payload.remaining()).putInt((int) crc.getValue()).put(payload);
+        Files.write(directory.resolve("00000000000000000001.wal"), record.array());
+
+        try (WriteAheadLog wal = new WriteAheadLog(directory, true)) {
+            assertThat(wal.recover()).containsExactly(new TaskUpdate(TenantContext.DEFAULT_TENANT, taskListId, taskId,
+                    null, null, null, TaskStatus.CLOSED, null, LocalDateTime.of(2025, 1, 1, 12, 30, 15)));
+        }
+    }
+
+    @Test
+    void refusesSegmentsOfAnUnknownVersion() throws IOException {
+        Files.write(directory.resolve("00000000000000000001.wal"),
+                ByteBuffer.allocate(5).putInt(0x5457414C).put((byte) (WriteAheadLog.VERSION + 1)).array());
+
+        try (WriteAheadLog wal = new WriteAheadLog(directory, true)) {
+            assertThatThrownBy(wal::recover).isInstanceOf(IOException.class).hasMessageContaining("version 3");
+        }
+    }
+
+    private TaskUpdate update(String title, TaskStatus status, TaskPriority priority) {
+        return new TaskUpdate("team-a", taskListId, UUID.randomUUID(), title, "", null, status, priority,
+                LocalDateTime.of(2025, 1, 1, 12, 30, 15, 123_000_000));
+    }
+}
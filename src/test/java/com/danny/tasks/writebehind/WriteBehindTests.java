@@ -0,0 +1,200 @@
+package com.danny.tasks.writebehind;
+
+import com.danny.tasks.domain.entities.Task;
+import com.danny.tasks.domain.entities.TaskList;
+import com.danny.tasks.domain.entities.TaskPriority;
+import com.danny.tasks.domain.entities.TaskStatus;
+import com.danny.tasks.services.TaskDependencyService;
+import com.danny.tasks.services.TaskListService;
+import com.danny.tasks.services.TaskService;
+import com.danny.tasks.tenancy.TenantContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class WriteBehindTests {
+
+    @TempDir
+    static Path walDirectory;
+
+    @DynamicPropertySource
+    static void writeBehind(DynamicPropertyRegistry registry) {
+        registry.add("tasks.write-behind.enabled", () -> "true");
+        registry.add("tasks.write-behind.directory", walDirectory::toString);
+        // Tests flush explicitly
+        registry.add("tasks.write-behind.flush-interval", () -> "1h");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WriteBehindQueue queue;
+
+    @Autowired
+    private TaskListService taskListService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskDependencyService dependencyService;
+
+    private UUID taskListId;
+    private UUID taskId;
+
+    @BeforeEach
+    void setUp() {
+        taskListId = taskListService.createTaskList(new TaskList(null, "Toggles", null, null, null, null)).getId();
+        taskId = taskService.createTask(taskListId,
+                new Task(null, "Flip me", null, null, null, null, null, null, null)).getId();
+    }
+
+    @Test
+    void coalescesUpdatesToTheSameTaskUntilFlushed() throws Exception {
+        putTask("{\"status\":\"CLOSED\"}");
+        putTask("{\"priority\":\"HIGH\"}");
+        putTask("{\"status\":\"OPEN\"}");
+
+        assertThat(queue.pendingCount()).isEqualTo(1);
+        assertThat(taskService.getTask(taskListId, taskId).orElseThrow().getPriority()).isEqualTo(TaskPriority.MEDIUM);
+
+        queue.flush();
+
+        Task task = taskService.getTask(taskListId, taskId).orElseThrow();
+        assertThat(task.getStatus()).isEqualTo(TaskStatus.OPEN);
+        assertThat(task.getPriority()).isEqualTo(TaskPriority.HIGH);
+        assertThat(queue.pendingCount()).isZero();
+    }
+
+    @Test
+    void updatesSubmittedDuringASyncShareTheNextOne() throws Exception {
+        List<UUID> taskIds = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            taskIds.add(taskService.createTask(taskListId,
+                    new Task(null, "Task " + i, null, null, null, null, null, null, null)).getId());
+        }
+        long syncsBefore = queue.walSyncs();
+
+        ExecutorService submitters = Executors.newFixedThreadPool(taskIds.size());
+        List<Future<?>> submitted = new ArrayList<>();
+        // As if the log writer were busy syncing an earlier group
+        queue.walLock.lock();
+        try {
+            for (UUID id : taskIds) {
+                submitted.add(submitters.submit(() -> queue.submit(new TaskUpdate(TenantContext.DEFAULT_TENANT,
+                        taskListId, id, null, null, null, TaskStatus.CLOSED, null, LocalDateTime.now()))));
+                if (submitted.size() == 1) {
+                    // The writer takes the first update on its own and waits for the lock
+                    while (!queue.walLock.hasQueuedThreads()) {
+                        Thread.sleep(1);
+                    }
+                }
+            }
+            while (queue.waitingForLog() < taskIds.size() - 1) {
+                Thread.sleep(1);
+            }
+        } finally {
+            queue.walLock.unlock();
+        }
+        for (Future<?> future : submitted) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        submitters.shutdown();
+
+        assertThat(queue.pendingCount()).isEqualTo(taskIds.size());
+        assertThat(queue.walSyncs() - syncsBefore).isEqualTo(2);
+        queue.flush();
+        assertThat(taskIds).allSatisfy(id ->
+                assertThat(taskService.getTask(taskListId, id).orElseThrow().getStatus()).isEqualTo(TaskStatus.CLOSED));
+    }
+
+    @Test
+    void rejectsPastDueDatesBeforeQueueing() throws Exception {
+        mockMvc.perform(put("/task-list/{list}/tasks/{task}", taskListId, taskId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"dueDate\":\"2000-01-01T00:00:00\"}"))
+                .andExpect(status().isBadRequest());
+        assertThat(queue.pendingCount()).isZero();
+    }
+
+    @Test
+    void rejectsWhatTheSynchronousUpdateWouldBeforeQueueing() throws Exception {
+        mockMvc.perform(put("/task-list/{list}/tasks/{task}", taskListId, taskId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"" + "x".repeat(Task.MAX_TEXT_LENGTH + 1) + "\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/task-list/{list}/tasks/{task}", taskListId, UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"CLOSED\"}"))
+                .andExpect(status().isNotFound());
+        assertThat(queue.pendingCount()).isZero();
+    }
+
+    @Test
+    void anUpdateTheDatabaseRefusesIsDeadLetteredWithoutHoldingUpTheRest() throws Exception {
+        UUID poisonId = taskService.createTask(taskListId,
+                new Task(null, "Poison", null, null, null, null, null, null, null)).getId();
+        putTask("{\"priority\":\"HIGH\"}");
+        // Past the validation in TaskUpdate.of, as if logged by an older version
+        queue.submit(new TaskUpdate(TenantContext.DEFAULT_TENANT, taskListId, poisonId,
+                "x".repeat(300), null, null, null, null, LocalDateTime.now()));
+
+        queue.flush();
+
+        assertThat(taskService.getTask(taskListId, taskId).orElseThrow().getPriority()).isEqualTo(TaskPriority.HIGH);
+        assertThat(taskService.getTask(taskListId, poisonId).orElseThrow().getTitle()).isEqualTo("Poison");
+        assertThat(queue.pendingCount()).isZero();
+        assertThat(queue.deadLetters().read()).anySatisfy(line -> assertThat(line).contains(poisonId.toString()));
+        try (Stream<Path> segments = Files.list(walDirectory)) {
+            assertThat(segments.filter(file -> file.toString().endsWith(".wal"))).hasSize(1);
+        }
+    }
+
+    @Test
+    void aCloseIsCheckedAgainstBlockersAddedBeforeTheFlush() throws Exception {
+        UUID blockerId = taskService.createTask(taskListId,
+                new Task(null, "Blocker", null, null, null, null, null, null, null)).getId();
+        putTask("{\"status\":\"CLOSED\"}");
+        dependencyService.addBlocker(taskListId, taskId, blockerId);
+
+        queue.flush();
+
+        assertThat(taskService.getTask(taskListId, taskId).orElseThrow().getStatus()).isEqualTo(TaskStatus.OPEN);
+        assertThat(queue.pendingCount()).isZero();
+        assertThat(queue.deadLetters().read()).anySatisfy(line ->
+                assertThat(line).contains(taskId.toString()).contains("TaskBlockedException"));
+    }
+
+    private void putTask(String body) throws Exception {
+        mockMvc.perform(put("/task-list/{list}/tasks/{task}", taskListId, taskId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isAccepted());
+    }
+}